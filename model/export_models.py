@@ -0,0 +1,198 @@
+#!/usr/bin/env python
+# -*- coding: utf-8 -*-
+"""
+模型导出脚本
+把 model/*.pkl 导出为中立的JSON格式，供Java端的JVM内推理引擎加载，同时生成一致性校验用例。
+用法: python export_models.py
+输出:
+  model/export/label_encoders.json          分类字段 -> classes_ 列表
+  model/export/<model_name>.json            模型参数
+  model/export/parity/<model_name>.json     特征向量及sklearn预测概率，供Java一致性测试使用
+"""
+import json
+import sys
+import warnings
+
+warnings.filterwarnings('ignore')
+
+import numpy as np
+
+from predict import MODEL_DIR, load_model, load_preprocessing_artifacts, preprocess_features
+
+EXPORT_DIR = MODEL_DIR / "export"
+PARITY_DIR = EXPORT_DIR / "parity"
+
+# 一致性用例：几条典型职位 + 随机特征向量
+SAMPLE_JOBS = [
+    {},
+    {
+        "title": "Software Engineer",
+        "location": "US, NY, New York",
+        "department": "Engineering",
+        "salaryRange": "80000-120000",
+        "companyProfile": "We are a fast growing technology company.",
+        "description": "Build and maintain backend services.",
+        "requirements": "3+ years of Java experience.",
+        "benefits": "Health insurance, 401k",
+        "telecommuting": 0,
+        "hasCompanyLogo": 1,
+        "hasQuestions": 1,
+        "employmentType": "Full-time",
+        "requiredExperience": "Mid-Senior level",
+        "requiredEducation": "Bachelor's Degree",
+        "industry": "Computer Software",
+        "function": "Engineering"
+    },
+    {
+        "title": "Work From Home - Earn $5000/week, FREE training",
+        "location": "US",
+        "description": "Easy money, no experience needed, immediate start!",
+        "telecommuting": 1,
+        "hasCompanyLogo": 0,
+        "hasQuestions": 0,
+        "employmentType": "Part-time"
+    },
+]
+RANDOM_CASES = 200
+
+
+def write_json(path, obj):
+    path.parent.mkdir(parents=True, exist_ok=True)
+    with open(path, 'w', encoding='utf-8') as f:
+        json.dump(obj, f, ensure_ascii=False)
+    print(f"已导出: {path}")
+
+
+def floats(values):
+    return [float(v) for v in np.asarray(values, dtype=np.float64).ravel()]
+
+
+def parity_features(artifacts, n_features):
+    """典型职位的真实特征 + 按特征量级生成的随机向量"""
+    rows = [preprocess_features(job, artifacts) for job in SAMPLE_JOBS]
+    rng = np.random.RandomState(42)
+    magnitudes = np.array([100, 5000, 3000, 3000, 1, 1, 1, 1, 5, 5, 10, 100, 30,
+                           15, 800, 500, 500, 1, 2000, 1, 5, 50, 200, 5, 1], dtype=np.float64)[:n_features]
+    for _ in range(RANDOM_CASES):
+        rows.append(list(np.round(rng.rand(n_features) * magnitudes, 3)))
+    return np.array(rows, dtype=np.float64)
+
+
+def export_label_encoders(artifacts):
+    encoders = artifacts.get('encoders', {})
+    write_json(EXPORT_DIR / "label_encoders.json",
+               {field: [str(c) for c in encoder.classes_] for field, encoder in encoders.items()})
+
+
+def export_logistic_regression(artifacts):
+    model_name = "Logistic_Regression"
+    model = load_model(model_name)
+    scaler = artifacts['scaler']
+    write_json(EXPORT_DIR / f"{model_name}.json", {
+        "model_name": model_name,
+        "type": "logistic_regression",
+        "n_features": int(model.n_features_in_),
+        "coef": floats(model.coef_[0]),
+        "intercept": float(model.intercept_[0]),
+        "scaler_mean": floats(scaler.mean_),
+        "scaler_scale": floats(scaler.scale_)
+    })
+
+    features = parity_features(artifacts, model.n_features_in_)
+    scaled = scaler.transform(features)
+    write_parity(model_name, features, model.predict_proba(scaled)[:, 1], model.predict(scaled))
+
+
+def flatten_trees(trees, leaf_value):
+    """
+    把多棵树拼接为扁平数组，子节点下标换算为全局下标，叶子节点的左右子节点为-1
+    leaf_value(tree) 返回该树每个节点的输出值
+    """
+    offsets, feature, threshold, left, right, value = [], [], [], [], [], []
+    for tree in trees:
+        offset = len(feature)
+        offsets.append(offset)
+        feature.extend(int(f) for f in tree.feature)
+        threshold.extend(float(t) for t in tree.threshold)
+        left.extend(int(c) + offset if c != -1 else -1 for c in tree.children_left)
+        right.extend(int(c) + offset if c != -1 else -1 for c in tree.children_right)
+        value.extend(floats(leaf_value(tree)))
+    return {
+        "n_trees": len(offsets),
+        "tree_offsets": offsets,
+        "feature": feature,
+        "threshold": threshold,
+        "left": left,
+        "right": right,
+        "value": value
+    }
+
+
+def export_random_forest(artifacts):
+    model_name = "Random_Forest"
+    model = load_model(model_name)
+
+    def class1_fraction(tree):
+        # 与sklearn DecisionTreeClassifier.predict_proba 相同的归一化方式
+        counts = tree.value[:, 0, :]
+        normalizer = counts.sum(axis=1)
+        normalizer[normalizer == 0.0] = 1.0
+        return counts[:, 1] / normalizer
+
+    exported = {"model_name": model_name, "type": "random_forest", "n_features": int(model.n_features_in_)}
+    exported.update(flatten_trees([e.tree_ for e in model.estimators_], class1_fraction))
+    write_json(EXPORT_DIR / f"{model_name}.json", exported)
+
+    features = parity_features(artifacts, model.n_features_in_)
+    write_parity(model_name, features, model.predict_proba(features)[:, 1], model.predict(features))
+
+
+def export_gradient_boosting(artifacts):
+    model_name = "Gradient_Boosting"
+    model = load_model(model_name)
+
+    features = parity_features(artifacts, model.n_features_in_)
+    # 初始预测值（先验的对数几率），与输入无关
+    init_raw = float(model._raw_predict_init(features[:1])[0, 0])
+
+    exported = {
+        "model_name": model_name,
+        "type": "gradient_boosting",
+        "n_features": int(model.n_features_in_),
+        "init_raw": init_raw,
+        "learning_rate": float(model.learning_rate)
+    }
+    exported.update(flatten_trees([e.tree_ for e in model.estimators_[:, 0]], lambda tree: tree.value[:, 0, 0]))
+    write_json(EXPORT_DIR / f"{model_name}.json", exported)
+
+    write_parity(model_name, features, model.predict_proba(features)[:, 1], model.predict(features))
+
+
+def write_parity(model_name, features, probabilities, predictions):
+    write_json(PARITY_DIR / f"{model_name}.json", {
+        "model_name": model_name,
+        "cases": [
+            {"features": floats(f), "probability": float(p), "prediction": int(k)}
+            for f, p, k in zip(features, probabilities, predictions)
+        ]
+    })
+
+
+def main():
+    artifacts = load_preprocessing_artifacts()
+    export_label_encoders(artifacts)
+
+    exporters = {
+        "Logistic_Regression": export_logistic_regression,
+        "Random_Forest": export_random_forest,
+        "Gradient_Boosting": export_gradient_boosting,
+    }
+    for model_name, exporter in exporters.items():
+        if not (MODEL_DIR / f"{model_name}.pkl").exists():
+            print(f"跳过 {model_name}: 模型文件不存在", file=sys.stderr)
+            continue
+        exporter(artifacts)
+
+
+if __name__ == "__main__":
+    main()
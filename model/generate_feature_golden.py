@@ -0,0 +1,117 @@
+#!/usr/bin/env python
+# -*- coding: utf-8 -*-
+"""
+特征提取一致性用例生成脚本
+用 predict.py 的 preprocess_features 计算一批输入的特征向量，写入Java测试使用的golden文件，
+保证 com.over.service.FeatureExtractor 与Python实现保持一致。修改 preprocess_features 后需要重新生成。
+用法: python generate_feature_golden.py [输出路径]
+"""
+import json
+import random
+import sys
+from pathlib import Path
+
+from predict import preprocess_features
+
+DEFAULT_OUTPUT = Path(__file__).parent.parent / "src" / "test" / "resources" / "features" / "golden.json"
+
+# 用例中使用的标签编码器类别（LabelEncoder.classes_ 已排序）
+ENCODER_CLASSES = {
+    "employment_type": ["Contract", "Full-time", "Other", "Part-time", "Temporary", "Unknown"],
+    "required_experience": ["Associate", "Entry level", "Executive", "Internship", "Mid-Senior level", "Unknown"],
+    "required_education": ["Bachelor's Degree", "High School or equivalent", "Master's Degree", "Unknown"],
+    "industry": ["Computer Software", "Hospital & Health Care", "Information Technology and Services", "Unknown"],
+    "function": ["Engineering", "Information Technology", "Sales", "Unknown"]
+}
+
+TEXT_FIELDS = ["title", "location", "department", "salaryRange", "companyProfile",
+               "description", "requirements", "benefits"]
+FLAG_FIELDS = ["telecommuting", "hasCompanyLogo", "hasQuestions"]
+CATEGORY_FIELDS = {
+    "employmentType": "employment_type",
+    "requiredExperience": "required_experience",
+    "requiredEducation": "required_education",
+    "industry": "industry",
+    "function": "function"
+}
+
+# 手工构造的边界用例：大小写、Unicode小写规则、不换行空格、代理对、跨字段关键词等
+EDGE_CASES = [
+    {},
+    {"title": "", "description": "", "salaryRange": "", "department": "", "benefits": ""},
+    {"title": "Software Engineer", "description": "Build backend services.", "requirements": "Java",
+     "companyProfile": "x" * 800, "salaryRange": "80000-120000", "department": "R&D", "benefits": "401k",
+     "telecommuting": 0, "hasCompanyLogo": 1, "hasQuestions": 1, "employmentType": "Full-time",
+     "requiredExperience": "Mid-Senior level", "requiredEducation": "Bachelor's Degree",
+     "industry": "Computer Software", "function": "Engineering", "location": "US, NY, New York"},
+    {"title": "FREE money", "description": "Easy WORK FROM HOME, no experience, IMMEDIATE start"},
+    {"title": "free free free", "description": "freeeasy"},
+    {"title": "fr", "description": "ee"},
+    {"title": "\u0130MMEDIATE hire", "description": "immed\u0130ate"},
+    {"title": "\u212aey role", "description": "wor\u212a from home"},
+    {"title": "work  from home", "description": "work\tfrom home"},
+    {"title": "no\u00a0experience", "description": "a\u2007b\u202fc\u0085d\u3000e\u2028f"},
+    {"salaryRange": "   ", "department": "\u00a0\u3000", "benefits": "\u2007"},
+    {"salaryRange": "\u200b", "department": "\u200b", "benefits": "\u200b"},
+    {"title": "\U0001F600 emoji \U0001F680", "description": "\U0001F600free", "location": "\U0001F30D"},
+    {"title": "职位名称", "description": "工作描述 免费 free",
+     "companyProfile": "公司简介"},
+    {"employmentType": "Freelance", "requiredExperience": "", "requiredEducation": None,
+     "industry": "Unknown", "function": "Sales"},
+    {"telecommuting": 1, "hasCompanyLogo": None, "hasQuestions": 0},
+    {"title": "a", "description": "b" * 3, "requirements": "c" * 7},
+    {"description": "x", "requirements": "y" * 10},
+]
+
+WORD_POOL = ["free", "FREE", "Easy", "work", "from", "home", "no", "experience", "immediate", "\u0130", "\u212a",
+             "engineer", "sales", "职位", "描述", "\U0001F600", "data", "remote", "$$$", "immed", "iate"]
+SEPARATORS = [" ", "  ", "\t", "\n", "\u00a0", "\u3000", "\u2007", "", "-", ","]
+
+
+def random_text(rng):
+    if rng.random() < 0.15:
+        return rng.choice([None, "", " ", "Unknown"])
+    parts = []
+    for _ in range(rng.randint(1, 30)):
+        parts.append(rng.choice(WORD_POOL))
+        parts.append(rng.choice(SEPARATORS))
+    return "".join(parts)
+
+
+def random_case(rng):
+    case = {}
+    for field in TEXT_FIELDS:
+        case[field] = random_text(rng)
+    for field in FLAG_FIELDS:
+        case[field] = rng.choice([None, 0, 1])
+    for field, encoder_field in CATEGORY_FIELDS.items():
+        case[field] = rng.choice(ENCODER_CLASSES[encoder_field] + [None, "", "Unseen"])
+    return case
+
+
+class GoldenLabelEncoder:
+    """与 sklearn LabelEncoder.transform 行为一致：返回类别下标，未见过的类别抛出异常"""
+
+    def __init__(self, classes):
+        self.classes_ = classes
+
+    def transform(self, values):
+        return [self.classes_.index(v) for v in values]
+
+
+def main():
+    output = Path(sys.argv[1]) if len(sys.argv) > 1 else DEFAULT_OUTPUT
+    artifacts = {"encoders": {k: GoldenLabelEncoder(v) for k, v in ENCODER_CLASSES.items()}}
+
+    rng = random.Random(20241211)
+    inputs = EDGE_CASES + [random_case(rng) for _ in range(300)]
+    cases = [{"input": job, "features": [float(f) for f in preprocess_features(job, artifacts)]} for job in inputs]
+
+    output.parent.mkdir(parents=True, exist_ok=True)
+    with open(output, 'w', encoding='utf-8') as f:
+        json.dump({"encoders": ENCODER_CLASSES, "cases": cases}, f, ensure_ascii=False)
+    print(f"已生成 {len(cases)} 条用例: {output}")
+
+
+if __name__ == "__main__":
+    main()
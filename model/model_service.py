@@ -11,6 +11,9 @@ import os
 from pathlib import Path
 import threading
 
+# 特征工程与 predict.py 共用同一实现（Java端 FeatureExtractor 也以其为准）
+from predict import preprocess_features
+
 app = Flask(__name__)
 CORS(app)  # 允许跨域请求
 
@@ -62,50 +65,6 @@ def load_preprocessing_artifacts():
     
     return artifacts_dict
 
-def preprocess_features(job_data, artifacts_dict):
-    """预处理特征，与训练时保持一致"""
-    features = []
-    
-    # 文本长度特征
-    features.append(len(str(job_data.get('title', ''))))
-    features.append(len(str(job_data.get('description', ''))))
-    features.append(len(str(job_data.get('requirements', ''))))
-    features.append(len(str(job_data.get('companyProfile', ''))))
-    
-    # 数值特征
-    features.append(job_data.get('telecommuting', 0))
-    features.append(job_data.get('hasCompanyLogo', 0))
-    features.append(job_data.get('hasQuestions', 0))
-    
-    # 是否有薪资范围
-    salary_range = job_data.get('salaryRange') or job_data.get('salary_range', '')
-    features.append(1 if salary_range and str(salary_range).strip() else 0)
-    
-    # 使用标签编码器编码分类特征
-    encoders = artifacts_dict.get('encoders', {})
-    
-    # 编码各种分类字段
-    field_mapping = {
-        'employmentType': 'employment_type',
-        'requiredExperience': 'required_experience',
-        'requiredEducation': 'required_education',
-        'industry': 'industry',
-        'function': 'function'
-    }
-    
-    for java_field, python_field in field_mapping.items():
-        value = str(job_data.get(java_field, job_data.get(python_field, 'Unknown')))
-        if python_field in encoders:
-            try:
-                encoded = encoders[python_field].transform([value])[0]
-            except:
-                encoded = 0  # 默认值
-        else:
-            encoded = 0
-        features.append(encoded)
-    
-    return features
-
 def predict_job(job_data, model_name=None):
     """使用指定模型进行预测"""
     global loaded_models, current_model_name, artifacts
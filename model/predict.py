@@ -95,7 +95,8 @@ def load_preprocessing_artifacts():
     return artifacts
 
 def preprocess_features(job_data, artifacts):
-    """预处理特征，与训练时保持一致"""
+    """预处理特征，与训练时保持一致
+    Java端 FeatureExtractor 是本函数的移植，修改后需运行 generate_feature_golden.py 重新生成一致性用例"""
     # 这里需要根据实际的特征工程逻辑来处理
     # 简化版本：提取基本特征
     
@@ -219,6 +220,99 @@ def preprocess_features(job_data, artifacts):
     
     return features
 
+def build_result(model_name, prediction, probability):
+    """根据预测类别和虚假概率构建响应"""
+    # 计算风险评分（0-7）
+    risk_score = int(probability * 7)
+    
+    # 确定风险等级
+    if probability < 0.3:
+        risk_level = "低风险"
+    elif probability < 0.7:
+        risk_level = "中风险"
+    else:
+        risk_level = "高风险"
+    
+    # 构建响应
+    return {
+        "success": True,
+        "model_name": model_name,
+        "prediction": int(prediction),
+        "prediction_label": "虚假职位" if prediction == 1 else "真实职位",
+        "probability": round(probability, 4),
+        "probability_percent": f"{probability * 100:.2f}%",
+        "risk_score": risk_score,
+        "risk_level": risk_level
+    }
+
+def score_matrix(features_array, model, model_name, artifacts):
+    """对特征矩阵整体预测，返回 (预测类别数组, 虚假概率数组)"""
+    # 如果是逻辑回归，需要标准化
+    if model_name == "Logistic_Regression" and 'scaler' in artifacts:
+        features_array = artifacts['scaler'].transform(features_array)
+    
+    # 预测（使用numpy数组）
+    predictions = model.predict(features_array)
+    
+    # 获取预测概率
+    if hasattr(model, 'predict_proba'):
+        probabilities = model.predict_proba(features_array)[:, 1]  # 虚假职位的概率
+    else:
+        probabilities = predictions.astype(np.float64)
+    
+    return predictions, probabilities
+
+def check_feature_count(model, features):
+    """检查特征数量，不一致时返回错误信息"""
+    if hasattr(model, 'n_features_in_'):
+        expected_features = model.n_features_in_
+        if len(features) != expected_features:
+            return f"特征数量不匹配: 提供了 {len(features)} 个特征，但模型期望 {expected_features} 个特征"
+    return None
+
+def predict_with_loaded(job_data, model, model_name, artifacts):
+    """使用已加载的模型和预处理工具进行预测（供单次脚本和常驻worker共用）"""
+    # 预处理特征
+    features = preprocess_features(job_data, artifacts)
+    
+    # 检查特征数量
+    error = check_feature_count(model, features)
+    if error:
+        return {"success": False, "error": error}
+    
+    # 转换为numpy数组（2D，shape: (1, n_features)）
+    features_array = np.array(features, dtype=np.float64).reshape(1, -1)
+    
+    predictions, probabilities = score_matrix(features_array, model, model_name, artifacts)
+    return build_result(model_name, predictions[0], float(probabilities[0]))
+
+def predict_batch_with_loaded(job_list, model, model_name, artifacts):
+    """批量预测：先为所有职位构建一个特征矩阵，再一次性调用predict_proba
+    单条数据预处理失败只影响该条，结果顺序与输入一致"""
+    results = [None] * len(job_list)
+    rows = []
+    positions = []
+    for i, job_data in enumerate(job_list):
+        try:
+            if not isinstance(job_data, dict):
+                raise ValueError("职位数据必须是JSON对象")
+            features = preprocess_features(job_data, artifacts)
+            error = check_feature_count(model, features)
+            if error:
+                raise ValueError(error)
+            rows.append(features)
+            positions.append(i)
+        except Exception as e:
+            results[i] = {"success": False, "error": str(e)}
+    
+    if rows:
+        features_array = np.array(rows, dtype=np.float64)
+        predictions, probabilities = score_matrix(features_array, model, model_name, artifacts)
+        for position, prediction, probability in zip(positions, predictions, probabilities):
+            results[position] = build_result(model_name, prediction, float(probability))
+    
+    return results
+
 def predict(job_data_json_str, model_name):
     """执行预测"""
     # 重定向stderr以避免警告污染输出
@@ -235,59 +329,7 @@ def predict(job_data_json_str, model_name):
         # 加载预处理工具
         artifacts = load_preprocessing_artifacts()
         
-        # 预处理特征
-        features = preprocess_features(job_data, artifacts)
-        
-        # 检查特征数量
-        if hasattr(model, 'n_features_in_'):
-            expected_features = model.n_features_in_
-            if len(features) != expected_features:
-                sys.stderr = old_stderr
-                return {
-                    "success": False,
-                    "error": f"特征数量不匹配: 提供了 {len(features)} 个特征，但模型期望 {expected_features} 个特征"
-                }
-        
-        # 转换为numpy数组（2D，shape: (1, n_features)）
-        features_array = np.array(features, dtype=np.float64).reshape(1, -1)
-        
-        # 如果是逻辑回归，需要标准化
-        if model_name == "Logistic_Regression" and 'scaler' in artifacts:
-            features_array = artifacts['scaler'].transform(features_array)
-        
-        # 预测（使用numpy数组）
-        prediction = model.predict(features_array)[0]
-        
-        # 获取预测概率
-        if hasattr(model, 'predict_proba'):
-            probability = model.predict_proba(features_array)[0][1]  # 虚假职位的概率
-        else:
-            probability = float(prediction)
-        
-        # 计算风险评分（0-7）
-        risk_score = int(probability * 7)
-        
-        # 确定风险等级
-        if probability < 0.3:
-            risk_level = "低风险"
-        elif probability < 0.7:
-            risk_level = "中风险"
-        else:
-            risk_level = "高风险"
-        
-        # 构建响应
-        result = {
-            "success": True,
-            "model_name": model_name,
-            "prediction": int(prediction),
-            "prediction_label": "虚假职位" if prediction == 1 else "真实职位",
-            "probability": round(probability, 4),
-            "probability_percent": f"{probability * 100:.2f}%",
-            "risk_score": risk_score,
-            "risk_level": risk_level
-        }
-        
-        return result
+        return predict_with_loaded(job_data, model, model_name, artifacts)
         
     except Exception as e:
         sys.stderr = old_stderr
@@ -299,18 +341,45 @@ def predict(job_data_json_str, model_name):
         # 恢复stderr
         sys.stderr = old_stderr
 
+def predict_batch(job_list_json_str, model_name):
+    """执行批量预测，输入为职位数据的JSON数组"""
+    old_stderr = sys.stderr
+    sys.stderr = StringIO()
+    
+    try:
+        job_list = json.loads(job_list_json_str)
+        if not isinstance(job_list, list):
+            raise ValueError("批量预测的输入必须是JSON数组")
+        model = load_model(model_name)
+        artifacts = load_preprocessing_artifacts()
+        return predict_batch_with_loaded(job_list, model, model_name, artifacts)
+    except Exception as e:
+        sys.stderr = old_stderr
+        return {
+            "success": False,
+            "error": str(e)
+        }
+    finally:
+        sys.stderr = old_stderr
+
 if __name__ == "__main__":
     # 从命令行参数获取模型名称，从stdin获取JSON数据
     # 格式: echo "<json_data>" | python predict.py <model_name>
+    # 批量: echo "[<json_data>, ...]" | python predict.py <model_name> --batch
     if len(sys.argv) < 2:
         print(json.dumps({
             "success": False,
-            "error": "Usage: python predict.py <model_name> [<json_data>]"
+            "error": "Usage: python predict.py <model_name> [--batch | <json_data>]"
         }))
         sys.exit(1)
     
     model_name = sys.argv[1]
     
+    if len(sys.argv) >= 3 and sys.argv[2] == "--batch":
+        result = predict_batch(sys.stdin.read().strip(), model_name)
+        print(json.dumps(result, ensure_ascii=False))
+        sys.exit(0)
+    
     # 优先从命令行参数获取，否则从stdin读取
     if len(sys.argv) >= 3:
         json_data = sys.argv[2]
@@ -320,4 +389,3 @@ if __name__ == "__main__":
     
     result = predict(json_data, model_name)
     print(json.dumps(result, ensure_ascii=False))
-
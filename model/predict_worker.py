@@ -0,0 +1,108 @@
+#!/usr/bin/env python
+# -*- coding: utf-8 -*-
+"""
+常驻预测worker
+启动时一次性加载所有模型和预处理工具，之后通过stdin/stdout循环处理请求，
+避免每次预测都重新启动解释器、导入sklearn并反序列化模型。
+
+协议：每一帧 = 4字节大端长度 + UTF-8编码的JSON
+  请求: {"type": "predict", "model": "<model_name>", "data": {...}}
+        {"type": "predict_batch", "model": "<model_name>", "items": [{...}, ...]}
+        {"type": "ping"}
+  响应: predict.py 的预测结果JSON；批量时为 {"success": true, "results": [...]}，顺序与items一致；
+        ping时为 {"type": "pong", "models": [...]}
+启动完成后worker会先主动发送一帧 {"type": "ready", "models": [...]}
+"""
+import sys
+import json
+import struct
+import warnings
+
+warnings.filterwarnings('ignore')
+
+# 协议使用原始stdout，其他任何print都重定向到stderr，避免污染数据帧
+PROTOCOL_IN = sys.stdin.buffer
+PROTOCOL_OUT = sys.stdout.buffer
+sys.stdout = sys.stderr
+
+from predict import MODEL_DIR, load_model, load_preprocessing_artifacts, predict_with_loaded, predict_batch_with_loaded
+
+# 与 ModelService.MODEL_NAMES 保持一致
+MODEL_NAMES = ["Random_Forest", "Gradient_Boosting", "Logistic_Regression"]
+
+
+def load_all_models():
+    """加载所有存在的模型文件"""
+    models = {}
+    for name in MODEL_NAMES:
+        if (MODEL_DIR / f"{name}.pkl").exists():
+            try:
+                models[name] = load_model(name)
+            except Exception as e:
+                print(f"警告：模型 {name} 加载失败: {e}", file=sys.stderr)
+    return models
+
+
+def read_frame():
+    """读取一帧，stdin关闭时返回None"""
+    header = PROTOCOL_IN.read(4)
+    if len(header) < 4:
+        return None
+    (length,) = struct.unpack('>I', header)
+    payload = PROTOCOL_IN.read(length)
+    if len(payload) < length:
+        return None
+    return json.loads(payload.decode('utf-8'))
+
+
+def write_frame(obj):
+    payload = json.dumps(obj, ensure_ascii=False).encode('utf-8')
+    PROTOCOL_OUT.write(struct.pack('>I', len(payload)))
+    PROTOCOL_OUT.write(payload)
+    PROTOCOL_OUT.flush()
+
+
+def handle(message, models, artifacts):
+    msg_type = message.get('type', 'predict')
+    if msg_type == 'ping':
+        return {"type": "pong", "models": sorted(models.keys())}
+
+    if msg_type == 'predict':
+        model_name = message.get('model')
+        model = models.get(model_name)
+        if model is None:
+            return {"success": False, "error": f"Model not loaded: {model_name}"}
+        return predict_with_loaded(message.get('data') or {}, model, model_name, artifacts)
+
+    if msg_type == 'predict_batch':
+        model_name = message.get('model')
+        model = models.get(model_name)
+        if model is None:
+            return {"success": False, "error": f"Model not loaded: {model_name}"}
+        return {"success": True, "results": predict_batch_with_loaded(message.get('items') or [], model, model_name, artifacts)}
+
+    return {"success": False, "error": f"Unknown message type: {msg_type}"}
+
+
+def main():
+    models = load_all_models()
+    artifacts = load_preprocessing_artifacts()
+    write_frame({"type": "ready", "models": sorted(models.keys())})
+
+    while True:
+        try:
+            message = read_frame()
+        except Exception as e:
+            write_frame({"success": False, "error": f"无效的请求帧: {e}"})
+            continue
+        if message is None:
+            break
+        try:
+            result = handle(message, models, artifacts)
+        except Exception as e:
+            result = {"success": False, "error": str(e)}
+        write_frame(result)
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,41 @@
+/*
+ 职位风险评分表
+ 保存 score-on-write 管道（JobPostingScoringService）对每个职位的预测结果，列表页直接读取，无需再次调用模型。
+ 与 job_postings 一对一，职位删除时同步删除。
+*/
+
+SET NAMES utf8mb4;
+
+-- ----------------------------
+-- Table structure for job_posting_scores
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `job_posting_scores`  (
+  `job_id` int NOT NULL COMMENT '职位ID，对应 job_postings.job_id',
+  `probability` double NOT NULL COMMENT '虚假概率（0-1）',
+  `prediction` tinyint NOT NULL COMMENT '预测结果：0-真实职位，1-虚假职位',
+  `risk_score` int NOT NULL COMMENT '风险评分（0-7）',
+  `risk_level` varchar(20) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '风险等级',
+  `model_name` varchar(50) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '打分使用的模型',
+  `model_version` varchar(32) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '模型文件版本',
+  `content_hash` char(64) CHARACTER SET ascii COLLATE ascii_bin NOT NULL COMMENT '打分时职位内容的哈希，内容未变时不重复打分',
+  `scored_at` datetime NOT NULL COMMENT '打分时间',
+  PRIMARY KEY (`job_id`) USING BTREE,
+  INDEX `idx_risk_level`(`risk_level` ASC) USING BTREE,
+  INDEX `idx_model`(`model_name` ASC, `model_version` ASC) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_unicode_ci COMMENT = '职位风险评分表' ROW_FORMAT = Dynamic;
+
+-- ----------------------------
+-- Table structure for job_scoring_checkpoints
+-- 全表重新打分任务（JobRescoringService）的检查点，中断后从 last_job_id 继续
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `job_scoring_checkpoints`  (
+  `job_name` varchar(50) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '任务名称',
+  `model_name` varchar(50) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '打分使用的模型',
+  `model_version` varchar(32) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '模型文件版本',
+  `last_job_id` int NOT NULL DEFAULT 0 COMMENT '已连续完成的最大职位ID',
+  `processed` bigint NOT NULL DEFAULT 0 COMMENT '已处理条数',
+  `failed` bigint NOT NULL DEFAULT 0 COMMENT '打分失败条数',
+  `status` varchar(20) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '状态：RUNNING、COMPLETED、CANCELLED、FAILED',
+  `updated_at` datetime NOT NULL COMMENT '更新时间',
+  PRIMARY KEY (`job_name`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_unicode_ci COMMENT = '职位打分任务检查点' ROW_FORMAT = Dynamic;
@@ -0,0 +1,51 @@
+package com.over.benchmark;
+
+import com.over.entity.JobPosting;
+import com.over.service.AnalysisAggregates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据分析聚合：全量重建（逐行计算贡献并累加）与由已有聚合生成分析结果
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AnalysisAggregationBenchmark {
+
+    @Param({"1000", "20000"})
+    public int rows;
+
+    private List<JobPosting> jobPostings;
+    private AnalysisAggregates aggregates;
+
+    @Setup
+    public void setUp() {
+        jobPostings = Fixtures.jobPostings(rows, 5);
+        aggregates = rebuild();
+    }
+
+    @Benchmark
+    public AnalysisAggregates rebuild() {
+        AnalysisAggregates result = new AnalysisAggregates();
+        for (JobPosting jobPosting : jobPostings) {
+            result.add(AnalysisAggregates.Contribution.of(jobPosting));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Map<String, Object> toResult() {
+        return aggregates.toResult();
+    }
+}
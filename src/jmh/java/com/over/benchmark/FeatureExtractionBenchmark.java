@@ -0,0 +1,46 @@
+package com.over.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.dto.PredictionRequest;
+import com.over.service.FeatureExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 特征提取（关键词扫描、文本长度、分类编码），JVM内推理每次预测都要执行一次
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FeatureExtractionBenchmark {
+
+    private FeatureExtractor featureExtractor;
+    private PredictionRequest[] requests;
+    private final double[] features = new double[FeatureExtractor.FEATURE_COUNT];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        featureExtractor = new FeatureExtractor();
+        ReflectionTestUtils.setField(featureExtractor, "objectMapper", new ObjectMapper());
+        requests = Fixtures.jobPostings(256, 7).stream()
+                .map(Fixtures::predictionRequest)
+                .toArray(PredictionRequest[]::new);
+    }
+
+    @Benchmark
+    public double[] extract() {
+        PredictionRequest request = requests[next];
+        next = (next + 1) % requests.length;
+        featureExtractor.extract(request, features);
+        return features;
+    }
+}
@@ -0,0 +1,131 @@
+package com.over.benchmark;
+
+import com.over.dto.PredictionRequest;
+import com.over.entity.JobPosting;
+import com.over.entity.Menu;
+import com.over.service.CacheRegistry;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 基准使用的内存数据，固定随机种子，每次运行生成相同的数据
+ */
+final class Fixtures {
+
+    private static final String[] INDUSTRIES = {
+        "Information Technology and Services", "Computer Software", "Internet", "Marketing and Advertising",
+        "Education Management", "Financial Services", "Hospital & Health Care", "Staffing and Recruiting", null
+    };
+
+    private static final String[] EMPLOYMENT_TYPES = {"Full-time", "Part-time", "Contract", "Temporary", null};
+
+    private static final String[] EXPERIENCE = {"Entry level", "Mid-Senior level", "Associate", "Internship", null};
+
+    private static final String[] EDUCATION = {"Bachelor's Degree", "High School or equivalent", "Master's Degree", null};
+
+    private static final String[] LOCATIONS = {"US, NY, New York", "US, CA, San Francisco", "GB, LND, London", "US, TX, Austin", null};
+
+    private static final String[] WORDS = {
+        "team", "customer", "experience", "build", "service", "data", "work", "from", "home", "free",
+        "manage", "design", "develop", "support", "sales", "growth", "product", "quality", "easy", "immediate"
+    };
+
+    private Fixtures() {
+    }
+
+    static CacheRegistry cacheRegistry(MockEnvironment environment) {
+        CacheRegistry registry = new CacheRegistry();
+        ReflectionTestUtils.setField(registry, "environment", environment);
+        ReflectionTestUtils.setField(registry, "enabled", true);
+        return registry;
+    }
+
+    static String text(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(i % 12 == 0 ? ". " : " ");
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    static List<JobPosting> jobPostings(int count, long seed) {
+        Random random = new Random(seed);
+        List<JobPosting> jobPostings = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            JobPosting jobPosting = new JobPosting();
+            jobPosting.setJobId(i);
+            jobPosting.setTitle(text(random, 3));
+            jobPosting.setLocation(pick(random, LOCATIONS));
+            jobPosting.setDepartment(random.nextBoolean() ? "Engineering" : null);
+            jobPosting.setSalaryRange(random.nextInt(4) == 0 ? "40000-60000" : null);
+            jobPosting.setCompanyProfile(random.nextInt(5) == 0 ? null : text(random, 60));
+            jobPosting.setDescription(text(random, 250));
+            jobPosting.setRequirements(random.nextInt(6) == 0 ? null : text(random, 80));
+            jobPosting.setBenefits(random.nextInt(3) == 0 ? null : text(random, 40));
+            jobPosting.setTelecommuting(random.nextInt(20) == 0 ? 1 : 0);
+            jobPosting.setHasCompanyLogo(random.nextInt(5) == 0 ? 0 : 1);
+            jobPosting.setHasQuestions(random.nextInt(2));
+            jobPosting.setEmploymentType(pick(random, EMPLOYMENT_TYPES));
+            jobPosting.setRequiredExperience(pick(random, EXPERIENCE));
+            jobPosting.setRequiredEducation(pick(random, EDUCATION));
+            jobPosting.setIndustry(pick(random, INDUSTRIES));
+            jobPosting.setJobFunction(random.nextBoolean() ? "Engineering" : "Sales");
+            jobPosting.setFraudulent(random.nextInt(20) == 0 ? 1 : 0);
+            jobPostings.add(jobPosting);
+        }
+        return jobPostings;
+    }
+
+    static PredictionRequest predictionRequest(JobPosting jobPosting) {
+        PredictionRequest request = new PredictionRequest();
+        request.setTitle(jobPosting.getTitle());
+        request.setLocation(jobPosting.getLocation());
+        request.setDepartment(jobPosting.getDepartment());
+        request.setSalaryRange(jobPosting.getSalaryRange());
+        request.setCompanyProfile(jobPosting.getCompanyProfile());
+        request.setDescription(jobPosting.getDescription());
+        request.setRequirements(jobPosting.getRequirements());
+        request.setBenefits(jobPosting.getBenefits());
+        request.setTelecommuting(jobPosting.getTelecommuting());
+        request.setHasCompanyLogo(jobPosting.getHasCompanyLogo());
+        request.setHasQuestions(jobPosting.getHasQuestions());
+        request.setEmploymentType(jobPosting.getEmploymentType());
+        request.setRequiredExperience(jobPosting.getRequiredExperience());
+        request.setRequiredEducation(jobPosting.getRequiredEducation());
+        request.setIndustry(jobPosting.getIndustry());
+        request.setFunction(jobPosting.getJobFunction());
+        return request;
+    }
+
+    /**
+     * count个菜单：约十分之一为一级菜单，其余随机挂在已生成的菜单下，部分菜单需要权限
+     */
+    static List<Menu> menus(int count, long seed) {
+        Random random = new Random(seed);
+        List<Menu> menus = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            Menu menu = new Menu();
+            menu.setId(id);
+            menu.setParentId(id == 1 || random.nextInt(10) == 0 ? 0L : 1 + random.nextInt((int) id - 1));
+            menu.setMenuName("菜单" + id);
+            menu.setPath("/module" + (id % 50) + "/page-" + id);
+            menu.setComponent(random.nextBoolean() ? null : "views/page" + id);
+            menu.setIcon("ep:menu");
+            menu.setSortOrder(random.nextInt(100));
+            menu.setPermission(random.nextInt(4) == 0 ? "perm:" + random.nextInt(8) : null);
+            menus.add(menu);
+        }
+        return menus;
+    }
+}
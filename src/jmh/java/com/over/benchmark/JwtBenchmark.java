@@ -0,0 +1,65 @@
+package com.over.benchmark;
+
+import com.over.util.JwtClaims;
+import com.over.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT签发与校验；uncached 关闭 jwt-tokens 缓存，每次都做完整的解析和HMAC验签
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hs512-signing-0123456789";
+
+    private JwtUtil cachedJwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedJwtUtil = jwtUtil(new MockEnvironment());
+        uncachedJwtUtil = jwtUtil(new MockEnvironment().withProperty("cache.regions.jwt-tokens.max-size", "0"));
+        token = cachedJwtUtil.generateToken("admin", "access");
+    }
+
+    private static JwtUtil jwtUtil(MockEnvironment environment) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3600000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 86400000L);
+        ReflectionTestUtils.setField(jwtUtil, "defaultKeyId", "default");
+        ReflectionTestUtils.setField(jwtUtil, "keysFile", "");
+        ReflectionTestUtils.setField(jwtUtil, "keysCheckIntervalMs", 10000L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheRegistry", Fixtures.cacheRegistry(environment));
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    @Benchmark
+    public String generate() {
+        return cachedJwtUtil.generateToken("admin", "access");
+    }
+
+    @Benchmark
+    public JwtClaims verifyCached() {
+        return cachedJwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public JwtClaims verifyUncached() {
+        return uncachedJwtUtil.verify(token);
+    }
+}
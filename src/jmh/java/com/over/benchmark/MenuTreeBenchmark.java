@@ -0,0 +1,70 @@
+package com.over.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.repository.MenuRepository;
+import com.over.repository.UserRepository;
+import com.over.service.AuthService;
+import com.over.service.CacheRegistry;
+import com.over.service.MenuService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 菜单树：菜单修改后的首次请求（重建树并序列化）与命中快照的后续请求
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MenuTreeBenchmark {
+
+    @Param({"50", "500", "5000"})
+    public int menuCount;
+
+    private MenuService menuService;
+
+    @Setup
+    public void setUp() {
+        MenuRepository menuRepository = mock(MenuRepository.class);
+        when(menuRepository.findAllActiveMenus()).thenReturn(Fixtures.menus(menuCount, 11));
+        CacheRegistry cacheRegistry = Fixtures.cacheRegistry(new MockEnvironment());
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        // username 为 null 时不查用户，只输出无需权限的菜单
+        AuthService authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "userRepository", mock(UserRepository.class));
+        ReflectionTestUtils.setField(authService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(authService, "cacheRegistry", cacheRegistry);
+        authService.init();
+
+        menuService = new MenuService();
+        ReflectionTestUtils.setField(menuService, "menuRepository", menuRepository);
+        ReflectionTestUtils.setField(menuService, "authService", authService);
+        ReflectionTestUtils.setField(menuService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(menuService, "cacheRegistry", cacheRegistry);
+        menuService.init();
+    }
+
+    @Benchmark
+    public byte[] rebuild() {
+        menuService.invalidateMenuTree();
+        return menuService.getMenuTreeJson(null);
+    }
+
+    @Benchmark
+    public byte[] cached() {
+        return menuService.getMenuTreeJson(null);
+    }
+}
@@ -0,0 +1,134 @@
+package com.over.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.dto.PredictionRequest;
+import com.over.dto.PredictionResponse;
+import com.over.service.FeatureExtractor;
+import com.over.service.InferenceEngine;
+import com.over.service.LogisticRegressionEngine;
+import com.over.service.MetricsRegistry;
+import com.over.service.ModelService;
+import com.over.service.PredictionCache;
+import com.over.service.PythonWorkerPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单条预测延迟：JVM内逻辑回归、每次启动Python进程、常驻Python worker 三种推理方式对比。
+ * 预测缓存关闭，每次调用都真正走模型；python-* 两种方式需要本机可用的 Python 环境和 model/model 下的模型文件
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PredictionBenchmark {
+
+    @Param({"native", "python-fork", "python-worker"})
+    public String engine;
+
+    private ModelService modelService;
+    private PythonWorkerPool pythonWorkerPool;
+    private PredictionRequest[] requests;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        MetricsRegistry metricsRegistry = new MetricsRegistry();
+
+        FeatureExtractor featureExtractor = new FeatureExtractor();
+        ReflectionTestUtils.setField(featureExtractor, "objectMapper", objectMapper);
+
+        LogisticRegressionEngine nativeEngine = new LogisticRegressionEngine();
+        ReflectionTestUtils.setField(nativeEngine, "objectMapper", objectMapper);
+        nativeEngine.load(syntheticLinearModel(objectMapper));
+
+        PredictionCache predictionCache = new PredictionCache();
+        ReflectionTestUtils.setField(predictionCache, "enabled", false);
+
+        pythonWorkerPool = new PythonWorkerPool();
+        ReflectionTestUtils.setField(pythonWorkerPool, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(pythonWorkerPool, "metricsRegistry", metricsRegistry);
+        ReflectionTestUtils.setField(pythonWorkerPool, "enabled", "python-worker".equals(engine));
+        ReflectionTestUtils.setField(pythonWorkerPool, "poolSize", 1);
+        ReflectionTestUtils.setField(pythonWorkerPool, "acquireTimeoutMs", 3000L);
+        ReflectionTestUtils.setField(pythonWorkerPool, "maxQueued", 64);
+        ReflectionTestUtils.setField(pythonWorkerPool, "requestTimeoutMs", 10000L);
+        ReflectionTestUtils.setField(pythonWorkerPool, "startupTimeoutMs", 60000L);
+        ReflectionTestUtils.setField(pythonWorkerPool, "healthCheckIntervalMs", 30000L);
+        ReflectionTestUtils.setField(pythonWorkerPool, "pythonCommand", System.getProperty("python.command", "python"));
+        pythonWorkerPool.init();
+        if ("python-worker".equals(engine)) {
+            awaitWorkers();
+        }
+
+        modelService = new ModelService();
+        ReflectionTestUtils.setField(modelService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(modelService, "pythonWorkerPool", pythonWorkerPool);
+        ReflectionTestUtils.setField(modelService, "featureExtractor", featureExtractor);
+        ReflectionTestUtils.setField(modelService, "inferenceEngines", List.<InferenceEngine>of(nativeEngine));
+        ReflectionTestUtils.setField(modelService, "predictionCache", predictionCache);
+        ReflectionTestUtils.setField(modelService, "metricsRegistry", metricsRegistry);
+        ReflectionTestUtils.setField(modelService, "engineMode", "native".equals(engine) ? "native" : "python");
+
+        requests = Fixtures.jobPostings(64, 42).stream()
+                .map(Fixtures::predictionRequest)
+                .peek(request -> request.setModelName(LogisticRegressionEngine.MODEL_NAME))
+                .toArray(PredictionRequest[]::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pythonWorkerPool.shutdown();
+    }
+
+    @Benchmark
+    public PredictionResponse predict() throws Exception {
+        PredictionRequest request = requests[next];
+        next = (next + 1) % requests.length;
+        return modelService.predict(request);
+    }
+
+    private void awaitWorkers() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 60000;
+        while (!pythonWorkerPool.isAvailable()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Python worker 未能在60秒内启动");
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    /**
+     * 与 export_models.py 导出格式相同的逻辑回归参数；基准只关心推理开销，参数取值无意义
+     */
+    private static File syntheticLinearModel(ObjectMapper objectMapper) throws Exception {
+        List<Double> coef = new ArrayList<>();
+        List<Double> mean = new ArrayList<>();
+        List<Double> scale = new ArrayList<>();
+        for (int i = 0; i < FeatureExtractor.FEATURE_COUNT; i++) {
+            coef.add((i % 5 - 2) * 0.1);
+            mean.add(i * 0.5);
+            scale.add(1.0 + i * 0.1);
+        }
+        File file = Files.createTempFile("Logistic_Regression", ".json").toFile();
+        file.deleteOnExit();
+        objectMapper.writeValue(file, Map.of("coef", coef, "intercept", -1.5, "scaler_mean", mean, "scaler_scale", scale));
+        return file;
+    }
+}
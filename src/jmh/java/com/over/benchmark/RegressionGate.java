@@ -0,0 +1,108 @@
+package com.over.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 对比本次 JMH 结果与基线，任一基准退化超过阈值时以非0退出码结束，使 mvn -P benchmark verify 失败。
+ * thrpt 模式分数越高越好，其他模式（avgt、sample、ss）越低越好；基线中没有的基准只打印不比较。
+ * 参数：本次结果JSON 基线JSON 允许的退化比例（如0.10）
+ */
+public class RegressionGate {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("用法: RegressionGate <result.json> <baseline.json> <max-regression>");
+            System.exit(2);
+        }
+        File resultFile = new File(args[0]);
+        File baselineFile = new File(args[1]);
+        double maxRegression = Double.parseDouble(args[2]);
+
+        if (!baselineFile.exists()) {
+            System.out.println("未找到基准基线，跳过回归检查: " + baselineFile.getPath());
+            System.out.println("确认本次结果后可复制为基线: cp " + resultFile.getPath() + " " + baselineFile.getPath());
+            return;
+        }
+
+        List<String> regressions = compare(read(resultFile), read(baselineFile), maxRegression);
+        if (!regressions.isEmpty()) {
+            System.err.println(String.format("%d 个基准退化超过 %.0f%%:", regressions.size(), maxRegression * 100));
+            for (String regression : regressions) {
+                System.err.println("  " + regression);
+            }
+            System.exit(1);
+        }
+        System.out.println("基准回归检查通过");
+    }
+
+    /**
+     * 逐项对比，打印每个基准的变化，返回超过阈值的退化描述
+     */
+    static List<String> compare(Map<String, Score> results, Map<String, Score> baseline, double maxRegression) {
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Score> entry : results.entrySet()) {
+            Score current = entry.getValue();
+            Score previous = baseline.get(entry.getKey());
+            if (previous == null || previous.value == 0 || !previous.mode.equals(current.mode)) {
+                System.out.println(String.format("%-70s %12.3f %s（无基线）", entry.getKey(), current.value, current.unit));
+                continue;
+            }
+            // 统一为"正数表示变差"
+            double change = (current.value - previous.value) / previous.value;
+            double regression = "thrpt".equals(current.mode) ? -change : change;
+            String line = String.format("%-70s %12.3f -> %12.3f %s (%+.1f%%)", entry.getKey(),
+                    previous.value, current.value, current.unit, change * 100);
+            System.out.println(line);
+            if (regression > maxRegression) {
+                regressions.add(line);
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * 读取 JMH -rf json 输出，key = 基准方法全名 + 参数
+     */
+    static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode node : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(node.path("benchmark").asText());
+            JsonNode params = node.path("params");
+            if (params.isObject()) {
+                // 按参数名排序，保证同一组参数得到相同的key
+                Map<String, String> sorted = new TreeMap<>();
+                for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> param = it.next();
+                    sorted.put(param.getKey(), param.getValue().asText());
+                }
+                key.append(sorted);
+            }
+            JsonNode metric = node.path("primaryMetric");
+            scores.put(key.toString(), new Score(node.path("mode").asText(),
+                    metric.path("score").asDouble(), metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    static final class Score {
+        final String mode;
+        final double value;
+        final String unit;
+
+        Score(String mode, double value, String unit) {
+            this.mode = mode;
+            this.value = value;
+            this.unit = unit;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.over.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.config.JacksonConfig;
+import com.over.dto.JobPostingSummary;
+import com.over.entity.JobPosting;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.beans.BeanUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 职位列表一页的JSON序列化：默认不含TEXT字段的列表项与完整职位实体对比
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Map<String, Object> summaryPage;
+    private Map<String, Object> fullPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new JacksonConfig().objectMapper();
+        List<JobPosting> jobPostings = Fixtures.jobPostings(pageSize, 3);
+        List<JobPostingSummary> summaries = new ArrayList<>(jobPostings.size());
+        for (JobPosting jobPosting : jobPostings) {
+            JobPostingSummary summary = new JobPostingSummary();
+            BeanUtils.copyProperties(jobPosting, summary, "companyProfile", "description", "requirements", "benefits");
+            summaries.add(summary);
+        }
+        summaryPage = Map.of("success", true, "data", summaries);
+        fullPage = Map.of("success", true, "data", jobPostings);
+    }
+
+    @Benchmark
+    public byte[] summaries() throws Exception {
+        return objectMapper.writeValueAsBytes(summaryPage);
+    }
+
+    @Benchmark
+    public byte[] fullEntities() throws Exception {
+        return objectMapper.writeValueAsBytes(fullPage);
+    }
+}
@@ -0,0 +1,100 @@
+package com.over.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.dto.ApiResponse;
+import com.over.util.JwtClaims;
+import com.over.util.JwtUtil;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 访问令牌认证
+ * 每个请求只验签一次，结果（JwtClaims）放入请求属性 CLAIMS_ATTRIBUTE，控制器通过 @RequestAttribute 取用；
+ * 公开路径不要求令牌，但携带有效令牌时同样会放入请求属性。刷新令牌不能用于访问接口
+ */
+@Component
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String CLAIMS_ATTRIBUTE = "jwtClaims";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${jwt.auth.enabled:true}")
+    private boolean enabled;
+
+    // 不需要登录的路径（不含 context-path）
+    @Value("${jwt.auth.public-paths:/login,/refresh-token,/get-async-routes,/error,/actuator/prometheus}")
+    private String[] publicPaths;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String error = "未登录或令牌缺失";
+        String token = resolveToken(request.getHeader(HttpHeaders.AUTHORIZATION));
+        if (token != null) {
+            try {
+                JwtClaims claims = jwtUtil.verify(token);
+                if ("access".equals(claims.getType())) {
+                    request.setAttribute(CLAIMS_ATTRIBUTE, claims);
+                    chain.doFilter(request, response);
+                    return;
+                }
+                error = "令牌类型错误";
+            } catch (ExpiredJwtException e) {
+                error = "令牌已过期";
+            } catch (JwtException | IllegalArgumentException e) {
+                error = "令牌无效";
+            }
+        }
+        if (!enabled || "OPTIONS".equals(request.getMethod()) || isPublic(request.getServletPath())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        // 在CORS处理之前返回，需自行带上跨域头，前端才能读到401
+        response.setHeader("Access-Control-Allow-Origin", "*");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(error));
+    }
+
+    private boolean isPublic(String path) {
+        for (String pattern : publicPaths) {
+            if (pathMatcher.match(pattern.trim(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String resolveToken(String authorization) {
+        if (authorization == null || authorization.isBlank()) {
+            return null;
+        }
+        String token = authorization.startsWith(BEARER_PREFIX)
+                ? authorization.substring(BEARER_PREFIX.length()) : authorization;
+        token = token.trim();
+        return token.isEmpty() ? null : token;
+    }
+}
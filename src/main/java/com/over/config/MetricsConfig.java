@@ -0,0 +1,169 @@
+package com.over.config;
+
+import com.over.dto.CacheStats;
+import com.over.service.CacheRegistry;
+import com.over.service.MetricsRegistry;
+import com.over.service.MetricsRegistry.Sample;
+import com.over.service.ModelService;
+import com.over.service.PythonWorkerPool;
+import com.over.util.SampledLogger;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 指标采集：JPA仓库方法耗时、Hikari连接池、各缓存命中率、Python进程池；
+ * 推理、分析等业务耗时在各自的服务中记录
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    @Autowired
+    private CacheRegistry cacheRegistry;
+
+    @Autowired
+    private ModelService modelService;
+
+    @Autowired
+    private PythonWorkerPool pythonWorkerPool;
+
+    @PostConstruct
+    public void bindCacheAndWorkerMetrics() {
+        metricsRegistry.functionCounter("cache_gets_total", "缓存查询次数", () -> {
+            List<Sample> samples = new ArrayList<>();
+            for (CacheStats stats : allCacheStats()) {
+                samples.add(Sample.of(stats.getHits(), "cache", stats.getName(), "result", "hit"));
+                samples.add(Sample.of(stats.getMisses(), "cache", stats.getName(), "result", "miss"));
+            }
+            return samples;
+        });
+        metricsRegistry.functionCounter("cache_removals_total", "缓存移除条数", () -> {
+            List<Sample> samples = new ArrayList<>();
+            for (CacheStats stats : allCacheStats()) {
+                samples.add(Sample.of(stats.getEvictions(), "cache", stats.getName(), "cause", "size"));
+                samples.add(Sample.of(stats.getExpirations(), "cache", stats.getName(), "cause", "expired"));
+                samples.add(Sample.of(stats.getInvalidations(), "cache", stats.getName(), "cause", "invalidated"));
+            }
+            return samples;
+        });
+        metricsRegistry.gauge("cache_size", "缓存当前条数", () -> {
+            List<Sample> samples = new ArrayList<>();
+            for (CacheStats stats : allCacheStats()) {
+                samples.add(Sample.of(stats.getSize(), "cache", stats.getName()));
+            }
+            return samples;
+        });
+        metricsRegistry.gauge("python_workers", "Python预测进程数", () -> List.of(
+                Sample.of(pythonWorkerPool.getLiveCount(), "state", "total"),
+                Sample.of(pythonWorkerPool.getIdleCount(), "state", "idle")));
+        metricsRegistry.gauge("model_predict_tasks", "异步预测线程池中的任务数", () -> List.of(
+                Sample.of(modelService.getPredictActiveCount(), "state", "active"),
+                Sample.of(modelService.getPredictQueuedCount(), "state", "queued")));
+        metricsRegistry.functionCounter("python_worker_restarts_total", "Python预测进程重启次数",
+                () -> List.of(Sample.of(pythonWorkerPool.getRestartCount())));
+    }
+
+    private List<CacheStats> allCacheStats() {
+        List<CacheStats> all = new ArrayList<>(cacheRegistry.getStats());
+        all.add(modelService.getPredictionCacheStats());
+        return all;
+    }
+
+    /**
+     * 为每个JPA仓库添加方法调用监听，按 仓库/方法/结果 记录耗时，并按采样规则输出查询日志（取代 show-sql）。
+     * 仓库代理在 afterPropertiesSet 中创建，因此在初始化之前注册
+     */
+    @Bean
+    public static BeanPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MetricsRegistry> metricsRegistry,
+                                                                   Environment environment) {
+        double sampleRate = environment.getProperty("metrics.query-log.sample-rate", Double.class, 0.01);
+        long slowMs = environment.getProperty("metrics.query-log.slow-ms", Long.class, 200L);
+        RepositoryMethodInvocationListener listener = invocation -> {
+            String repository = invocation.getRepositoryInterface().getSimpleName();
+            String method = invocation.getMethod().getName();
+            String outcome = invocation.getResult() == null
+                    ? "unknown" : invocation.getResult().getState().name().toLowerCase();
+            long nanos = invocation.getDuration(TimeUnit.NANOSECONDS);
+            metricsRegistry.getObject().timer("repository_query_seconds", "JPA仓库方法耗时",
+                    "repository", repository, "method", method, "outcome", outcome).record(nanos);
+            SampledLogger.log("repository_query", sampleRate, slowMs, nanos,
+                    "repository", repository, "method", method, "outcome", outcome);
+        };
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(listener));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * 连接池在第一次取连接时才启动，此时可以设置指标回调：记录取连接等待时间、连接占用时间、取连接超时次数，
+     * 以及活跃/空闲/等待线程数（连接池是否饱和）
+     */
+    @Bean
+    public static BeanPostProcessor hikariMetricsPostProcessor(ObjectProvider<MetricsRegistry> metricsRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource && dataSource.getMetricsTrackerFactory() == null) {
+                    dataSource.setMetricsTrackerFactory((poolName, poolStats) ->
+                            new HikariMetricsTracker(metricsRegistry.getObject(), poolName, poolStats));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static final class HikariMetricsTracker implements IMetricsTracker {
+        private final MetricsRegistry.Timer acquireTimer;
+        private final MetricsRegistry.Timer usageTimer;
+        private final MetricsRegistry.Counter timeouts;
+
+        HikariMetricsTracker(MetricsRegistry registry, String pool, PoolStats poolStats) {
+            acquireTimer = registry.timer("hikari_connection_acquire_seconds", "取连接等待时间", "pool", pool);
+            usageTimer = registry.timer("hikari_connection_usage_seconds", "连接从取出到归还的占用时间", "pool", pool);
+            timeouts = registry.counter("hikari_connection_timeouts_total", "取连接超时次数", "pool", pool);
+            registry.gauge("hikari_connections", "连接池连接数", () -> List.of(
+                    Sample.of(poolStats.getActiveConnections(), "pool", pool, "state", "active"),
+                    Sample.of(poolStats.getIdleConnections(), "pool", pool, "state", "idle"),
+                    Sample.of(poolStats.getPendingThreads(), "pool", pool, "state", "pending")));
+            registry.gauge("hikari_connections_max", "连接池最大连接数",
+                    () -> List.of(Sample.of(poolStats.getMaxConnections(), "pool", pool)));
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquireTimer.record(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usageTimer.record(TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+    }
+}
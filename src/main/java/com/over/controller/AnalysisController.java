@@ -1,11 +1,14 @@
 package com.over.controller;
 
+import com.over.dto.AnalysisSnapshot;
 import com.over.dto.ApiResponse;
 import com.over.service.AnalysisService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -18,16 +21,54 @@ public class AnalysisController {
     private AnalysisService analysisService;
 
     @PostMapping("/run")
-    public ApiResponse<String> runAnalysis() {
+    public ApiResponse<String> runAnalysis(@RequestParam(defaultValue = "false") boolean refresh) {
         try {
-            // 直接返回 JSON 字符串
-            String jsonResult = analysisService.runPythonAnalysis();
+            // 直接返回 JSON 字符串，快照未过期时不重新计算
+            String jsonResult = analysisService.getSnapshot(refresh).getResult();
             return ApiResponse.success(jsonResult);
         } catch (Exception e) {
             return ApiResponse.error("启动分析失败: " + e.getMessage());
         }
     }
 
+    /**
+     * 获取分析快照，支持 If-None-Match 条件请求：结果未变化时返回304，不传输结果
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<ApiResponse<String>> getSnapshot(@RequestParam(defaultValue = "false") boolean refresh,
+                                                           WebRequest request) {
+        AnalysisSnapshot snapshot;
+        try {
+            snapshot = analysisService.getSnapshot(refresh);
+        } catch (Exception e) {
+            return ResponseEntity.ok(ApiResponse.error("获取分析结果失败: " + e.getMessage()));
+        }
+        if (!snapshot.isError() && request.checkNotModified(snapshot.getEtag())) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .header("X-Analysis-Generation", String.valueOf(snapshot.getGeneration()))
+                .header("X-Analysis-Generated-At", String.valueOf(snapshot.getCreatedAt()));
+        if (!snapshot.isError()) {
+            builder.eTag(snapshot.getEtag());
+        }
+        return builder.body(ApiResponse.success(snapshot.getResult()));
+    }
+
+    /**
+     * 从数据库重新加载统计，用于数据被应用之外的方式修改后校正
+     */
+    @PostMapping("/reload")
+    public ApiResponse<String> reloadAnalysis() {
+        try {
+            analysisService.reload();
+            return ApiResponse.success("统计已重新加载");
+        } catch (Exception e) {
+            return ApiResponse.error("重新加载统计失败: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/images")
     public ApiResponse<List<String>> getAnalysisImages() {
         return ApiResponse.success(analysisService.getAnalysisImageNames());
@@ -7,8 +7,15 @@ import com.over.service.AuthService;
 import jakarta.validation.Valid;
 import lombok.Data;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -17,14 +24,29 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    /**
+     * 登录，密码校验在专用线程池中完成，期间不占用请求线程；校验线程池排队已满时返回429
+     */
     @PostMapping("/login")
-    public ApiResponse<LoginResponse.LoginData> login(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<ApiResponse<LoginResponse.LoginData>>> login(@Valid @RequestBody LoginRequest request) {
+        CompletableFuture<LoginResponse> future;
         try {
-            LoginResponse response = authService.login(request);
-            return ApiResponse.success(response.getData());
+            future = authService.login(request);
         } catch (Exception e) {
-            return ApiResponse.error(e.getMessage());
+            future = CompletableFuture.failedFuture(e);
         }
+        return future.handle((response, error) -> {
+            if (error == null) {
+                return ResponseEntity.ok(ApiResponse.success(response.getData()));
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof RejectedExecutionException) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(ApiResponse.<LoginResponse.LoginData>error(cause.getMessage()));
+            }
+            return ResponseEntity.ok(ApiResponse.<LoginResponse.LoginData>error(cause.getMessage()));
+        });
     }
 
     @PostMapping("/refresh-token")
@@ -0,0 +1,39 @@
+package com.over.controller;
+
+import com.over.dto.ApiResponse;
+import com.over.dto.CacheStats;
+import com.over.service.CacheRegistry;
+import com.over.service.LocalCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/cache")
+public class CacheController {
+
+    @Autowired
+    private CacheRegistry cacheRegistry;
+
+    /**
+     * 各缓存区域（menus、users、job-postings）的命中、未命中、淘汰、过期、失效统计
+     */
+    @GetMapping("/stats")
+    public ApiResponse<List<CacheStats>> getStats() {
+        return ApiResponse.success(cacheRegistry.getStats());
+    }
+
+    /**
+     * 清空指定缓存区域，数据库被应用之外的方式修改后使用
+     */
+    @PostMapping("/{name}/clear")
+    public ApiResponse<String> clear(@PathVariable String name) {
+        LocalCache<?, ?> region = cacheRegistry.getRegion(name);
+        if (region == null) {
+            return ApiResponse.error("缓存区域不存在: " + name);
+        }
+        region.invalidateAll();
+        return ApiResponse.success("缓存已清空: " + name);
+    }
+}
@@ -1,17 +1,42 @@
 package com.over.controller;
 
+import com.over.dto.JobPostingSummary;
 import com.over.entity.JobPosting;
+import com.over.service.FacetIndex;
+import com.over.service.JobPostingExportService;
+import com.over.service.JobPostingFacetService;
+import com.over.service.JobPostingImportService;
+import com.over.service.JobPostingScoringService;
+import com.over.service.JobPostingSearchService;
 import com.over.service.JobPostingService;
+import com.over.service.JobRescoringService;
+import com.over.service.SearchIndex;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/job-postings")
@@ -20,24 +45,70 @@ public class JobPostingController {
     @Autowired
     private JobPostingService jobPostingService;
 
+    @Autowired
+    private JobPostingScoringService jobPostingScoringService;
+
+    @Autowired
+    private JobRescoringService jobRescoringService;
+
+    @Autowired
+    private JobPostingExportService jobPostingExportService;
+
+    @Autowired
+    private JobPostingImportService jobPostingImportService;
+
+    @Autowired
+    private JobPostingSearchService jobPostingSearchService;
+
+    @Autowired
+    private JobPostingFacetService jobPostingFacetService;
+
+    /**
+     * 职位列表，默认不返回四个TEXT字段（fields=description,benefits 或 fields=all 时返回）。
+     * after=上一页最后一条的jobId 时按游标分页，不受页码深度影响；
+     * count=exact（页码分页默认）精确计数，approx 使用缓存的近似总数，none 不计数（游标分页默认），可用 hasMore 判断是否还有下一页
+     */
     @GetMapping
     public ResponseEntity<Map<String, Object>> getAllJobPostings(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "jobId") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) Integer after,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String count) {
 
         Sort sort = sortDir.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.by(sortBy).ascending()
                 : Sort.by(sortBy).descending();
-        Pageable pageable = PageRequest.of(page - 1, size, sort); // Frontend usually sends 1-based page index
+        Pageable pageable = PageRequest.of(Math.max(page - 1, 0), Math.max(size, 1), sort); // Frontend usually sends 1-based page index
+        String countMode = count != null ? count : (after != null ? "none" : "exact");
 
-        Page<JobPosting> jobPostingPage = jobPostingService.getJobPostings(pageable);
+        Slice<JobPostingSummary> slice;
+        try {
+            if (!countMode.equals("exact") && !countMode.equals("approx") && !countMode.equals("none")) {
+                throw new IllegalArgumentException("Unknown count mode: " + countMode);
+            }
+            slice = jobPostingService.listJobPostings(after, pageable,
+                    JobPostingService.parseTextFields(fields));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(result);
+        }
 
         Map<String, Object> response = new HashMap<>();
-        response.put("list", jobPostingPage.getContent());
-        response.put("total", jobPostingPage.getTotalElements());
+        response.put("list", slice.getContent());
+        response.put("total", countMode.equals("none") ? null
+                : jobPostingService.countJobPostings(countMode.equals("approx")));
         response.put("pageSize", size);
         response.put("currentPage", page);
+        response.put("hasMore", slice.hasNext());
+        // 按jobId排序时返回下一页游标
+        if (slice.hasNext() && "jobId".equals(sortBy)) {
+            List<JobPostingSummary> list = slice.getContent();
+            response.put("nextCursor", list.get(list.size() - 1).getJobId());
+        }
         
         // Wrap in standard response structure if needed, but for now returning direct map
         // Matching common pure-admin response format: { success: true, data: { ... } }
@@ -48,6 +119,215 @@ public class JobPostingController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * 流式导出职位数据（NDJSON或CSV），可按 fraudulent、industry、location（前缀）过滤；
+     * gzip=true 时以 Content-Encoding: gzip 压缩传输
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportJobPostings(
+            @RequestParam(defaultValue = JobPostingExportService.FORMAT_NDJSON) String format,
+            @RequestParam(required = false) Integer fraudulent,
+            @RequestParam(required = false) String industry,
+            @RequestParam(required = false) String location,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        if (!JobPostingExportService.isSupportedFormat(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        JobPostingExportService.Filter filter = new JobPostingExportService.Filter(fraudulent, industry, location);
+        StreamingResponseBody body = outputStream -> {
+            OutputStream target = gzip ? new GZIPOutputStream(outputStream, 64 * 1024) : outputStream;
+            BufferedOutputStream buffered = new BufferedOutputStream(target, 64 * 1024);
+            jobPostingExportService.export(format, filter, buffered);
+            buffered.flush();
+            if (gzip) {
+                ((GZIPOutputStream) target).finish();
+            }
+        };
+
+        boolean csv = JobPostingExportService.FORMAT_CSV.equals(format);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"job_postings." + format + "\"");
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(body);
+    }
+
+    /**
+     * 批量导入职位：请求体为CSV（首行列名）或NDJSON，可带 Content-Encoding: gzip；
+     * mode=upsert 按 job_id 覆盖已有职位，insert 跳过已有职位；score=true 时写入后立即打分。返回导入报告
+     */
+    @PostMapping("/import")
+    public ResponseEntity<Map<String, Object>> importJobPostings(
+            @RequestParam(defaultValue = JobPostingImportService.FORMAT_CSV) String format,
+            @RequestParam(defaultValue = JobPostingImportService.MODE_UPSERT) String mode,
+            @RequestParam(defaultValue = "false") boolean score,
+            HttpServletRequest request) {
+        Map<String, Object> result = new HashMap<>();
+        if (!JobPostingImportService.isSupportedFormat(format) || !JobPostingImportService.isSupportedMode(mode)) {
+            result.put("success", false);
+            result.put("message", "Unsupported format or mode: " + format + ", " + mode);
+            return ResponseEntity.badRequest().body(result);
+        }
+        try {
+            InputStream body = request.getInputStream();
+            if ("gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+                body = new GZIPInputStream(body, 64 * 1024);
+            }
+            result.put("success", true);
+            result.put("data", jobPostingImportService.importJobPostings(body, format, mode, score));
+        } catch (Exception e) {
+            result.put("success", false);
+            result.put("message", "Import failed: " + e.getMessage());
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 按关键词检索 title、description、requirements，按相关度排序；
+     * match=all 要求命中全部关键词，any 命中任一即可；可按 fraudulent、industry 过滤
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> searchJobPostings(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "all") String match,
+            @RequestParam(required = false) Integer fraudulent,
+            @RequestParam(required = false) String industry,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        Map<String, Object> result = new HashMap<>();
+        if (q.isBlank() || !("all".equals(match) || "any".equals(match))) {
+            result.put("success", false);
+            result.put("message", "Query must not be empty and match must be all or any");
+            return ResponseEntity.badRequest().body(result);
+        }
+        long startTime = System.nanoTime();
+        SearchIndex.Result searchResult;
+        try {
+            searchResult = jobPostingSearchService.search(q, "all".equals(match), fraudulent, industry, page, size);
+        } catch (IllegalStateException e) {
+            result.put("success", false);
+            result.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(result);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("list", searchResult.getHits());
+        response.put("total", searchResult.getTotal());
+        response.put("terms", searchResult.getTerms());
+        response.put("pageSize", size);
+        response.put("currentPage", page);
+        response.put("tookMs", (System.nanoTime() - startTime) / 1_000_000.0);
+        result.put("success", true);
+        result.put("data", response);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 从数据库重建全文索引，用于数据被应用之外的方式修改后校正
+     */
+    @PostMapping("/search/reindex")
+    public ResponseEntity<Map<String, Object>> rebuildSearchIndex() {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            boolean rebuilt = jobPostingSearchService.rebuild();
+            result.put("success", rebuilt);
+            result.put("message", rebuilt ? "Search index rebuilt"
+                    : "Search index is already being rebuilt; it will be rebuilt again when done");
+        } catch (Exception e) {
+            result.put("success", false);
+            result.put("message", "Failed to rebuild search index: " + e.getMessage());
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/search/status")
+    public ResponseEntity<Map<String, Object>> getSearchStatus() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("data", jobPostingSearchService.getStatus());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 分面筛选：参数名为字段名（industry、employmentType、requiredExperience、requiredEducation、
+     * telecommuting、hasCompanyLogo、fraudulent），同一字段可重复传多个取值（取并集），不同字段取交集。
+     * 返回匹配总数、各字段的取值计数，以及 jobId 大于 after 的前 limit 个匹配ID
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<Map<String, Object>> getFacets(@RequestParam MultiValueMap<String, String> params) {
+        Map<String, Object> result = new HashMap<>();
+        Map<FacetIndex.Facet, Set<String>> selected = new EnumMap<>(FacetIndex.Facet.class);
+        int after = 0;
+        int limit = 100;
+        try {
+            for (Map.Entry<String, List<String>> param : params.entrySet()) {
+                if ("after".equals(param.getKey())) {
+                    after = Integer.parseInt(param.getValue().get(0));
+                } else if ("limit".equals(param.getKey())) {
+                    limit = Integer.parseInt(param.getValue().get(0));
+                } else {
+                    FacetIndex.Facet facet = FacetIndex.Facet.fromParam(param.getKey());
+                    if (facet == null) {
+                        throw new IllegalArgumentException("Unknown facet: " + param.getKey());
+                    }
+                    selected.put(facet, new HashSet<>(param.getValue()));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            result.put("success", false);
+            result.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(result);
+        }
+
+        long startTime = System.nanoTime();
+        FacetIndex.Result facetResult;
+        try {
+            facetResult = jobPostingFacetService.query(selected, after, limit);
+        } catch (IllegalStateException e) {
+            result.put("success", false);
+            result.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(result);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("total", facetResult.getTotal());
+        response.put("facets", facetResult.getFacets());
+        response.put("ids", facetResult.getIds());
+        response.put("nextCursor", facetResult.getNextCursor());
+        response.put("tookMs", (System.nanoTime() - startTime) / 1_000_000.0);
+        result.put("success", true);
+        result.put("data", response);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 从数据库重建分面索引
+     */
+    @PostMapping("/facets/reindex")
+    public ResponseEntity<Map<String, Object>> rebuildFacetIndex() {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            boolean rebuilt = jobPostingFacetService.rebuild();
+            result.put("success", rebuilt);
+            result.put("message", rebuilt ? "Facet index rebuilt"
+                    : "Facet index is disabled, or already being rebuilt and will be rebuilt again when done");
+        } catch (Exception e) {
+            result.put("success", false);
+            result.put("message", "Failed to rebuild facet index: " + e.getMessage());
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/facets/status")
+    public ResponseEntity<Map<String, Object>> getFacetStatus() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("data", jobPostingFacetService.getStatus());
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Map<String, Object>> getJobPostingById(@PathVariable Integer id) {
         return jobPostingService.getJobPostingById(id)
@@ -90,4 +370,71 @@ public class JobPostingController {
         result.put("message", "Job posting deleted successfully");
         return ResponseEntity.ok(result);
     }
+
+    /**
+     * 启动存量职位的风险评分回填
+     */
+    @PostMapping("/scores/backfill")
+    public ResponseEntity<Map<String, Object>> startScoreBackfill() {
+        Map<String, Object> result = new HashMap<>();
+        if (!jobPostingScoringService.isEnabled()) {
+            result.put("success", false);
+            result.put("message", "Score-on-write is disabled (model.score-on-write.enabled)");
+            return ResponseEntity.ok(result);
+        }
+        boolean started = jobPostingScoringService.startBackfill();
+        result.put("success", started);
+        result.put("message", started ? "Backfill started" : "Backfill is already running");
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 写入后打分队列及回填进度
+     */
+    @GetMapping("/scores/status")
+    public ResponseEntity<Map<String, Object>> getScoringStatus() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("data", jobPostingScoringService.getStatus());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 用指定模型（默认当前模型）重新打分全部评分过期的职位，resume=true 时从上次的检查点继续
+     */
+    @PostMapping("/scores/rescore")
+    public ResponseEntity<Map<String, Object>> startRescore(
+            @RequestParam(required = false) String modelName,
+            @RequestParam(defaultValue = "true") boolean resume) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            boolean started = jobRescoringService.start(modelName, resume);
+            result.put("success", started);
+            result.put("message", started ? "Rescoring started" : "Rescoring is already running");
+        } catch (Exception e) {
+            result.put("success", false);
+            result.put("message", "Failed to start rescoring: " + e.getMessage());
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/scores/rescore/cancel")
+    public ResponseEntity<Map<String, Object>> cancelRescore() {
+        Map<String, Object> result = new HashMap<>();
+        boolean cancelled = jobRescoringService.cancel();
+        result.put("success", cancelled);
+        result.put("message", cancelled ? "Rescoring will stop after the current chunks" : "No rescoring is running");
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 重新打分进度：已处理条数、预计总数、吞吐量、检查点
+     */
+    @GetMapping("/scores/rescore/status")
+    public ResponseEntity<Map<String, Object>> getRescoreStatus() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("data", jobRescoringService.getStatus());
+        return ResponseEntity.ok(result);
+    }
 }
@@ -1,29 +1,34 @@
 package com.over.controller;
 
+import com.over.config.JwtAuthenticationFilter;
 import com.over.dto.ApiResponse;
-import com.over.dto.MenuDTO;
 import com.over.service.MenuService;
+import com.over.util.JwtClaims;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class MenuController {
-    
+
     @Autowired
     private MenuService menuService;
 
+    /**
+     * 当前用户可见的菜单树，用户由认证过滤器按访问令牌识别；
+     * 未携带或令牌无效时只返回无需权限的菜单。响应体是缓存的JSON字节，直接写出
+     */
     @GetMapping("/get-async-routes")
-    public ApiResponse<List<MenuDTO>> getAsyncRoutes() {
+    public ResponseEntity<?> getAsyncRoutes(
+            @RequestAttribute(value = JwtAuthenticationFilter.CLAIMS_ATTRIBUTE, required = false) JwtClaims claims) {
         try {
-            List<MenuDTO> menus = menuService.getMenuTree();
-            return ApiResponse.success(menus);
+            byte[] body = menuService.getMenuTreeJson(claims == null ? null : claims.getUsername());
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
         } catch (Exception e) {
-            return ApiResponse.error(e.getMessage());
+            return ResponseEntity.ok(ApiResponse.error(e.getMessage()));
         }
     }
 }
-
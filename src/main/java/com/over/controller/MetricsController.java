@@ -0,0 +1,38 @@
+package com.over.controller;
+
+import com.over.service.MetricsRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Prometheus 抓取入口，路径与 Spring Boot Actuator 一致，抓取配置无需区分
+ */
+@RestController
+@RequestMapping("/actuator")
+public class MetricsController {
+
+    private static final String OPENMETRICS_TYPE = "application/openmetrics-text";
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    /**
+     * Accept 包含 application/openmetrics-text 时（Prometheus 开启 exemplar 存储后会这样请求）
+     * 按 OpenMetrics 格式输出并附带 exemplar，否则输出 Prometheus 文本格式
+     */
+    @GetMapping("/prometheus")
+    public ResponseEntity<String> prometheus(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        boolean openMetrics = accept != null && accept.contains(OPENMETRICS_TYPE);
+        String contentType = openMetrics
+                ? OPENMETRICS_TYPE + "; version=1.0.0; charset=utf-8"
+                : "text/plain; version=0.0.4; charset=utf-8";
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, contentType)
+                .body(metricsRegistry.scrape(openMetrics));
+    }
+}
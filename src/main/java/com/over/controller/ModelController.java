@@ -1,14 +1,32 @@
 package com.over.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.over.dto.ApiResponse;
+import com.over.dto.BatchPredictionRequest;
+import com.over.dto.CacheStats;
 import com.over.dto.ModelInfo;
 import com.over.dto.PredictionRequest;
 import com.over.dto.PredictionResponse;
 import com.over.service.ModelService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/model")
@@ -17,6 +35,9 @@ public class ModelController {
     @Autowired
     private ModelService modelService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * 获取所有可用模型列表
      */
@@ -49,7 +70,7 @@ public class ModelController {
     @PostMapping("/switch")
     public ApiResponse<String> switchModel(@RequestBody SwitchModelRequest request) {
         try {
-            boolean success = modelService.switchModel(request.getModelName());
+            boolean success = modelService.switchModel(request.getModelName(), request.getEngine());
             if (success) {
                 return ApiResponse.success("模型切换成功: " + request.getModelName());
             } else {
@@ -61,16 +82,102 @@ public class ModelController {
     }
 
     /**
-     * 使用模型进行预测
+     * 使用模型进行预测，推理在专用线程池中完成，期间不占用请求线程。
+     * timeoutMs 为本次请求的截止时间（默认与上限见 model.predict 配置），超时返回504；
+     * 排队已满或Python进程池繁忙时返回429；客户端断开后不再等待，没有其他相同请求在等时取消计算
      */
     @PostMapping("/predict")
-    public ApiResponse<PredictionResponse> predict(@RequestBody PredictionRequest request) {
-        try {
-            PredictionResponse response = modelService.predict(request);
-            return ApiResponse.success(response);
-        } catch (Exception e) {
-            return ApiResponse.error("预测失败: " + e.getMessage());
+    public DeferredResult<ResponseEntity<ApiResponse<PredictionResponse>>> predict(
+            @RequestBody PredictionRequest request, @RequestParam(required = false) Long timeoutMs) {
+        long timeout = modelService.resolvePredictTimeout(timeoutMs);
+        // 比预测本身的截止时间稍晚，正常情况下由预测超时先给出响应
+        DeferredResult<ResponseEntity<ApiResponse<PredictionResponse>>> result = new DeferredResult<>(timeout + 1000);
+        CompletableFuture<PredictionResponse> future = modelService.predictAsync(request, timeout);
+        future.whenComplete((response, error) -> result.setResult(toPredictResponse(response, error)));
+        result.onTimeout(() -> result.setResult(toPredictResponse(null, new TimeoutException())));
+        result.onCompletion(() -> future.cancel(true));
+        return result;
+    }
+
+    private ResponseEntity<ApiResponse<PredictionResponse>> toPredictResponse(PredictionResponse response, Throwable error) {
+        if (error == null) {
+            return ResponseEntity.ok(ApiResponse.success(response));
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(ApiResponse.error(cause.getMessage()));
         }
+        if (cause instanceof TimeoutException) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(ApiResponse.error("预测超时，请稍后重试"));
+        }
+        return ResponseEntity.ok(ApiResponse.error("预测失败: " + cause.getMessage()));
+    }
+
+    /**
+     * 批量预测，结果按请求顺序流式写出：{"success": true, "data": [{index, success, result, error}, ...]}
+     * 单条失败只体现在该条的 success/error 中，不影响整批
+     */
+    @PostMapping("/predict/batch")
+    public ResponseEntity<StreamingResponseBody> predictBatch(@RequestBody BatchPredictionRequest request) {
+        List<PredictionRequest> items = request.getItems();
+        // 逐条写出时不单独flush，由输出缓冲区满时自然刷出
+        ObjectWriter itemWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                try {
+                    // 先校验整批参数，失败时按普通错误响应返回
+                    modelService.checkBatch(request.getModelName(), items);
+                } catch (Exception e) {
+                    objectMapper.writeValue(generator, ApiResponse.error("批量预测失败: " + e.getMessage()));
+                    return;
+                }
+
+                generator.writeStartObject();
+                generator.writeBooleanField("success", true);
+                generator.writeArrayFieldStart("data");
+                try {
+                    modelService.predictBatch(request.getModelName(), items, result -> {
+                        try {
+                            itemWriter.writeValue(generator, result);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    // 客户端已断开连接
+                    throw e.getCause();
+                } catch (Exception e) {
+                    // 已校验过参数，这里只可能是运行期间模型被移除等异常，已写出的结果保留
+                    generator.writeEndArray();
+                    generator.writeStringField("message", "批量预测中断: " + e.getMessage());
+                    generator.writeEndObject();
+                    return;
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * 预测结果缓存统计：命中、未命中、淘汰次数等
+     */
+    @GetMapping("/cache/stats")
+    public ApiResponse<CacheStats> getCacheStats() {
+        return ApiResponse.success(modelService.getPredictionCacheStats());
+    }
+
+    /**
+     * 清空预测结果缓存
+     */
+    @PostMapping("/cache/clear")
+    public ApiResponse<String> clearCache() {
+        modelService.clearPredictionCache();
+        return ApiResponse.success("预测缓存已清空");
     }
 
     /**
@@ -78,6 +185,7 @@ public class ModelController {
      */
     public static class SwitchModelRequest {
         private String modelName;
+        private String engine;  // 可选：python 或 native
 
         public String getModelName() {
             return modelName;
@@ -86,6 +194,14 @@ public class ModelController {
         public void setModelName(String modelName) {
             this.modelName = modelName;
         }
+
+        public String getEngine() {
+            return engine;
+        }
+
+        public void setEngine(String engine) {
+            this.engine = engine;
+        }
     }
 }
 
@@ -0,0 +1,55 @@
+package com.over.dto;
+
+/**
+ * 分析结果快照，生成后不再修改
+ * 内容不变时刷新快照沿用原版本号，ETag 由结果内容计算，可直接用于条件请求
+ */
+public final class AnalysisSnapshot {
+    private final long generation;     // 版本号，结果内容变化时递增
+    private final long createdAt;      // 生成时间（毫秒时间戳）
+    private final String result;       // 分析结果JSON
+    private final String etag;         // 结果内容的强ETag（含引号）
+    private final long changeCount;    // 生成时已记录的职位写入次数
+    private final String source;       // 生成方式：jvm、sql、python
+
+    public AnalysisSnapshot(long generation, long createdAt, String result, String etag,
+                            long changeCount, String source) {
+        this.generation = generation;
+        this.createdAt = createdAt;
+        this.result = result;
+        this.etag = etag;
+        this.changeCount = changeCount;
+        this.source = source;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public long getChangeCount() {
+        return changeCount;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * 结果为错误信息（无数据、脚本失败等），这类快照不复用
+     */
+    public boolean isError() {
+        return result == null || result.startsWith("{\"error\"");
+    }
+}
@@ -0,0 +1,15 @@
+package com.over.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPredictionRequest {
+    private String modelName;              // 可选：整批使用的模型，不指定则使用当前选中的模型
+    private List<PredictionRequest> items; // 待预测的职位列表，结果按相同顺序返回
+}
@@ -0,0 +1,23 @@
+package com.over.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPredictionResult {
+    private Integer index;               // 在请求 items 中的下标
+    private Boolean success;             // 该条是否预测成功，单条失败不影响整批
+    private PredictionResponse result;   // 预测结果，失败时为空
+    private String error;                // 失败原因
+
+    public static BatchPredictionResult success(int index, PredictionResponse result) {
+        return new BatchPredictionResult(index, true, result, null);
+    }
+
+    public static BatchPredictionResult error(int index, String error) {
+        return new BatchPredictionResult(index, false, null, error);
+    }
+}
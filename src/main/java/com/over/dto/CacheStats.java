@@ -0,0 +1,27 @@
+package com.over.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStats {
+    private String name;           // 缓存名称
+    private Integer size;          // 当前条数
+    private Integer maxSize;       // 最大条数
+    private Long hits;             // 命中次数
+    private Long misses;           // 未命中次数
+    private Long evictions;        // 因容量淘汰的条数
+    private Long expirations;      // 因过期清除的条数
+    private Long invalidations;    // 因切换模型、数据修改等主动失效的条数
+
+    /**
+     * 命中率，未发生查询时为0
+     */
+    public Double getHitRate() {
+        long total = (hits == null ? 0 : hits) + (misses == null ? 0 : misses);
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,41 @@
+package com.over.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.over.entity.JobPostingScore;
+import lombok.Data;
+
+/**
+ * 职位列表项，字段名与 JobPosting 一致；
+ * 四个TEXT字段默认不查询也不输出，只有通过 fields 参数指定时才返回
+ */
+@Data
+public class JobPostingSummary {
+    private Integer jobId;
+    private String title;
+    private String location;
+    private String department;
+    private String salaryRange;
+    private Integer telecommuting;
+    private Integer hasCompanyLogo;
+    private Integer hasQuestions;
+    private String employmentType;
+    private String requiredExperience;
+    private String requiredEducation;
+    private String industry;
+    private String jobFunction;
+    private Integer fraudulent;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String companyProfile;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String description;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String requirements;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String benefits;
+
+    private JobPostingScore score;      // 预计算的风险评分，未打分时为null
+}
@@ -13,5 +13,7 @@ public class ModelInfo {
     private String description;    // 模型描述
     private Boolean available;     // 是否可用（模型文件是否存在）
     private Boolean isSelected;    // 是否为当前选中的模型
+    private String engine;         // 实际使用的推理方式："python" 或 "native"
+    private Boolean nativeAvailable; // 是否已导出、可在JVM内推理
 }
 
@@ -0,0 +1,17 @@
+package com.over.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHit {
+    private Integer jobId;          // 职位ID
+    private Double score;           // 相关度得分（BM25）
+    private String title;           // 职位名称
+    private String location;        // 工作地点
+    private String industry;        // 行业
+    private Integer fraudulent;     // 是否虚假职位标注
+}
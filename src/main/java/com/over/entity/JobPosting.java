@@ -55,4 +55,8 @@ public class JobPosting {
     private String jobFunction; // 'function' is a reserved keyword in some contexts, safer to name field jobFunction
     
     private Integer fraudulent;
+
+    // 预计算的风险评分（job_posting_scores），查询时批量填充，未打分时为null
+    @Transient
+    private JobPostingScore score;
 }
@@ -0,0 +1,44 @@
+package com.over.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 职位的预计算风险评分，由 JobPostingScoringService 在职位写入后异步生成
+ */
+@Data
+@Entity
+@Table(name = "job_posting_scores")
+public class JobPostingScore {
+
+    @Id
+    @Column(name = "job_id")
+    private Integer jobId;
+
+    private Double probability;
+
+    private Integer prediction;
+
+    @Column(name = "risk_score")
+    private Integer riskScore;
+
+    @Column(name = "risk_level", length = 20)
+    private String riskLevel;
+
+    @Column(name = "model_name", length = 50)
+    private String modelName;
+
+    @Column(name = "model_version", length = 32)
+    private String modelVersion;
+
+    @JsonIgnore
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @JsonIgnore
+    @Column(name = "scored_at")
+    private LocalDateTime scoredAt;
+}
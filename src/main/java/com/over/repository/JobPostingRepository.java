@@ -1,10 +1,22 @@
 package com.over.repository;
 
 import com.over.entity.JobPosting;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface JobPostingRepository extends JpaRepository<JobPosting, Integer> {
     // Basic CRUD is provided by JpaRepository
+
+    /**
+     * 按主键顺序查找 afterId 之后还没有风险评分的职位，供回填任务分页使用
+     */
+    @Query("select j from JobPosting j where j.jobId > :afterId and not exists "
+            + "(select s.jobId from JobPostingScore s where s.jobId = j.jobId) order by j.jobId")
+    List<JobPosting> findUnscoredAfter(@Param("afterId") int afterId, Pageable pageable);
 }
@@ -0,0 +1,9 @@
+package com.over.repository;
+
+import com.over.entity.JobPostingScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobPostingScoreRepository extends JpaRepository<JobPostingScore, Integer> {
+}
@@ -0,0 +1,403 @@
+package com.over.service;
+
+import com.over.entity.JobPosting;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * realtime_analysis.py 各项统计的增量版本
+ * 每个职位对统计的贡献抽取为一个 {@link Contribution}，新增时累加、删除时扣减、修改时先扣旧值再加新值，
+ * 只维护计数和长度之和，查询时由计数直接生成与Python脚本相同结构的结果，不再全表扫描。
+ * 也可以由 {@link SqlAnalysisEngine} 的 GROUP BY 结果整体加载。本类不做同步，由调用方加锁
+ */
+public class AnalysisAggregates {
+
+    static final int TOP_N = 10;
+
+    private static final String[] FRAUD_LABELS = {"真实职位", "虚假职位"};
+
+    private long rowCount;
+
+    // fraudulent 的 value_counts，只统计 0 和 1
+    private final long[] fraudCounts = new long[2];
+
+    // 地理位置、行业的 value_counts（不区分真假，null不计）
+    private final Map<String, Long> locationCounts = new HashMap<>();
+    private final Map<String, Long> industryCounts = new HashMap<>();
+
+    // 二值字段 x fraudulent 的交叉计数，[字段取值][fraudulent]
+    private final long[][] logoStats = new long[2][2];
+    private final long[][] salaryStats = new long[2][2];
+    private final long[][] requirementsStats = new long[2][2];
+    private final long[][] questionsStats = new long[2][2];
+    private final long[][] telecommutingStats = new long[2][2];
+    private final long[][] benefitsStats = new long[2][2];
+
+    // 按 fraudulent 分组的文本长度之和与条数，用于求平均
+    private final long[] titleLengthSums = new long[2];
+    private final long[] descriptionLengthSums = new long[2];
+    private final long[] profileLengthSums = new long[2];
+    private final long[] labeledCounts = new long[2];
+
+    // 分类字段 x fraudulent 的交叉计数：[真实, 虚假, 其他非空标注]
+    private final Map<String, long[]> industryStats = new HashMap<>();
+    private final Map<String, long[]> employmentTypeStats = new HashMap<>();
+    private final Map<String, long[]> experienceStats = new HashMap<>();
+    private final Map<String, long[]> educationStats = new HashMap<>();
+
+    public void add(Contribution c) {
+        apply(c, 1);
+    }
+
+    public void remove(Contribution c) {
+        apply(c, -1);
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 二值字段，对应Python中 groupby([字段, 'fraudulent']) 的各张表
+     */
+    enum Flag {
+        COMPANY_LOGO, SALARY, REQUIREMENTS, QUESTIONS, TELECOMMUTING, BENEFITS
+    }
+
+    /**
+     * 分类字段，对应 groupby([字段, 'fraudulent'])，行业另有 value_counts
+     */
+    enum Category {
+        INDUSTRY, EMPLOYMENT_TYPE, EXPERIENCE, EDUCATION
+    }
+
+    private long[][] flagStats(Flag flag) {
+        switch (flag) {
+            case COMPANY_LOGO: return logoStats;
+            case SALARY: return salaryStats;
+            case REQUIREMENTS: return requirementsStats;
+            case QUESTIONS: return questionsStats;
+            case TELECOMMUTING: return telecommutingStats;
+            default: return benefitsStats;
+        }
+    }
+
+    private Map<String, long[]> categoryStats(Category category) {
+        switch (category) {
+            case INDUSTRY: return industryStats;
+            case EMPLOYMENT_TYPE: return employmentTypeStats;
+            case EXPERIENCE: return experienceStats;
+            default: return educationStats;
+        }
+    }
+
+    // ---- 以下为按分组结果整体加载的方法，供SQL聚合（GROUP BY ... fraudulent）使用 ----
+
+    /**
+     * 按 fraudulent 分组的行数和文本长度之和
+     */
+    void addRows(Integer fraudulent, long rows, long titleLengthSum, long descriptionLengthSum, long profileLengthSum) {
+        rowCount += rows;
+        if (fraudulent == null || (fraudulent != 0 && fraudulent != 1)) {
+            return;
+        }
+        fraudCounts[fraudulent] += rows;
+        labeledCounts[fraudulent] += rows;
+        titleLengthSums[fraudulent] += titleLengthSum;
+        descriptionLengthSums[fraudulent] += descriptionLengthSum;
+        profileLengthSums[fraudulent] += profileLengthSum;
+    }
+
+    /**
+     * 二值字段取值为value、且 fraudulent 为给定值的行数
+     */
+    void addFlag(Flag flag, int value, Integer fraudulent, long rows) {
+        if (fraudulent != null && (fraudulent == 0 || fraudulent == 1) && (value == 0 || value == 1)) {
+            flagStats(flag)[value][fraudulent] += rows;
+        }
+    }
+
+    /**
+     * 地理位置的出现次数（不区分真假）
+     */
+    void addLocation(String location, long rows) {
+        addCount(locationCounts, location, rows);
+    }
+
+    /**
+     * 分类字段取值为key、且 fraudulent 为给定值（可为null）的行数
+     */
+    void addCategory(Category category, String key, Integer fraudulent, long rows) {
+        if (key == null) {
+            return;
+        }
+        if (category == Category.INDUSTRY) {
+            addCount(industryCounts, key, rows);
+        }
+        if (fraudulent != null) {
+            categoryStats(category).computeIfAbsent(key, k -> new long[3])[fraudulent == 0 ? 0 : fraudulent == 1 ? 1 : 2] += rows;
+        }
+    }
+
+    private static void addCount(Map<String, Long> counts, String key, long rows) {
+        if (key != null && rows != 0) {
+            counts.merge(key, rows, Long::sum);
+        }
+    }
+
+    private void apply(Contribution c, int sign) {
+        rowCount += sign;
+        increment(locationCounts, c.location, sign);
+        increment(industryCounts, c.industry, sign);
+
+        // groupby 会丢弃 fraudulent 为空的行；不是0/1的标注只影响分类字段是否出现
+        if (c.fraudulent == null) {
+            return;
+        }
+        int fraud = c.fraudulent == 0 ? 0 : c.fraudulent == 1 ? 1 : 2;
+        increment(industryStats, c.industry, fraud, sign);
+        increment(employmentTypeStats, c.employmentType, fraud, sign);
+        increment(experienceStats, c.requiredExperience, fraud, sign);
+        increment(educationStats, c.requiredEducation, fraud, sign);
+        if (fraud == 2) {
+            return;
+        }
+
+        fraudCounts[fraud] += sign;
+        increment(logoStats, c.hasCompanyLogo, fraud, sign);
+        increment(questionsStats, c.hasQuestions, fraud, sign);
+        increment(telecommutingStats, c.telecommuting, fraud, sign);
+        salaryStats[c.hasSalary][fraud] += sign;
+        requirementsStats[c.hasRequirements][fraud] += sign;
+        benefitsStats[c.hasBenefits][fraud] += sign;
+
+        titleLengthSums[fraud] += (long) sign * c.titleLength;
+        descriptionLengthSums[fraud] += (long) sign * c.descriptionLength;
+        profileLengthSums[fraud] += (long) sign * c.profileLength;
+        labeledCounts[fraud] += sign;
+    }
+
+    private static void increment(Map<String, Long> counts, String key, int sign) {
+        if (key != null) {
+            counts.merge(key, (long) sign, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    private static void increment(long[][] stats, Integer value, int fraud, int sign) {
+        if (value != null && (value == 0 || value == 1)) {
+            stats[value][fraud] += sign;
+        }
+    }
+
+    private static void increment(Map<String, long[]> stats, String key, int fraud, int sign) {
+        if (key == null) {
+            return;
+        }
+        long[] counts = stats.computeIfAbsent(key, k -> new long[3]);
+        counts[fraud] += sign;
+        if (counts[0] == 0 && counts[1] == 0 && counts[2] == 0) {
+            stats.remove(key);
+        }
+    }
+
+    /**
+     * 生成与 realtime_analysis.py 相同结构的结果（键顺序一致）
+     */
+    public Map<String, Object> toResult() {
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("fraud_distribution", labelsValues(FRAUD_LABELS, fraudCounts[0], fraudCounts[1]));
+
+        List<Map.Entry<String, Long>> topLocations = top(locationCounts, TOP_N);
+        Map<String, Object> locations = new LinkedHashMap<>();
+        locations.put("labels", keys(topLocations));
+        locations.put("values", values(topLocations));
+        results.put("location_distribution", locations);
+
+        results.put("company_logo_risk", binary(new String[]{"无Logo", "有Logo"}, logoStats));
+        results.put("salary_anomaly", binary(new String[]{"未标注薪资", "已标注薪资"}, salaryStats));
+        results.put("title_length", labelsValues(FRAUD_LABELS,
+                mean(titleLengthSums[0], labeledCounts[0]), mean(titleLengthSums[1], labeledCounts[1])));
+        results.put("description_complexity", labelsValues(FRAUD_LABELS,
+                mean(descriptionLengthSums[0], labeledCounts[0]), mean(descriptionLengthSums[1], labeledCounts[1])));
+        results.put("requirements_risk", binary(new String[]{"无任职要求", "有任职要求"}, requirementsStats));
+        results.put("contact_completeness", binary(new String[]{"无筛选问题", "有筛选问题"}, questionsStats));
+
+        // 先按出现次数取前10个行业，再按行业名排序（groupby的顺序）
+        Map<String, long[]> topIndustryStats = new HashMap<>();
+        for (Map.Entry<String, Long> entry : top(industryCounts, TOP_N)) {
+            long[] counts = industryStats.get(entry.getKey());
+            if (counts != null) {
+                topIndustryStats.put(entry.getKey(), counts);
+            }
+        }
+        results.put("industry_risk", categorical(topIndustryStats));
+
+        results.put("telecommuting_risk", binary(new String[]{"非远程", "远程"}, telecommutingStats));
+        results.put("benefits_risk", binary(new String[]{"无福利", "有福利"}, benefitsStats));
+        results.put("profile_credibility", labelsValues(FRAUD_LABELS,
+                mean(profileLengthSums[0], labeledCounts[0]), mean(profileLengthSums[1], labeledCounts[1])));
+        results.put("employment_type_risk", categorical(employmentTypeStats));
+        results.put("experience_risk", categorical(experienceStats));
+        results.put("education_risk", categorical(educationStats));
+        return results;
+    }
+
+    private static Map<String, Object> labelsValues(String[] labels, Object first, Object second) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("labels", List.of(labels));
+        result.put("values", List.of(first, second));
+        return result;
+    }
+
+    private static Map<String, Object> binary(String[] categories, long[][] stats) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("categories", List.of(categories));
+        result.put("real", List.of(stats[0][0], stats[1][0]));
+        result.put("fake", List.of(stats[0][1], stats[1][1]));
+        return result;
+    }
+
+    private static Map<String, Object> categorical(Map<String, long[]> stats) {
+        List<String> categories = new ArrayList<>(stats.keySet());
+        categories.sort(AnalysisAggregates::comparePython);
+        List<Long> real = new ArrayList<>(categories.size());
+        List<Long> fake = new ArrayList<>(categories.size());
+        for (String category : categories) {
+            long[] counts = stats.get(category);
+            real.add(counts[0]);
+            fake.add(counts[1]);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("categories", categories);
+        result.put("real", real);
+        result.put("fake", fake);
+        return result;
+    }
+
+    private static double mean(long sum, long count) {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * value_counts().head(n)：按次数降序，次数相同时按名称排序，保证结果稳定
+     */
+    private static List<Map.Entry<String, Long>> top(Map<String, Long> counts, int n) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Comparator.<Map.Entry<String, Long>>comparingLong(Map.Entry::getValue).reversed()
+                .thenComparing(Map.Entry::getKey, AnalysisAggregates::comparePython));
+        return entries.subList(0, Math.min(n, entries.size()));
+    }
+
+    private static List<String> keys(List<Map.Entry<String, Long>> entries) {
+        List<String> keys = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Long> entry : entries) {
+            keys.add(entry.getKey());
+        }
+        return keys;
+    }
+
+    private static List<Long> values(List<Map.Entry<String, Long>> entries) {
+        List<Long> values = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Long> entry : entries) {
+            values.add(entry.getValue());
+        }
+        return values;
+    }
+
+    /**
+     * Python字符串按码点比较，与String.compareTo（按UTF-16单元）在增补字符上不同
+     */
+    static int comparePython(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            if (ca != cb) {
+                return Integer.compare(ca, cb);
+            }
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Boolean.compare(i < a.length(), j < b.length());
+    }
+
+    /**
+     * 单个职位对各项统计的贡献，只保留统计需要的值（文本只保留长度和是否为空）
+     */
+    public static final class Contribution {
+        // Python中 str(None) == "None"，空值的长度按4计
+        static final int NULL_TEXT_LENGTH = 4;
+
+        private final Integer fraudulent;
+        private final String location;
+        private final Integer hasCompanyLogo;
+        private final int hasSalary;
+        private final int titleLength;
+        private final int descriptionLength;
+        private final int hasRequirements;
+        private final Integer hasQuestions;
+        private final String industry;
+        private final Integer telecommuting;
+        private final int hasBenefits;
+        private final int profileLength;
+        private final String employmentType;
+        private final String requiredExperience;
+        private final String requiredEducation;
+
+        private Contribution(Integer fraudulent, String location, Integer hasCompanyLogo, boolean hasSalary,
+                     int titleLength, int descriptionLength, boolean hasRequirements, Integer hasQuestions,
+                     String industry, Integer telecommuting, boolean hasBenefits, int profileLength,
+                     String employmentType, String requiredExperience, String requiredEducation) {
+            this.fraudulent = fraudulent;
+            this.location = location;
+            this.hasCompanyLogo = hasCompanyLogo;
+            this.hasSalary = hasSalary ? 1 : 0;
+            this.titleLength = titleLength;
+            this.descriptionLength = descriptionLength;
+            this.hasRequirements = hasRequirements ? 1 : 0;
+            this.hasQuestions = hasQuestions;
+            this.industry = industry;
+            this.telecommuting = telecommuting;
+            this.hasBenefits = hasBenefits ? 1 : 0;
+            this.profileLength = profileLength;
+            this.employmentType = employmentType;
+            this.requiredExperience = requiredExperience;
+            this.requiredEducation = requiredEducation;
+        }
+
+        public static Contribution of(JobPosting jobPosting) {
+            return new Contribution(
+                    jobPosting.getFraudulent(),
+                    jobPosting.getLocation(),
+                    jobPosting.getHasCompanyLogo(),
+                    isPresent(jobPosting.getSalaryRange()),
+                    textLength(jobPosting.getTitle()),
+                    textLength(jobPosting.getDescription()),
+                    isPresent(jobPosting.getRequirements()),
+                    jobPosting.getHasQuestions(),
+                    jobPosting.getIndustry(),
+                    jobPosting.getTelecommuting(),
+                    isPresent(jobPosting.getBenefits()),
+                    textLength(jobPosting.getCompanyProfile()),
+                    jobPosting.getEmploymentType(),
+                    jobPosting.getRequiredExperience(),
+                    jobPosting.getRequiredEducation());
+        }
+
+        // 对应 0 if x == 'Unknown' or pd.isna(x) else 1
+        static boolean isPresent(String value) {
+            return value != null && !"Unknown".equals(value);
+        }
+
+        // 对应 len(str(x))
+        static int textLength(String value) {
+            return value == null ? NULL_TEXT_LENGTH : FeatureExtractor.pyLen(value);
+        }
+    }
+}
@@ -1,24 +1,76 @@
 package com.over.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.dto.AnalysisSnapshot;
 import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
 public class AnalysisService {
 
+    @Autowired
+    private SqlAnalysisEngine sqlAnalysisEngine;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    // jvm：在内存中增量维护统计；sql：每次由数据库分组聚合；python：每次调用 realtime_analysis.py 全表重算
+    @Value("${analysis.engine:jvm}")
+    private String engine;
+
+    // sql、python模式下快照的最长复用时间，为0时每次调用都重新计算
+    @Value("${analysis.snapshot.max-age-ms:60000}")
+    private long snapshotMaxAgeMs;
+
+    // sql、python模式下快照生成后累计写入达到该次数即视为过期；jvm模式下任何写入都会使快照过期（重新生成代价很小）
+    @Value("${analysis.snapshot.max-writes:100}")
+    private long snapshotMaxWrites;
+
+    private final Object lock = new Object();
+
+    // 增量统计，初始化完成前为null，此时退回Python脚本
+    private AnalysisAggregates aggregates;
+
+    // 初始化（或重新加载）期间发生的职位变更，加载完成后补记到新的统计上
+    private List<AnalysisAggregates.Contribution[]> pendingChanges;
+
+    // 职位写入（及统计重新加载）次数，快照记录生成时的值，用于判断快照之后发生了多少变更
+    private final AtomicLong changeCount = new AtomicLong();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    // 当前快照，只整体替换
+    private volatile AnalysisSnapshot snapshot;
+
+    // 进行中的快照刷新，并发调用方共享同一次计算；受lock保护
+    private CompletableFuture<AnalysisSnapshot> refreshing;
+
     // private static final String SCRIPT_PATH = "model/analysis/realtime_analysis.py";
 
     private String getScriptPath() {
@@ -40,7 +92,13 @@ public class AnalysisService {
             try {
                 // 等待几秒，确保数据库连接等资源就绪
                 Thread.sleep(5000); 
-                String result = runPythonAnalysis();
+                if (isIncremental()) {
+                    reload();
+                    System.out.println("启动时统计初始化完成，职位数: " + aggregates.getRowCount());
+                    return;
+                }
+                // 结果保留为快照，之后的调用直接复用
+                String result = getSnapshot(false).getResult();
                 System.out.println("启动时自动分析完成，结果长度: " + (result != null ? result.length() : "null"));
             } catch (Exception e) {
                 e.printStackTrace();
@@ -48,6 +106,210 @@ public class AnalysisService {
         }).start();
     }
 
+    private boolean isIncremental() {
+        return "jvm".equals(engine);
+    }
+
+    /**
+     * 返回分析结果，快照未过期时直接复用
+     */
+    public String runAnalysis() {
+        return getSnapshot(false).getResult();
+    }
+
+    /**
+     * 返回当前分析快照；快照不存在、已过期或要求强制刷新时重新计算。
+     * 同一时刻只有一个线程计算，其余调用方等待并共用该结果
+     */
+    public AnalysisSnapshot getSnapshot(boolean forceRefresh) {
+        AnalysisSnapshot current = snapshot;
+        if (!forceRefresh && current != null && !isStale(current)) {
+            metricsRegistry.counter("analysis_snapshot_requests_total", "分析结果请求次数", "result", "reused").increment();
+            return current;
+        }
+        metricsRegistry.counter("analysis_snapshot_requests_total", "分析结果请求次数", "result", "rebuilt").increment();
+        CompletableFuture<AnalysisSnapshot> future;
+        boolean leader = false;
+        synchronized (lock) {
+            if (refreshing == null) {
+                refreshing = new CompletableFuture<>();
+                leader = true;
+            }
+            future = refreshing;
+        }
+        if (leader) {
+            try {
+                future.complete(buildSnapshot());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            } finally {
+                synchronized (lock) {
+                    refreshing = null;
+                }
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private boolean isStale(AnalysisSnapshot current) {
+        if (current.isError()) {
+            return true;
+        }
+        long writes = changeCount.get() - current.getChangeCount();
+        if ("jvm".equals(current.getSource())) {
+            return writes != 0;
+        }
+        synchronized (lock) {
+            // 增量统计就绪前由Python脚本生成的快照，就绪后立即改由统计生成
+            if (isIncremental() && aggregates != null) {
+                return true;
+            }
+        }
+        return writes >= Math.max(1, snapshotMaxWrites)
+                || System.currentTimeMillis() - current.getCreatedAt() >= snapshotMaxAgeMs;
+    }
+
+    /**
+     * 计算一次分析结果并发布为新快照；内容与上一快照相同时沿用其版本号
+     */
+    private AnalysisSnapshot buildSnapshot() {
+        // 先读取写入次数，计算期间的写入会使新快照在下次调用时过期
+        long count = changeCount.get();
+        long start = System.nanoTime();
+        String source = null;
+        String result = null;
+        if ("sql".equals(engine)) {
+            source = "sql";
+            result = serialize(aggregateFromDatabase("sql"));
+        } else {
+            synchronized (lock) {
+                if (aggregates != null) {
+                    source = "jvm";
+                    count = changeCount.get();
+                    result = serialize(aggregates);
+                }
+            }
+            if (result == null) {
+                source = "python";
+                result = runPythonAnalysis();
+            }
+        }
+        metricsRegistry.timer("analysis_run_seconds", "生成一次分析结果的耗时", "source", source).recordSince(start);
+
+        AnalysisSnapshot previous = snapshot;
+        long version = previous != null && previous.getResult().equals(result)
+                ? previous.getGeneration() : generation.incrementAndGet();
+        AnalysisSnapshot fresh = new AnalysisSnapshot(version, System.currentTimeMillis(), result,
+                etagOf(result), count, source);
+        snapshot = fresh;
+        return fresh;
+    }
+
+    private static String etagOf(String result) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(result.getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String serialize(AnalysisAggregates stats) {
+        if (stats.getRowCount() == 0) {
+            return "{\"error\": \"No data found in database\"}";
+        }
+        try {
+            return objectMapper.writeValueAsString(stats.toResult());
+        } catch (JsonProcessingException e) {
+            return "{\"error\": \"Serialization failed: " + e.getMessage().replace("\"", "'") + "\"}";
+        }
+    }
+
+    /**
+     * 通过SQL分组聚合加载一次统计；加载期间的职位变更先暂存，加载完成后补记
+     * （变更在加载查询开始前已提交、又在开始后才登记的极少数情况会重复计入，可再次调用本方法校正）
+     */
+    public void reload() {
+        synchronized (lock) {
+            if (pendingChanges != null) {
+                return;
+            }
+            pendingChanges = new ArrayList<>();
+        }
+        AnalysisAggregates fresh = null;
+        long start = System.nanoTime();
+        try {
+            fresh = aggregateFromDatabase("reload");
+        } finally {
+            metricsRegistry.timer("analysis_run_seconds", "生成一次分析结果的耗时", "source", "reload").recordSince(start);
+            synchronized (lock) {
+                List<AnalysisAggregates.Contribution[]> changes = pendingChanges;
+                pendingChanges = null;
+                // 加载失败时保留原有统计（或继续使用Python脚本）
+                if (fresh != null) {
+                    for (AnalysisAggregates.Contribution[] change : changes) {
+                        applyChange(fresh, change[0], change[1]);
+                    }
+                    aggregates = fresh;
+                    changeCount.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * 由数据库分组聚合出统计，记录参与聚合的职位行数
+     */
+    private AnalysisAggregates aggregateFromDatabase(String source) {
+        AnalysisAggregates aggregated = sqlAnalysisEngine.aggregate();
+        metricsRegistry.counter("analysis_rows_scanned_total", "分析聚合扫描的职位行数", "source", source)
+                .increment(aggregated.getRowCount());
+        return aggregated;
+    }
+
+    /**
+     * 职位新增（before为null）、修改、删除（after为null）时更新统计
+     */
+    public void recordChange(AnalysisAggregates.Contribution before, AnalysisAggregates.Contribution after) {
+        if (!isIncremental()) {
+            changeCount.incrementAndGet();
+            return;
+        }
+        synchronized (lock) {
+            changeCount.incrementAndGet();
+            if (aggregates != null) {
+                applyChange(aggregates, before, after);
+            }
+            if (pendingChanges != null) {
+                pendingChanges.add(new AnalysisAggregates.Contribution[]{before, after});
+            }
+        }
+    }
+
+    /**
+     * 批量导入等绕过逐条记录的写入之后调用：计入写入次数，增量统计从数据库重新加载
+     */
+    public void recordBulkChange(long rows) {
+        changeCount.addAndGet(rows);
+        if (isIncremental()) {
+            reload();
+        }
+    }
+
+    private static void applyChange(AnalysisAggregates stats, AnalysisAggregates.Contribution before,
+                                    AnalysisAggregates.Contribution after) {
+        if (before != null) {
+            stats.remove(before);
+        }
+        if (after != null) {
+            stats.add(after);
+        }
+    }
+
     public String runPythonAnalysis() {
         StringBuilder output = new StringBuilder();
         try {
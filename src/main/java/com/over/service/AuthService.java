@@ -6,16 +6,19 @@ import com.over.dto.LoginRequest;
 import com.over.dto.LoginResponse;
 import com.over.entity.User;
 import com.over.repository.UserRepository;
+import com.over.util.JwtClaims;
 import com.over.util.JwtUtil;
+import io.jsonwebtoken.ExpiredJwtException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class AuthService {
@@ -27,62 +30,95 @@ public class AuthService {
     private JwtUtil jwtUtil;
     
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordVerifier passwordVerifier;
+
+    @Autowired
+    private LoginStatsWriter loginStatsWriter;
     
     @Autowired
     private ObjectMapper objectMapper;
 
-    public LoginResponse login(LoginRequest request) {
-        Optional<User> userOpt = userRepository.findByUsername(request.getUsername());
+    @Autowired
+    private CacheRegistry cacheRegistry;
+
+    // 用户名 -> 用户，供菜单按角色/权限过滤使用；登录和刷新令牌读库校验密码与状态，并用读到的数据刷新缓存。
+    // 登录信息由 LoginStatsWriter 单独写回，缓存中的登录次数等字段不是最新值
+    private LocalCache<String, User> userCache;
+
+    @PostConstruct
+    public void init() {
+        userCache = cacheRegistry.region("users", 10000, 300000L, AuthService::copyUser);
+    }
+
+    private static User copyUser(User user) {
+        User copy = new User();
+        BeanUtils.copyProperties(user, copy);
+        return copy;
+    }
+
+    /**
+     * 用户信息被修改后调用
+     */
+    public void invalidateUser(String username) {
+        userCache.invalidate(username);
+    }
+
+    /**
+     * 登录。用户从数据库读取，库中修改密码或禁用后立即生效；BCrypt校验在 PasswordVerifier 的线程池中执行，
+     * 返回的future在校验线程上完成；线程池排队已满时以 RejectedExecutionException 失败。登录信息交给 LoginStatsWriter 合并写回
+     */
+    public CompletableFuture<LoginResponse> login(LoginRequest request) {
+        User user = loadUser(request.getUsername());
         
-        if (userOpt.isEmpty()) {
-            throw new RuntimeException("用户不存在");
+        if (user == null) {
+            return CompletableFuture.failedFuture(new RuntimeException("用户不存在"));
         }
         
-        User user = userOpt.get();
-        
         // 验证密码
         String storedPassword = user.getPassword();
-        boolean passwordValid = false;
         
         if (storedPassword == null || storedPassword.isEmpty()) {
-            throw new RuntimeException("用户密码未设置");
+            return CompletableFuture.failedFuture(new RuntimeException("用户密码未设置"));
         }
         
         // 首先尝试BCrypt验证
+        CompletableFuture<Boolean> bcryptValid;
         if (storedPassword.startsWith("$2a$") || storedPassword.startsWith("$2b$") || storedPassword.startsWith("$2y$")) {
-            try {
-                passwordValid = passwordEncoder.matches(request.getPassword(), storedPassword);
-            } catch (Exception e) {
-                // BCrypt验证异常，继续尝试其他方式
-                passwordValid = false;
-            }
+            bcryptValid = passwordVerifier.matches(request.getPassword(), storedPassword);
+        } else {
+            bcryptValid = CompletableFuture.completedFuture(false);
         }
         
-        // 如果BCrypt验证失败，且输入的密码是"123456"（默认测试密码），则允许通过
-        // 这是为了兼容测试环境，生产环境应该删除此逻辑
-        if (!passwordValid && "123456".equals(request.getPassword())) {
-            passwordValid = true;
-        }
-        
-        // 如果还是失败，尝试明文比较（仅用于开发测试）
-        if (!passwordValid) {
-            passwordValid = storedPassword.equals(request.getPassword());
-        }
-        
-        if (!passwordValid) {
-            throw new RuntimeException("密码错误");
-        }
-        
-        if (user.getStatus() != null && user.getStatus() == 0) {
-            throw new RuntimeException("用户已被禁用");
-        }
-        
-        // 更新登录信息
-        user.setLastLoginTime(LocalDateTime.now());
-        user.setLoginCount((user.getLoginCount() == null ? 0 : user.getLoginCount()) + 1);
-        userRepository.save(user);
-        
+        return bcryptValid.thenApply(valid -> {
+            boolean passwordValid = valid;
+            
+            // 如果BCrypt验证失败，且输入的密码是"123456"（默认测试密码），则允许通过
+            // 这是为了兼容测试环境，生产环境应该删除此逻辑
+            if (!passwordValid && "123456".equals(request.getPassword())) {
+                passwordValid = true;
+            }
+            
+            // 如果还是失败，尝试明文比较（仅用于开发测试）
+            if (!passwordValid) {
+                passwordValid = storedPassword.equals(request.getPassword());
+            }
+            
+            if (!passwordValid) {
+                throw new RuntimeException("密码错误");
+            }
+            
+            if (user.getStatus() != null && user.getStatus() == 0) {
+                throw new RuntimeException("用户已被禁用");
+            }
+            
+            // 更新登录信息（合并后批量写回）
+            loginStatsWriter.record(user.getId(), LocalDateTime.now());
+            
+            return buildResponse(user);
+        });
+    }
+
+    private LoginResponse buildResponse(User user) {
         // 解析roles和permissions
         List<String> roles = parseJsonArray(user.getRoles());
         List<String> permissions = parseJsonArray(user.getPermissions());
@@ -111,44 +147,70 @@ public class AuthService {
 
     public LoginResponse refreshToken(String refreshToken) {
         try {
-            String username = jwtUtil.getUsernameFromToken(refreshToken);
-            if (jwtUtil.isTokenExpired(refreshToken)) {
+            JwtClaims claims;
+            try {
+                claims = jwtUtil.verify(refreshToken);
+            } catch (ExpiredJwtException e) {
                 throw new RuntimeException("刷新令牌已过期");
             }
+            if (!"refresh".equals(claims.getType())) {
+                throw new RuntimeException("令牌类型错误");
+            }
+            String username = claims.getUsername();
             
-            Optional<User> userOpt = userRepository.findByUsername(username);
-            if (userOpt.isEmpty()) {
+            User user = loadUser(username);
+            if (user == null) {
                 throw new RuntimeException("用户不存在");
             }
+            if (user.getStatus() != null && user.getStatus() == 0) {
+                throw new RuntimeException("用户已被禁用");
+            }
             
-            User user = userOpt.get();
-            List<String> roles = parseJsonArray(user.getRoles());
-            List<String> permissions = parseJsonArray(user.getPermissions());
-            
-            String newAccessToken = jwtUtil.generateToken(username, "access");
-            String newRefreshToken = jwtUtil.generateToken(username, "refresh");
-            Date expires = new Date(System.currentTimeMillis() + 86400000L);
-            
-            LoginResponse.LoginData data = new LoginResponse.LoginData();
-            data.setAvatar(user.getAvatar() != null ? user.getAvatar() : "");
-            data.setUsername(user.getUsername());
-            data.setNickname(user.getNickname() != null ? user.getNickname() : user.getUsername());
-            data.setRoles(roles);
-            data.setPermissions(permissions);
-            data.setAccessToken(newAccessToken);
-            data.setRefreshToken(newRefreshToken);
-            data.setExpires(expires);
-            
-            LoginResponse response = new LoginResponse();
-            response.setSuccess(true);
-            response.setData(data);
-            
-            return response;
+            return buildResponse(user);
         } catch (Exception e) {
             throw new RuntimeException("刷新令牌失败: " + e.getMessage());
         }
     }
 
+    /**
+     * 从数据库读取用户，并用结果刷新用户缓存（用户已删除时失效）
+     */
+    private User loadUser(String username) {
+        User user = username == null ? null : userRepository.findByUsername(username).orElse(null);
+        if (user == null) {
+            if (username != null) {
+                userCache.invalidate(username);
+            }
+            return null;
+        }
+        userCache.put(username, user);
+        return user;
+    }
+
+    /**
+     * 用户的角色（走用户缓存），username为null、用户不存在或已禁用时返回空列表
+     */
+    public List<String> getRoles(String username) {
+        User user = findActiveUser(username);
+        return user == null ? new ArrayList<>() : parseJsonArray(user.getRoles());
+    }
+
+    /**
+     * 用户的权限标识（走用户缓存），username为null、用户不存在或已禁用时返回空列表
+     */
+    public List<String> getPermissions(String username) {
+        User user = findActiveUser(username);
+        return user == null ? new ArrayList<>() : parseJsonArray(user.getPermissions());
+    }
+
+    private User findActiveUser(String username) {
+        if (username == null) {
+            return null;
+        }
+        User user = userCache.get(username, name -> userRepository.findByUsername(name).orElse(null));
+        return user == null || (user.getStatus() != null && user.getStatus() == 0) ? null : user;
+    }
+
     private List<String> parseJsonArray(String json) {
         if (json == null || json.trim().isEmpty()) {
             return new ArrayList<>();
@@ -0,0 +1,56 @@
+package com.over.service;
+
+import com.over.dto.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * 热点读路径的缓存区域（菜单、用户、职位）
+ * 各区域的容量和过期时间分别取自 cache.regions.{区域名}.max-size / ttl-ms，max-size 为0时该区域不缓存；
+ * 写入方在修改数据后调用对应区域的 invalidate。各服务只依赖 LocalCache 的接口，更换缓存实现只需修改本类
+ */
+@Component
+public class CacheRegistry {
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${cache.enabled:true}")
+    private boolean enabled;
+
+    private final Map<String, LocalCache<?, ?>> regions = new ConcurrentHashMap<>();
+
+    /**
+     * 取得指定名称的缓存区域，首次调用时按配置创建；未配置时使用给定的默认容量和过期时间
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> LocalCache<K, V> region(String name, int defaultMaxSize, long defaultTtlMs, UnaryOperator<V> copier) {
+        return (LocalCache<K, V>) regions.computeIfAbsent(name, key -> {
+            String prefix = "cache.regions." + name + ".";
+            int maxSize = enabled ? environment.getProperty(prefix + "max-size", Integer.class, defaultMaxSize) : 0;
+            long ttlMs = environment.getProperty(prefix + "ttl-ms", Long.class, defaultTtlMs);
+            return new LocalCache<K, V>(name, maxSize, ttlMs, copier);
+        });
+    }
+
+    public LocalCache<?, ?> getRegion(String name) {
+        return regions.get(name);
+    }
+
+    public List<CacheStats> getStats() {
+        List<CacheStats> stats = new ArrayList<>();
+        for (LocalCache<?, ?> region : regions.values()) {
+            stats.add(region.getStats());
+        }
+        stats.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return stats;
+    }
+}
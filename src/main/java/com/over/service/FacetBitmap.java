@@ -0,0 +1,145 @@
+package com.over.service;
+
+import java.util.Arrays;
+
+/**
+ * 职位ID集合的位图，按基数在两种表示之间切换（与Roaring位图的容器思路相同）：
+ * 稀疏时为有序int数组，超过 DENSE_THRESHOLD 个元素后转为按位存储的long数组，
+ * 低于 SPARSE_THRESHOLD 时再转回数组；位的下标直接是jobId。本类不是线程安全的
+ */
+final class FacetBitmap {
+
+    static final int DENSE_THRESHOLD = 4096;
+    static final int SPARSE_THRESHOLD = 2048;
+
+    // 稀疏表示
+    private int[] values = new int[4];
+
+    // 稠密表示，为null时使用稀疏表示
+    private long[] words;
+
+    private int cardinality;
+
+    int cardinality() {
+        return cardinality;
+    }
+
+    boolean contains(int id) {
+        if (words != null) {
+            int word = id >>> 6;
+            return word < words.length && (words[word] & (1L << id)) != 0;
+        }
+        return Arrays.binarySearch(values, 0, cardinality, id) >= 0;
+    }
+
+    void add(int id) {
+        if (words != null) {
+            int word = id >>> 6;
+            if (word >= words.length) {
+                words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+            }
+            if ((words[word] & (1L << id)) == 0) {
+                words[word] |= 1L << id;
+                cardinality++;
+            }
+            return;
+        }
+        int index = cardinality == 0 || values[cardinality - 1] < id
+                ? -cardinality - 1 : Arrays.binarySearch(values, 0, cardinality, id);
+        if (index >= 0) {
+            return;
+        }
+        int insertAt = -index - 1;
+        if (cardinality == values.length) {
+            values = Arrays.copyOf(values, cardinality * 2);
+        }
+        System.arraycopy(values, insertAt, values, insertAt + 1, cardinality - insertAt);
+        values[insertAt] = id;
+        cardinality++;
+        if (cardinality > DENSE_THRESHOLD) {
+            toDense();
+        }
+    }
+
+    void remove(int id) {
+        if (words != null) {
+            int word = id >>> 6;
+            if (word < words.length && (words[word] & (1L << id)) != 0) {
+                words[word] &= ~(1L << id);
+                cardinality--;
+                if (cardinality < SPARSE_THRESHOLD) {
+                    toSparse();
+                }
+            }
+            return;
+        }
+        int index = Arrays.binarySearch(values, 0, cardinality, id);
+        if (index >= 0) {
+            System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+            cardinality--;
+        }
+    }
+
+    /**
+     * 把本集合并入按位存储的 target（target 须足够容纳最大ID）
+     */
+    void orInto(long[] target) {
+        if (words != null) {
+            int length = Math.min(words.length, target.length);
+            for (int i = 0; i < length; i++) {
+                target[i] |= words[i];
+            }
+            return;
+        }
+        for (int i = 0; i < cardinality; i++) {
+            int id = values[i];
+            target[id >>> 6] |= 1L << id;
+        }
+    }
+
+    /**
+     * 本集合与按位存储的 filter 的交集大小，不分配内存
+     */
+    int intersectCount(long[] filter) {
+        int count = 0;
+        if (words != null) {
+            int length = Math.min(words.length, filter.length);
+            for (int i = 0; i < length; i++) {
+                count += Long.bitCount(words[i] & filter[i]);
+            }
+            return count;
+        }
+        for (int i = 0; i < cardinality; i++) {
+            int id = values[i];
+            int word = id >>> 6;
+            if (word < filter.length && (filter[word] & (1L << id)) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void toDense() {
+        int maxId = values[cardinality - 1];
+        words = new long[(maxId >>> 6) + 1];
+        for (int i = 0; i < cardinality; i++) {
+            int id = values[i];
+            words[id >>> 6] |= 1L << id;
+        }
+        values = null;
+    }
+
+    private void toSparse() {
+        int[] sparse = new int[Math.max(4, cardinality)];
+        int size = 0;
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                sparse[size++] = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        values = sparse;
+        words = null;
+    }
+}
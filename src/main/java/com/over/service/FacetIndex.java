@@ -0,0 +1,239 @@
+package com.over.service;
+
+import com.over.entity.JobPosting;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 职位低基数字段的位图索引
+ * 每个字段的每个取值对应一个 jobId 位图；筛选时同一字段内多个取值求并集、不同字段之间求交集，
+ * 每个字段的分面计数按"除本字段外的其他筛选条件"计算（选中某个行业后仍能看到其他行业的数量）。
+ * 空值不计入任何取值。本类不是线程安全的，由 JobPostingFacetService 加锁访问
+ */
+public class FacetIndex {
+
+    /**
+     * 可筛选的字段，param 为请求参数名（与 JobPosting 字段名一致）
+     */
+    public enum Facet {
+        INDUSTRY("industry", "industry", JobPosting::getIndustry),
+        EMPLOYMENT_TYPE("employmentType", "employment_type", JobPosting::getEmploymentType),
+        REQUIRED_EXPERIENCE("requiredExperience", "required_experience", JobPosting::getRequiredExperience),
+        REQUIRED_EDUCATION("requiredEducation", "required_education", JobPosting::getRequiredEducation),
+        TELECOMMUTING("telecommuting", "telecommuting", JobPosting::getTelecommuting),
+        HAS_COMPANY_LOGO("hasCompanyLogo", "has_company_logo", JobPosting::getHasCompanyLogo),
+        FRAUDULENT("fraudulent", "fraudulent", JobPosting::getFraudulent);
+
+        final String param;
+        final String column;
+        private final Function<JobPosting, Object> getter;
+
+        Facet(String param, String column, Function<JobPosting, Object> getter) {
+            this.param = param;
+            this.column = column;
+            this.getter = getter;
+        }
+
+        public String getParam() {
+            return param;
+        }
+
+        String valueOf(JobPosting jobPosting) {
+            Object value = getter.apply(jobPosting);
+            return value == null ? null : value.toString();
+        }
+
+        public static Facet fromParam(String param) {
+            for (Facet facet : values()) {
+                if (facet.param.equals(param)) {
+                    return facet;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final Facet[] FACETS = Facet.values();
+
+    private final FacetBitmap all = new FacetBitmap();
+
+    // 每个字段：取值 -> 位图
+    private final List<Map<String, FacetBitmap>> bitmaps = new ArrayList<>(FACETS.length);
+
+    private int maxId = -1;
+
+    public FacetIndex() {
+        for (int i = 0; i < FACETS.length; i++) {
+            bitmaps.add(new HashMap<>());
+        }
+    }
+
+    public int size() {
+        return all.cardinality();
+    }
+
+    /**
+     * 新增或替换一个职位，values按 Facet 顺序给出各字段取值（空值为null）
+     */
+    public void put(int jobId, String[] values) {
+        remove(jobId);
+        all.add(jobId);
+        maxId = Math.max(maxId, jobId);
+        for (int f = 0; f < FACETS.length; f++) {
+            if (values[f] != null) {
+                bitmaps.get(f).computeIfAbsent(values[f], key -> new FacetBitmap()).add(jobId);
+            }
+        }
+    }
+
+    public void put(JobPosting jobPosting) {
+        String[] values = new String[FACETS.length];
+        for (int f = 0; f < FACETS.length; f++) {
+            values[f] = FACETS[f].valueOf(jobPosting);
+        }
+        put(jobPosting.getJobId(), values);
+    }
+
+    /**
+     * 删除一个职位：逐个取值位图清除该位（取值数量很少），不存在时忽略
+     */
+    public void remove(int jobId) {
+        if (!all.contains(jobId)) {
+            return;
+        }
+        all.remove(jobId);
+        for (Map<String, FacetBitmap> facetBitmaps : bitmaps) {
+            facetBitmaps.values().removeIf(bitmap -> {
+                bitmap.remove(jobId);
+                return bitmap.cardinality() == 0;
+            });
+        }
+    }
+
+    /**
+     * 按筛选条件查询：返回匹配总数、各字段的分面计数（按数量降序），以及 jobId 大于 after 的前 limit 个匹配ID
+     */
+    public Result query(Map<Facet, Set<String>> selected, int after, int limit) {
+        int wordCount = (Math.max(maxId, 0) >>> 6) + 1;
+        long[] allWords = new long[wordCount];
+        all.orInto(allWords);
+
+        long[][] selections = new long[FACETS.length][];
+        for (Map.Entry<Facet, Set<String>> entry : selected.entrySet()) {
+            long[] words = new long[wordCount];
+            Map<String, FacetBitmap> facetBitmaps = bitmaps.get(entry.getKey().ordinal());
+            for (String value : entry.getValue()) {
+                FacetBitmap bitmap = facetBitmaps.get(value);
+                if (bitmap != null) {
+                    bitmap.orInto(words);
+                }
+            }
+            selections[entry.getKey().ordinal()] = words;
+        }
+
+        long[] matching = intersect(allWords, selections, -1);
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        for (int f = 0; f < FACETS.length; f++) {
+            long[] base = selections[f] == null ? matching : intersect(allWords, selections, f);
+            List<Map.Entry<String, Integer>> counts = new ArrayList<>();
+            for (Map.Entry<String, FacetBitmap> entry : bitmaps.get(f).entrySet()) {
+                int count = entry.getValue().intersectCount(base);
+                if (count > 0) {
+                    counts.add(Map.entry(entry.getKey(), count));
+                }
+            }
+            counts.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+            Map<String, Integer> facetCounts = new LinkedHashMap<>();
+            for (Map.Entry<String, Integer> count : counts) {
+                facetCounts.put(count.getKey(), count.getValue());
+            }
+            facets.put(FACETS[f].param, facetCounts);
+        }
+
+        int total = 0;
+        for (long word : matching) {
+            total += Long.bitCount(word);
+        }
+        List<Integer> ids = new ArrayList<>();
+        Integer nextCursor = null;
+        int id = nextSetBit(matching, Math.max(after + 1, 0));
+        while (id >= 0 && ids.size() < limit) {
+            ids.add(id);
+            id = nextSetBit(matching, id + 1);
+        }
+        if (id >= 0 && !ids.isEmpty()) {
+            nextCursor = ids.get(ids.size() - 1);
+        }
+        return new Result(total, facets, ids, nextCursor);
+    }
+
+    /**
+     * allWords 与除 skip 外所有筛选条件的交集
+     */
+    private static long[] intersect(long[] allWords, long[][] selections, int skip) {
+        long[] result = allWords.clone();
+        for (int f = 0; f < selections.length; f++) {
+            if (f == skip || selections[f] == null) {
+                continue;
+            }
+            long[] selection = selections[f];
+            for (int i = 0; i < result.length; i++) {
+                result[i] &= selection[i];
+            }
+        }
+        return result;
+    }
+
+    private static int nextSetBit(long[] words, int from) {
+        int index = from >>> 6;
+        if (index >= words.length) {
+            return -1;
+        }
+        long word = words[index] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (index << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++index == words.length) {
+                return -1;
+            }
+            word = words[index];
+        }
+    }
+
+    public static final class Result {
+        private final int total;
+        private final Map<String, Map<String, Integer>> facets;
+        private final List<Integer> ids;
+        private final Integer nextCursor;
+
+        Result(int total, Map<String, Map<String, Integer>> facets, List<Integer> ids, Integer nextCursor) {
+            this.total = total;
+            this.facets = facets;
+            this.ids = ids;
+            this.nextCursor = nextCursor;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public Map<String, Map<String, Integer>> getFacets() {
+            return facets;
+        }
+
+        public List<Integer> getIds() {
+            return ids;
+        }
+
+        public Integer getNextCursor() {
+            return nextCursor;
+        }
+    }
+}
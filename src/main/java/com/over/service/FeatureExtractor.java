@@ -0,0 +1,311 @@
+package com.over.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.dto.PredictionRequest;
+import com.over.util.ModelFileUtil;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * predict.py preprocess_features 的Java实现，生成25维特征向量
+ * 字符串长度按码点计算、空白字符按Python str.isspace()判断、关键词按Python str.lower()规则匹配，保证与Python结果一致。
+ * 与Python的一致性由 src/test/resources/features/golden.json（model/generate_feature_golden.py 生成）保证。
+ */
+@Component
+public class FeatureExtractor {
+
+    public static final int FEATURE_COUNT = 25;
+
+    private static final String[] SUSPICIOUS_KEYWORDS = {
+        "free", "easy", "work from home", "no experience", "immediate"
+    };
+
+    private static final KeywordAutomaton KEYWORDS = new KeywordAutomaton(SUSPICIOUS_KEYWORDS);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // 字段名 -> (类别 -> LabelEncoder编码)
+    private volatile Map<String, Map<String, Integer>> encoders = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        File encodersFile = ModelFileUtil.exportFile("label_encoders.json");
+        if (!encodersFile.exists()) {
+            System.out.println("未找到导出的标签编码器，JVM内推理的分类特征将全部编码为0: " + encodersFile.getPath());
+            return;
+        }
+        try {
+            loadEncoders(encodersFile);
+        } catch (IOException e) {
+            System.err.println("加载标签编码器失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 加载 export_models.py 导出的 label_encoders.json（字段名 -> classes_ 列表）
+     */
+    public void loadEncoders(File file) throws IOException {
+        setEncoderClasses(objectMapper.readValue(file, new TypeReference<Map<String, List<String>>>() {}));
+    }
+
+    /**
+     * 设置各分类字段的 classes_，编码值即类别在列表中的下标
+     */
+    public void setEncoderClasses(Map<String, List<String>> classes) {
+        Map<String, Map<String, Integer>> loaded = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : classes.entrySet()) {
+            Map<String, Integer> codes = new HashMap<>();
+            List<String> values = entry.getValue();
+            for (int i = 0; i < values.size(); i++) {
+                codes.put(values.get(i), i);
+            }
+            loaded.put(entry.getKey(), codes);
+        }
+        encoders = loaded;
+    }
+
+    /**
+     * 构建特征向量
+     */
+    public double[] extract(PredictionRequest request) {
+        double[] features = new double[FEATURE_COUNT];
+        extract(request, features);
+        return features;
+    }
+
+    /**
+     * 构建特征向量并写入调用方提供的数组（长度至少为 FEATURE_COUNT），便于批量场景复用数组
+     * 每个文本字段只扫描一遍，同时得到码点长度、单词数和关键词命中，不产生split数组或小写副本
+     */
+    public void extract(PredictionRequest request, double[] features) {
+        // 文本长度特征 + 单词数；标题和描述同时做关键词匹配
+        int keywordMask = scan(request.getTitle(), true, features, 0, 13);
+        keywordMask |= scan(request.getDescription(), true, features, 1, 14);
+        scan(request.getRequirements(), false, features, 2, 15);
+        scan(request.getCompanyProfile(), false, features, 3, 16);
+
+        // 数值特征
+        features[4] = orZero(request.getTelecommuting());
+        features[5] = orZero(request.getHasCompanyLogo());
+        features[6] = orZero(request.getHasQuestions());
+
+        // 是否有薪资范围
+        features[7] = isBlank(request.getSalaryRange()) ? 0 : 1;
+
+        // 分类特征
+        features[8] = encode("employment_type", request.getEmploymentType());
+        features[9] = encode("required_experience", request.getRequiredExperience());
+        features[10] = encode("required_education", request.getRequiredEducation());
+        features[11] = encode("industry", request.getIndustry());
+        features[12] = encode("function", request.getFunction());
+
+        // 部门、福利：有非空白字符即单词数大于0
+        features[17] = isBlank(request.getDepartment()) ? 0 : 1;
+        scan(request.getBenefits(), false, features, 18, 19);
+        features[19] = features[19] > 0 ? 1 : 0;
+
+        // 可疑关键词：标题或描述中出现即计数一次
+        features[20] = Integer.bitCount(keywordMask);
+
+        features[21] = pyLen(request.getLocation());
+
+        // 组合特征
+        double titleLen = features[0];
+        double descLen = features[1];
+        double reqLen = features[2];
+        double profileLen = features[3];
+        features[22] = titleLen > 0 ? descLen / titleLen : 0;
+        features[23] = descLen > 0 ? reqLen / descLen : 0;
+        features[24] = profileLen > 0 ? Math.min(profileLen / 500.0, 1.0) : 0;
+    }
+
+    private int encode(String field, String value) {
+        Map<String, Integer> codes = encoders.get(field);
+        if (codes == null) {
+            return 0;
+        }
+        String key = value == null || value.isEmpty() ? "Unknown" : value;
+        // 未见过的类别与Python一致编码为0
+        return codes.getOrDefault(key, 0);
+    }
+
+    private static int orZero(Integer value) {
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * 单次扫描文本：把码点长度写入 features[lengthIndex]、单词数写入 features[wordIndex]，
+     * matchKeywords 为 true 时返回命中的可疑关键词位掩码
+     */
+    static int scan(String text, boolean matchKeywords, double[] features, int lengthIndex, int wordIndex) {
+        if (text == null) {
+            features[lengthIndex] = 0;
+            features[wordIndex] = 0;
+            return 0;
+        }
+        int length = 0;
+        int words = 0;
+        boolean inWord = false;
+        int state = 0;
+        int mask = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            // 代理对的低位不单独计入长度，与Python按码点计数一致
+            if (!(Character.isLowSurrogate(c) && i > 0 && Character.isHighSurrogate(text.charAt(i - 1)))) {
+                length++;
+            }
+
+            if (isPySpace(c)) {
+                inWord = false;
+            } else if (!inWord) {
+                inWord = true;
+                words++;
+            }
+
+            if (matchKeywords) {
+                if (c < 128) {
+                    state = KEYWORDS.next(state, c);
+                } else if (c == '\u0130') {
+                    // Python中 'İ'.lower() 为 "i" + U+0307，先走 'i' 再因非ASCII字符回到根
+                    state = KEYWORDS.next(state, 'i');
+                    mask |= KEYWORDS.output(state);
+                    state = 0;
+                } else {
+                    // 只有 U+212A (开尔文符号) 会转成ASCII字母 'k'，其他非ASCII字符不可能出现在关键词中
+                    char lower = Character.toLowerCase(c);
+                    state = lower < 128 ? KEYWORDS.next(state, lower) : 0;
+                }
+                mask |= KEYWORDS.output(state);
+            }
+        }
+        features[lengthIndex] = length;
+        features[wordIndex] = words;
+        return mask;
+    }
+
+    /**
+     * Python len(str)：按Unicode码点计数
+     */
+    static int pyLen(String value) {
+        return value == null ? 0 : value.codePointCount(0, value.length());
+    }
+
+    /**
+     * Python str.isspace() 对应的空白字符集合，比 Character.isWhitespace 多出几个不换行空格
+     */
+    static boolean isPySpace(char c) {
+        return Character.isWhitespace(c) || c == '\u0085' || c == '\u00A0' || c == '\u2007' || c == '\u202F';
+    }
+
+    /**
+     * 对应Python中 not (value and str(value).strip())
+     */
+    static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (!isPySpace(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 可疑关键词的Aho-Corasick自动机，预先展开为ASCII字母表上的确定状态转移表
+     * 输入按Python str.lower() 规则逐字符转小写后喂入，一次扫描即可找出所有命中的关键词
+     */
+    static final class KeywordAutomaton {
+        private static final int ALPHABET = 128;
+
+        private final int[][] transitions;
+        private final int[] outputs;
+
+        KeywordAutomaton(String[] keywords) {
+            List<int[]> gotoTable = new ArrayList<>();
+            List<Integer> outputList = new ArrayList<>();
+            gotoTable.add(newRow());
+            outputList.add(0);
+
+            // 构建字典树
+            for (int k = 0; k < keywords.length; k++) {
+                int state = 0;
+                for (char c : keywords[k].toCharArray()) {
+                    if (gotoTable.get(state)[c] == -1) {
+                        gotoTable.get(state)[c] = gotoTable.size();
+                        gotoTable.add(newRow());
+                        outputList.add(0);
+                    }
+                    state = gotoTable.get(state)[c];
+                }
+                outputList.set(state, outputList.get(state) | (1 << k));
+            }
+
+            // 按BFS计算失败指针，并把缺失的转移补全为确定转移
+            int size = gotoTable.size();
+            int[] fail = new int[size];
+            transitions = new int[size][];
+            outputs = new int[size];
+            for (int i = 0; i < size; i++) {
+                transitions[i] = gotoTable.get(i);
+                outputs[i] = outputList.get(i);
+            }
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int c = 0; c < ALPHABET; c++) {
+                int child = transitions[0][c];
+                if (child == -1) {
+                    transitions[0][c] = 0;
+                } else {
+                    fail[child] = 0;
+                    queue.add(child);
+                }
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                outputs[state] |= outputs[fail[state]];
+                for (int c = 0; c < ALPHABET; c++) {
+                    int child = transitions[state][c];
+                    if (child == -1) {
+                        transitions[state][c] = transitions[fail[state]][c];
+                    } else {
+                        fail[child] = transitions[fail[state]][c];
+                        queue.add(child);
+                    }
+                }
+            }
+        }
+
+        private static int[] newRow() {
+            int[] row = new int[ALPHABET];
+            Arrays.fill(row, -1);
+            return row;
+        }
+
+        int next(int state, char c) {
+            // ASCII大写字母转小写
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + 32);
+            }
+            return transitions[state][c];
+        }
+
+        int output(int state) {
+            return outputs[state];
+        }
+    }
+}
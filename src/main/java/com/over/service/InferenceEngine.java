@@ -0,0 +1,30 @@
+package com.over.service;
+
+/**
+ * JVM内推理引擎
+ * 输入为 FeatureExtractor 生成的25维特征向量（与 predict.py preprocess_features 一致），输出虚假职位概率。
+ * 实现必须线程安全，且单次调用不应分配对象。
+ */
+public interface InferenceEngine {
+
+    /**
+     * 引擎名称，如 "native"
+     */
+    String getName();
+
+    /**
+     * 是否已加载指定模型的导出文件
+     */
+    boolean supports(String modelName);
+
+    /**
+     * 返回类别1（虚假职位）的概率
+     */
+    double predictProbability(String modelName, double[] features);
+
+    /**
+     * 模型文件更新后重新读取指定模型的导出文件；读取失败时不再支持该模型，不继续使用旧模型
+     */
+    default void reload(String modelName) {
+    }
+}
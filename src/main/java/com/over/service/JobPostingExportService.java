@@ -0,0 +1,231 @@
+package com.over.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 职位数据导出
+ * 用只进只读的结果集逐行读取 job_postings（MySQL驱动在 fetchSize 为 Integer.MIN_VALUE 时逐行流式返回），
+ * 每行直接写为NDJSON或CSV，内存占用与总行数无关
+ */
+@Service
+public class JobPostingExportService {
+
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String FORMAT_CSV = "csv";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Integer.MIN_VALUE 为MySQL逐行流式读取；连接串开启 useCursorFetch=true 时可改为正数按批读取
+    @Value("${job-posting.export.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    /**
+     * 导出条件，字段为null表示不过滤；location按前缀匹配（如 "US, NY"）
+     */
+    public static class Filter {
+        private final Integer fraudulent;
+        private final String industry;
+        private final String location;
+
+        public Filter(Integer fraudulent, String industry, String location) {
+            this.fraudulent = fraudulent;
+            this.industry = industry;
+            this.location = location;
+        }
+    }
+
+    public static boolean isSupportedFormat(String format) {
+        return FORMAT_NDJSON.equals(format) || FORMAT_CSV.equals(format);
+    }
+
+    /**
+     * 按条件导出全部匹配的职位，按主键顺序写出，返回导出的行数
+     */
+    public long export(String format, Filter filter, OutputStream outputStream) throws IOException {
+        List<Object> args = new ArrayList<>();
+        String sql = buildQuery(filter, args);
+        List<String> fields = new ArrayList<>(JobPostingService.SUMMARY_COLUMNS.keySet());
+        fields.addAll(JobPostingService.TEXT_COLUMNS.keySet());
+        long startTime = System.currentTimeMillis();
+
+        RowWriter writer = FORMAT_CSV.equals(format)
+                ? new CsvRowWriter(outputStream, fields)
+                : new NdjsonRowWriter(objectMapper.getFactory(), outputStream, fields);
+        long[] rows = {0};
+        PreparedStatementCreator statement = connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        };
+        Object[] values = new Object[fields.size()];
+        try {
+            jdbcTemplate.query(statement, rs -> {
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = rs.getObject(i + 1);
+                }
+                try {
+                    writer.write(values);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            // 客户端断开连接，终止读取并释放连接
+            System.err.println(String.format("职位导出中断: 已写出 %d 行, %s", rows[0], e.getCause().getMessage()));
+            throw e.getCause();
+        }
+        writer.finish();
+        System.out.println(String.format("职位导出完成: 格式 %s, %d 行, 用时 %d ms",
+                format, rows[0], System.currentTimeMillis() - startTime));
+        return rows[0];
+    }
+
+    /**
+     * 生成导出查询，列顺序为列表字段在前、TEXT字段在后
+     */
+    static String buildQuery(Filter filter, List<Object> args) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (String column : JobPostingService.SUMMARY_COLUMNS.values()) {
+            sql.append('`').append(column).append("`, ");
+        }
+        for (String column : JobPostingService.TEXT_COLUMNS.values()) {
+            sql.append('`').append(column).append("`, ");
+        }
+        sql.setLength(sql.length() - 2);
+        sql.append(" FROM job_postings");
+
+        List<String> conditions = new ArrayList<>();
+        if (filter.fraudulent != null) {
+            conditions.add("fraudulent = ?");
+            args.add(filter.fraudulent);
+        }
+        if (filter.industry != null && !filter.industry.isEmpty()) {
+            conditions.add("industry = ?");
+            args.add(filter.industry);
+        }
+        if (filter.location != null && !filter.location.isEmpty()) {
+            conditions.add("location LIKE ? ESCAPE '!'");
+            args.add(filter.location.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%");
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY job_id");
+        return sql.toString();
+    }
+
+    interface RowWriter {
+        void write(Object[] values) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    /**
+     * 每行一个JSON对象，字段名与 JobPosting 一致
+     */
+    static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private final List<String> fields;
+
+        NdjsonRowWriter(JsonFactory factory, OutputStream outputStream, List<String> fields) throws IOException {
+            this.generator = factory.createGenerator(outputStream);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.fields = fields;
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(fields.get(i));
+                Object value = values[i];
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Number) {
+                    generator.writeNumber(((Number) value).longValue());
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * RFC 4180 CSV，首行为字段名；含逗号、引号、换行的值加引号，空值写为空字段
+     */
+    static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream outputStream, List<String> fields) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+            write(fields.toArray());
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writeValue(values[i].toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeValue(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+}
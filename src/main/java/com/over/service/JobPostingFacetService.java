@@ -0,0 +1,205 @@
+package com.over.service;
+
+import com.over.entity.JobPosting;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 职位分面筛选
+ * 启动时流式扫描 job_postings 建立位图索引，之后随职位增删改同步更新，筛选和计数不访问数据库；
+ * 数据被应用之外的方式修改后通过 rebuild 重建
+ */
+@Service
+public class JobPostingFacetService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${facet.enabled:true}")
+    private boolean enabled;
+
+    // 每次最多返回的匹配ID数
+    @Value("${facet.max-ids:1000}")
+    private int maxIds;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 索引，建立完成前为null
+    private FacetIndex index;
+
+    // 重建期间发生的变更（删除时职位为null），重建完成后补记到新索引上；受lock保护
+    private Map<Integer, JobPosting> pendingChanges;
+
+    // 重建期间又收到重建请求（如批量导入在读表之后写入），当前重建完成后再建一次；受lock保护
+    private boolean rebuildRequested;
+
+    private volatile long lastBuildMs;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                System.err.println("分面索引建立失败: " + e.getMessage());
+            }
+        }, "facet-index-build");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 从数据库重新建立索引；建立期间查询继续使用旧索引，变更先暂存，完成后补记。
+     * 已在重建时只登记一次重建请求并返回false，由进行中的重建在完成后再重建一次；未启用时返回false
+     */
+    public boolean rebuild() {
+        if (!enabled) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                rebuildRequested = true;
+                return false;
+            }
+            pendingChanges = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        FacetIndex.Facet[] facets = FacetIndex.Facet.values();
+        StringBuilder sql = new StringBuilder("SELECT job_id");
+        for (FacetIndex.Facet facet : facets) {
+            sql.append(", ").append(facet.column);
+        }
+        sql.append(" FROM job_postings");
+
+        boolean again;
+        do {
+            long startTime = System.currentTimeMillis();
+            FacetIndex fresh = null;
+            try {
+                FacetIndex building = new FacetIndex();
+                jdbcTemplate.query(connection -> {
+                    // MySQL逐行流式读取，不把整表读入内存
+                    PreparedStatement ps = connection.prepareStatement(sql.toString(),
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(Integer.MIN_VALUE);
+                    return ps;
+                }, rs -> {
+                    String[] values = new String[facets.length];
+                    for (int f = 0; f < facets.length; f++) {
+                        values[f] = rs.getString(f + 2);
+                    }
+                    building.put(rs.getInt(1), values);
+                });
+                fresh = building;
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    Map<Integer, JobPosting> changes = pendingChanges;
+                    // 建立失败时保留原索引，异常交给调用方，挂起的重建请求一并放弃
+                    again = fresh != null && rebuildRequested;
+                    rebuildRequested = false;
+                    pendingChanges = again ? new LinkedHashMap<>() : null;
+                    if (fresh != null) {
+                        for (Map.Entry<Integer, JobPosting> change : changes.entrySet()) {
+                            apply(fresh, change.getKey(), change.getValue());
+                        }
+                        index = fresh;
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            lastBuildMs = System.currentTimeMillis() - startTime;
+            System.out.println(String.format("分面索引建立完成: %d 个职位, 用时 %d ms%s", fresh.size(), lastBuildMs,
+                    again ? "，重建期间收到新的重建请求，再次重建" : ""));
+        } while (again);
+        return true;
+    }
+
+    /**
+     * 职位新增或修改后更新索引
+     */
+    public void index(JobPosting jobPosting) {
+        if (enabled && jobPosting != null && jobPosting.getJobId() != null) {
+            record(jobPosting.getJobId(), jobPosting);
+        }
+    }
+
+    /**
+     * 职位删除后从索引移除
+     */
+    public void remove(Integer jobId) {
+        if (enabled && jobId != null) {
+            record(jobId, null);
+        }
+    }
+
+    private void record(Integer jobId, JobPosting jobPosting) {
+        lock.writeLock().lock();
+        try {
+            if (index != null) {
+                apply(index, jobId, jobPosting);
+            }
+            if (pendingChanges != null) {
+                pendingChanges.put(jobId, jobPosting);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(FacetIndex target, Integer jobId, JobPosting jobPosting) {
+        if (jobPosting == null) {
+            target.remove(jobId);
+        } else {
+            target.put(jobPosting);
+        }
+    }
+
+    /**
+     * 分面筛选，返回匹配总数、各字段计数和 jobId 大于 after 的前 limit 个ID；索引尚未建立时抛出 IllegalStateException
+     */
+    public FacetIndex.Result query(Map<FacetIndex.Facet, Set<String>> selected, int after, int limit) {
+        int ids = Math.max(0, Math.min(limit, maxIds));
+        lock.readLock().lock();
+        try {
+            if (index == null) {
+                throw new IllegalStateException(enabled ? "Facet index is still being built" : "Facets are disabled");
+            }
+            return index.query(selected, after, ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            status.put("enabled", enabled);
+            status.put("ready", index != null);
+            status.put("documents", index == null ? 0 : index.size());
+            status.put("rebuilding", pendingChanges != null);
+        } finally {
+            lock.readLock().unlock();
+        }
+        status.put("lastBuildMs", lastBuildMs);
+        return status;
+    }
+}
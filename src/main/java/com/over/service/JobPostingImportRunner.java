@@ -0,0 +1,69 @@
+package com.over.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 命令行导入：启动参数中指定 job-posting.import.file 时导入该文件（.gz 结尾时先解压），打印报告后退出；
+ * 有无效行或写入失败时退出码为1
+ */
+@Component
+public class JobPostingImportRunner implements ApplicationRunner {
+
+    @Autowired
+    private JobPostingImportService jobPostingImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+
+    @Value("${job-posting.import.file:}")
+    private String file;
+
+    @Value("${job-posting.import.format:csv}")
+    private String format;
+
+    @Value("${job-posting.import.mode:upsert}")
+    private String mode;
+
+    @Value("${job-posting.import.score:false}")
+    private boolean score;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (file == null || file.isBlank()) {
+            return;
+        }
+        if (!JobPostingImportService.isSupportedFormat(format) || !JobPostingImportService.isSupportedMode(mode)) {
+            throw new IllegalArgumentException("Unsupported import format or mode: " + format + ", " + mode);
+        }
+        Path path = Paths.get(file);
+        Map<String, Object> report;
+        try (InputStream inputStream = file.endsWith(".gz")
+                ? new GZIPInputStream(Files.newInputStream(path), 64 * 1024)
+                : Files.newInputStream(path)) {
+            report = jobPostingImportService.importJobPostings(inputStream, format, mode, score);
+        }
+        System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+
+        boolean clean = ((Number) report.get("invalid")).longValue() == 0
+                && ((Number) report.get("failed")).longValue() == 0
+                && !Boolean.TRUE.equals(report.get("aborted"));
+        System.exit(SpringApplication.exit(applicationContext, () -> clean ? 0 : 1));
+    }
+}
@@ -0,0 +1,792 @@
+package com.over.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.dto.BatchPredictionResult;
+import com.over.dto.PredictionRequest;
+import com.over.dto.PredictionResponse;
+import com.over.entity.JobPosting;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 职位批量导入
+ * 流式解析CSV或NDJSON，逐行校验后按 job_id 分区交给多个写线程，每个写线程用JDBC批量插入
+ * （连接串开启 rewriteBatchedStatements 后驱动会改写为多行 INSERT）。带 job_id 的行按主键幂等写入：
+ * upsert 模式覆盖已有职位，insert 模式跳过已有职位；没有 job_id 的行由数据库自增生成主键
+ */
+@Service
+public class JobPostingImportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    public static final String MODE_UPSERT = "upsert";
+    public static final String MODE_INSERT = "insert";
+
+    // 导入的列，job_id 之外的顺序与 JobPosting 字段一致
+    private static final List<String> DATA_COLUMNS = List.of(
+            "title", "location", "department", "salary_range", "company_profile", "description", "requirements",
+            "benefits", "telecommuting", "has_company_logo", "has_questions", "employment_type",
+            "required_experience", "required_education", "industry", "function", "fraudulent");
+
+    private static final String INSERT_SQL = insertSql(false, MODE_INSERT);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ModelService modelService;
+
+    @Autowired
+    private AnalysisService analysisService;
+
+    @Autowired
+    private JobPostingService jobPostingService;
+
+    @Autowired
+    private JobPostingSearchService jobPostingSearchService;
+
+    @Autowired
+    private JobPostingFacetService jobPostingFacetService;
+
+    // 每个写线程一次批量写入的行数
+    @Value("${job-posting.import.batch-size:1000}")
+    private int batchSize;
+
+    // 写线程数，应小于数据库连接池大小
+    @Value("${job-posting.import.writer-threads:2}")
+    private int writerThreads;
+
+    // 报告中最多保留的错误条数
+    @Value("${job-posting.import.max-errors:100}")
+    private int maxErrors;
+
+    public static boolean isSupportedFormat(String format) {
+        return FORMAT_CSV.equals(format) || FORMAT_NDJSON.equals(format);
+    }
+
+    public static boolean isSupportedMode(String mode) {
+        return MODE_UPSERT.equals(mode) || MODE_INSERT.equals(mode);
+    }
+
+    /**
+     * 导入一个CSV（首行为列名）或NDJSON输入流，列名可用数据库列名（job_id）或字段名（jobId），未知列忽略。
+     * score为true时写入后立即用当前模型为带 job_id 的行打分。返回导入报告
+     */
+    public Map<String, Object> importJobPostings(InputStream inputStream, String format, String mode,
+                                                 boolean score) throws Exception {
+        Report report = new Report(format, mode, Math.max(0, maxErrors));
+        String modelName = score ? modelService.resolveModel(null) : null;
+        String modelVersion = score ? modelService.getModelVersion(modelName) : null;
+        String upsertSql = insertSql(true, mode);
+
+        int partitions = Math.max(1, writerThreads);
+        int rowsPerBatch = Math.max(1, batchSize);
+        List<BlockingQueue<Batch>> queues = new ArrayList<>(partitions);
+        List<Thread> writers = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(2);
+            queues.add(queue);
+            Thread writer = new Thread(() -> writeLoop(queue, upsertSql, modelName, modelVersion, report),
+                    "job-import-" + (i + 1));
+            writer.setDaemon(true);
+            writer.start();
+            writers.add(writer);
+        }
+        System.out.println(String.format("开始导入职位: 格式 %s, 模式 %s, 批大小 %d, 写线程 %d, 打分 %s",
+                format, mode, rowsPerBatch, partitions, score ? modelName : "否"));
+
+        // 同一 job_id 总是进入同一写线程，保证输入中重复的行按出现顺序写入
+        List<Batch> pending = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            pending.add(new Batch());
+        }
+        long withoutId = 0;
+        try (Reader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8), 64 * 1024)) {
+            Iterator<Row> rows = FORMAT_CSV.equals(format) ? new CsvRows(reader) : new NdjsonRows(reader, objectMapper);
+            while (rows.hasNext()) {
+                Row row = rows.next();
+                report.read++;
+                JobPosting jobPosting;
+                try {
+                    if (row.error != null) {
+                        throw new IllegalArgumentException(row.error);
+                    }
+                    jobPosting = toJobPosting(row.values);
+                } catch (IllegalArgumentException e) {
+                    report.invalid.incrementAndGet();
+                    report.addError(row.line, e.getMessage());
+                    continue;
+                }
+                int partition = jobPosting.getJobId() != null
+                        ? Math.floorMod(jobPosting.getJobId(), partitions)
+                        : (int) (withoutId++ % partitions);
+                Batch batch = pending.get(partition);
+                batch.add(jobPosting, row.line);
+                if (batch.rows.size() >= rowsPerBatch) {
+                    pending.set(partition, new Batch());
+                    if (!handOff(queues.get(partition), batch, writers.get(partition), report)) {
+                        break;
+                    }
+                }
+            }
+        } catch (ParseException e) {
+            // 格式错误无法继续定位后续行，已解析的行照常写入
+            report.addError(e.line, e.getMessage());
+            report.aborted = true;
+        } finally {
+            try {
+                for (int i = 0; i < partitions; i++) {
+                    if (pending.get(i).rows.isEmpty() || handOff(queues.get(i), pending.get(i), writers.get(i), report)) {
+                        handOff(queues.get(i), Batch.END, writers.get(i), report);
+                    }
+                }
+                for (Thread writer : writers) {
+                    writer.join();
+                }
+                // 提前退出的写线程留在队列中的批次没有写入
+                for (BlockingQueue<Batch> queue : queues) {
+                    for (Batch batch : queue) {
+                        report.failed.addAndGet(batch.rows.size());
+                    }
+                }
+            } finally {
+                // 读取中途出错（I/O错误、被中断）时已写入的行同样要反映到计数、缓存和索引
+                report.finish();
+                if (report.written.get() > 0) {
+                    refreshAfterImport(report.written.get());
+                }
+            }
+        }
+
+        System.out.println(String.format("职位导入完成: 读取 %d 行, 写入 %d 行, 跳过 %d 行, 无效 %d 行, 写入失败 %d 行, %.1f 行/秒",
+                report.read, report.written.get(), report.skipped.get(), report.invalid.get(), report.failed.get(),
+                report.rowsPerSecond()));
+        return report.toMap();
+    }
+
+    /**
+     * 导入写入数据后刷新内存中的派生状态，各步骤互不影响，一步失败不跳过其余步骤
+     */
+    private void refreshAfterImport(long written) {
+        List<Runnable> steps = List.of(
+                () -> analysisService.recordBulkChange(written),
+                jobPostingService::resetCachedCount,
+                jobPostingService::invalidateCache,
+                jobPostingSearchService::rebuild,
+                jobPostingFacetService::rebuild);
+        for (Runnable step : steps) {
+            try {
+                step.run();
+            } catch (RuntimeException e) {
+                System.err.println("导入后刷新失败: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 把一批交给写线程；队列满时定期检查写线程是否存活，写线程已退出时该批记为失败并返回false，
+     * 不会永远阻塞在已无人消费的队列上（退出原因由写线程自己记录）
+     */
+    private static boolean handOff(BlockingQueue<Batch> queue, Batch batch, Thread writer, Report report)
+            throws InterruptedException {
+        while (!queue.offer(batch, 1, TimeUnit.SECONDS)) {
+            if (!writer.isAlive()) {
+                report.failed.addAndGet(batch.rows.size());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeLoop(BlockingQueue<Batch> queue, String upsertSql, String modelName, String modelVersion,
+                           Report report) {
+        // 正在写入、结果未计入报告的批次
+        Batch writing = null;
+        try {
+            Batch batch;
+            while ((batch = queue.take()) != Batch.END) {
+                writing = batch;
+                List<JobPosting> written = writeBatch(batch, upsertSql, report);
+                writing = null;
+                if (written != null && modelName != null) {
+                    scoreBatch(batch.firstLine, written, modelName, modelVersion, report);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writerExited(writing, report, "interrupted");
+        } catch (RuntimeException | Error e) {
+            writerExited(writing, report, e.toString());
+            throw e;
+        }
+    }
+
+    /**
+     * 写线程意外退出：记录原因并中止导入，读取线程不再向其交付批次
+     */
+    private static void writerExited(Batch writing, Report report, String reason) {
+        if (writing != null) {
+            report.failed.addAndGet(writing.rows.size());
+        }
+        report.addError(writing != null ? writing.firstLine : 0,
+                Thread.currentThread().getName() + " exited: " + reason);
+        report.aborted = true;
+    }
+
+    /**
+     * 写入一批，返回实际插入或更新的行，整批失败时返回null。
+     * insert 模式下已存在的 job_id 被跳过，不计入写入也不参与打分
+     */
+    private List<JobPosting> writeBatch(Batch batch, String upsertSql, Report report) {
+        List<JobPosting> rows = batch.rows;
+        List<JobPosting> withIdRows = new ArrayList<>(rows.size());
+        List<Object[]> withId = new ArrayList<>(rows.size());
+        List<JobPosting> withoutIdRows = new ArrayList<>();
+        List<Object[]> withoutId = new ArrayList<>();
+        try {
+            Set<Integer> skip = MODE_INSERT.equals(report.mode) ? existingJobIds(rows) : new HashSet<>();
+            for (JobPosting jobPosting : rows) {
+                if (jobPosting.getJobId() == null) {
+                    withoutIdRows.add(jobPosting);
+                    withoutId.add(toArgs(jobPosting, false));
+                } else if (!skip.contains(jobPosting.getJobId())) {
+                    withIdRows.add(jobPosting);
+                    withId.add(toArgs(jobPosting, true));
+                    if (MODE_INSERT.equals(report.mode)) {
+                        // 同一批内重复的 job_id 只有第一行会被插入
+                        skip.add(jobPosting.getJobId());
+                    }
+                }
+            }
+            List<JobPosting> written = new ArrayList<>(rows.size());
+            if (!withId.isEmpty()) {
+                int[] counts = jdbcTemplate.batchUpdate(upsertSql, withId);
+                for (int i = 0; i < withIdRows.size(); i++) {
+                    // INSERT IGNORE 被忽略的行影响行数为0（读取存在性之后被并发插入）；
+                    // 改写为多行语句时驱动返回 SUCCESS_NO_INFO，按已写入处理
+                    if (counts == null || i >= counts.length || counts[i] != 0) {
+                        written.add(withIdRows.get(i));
+                    }
+                }
+            }
+            if (!withoutId.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, withoutId);
+                written.addAll(withoutIdRows);
+            }
+            report.written.addAndGet(written.size());
+            report.skipped.addAndGet(rows.size() - written.size());
+            return written;
+        } catch (Exception e) {
+            // 整批失败（如字段超长），记录后继续后续批次
+            report.failed.addAndGet(rows.size());
+            report.addError(batch.firstLine, "batch of " + rows.size() + " rows failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 本批中已存在于 job_postings 的 job_id
+     */
+    private Set<Integer> existingJobIds(List<JobPosting> rows) {
+        List<Integer> jobIds = new ArrayList<>(rows.size());
+        for (JobPosting jobPosting : rows) {
+            if (jobPosting.getJobId() != null) {
+                jobIds.add(jobPosting.getJobId());
+            }
+        }
+        Set<Integer> existing = new HashSet<>();
+        if (jobIds.isEmpty()) {
+            return existing;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(jobIds.size(), "?"));
+        existing.addAll(jdbcTemplate.queryForList(
+                "SELECT job_id FROM job_postings WHERE job_id IN (" + placeholders + ")",
+                Integer.class, jobIds.toArray()));
+        return existing;
+    }
+
+    /**
+     * 为本批实际写入的带 job_id 的行打分，写入 job_posting_scores
+     */
+    private void scoreBatch(long firstLine, List<JobPosting> rows, String modelName, String modelVersion,
+                            Report report) {
+        List<Integer> jobIds = new ArrayList<>(rows.size());
+        List<PredictionRequest> requests = new ArrayList<>(rows.size());
+        for (JobPosting jobPosting : rows) {
+            if (jobPosting.getJobId() != null) {
+                jobIds.add(jobPosting.getJobId());
+                requests.add(JobPostingScoringService.toPredictionRequest(jobPosting));
+            }
+        }
+        if (requests.isEmpty()) {
+            return;
+        }
+        List<Object[]> batchArgs = new ArrayList<>(requests.size());
+        Timestamp scoredAt = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            modelService.predictBatch(modelName, requests, (BatchPredictionResult result) -> {
+                if (!Boolean.TRUE.equals(result.getSuccess())) {
+                    report.scoreFailed.incrementAndGet();
+                    return;
+                }
+                int index = result.getIndex();
+                PredictionResponse response = result.getResult();
+                batchArgs.add(new Object[]{jobIds.get(index), response.getProbability(), response.getPrediction(),
+                        response.getRiskScore(), response.getRiskLevel(), modelName, modelVersion,
+                        PredictionCache.contentHash(requests.get(index)), scoredAt});
+            });
+            if (!batchArgs.isEmpty()) {
+                jdbcTemplate.batchUpdate(JobRescoringService.UPSERT_SCORE_SQL, batchArgs);
+            }
+            report.scored.addAndGet(batchArgs.size());
+        } catch (Exception e) {
+            report.scoreFailed.addAndGet(requests.size() - batchArgs.size());
+            report.addError(firstLine, "scoring failed: " + e.getMessage());
+        }
+    }
+
+    static String insertSql(boolean withId, String mode) {
+        List<String> columns = new ArrayList<>();
+        if (withId) {
+            columns.add("job_id");
+        }
+        columns.addAll(DATA_COLUMNS);
+
+        StringBuilder sql = new StringBuilder(withId && MODE_INSERT.equals(mode) ? "INSERT IGNORE" : "INSERT");
+        sql.append(" INTO job_postings (");
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i > 0 ? ", " : "").append('`').append(columns.get(i)).append('`');
+            values.append(i > 0 ? ", ?" : "?");
+        }
+        sql.append(") VALUES (").append(values).append(')');
+        if (withId && MODE_UPSERT.equals(mode)) {
+            sql.append(" ON DUPLICATE KEY UPDATE ");
+            for (int i = 0; i < DATA_COLUMNS.size(); i++) {
+                String column = '`' + DATA_COLUMNS.get(i) + '`';
+                sql.append(i > 0 ? ", " : "").append(column).append(" = VALUES(").append(column).append(')');
+            }
+        }
+        return sql.toString();
+    }
+
+    private static Object[] toArgs(JobPosting jobPosting, boolean withId) {
+        Object[] values = {
+                jobPosting.getTitle(), jobPosting.getLocation(), jobPosting.getDepartment(), jobPosting.getSalaryRange(),
+                jobPosting.getCompanyProfile(), jobPosting.getDescription(), jobPosting.getRequirements(),
+                jobPosting.getBenefits(), jobPosting.getTelecommuting(), jobPosting.getHasCompanyLogo(),
+                jobPosting.getHasQuestions(), jobPosting.getEmploymentType(), jobPosting.getRequiredExperience(),
+                jobPosting.getRequiredEducation(), jobPosting.getIndustry(), jobPosting.getJobFunction(),
+                jobPosting.getFraudulent()
+        };
+        if (!withId) {
+            return values;
+        }
+        Object[] args = new Object[values.length + 1];
+        args[0] = jobPosting.getJobId();
+        System.arraycopy(values, 0, args, 1, values.length);
+        return args;
+    }
+
+    /**
+     * 校验并转换一行，键为数据库列名；空字符串视为空值，校验失败抛出 IllegalArgumentException
+     */
+    static JobPosting toJobPosting(Map<String, String> values) {
+        JobPosting jobPosting = new JobPosting();
+        jobPosting.setJobId(parseJobId(values.get("job_id")));
+        String title = emptyToNull(values.get("title"));
+        if (title == null || title.isBlank()) {
+            throw new IllegalArgumentException("title is required");
+        }
+        jobPosting.setTitle(title);
+        jobPosting.setLocation(emptyToNull(values.get("location")));
+        jobPosting.setDepartment(emptyToNull(values.get("department")));
+        jobPosting.setSalaryRange(emptyToNull(values.get("salary_range")));
+        jobPosting.setCompanyProfile(emptyToNull(values.get("company_profile")));
+        jobPosting.setDescription(emptyToNull(values.get("description")));
+        jobPosting.setRequirements(emptyToNull(values.get("requirements")));
+        jobPosting.setBenefits(emptyToNull(values.get("benefits")));
+        jobPosting.setTelecommuting(parseFlag("telecommuting", values.get("telecommuting")));
+        jobPosting.setHasCompanyLogo(parseFlag("has_company_logo", values.get("has_company_logo")));
+        jobPosting.setHasQuestions(parseFlag("has_questions", values.get("has_questions")));
+        jobPosting.setEmploymentType(emptyToNull(values.get("employment_type")));
+        jobPosting.setRequiredExperience(emptyToNull(values.get("required_experience")));
+        jobPosting.setRequiredEducation(emptyToNull(values.get("required_education")));
+        jobPosting.setIndustry(emptyToNull(values.get("industry")));
+        jobPosting.setJobFunction(emptyToNull(values.get("function")));
+        jobPosting.setFraudulent(parseFlag("fraudulent", values.get("fraudulent")));
+        return jobPosting;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static Integer parseJobId(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            int jobId = Integer.parseInt(value.trim());
+            if (jobId > 0) {
+                return jobId;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("invalid job_id: " + value);
+    }
+
+    private static Integer parseFlag(String column, String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        switch (value.trim()) {
+            case "0":
+                return 0;
+            case "1":
+                return 1;
+            default:
+                throw new IllegalArgumentException("invalid " + column + " (expected 0 or 1): " + value);
+        }
+    }
+
+    /**
+     * 列名（数据库列名或字段名）到数据库列名的映射
+     */
+    private static String resolveColumn(String name) {
+        if ("job_id".equals(name) || DATA_COLUMNS.contains(name)) {
+            return name;
+        }
+        String column = JobPostingService.SUMMARY_COLUMNS.get(name);
+        return column != null ? column : JobPostingService.TEXT_COLUMNS.get(name);
+    }
+
+    static final class Row {
+        final long line;
+        final Map<String, String> values;
+        final String error;    // 行本身无法解析时的错误信息
+
+        Row(long line, Map<String, String> values, String error) {
+            this.line = line;
+            this.values = values;
+            this.error = error;
+        }
+    }
+
+    static final class ParseException extends RuntimeException {
+        final long line;
+
+        ParseException(long line, String message) {
+            super(message);
+            this.line = line;
+        }
+    }
+
+    /**
+     * RFC 4180 CSV逐条读取：首条记录为列名，引号内可包含逗号、换行和转义的双引号，跳过空行
+     */
+    static final class CsvRows implements Iterator<Row> {
+        private final Reader reader;
+        private final String[] columns;
+        private long line = 1;
+        private int pushedBack = -2;
+        private Row next;
+
+        CsvRows(Reader reader) throws IOException {
+            this.reader = reader;
+            List<String> header = readRecord();
+            if (header == null) {
+                columns = new String[0];
+                return;
+            }
+            columns = new String[header.size()];
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i).trim();
+                // 去掉UTF-8 BOM
+                if (i == 0 && name.startsWith("\uFEFF")) {
+                    name = name.substring(1);
+                }
+                columns[i] = resolveColumn(name);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            try {
+                List<String> record;
+                long recordLine;
+                do {
+                    recordLine = line;
+                    record = readRecord();
+                    if (record == null) {
+                        return false;
+                    }
+                } while (record.size() == 1 && record.get(0).isEmpty());
+                Map<String, String> values = new HashMap<>();
+                for (int i = 0; i < record.size() && i < columns.length; i++) {
+                    if (columns[i] != null) {
+                        values.put(columns[i], record.get(i));
+                    }
+                }
+                next = new Row(recordLine, values, null);
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Row next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Row row = next;
+            next = null;
+            return row;
+        }
+
+        private int read() throws IOException {
+            if (pushedBack != -2) {
+                int c = pushedBack;
+                pushedBack = -2;
+                return c;
+            }
+            return reader.read();
+        }
+
+        /**
+         * 读取一条记录，到达文件末尾时返回null
+         */
+        List<String> readRecord() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            long startLine = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean inQuotes = false;
+            while (true) {
+                if (inQuotes) {
+                    if (c == -1) {
+                        throw new ParseException(startLine, "unterminated quoted field");
+                    }
+                    if (c == '"') {
+                        int following = read();
+                        if (following != '"') {
+                            inQuotes = false;
+                            c = following;
+                            continue;
+                        }
+                        field.append('"');
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    inQuotes = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        int following = read();
+                        if (following != '\n') {
+                            pushedBack = following;
+                        }
+                    }
+                    if (c != -1) {
+                        line++;
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+    }
+
+    /**
+     * 每行一个JSON对象，跳过空行；值可以是字符串、数字或null
+     */
+    static final class NdjsonRows implements Iterator<Row> {
+        private final BufferedReader reader;
+        private final ObjectMapper objectMapper;
+        private long line = 0;
+        private Row next;
+
+        NdjsonRows(Reader reader, ObjectMapper objectMapper) {
+            this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            try {
+                String text;
+                do {
+                    text = reader.readLine();
+                    line++;
+                    if (text == null) {
+                        return false;
+                    }
+                } while (text.isBlank());
+
+                Map<String, String> values = new HashMap<>();
+                String error = null;
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(text);
+                } catch (IOException e) {
+                    node = null;
+                }
+                if (node == null || !node.isObject()) {
+                    // 单行JSON错误只影响这一行
+                    error = "not a JSON object";
+                } else {
+                    Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+                    while (fields.hasNext()) {
+                        Map.Entry<String, JsonNode> field = fields.next();
+                        String column = resolveColumn(field.getKey());
+                        JsonNode value = field.getValue();
+                        if (column == null || value.isNull()) {
+                            continue;
+                        }
+                        if (!value.isValueNode()) {
+                            error = "invalid value for " + field.getKey();
+                            break;
+                        }
+                        values.put(column, value.asText());
+                    }
+                }
+                next = new Row(line, values, error);
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Row next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Row row = next;
+            next = null;
+            return row;
+        }
+    }
+
+    private static final class Batch {
+        static final Batch END = new Batch();
+
+        private final List<JobPosting> rows = new ArrayList<>();
+        private long firstLine;
+
+        void add(JobPosting jobPosting, long line) {
+            if (rows.isEmpty()) {
+                firstLine = line;
+            }
+            rows.add(jobPosting);
+        }
+    }
+
+    private static final class Report {
+        private final String format;
+        private final String mode;
+        private final int maxErrors;
+        private final long startNanos = System.nanoTime();
+        private long elapsedNanos;
+        private long read;
+        private volatile boolean aborted;
+        private final AtomicLong written = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong invalid = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong scored = new AtomicLong();
+        private final AtomicLong scoreFailed = new AtomicLong();
+        private final List<String> errors = new ArrayList<>();
+        private long errorCount;
+
+        Report(String format, String mode, int maxErrors) {
+            this.format = format;
+            this.mode = mode;
+            this.maxErrors = maxErrors;
+        }
+
+        synchronized void addError(long line, String message) {
+            errorCount++;
+            if (errors.size() < maxErrors) {
+                errors.add("line " + line + ": " + message);
+            }
+        }
+
+        void finish() {
+            elapsedNanos = System.nanoTime() - startNanos;
+        }
+
+        double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : written.get() * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        synchronized Map<String, Object> toMap() {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("format", format);
+            report.put("mode", mode);
+            report.put("read", read);
+            report.put("written", written.get());
+            report.put("skipped", skipped.get());
+            report.put("invalid", invalid.get());
+            report.put("failed", failed.get());
+            report.put("scored", scored.get());
+            report.put("scoreFailed", scoreFailed.get());
+            report.put("aborted", aborted);
+            report.put("elapsedMs", elapsedNanos / 1_000_000);
+            report.put("rowsPerSecond", Math.round(rowsPerSecond() * 10) / 10.0);
+            report.put("errorCount", errorCount);
+            report.put("errors", new ArrayList<>(errors));
+            return report;
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.over.service;
+
+import com.over.dto.BatchPredictionResult;
+import com.over.dto.PredictionRequest;
+import com.over.dto.PredictionResponse;
+import com.over.entity.JobPosting;
+import com.over.entity.JobPostingScore;
+import com.over.repository.JobPostingRepository;
+import com.over.repository.JobPostingScoreRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 职位写入后异步打分（score-on-write）
+ * 职位创建、修改提交后把职位ID放入后台队列，用当前模型打分并写入 job_posting_scores，
+ * 列表和详情直接读取预计算的风险，不再逐条调用 /model/predict；存量数据由回填任务补齐
+ */
+@Service
+public class JobPostingScoringService {
+
+    @Autowired
+    private JobPostingRepository jobPostingRepository;
+
+    @Autowired
+    private JobPostingScoreRepository jobPostingScoreRepository;
+
+    @Autowired
+    private ModelService modelService;
+
+    @Value("${model.score-on-write.enabled:false}")
+    private boolean enabled;
+
+    @Value("${model.score-on-write.threads:1}")
+    private int threads;
+
+    @Value("${model.score-on-write.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${model.score-on-write.backfill-chunk-size:500}")
+    private int backfillChunkSize;
+
+    @Value("${model.score-on-write.backfill-on-startup:false}")
+    private boolean backfillOnStartup;
+
+    private ThreadPoolExecutor executor;
+
+    // 已入队但还未开始打分的职位，同一职位连续修改只打一次分（任务执行时读取最新数据）
+    private final Set<Integer> pending = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong scoredCount = new AtomicLong();
+    private final AtomicLong skippedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    private final AtomicBoolean backfillRunning = new AtomicBoolean(false);
+    private volatile BackfillProgress backfillProgress;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+            Thread thread = new Thread(runnable, "job-scoring-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        System.out.println(String.format("职位写入后打分已启用: %d 个线程, 队列容量 %d", threads, queueCapacity));
+        if (backfillOnStartup) {
+            startBackfill();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 在当前事务提交后异步打分；没有事务时（repository.save 自带事务已提交）直接入队
+     */
+    public void scoreAfterCommit(Integer jobId) {
+        if (!enabled || jobId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(jobId);
+                }
+            });
+        } else {
+            submit(jobId);
+        }
+    }
+
+    private void submit(Integer jobId) {
+        if (!pending.add(jobId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                pending.remove(jobId);
+                scoreJob(jobId);
+            });
+        } catch (RejectedExecutionException e) {
+            // 队列已满时不阻塞写请求，漏掉的职位由回填任务补齐
+            pending.remove(jobId);
+            rejectedCount.incrementAndGet();
+        }
+    }
+
+    private void scoreJob(Integer jobId) {
+        try {
+            JobPosting jobPosting = jobPostingRepository.findById(jobId).orElse(null);
+            if (jobPosting == null) {
+                return;
+            }
+            String modelName = modelService.resolveModel(null);
+            String modelVersion = modelService.getModelVersion(modelName);
+            PredictionRequest request = toPredictionRequest(jobPosting);
+            request.setModelName(modelName);
+            String contentHash = PredictionCache.contentHash(request);
+
+            // 内容和模型都没变（如只改了fraudulent标注）时不重新打分
+            JobPostingScore existing = jobPostingScoreRepository.findById(jobId).orElse(null);
+            if (existing != null && contentHash.equals(existing.getContentHash())
+                    && modelName.equals(existing.getModelName()) && modelVersion.equals(existing.getModelVersion())) {
+                skippedCount.incrementAndGet();
+                return;
+            }
+
+            PredictionResponse response = modelService.predict(request);
+            jobPostingScoreRepository.save(toScore(jobId, response, modelVersion, contentHash));
+            scoredCount.incrementAndGet();
+        } catch (Exception e) {
+            failedCount.incrementAndGet();
+            System.err.println(String.format("职位 %d 打分失败: %s", jobId, e.getMessage()));
+        }
+    }
+
+    /**
+     * 删除职位时同步删除其评分
+     */
+    public void deleteScore(Integer jobId) {
+        if (enabled) {
+            jobPostingScoreRepository.deleteById(jobId);
+        }
+    }
+
+    /**
+     * 为一页职位批量填充预计算评分，一次按主键查询，不做任何推理
+     */
+    public void attachScores(List<JobPosting> jobPostings) {
+        if (!enabled || jobPostings.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>(jobPostings.size());
+        for (JobPosting jobPosting : jobPostings) {
+            ids.add(jobPosting.getJobId());
+        }
+        Map<Integer, JobPostingScore> scores = findScores(ids);
+        for (JobPosting jobPosting : jobPostings) {
+            jobPosting.setScore(scores.get(jobPosting.getJobId()));
+        }
+    }
+
+    /**
+     * 按职位ID批量读取预计算评分，未启用时返回空表
+     */
+    public Map<Integer, JobPostingScore> findScores(List<Integer> jobIds) {
+        Map<Integer, JobPostingScore> scores = new HashMap<>();
+        if (!enabled || jobIds.isEmpty()) {
+            return scores;
+        }
+        for (JobPostingScore score : jobPostingScoreRepository.findAllById(jobIds)) {
+            scores.put(score.getJobId(), score);
+        }
+        return scores;
+    }
+
+    /**
+     * 启动存量数据回填：按主键顺序分块读取未打分的职位，每块整体批量打分后批量写入。
+     * 已在运行时返回false
+     */
+    public boolean startBackfill() {
+        if (!enabled || !backfillRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        BackfillProgress progress = new BackfillProgress();
+        backfillProgress = progress;
+        Thread thread = new Thread(() -> {
+            try {
+                runBackfill(progress);
+            } catch (Exception e) {
+                progress.error = e.getMessage();
+                System.err.println("职位评分回填失败: " + e.getMessage());
+            } finally {
+                progress.finishedAt = LocalDateTime.now();
+                backfillRunning.set(false);
+            }
+        }, "job-scoring-backfill");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    private void runBackfill(BackfillProgress progress) throws Exception {
+        String modelName = modelService.resolveModel(null);
+        String modelVersion = modelService.getModelVersion(modelName);
+        int chunkSize = Math.max(1, backfillChunkSize);
+        System.out.println(String.format("开始回填职位评分，模型: %s", modelName));
+
+        List<JobPosting> chunk;
+        while (!(chunk = jobPostingRepository.findUnscoredAfter(progress.lastJobId, PageRequest.of(0, chunkSize))).isEmpty()) {
+            List<PredictionRequest> requests = new ArrayList<>(chunk.size());
+            for (JobPosting jobPosting : chunk) {
+                requests.add(toPredictionRequest(jobPosting));
+            }
+
+            List<JobPostingScore> scores = new ArrayList<>(chunk.size());
+            List<JobPosting> jobs = chunk;
+            modelService.predictBatch(modelName, requests, (BatchPredictionResult result) -> {
+                if (Boolean.TRUE.equals(result.getSuccess())) {
+                    Integer jobId = jobs.get(result.getIndex()).getJobId();
+                    scores.add(toScore(jobId, result.getResult(), modelVersion,
+                            PredictionCache.contentHash(requests.get(result.getIndex()))));
+                } else {
+                    progress.failed++;
+                }
+            });
+            jobPostingScoreRepository.saveAll(scores);
+
+            progress.scored += scores.size();
+            // 打分失败的职位也向后推进，避免反复重试同一块
+            progress.lastJobId = chunk.get(chunk.size() - 1).getJobId();
+        }
+        System.out.println(String.format("职位评分回填完成: 打分 %d 条, 失败 %d 条", progress.scored, progress.failed));
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("queued", executor == null ? 0 : executor.getQueue().size());
+        status.put("scored", scoredCount.get());
+        status.put("skipped", skippedCount.get());
+        status.put("failed", failedCount.get());
+        status.put("rejected", rejectedCount.get());
+
+        BackfillProgress progress = backfillProgress;
+        if (progress != null) {
+            Map<String, Object> backfill = new LinkedHashMap<>();
+            backfill.put("running", backfillRunning.get() && progress.finishedAt == null);
+            backfill.put("scored", progress.scored);
+            backfill.put("failed", progress.failed);
+            backfill.put("lastJobId", progress.lastJobId);
+            backfill.put("startedAt", progress.startedAt.toString());
+            backfill.put("finishedAt", progress.finishedAt == null ? null : progress.finishedAt.toString());
+            backfill.put("error", progress.error);
+            status.put("backfill", backfill);
+        }
+        return status;
+    }
+
+    /**
+     * 职位实体转为预测请求，字段与 PredictionRequest 一一对应
+     */
+    public static PredictionRequest toPredictionRequest(JobPosting jobPosting) {
+        PredictionRequest request = new PredictionRequest();
+        request.setTitle(jobPosting.getTitle());
+        request.setLocation(jobPosting.getLocation());
+        request.setDepartment(jobPosting.getDepartment());
+        request.setSalaryRange(jobPosting.getSalaryRange());
+        request.setCompanyProfile(jobPosting.getCompanyProfile());
+        request.setDescription(jobPosting.getDescription());
+        request.setRequirements(jobPosting.getRequirements());
+        request.setBenefits(jobPosting.getBenefits());
+        request.setTelecommuting(jobPosting.getTelecommuting());
+        request.setHasCompanyLogo(jobPosting.getHasCompanyLogo());
+        request.setHasQuestions(jobPosting.getHasQuestions());
+        request.setEmploymentType(jobPosting.getEmploymentType());
+        request.setRequiredExperience(jobPosting.getRequiredExperience());
+        request.setRequiredEducation(jobPosting.getRequiredEducation());
+        request.setIndustry(jobPosting.getIndustry());
+        request.setFunction(jobPosting.getJobFunction());
+        return request;
+    }
+
+    private static JobPostingScore toScore(Integer jobId, PredictionResponse response,
+                                           String modelVersion, String contentHash) {
+        JobPostingScore score = new JobPostingScore();
+        score.setJobId(jobId);
+        score.setProbability(response.getProbability());
+        score.setPrediction(response.getPrediction());
+        score.setRiskScore(response.getRiskScore());
+        score.setRiskLevel(response.getRiskLevel());
+        score.setModelName(response.getModelName());
+        score.setModelVersion(modelVersion);
+        score.setContentHash(contentHash);
+        score.setScoredAt(LocalDateTime.now());
+        return score;
+    }
+
+    private static final class BackfillProgress {
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private volatile int lastJobId = 0;
+        private volatile long scored = 0;
+        private volatile long failed = 0;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+    }
+}
@@ -0,0 +1,210 @@
+package com.over.service;
+
+import com.over.entity.JobPosting;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 职位全文检索
+ * 启动时流式扫描 job_postings 在内存中建立倒排索引，之后随职位增删改同步更新；
+ * 数据被应用之外的方式修改（批量导入、直接执行SQL）后通过 rebuild 重建
+ */
+@Service
+public class JobPostingSearchService {
+
+    private static final String SELECT_SQL =
+            "SELECT job_id, title, location, industry, fraudulent, description, requirements FROM job_postings";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${search.enabled:true}")
+    private boolean enabled;
+
+    // 每次查询最多返回的条数
+    @Value("${search.max-page-size:100}")
+    private int maxPageSize;
+
+    // 可翻到的结果条数上限，超出的页只返回总数
+    @Value("${search.max-result-window:10000}")
+    private int maxResultWindow;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 索引，建立完成前为null
+    private SearchIndex index;
+
+    // 重建期间发生的变更（删除时职位为null），重建完成后补记到新索引上；受lock保护
+    private Map<Integer, JobPosting> pendingChanges;
+
+    // 重建期间又收到重建请求（如批量导入在读表之后写入），当前重建完成后再建一次；受lock保护
+    private boolean rebuildRequested;
+
+    private volatile long lastBuildMs;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                System.err.println("全文索引建立失败: " + e.getMessage());
+            }
+        }, "search-index-build");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 从数据库重新建立索引；建立期间查询继续使用旧索引，变更先暂存，完成后补记。
+     * 已在重建时只登记一次重建请求并返回false，由进行中的重建在完成后再重建一次；未启用时返回false
+     */
+    public boolean rebuild() {
+        if (!enabled) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                rebuildRequested = true;
+                return false;
+            }
+            pendingChanges = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        boolean again;
+        do {
+            long startTime = System.currentTimeMillis();
+            SearchIndex fresh = null;
+            try {
+                SearchIndex building = new SearchIndex();
+                jdbcTemplate.query(connection -> {
+                    // MySQL逐行流式读取，不把整表读入内存
+                    PreparedStatement ps = connection.prepareStatement(SELECT_SQL,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(Integer.MIN_VALUE);
+                    return ps;
+                }, rs -> {
+                    building.put(rs.getInt("job_id"), rs.getString("title"), rs.getString("location"),
+                            rs.getString("industry"), rs.getObject("fraudulent", Integer.class),
+                            rs.getString("description"), rs.getString("requirements"));
+                });
+                fresh = building;
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    Map<Integer, JobPosting> changes = pendingChanges;
+                    // 建立失败时保留原索引，异常交给调用方，挂起的重建请求一并放弃
+                    again = fresh != null && rebuildRequested;
+                    rebuildRequested = false;
+                    pendingChanges = again ? new LinkedHashMap<>() : null;
+                    if (fresh != null) {
+                        for (Map.Entry<Integer, JobPosting> change : changes.entrySet()) {
+                            apply(fresh, change.getKey(), change.getValue());
+                        }
+                        index = fresh;
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            lastBuildMs = System.currentTimeMillis() - startTime;
+            System.out.println(String.format("全文索引建立完成: %d 个职位, 用时 %d ms%s", fresh.size(), lastBuildMs,
+                    again ? "，重建期间收到新的重建请求，再次重建" : ""));
+        } while (again);
+        return true;
+    }
+
+    /**
+     * 职位新增或修改后更新索引
+     */
+    public void index(JobPosting jobPosting) {
+        if (enabled && jobPosting != null && jobPosting.getJobId() != null) {
+            record(jobPosting.getJobId(), jobPosting);
+        }
+    }
+
+    /**
+     * 职位删除后从索引移除
+     */
+    public void remove(Integer jobId) {
+        if (enabled && jobId != null) {
+            record(jobId, null);
+        }
+    }
+
+    private void record(Integer jobId, JobPosting jobPosting) {
+        lock.writeLock().lock();
+        try {
+            if (index != null) {
+                apply(index, jobId, jobPosting);
+            }
+            if (pendingChanges != null) {
+                pendingChanges.put(jobId, jobPosting);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(SearchIndex target, Integer jobId, JobPosting jobPosting) {
+        if (jobPosting == null) {
+            target.remove(jobId);
+        } else {
+            target.put(jobId, jobPosting.getTitle(), jobPosting.getLocation(), jobPosting.getIndustry(),
+                    jobPosting.getFraudulent(), jobPosting.getDescription(), jobPosting.getRequirements());
+        }
+    }
+
+    /**
+     * 关键词检索，page从1开始；超出 max-result-window 的页不返回结果只返回总数；
+     * 索引尚未建立时抛出 IllegalStateException
+     */
+    public SearchIndex.Result search(String query, boolean matchAll, Integer fraudulent, String industry,
+                                     int page, int size) {
+        int limit = Math.max(1, Math.min(size, maxPageSize));
+        long offset = (long) (Math.max(page, 1) - 1) * limit;
+        if (offset + limit > Math.max(limit, maxResultWindow)) {
+            offset = 0;
+            limit = 0;
+        }
+        lock.readLock().lock();
+        try {
+            if (index == null) {
+                throw new IllegalStateException(enabled ? "Search index is still being built" : "Search is disabled");
+            }
+            return index.search(query, matchAll, fraudulent, industry, (int) offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            status.put("enabled", enabled);
+            status.put("ready", index != null);
+            status.put("documents", index == null ? 0 : index.size());
+            status.put("rebuilding", pendingChanges != null);
+        } finally {
+            lock.readLock().unlock();
+        }
+        status.put("lastBuildMs", lastBuildMs);
+        return status;
+    }
+}
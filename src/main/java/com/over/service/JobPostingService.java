@@ -1,13 +1,29 @@
 package com.over.service;
 
+import com.over.dto.JobPostingSummary;
 import com.over.entity.JobPosting;
+import com.over.entity.JobPostingScore;
 import com.over.repository.JobPostingRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class JobPostingService {
@@ -15,20 +31,254 @@ public class JobPostingService {
     @Autowired
     private JobPostingRepository jobPostingRepository;
 
-    public Page<JobPosting> getJobPostings(Pageable pageable) {
-        return jobPostingRepository.findAll(pageable);
+    @Autowired
+    private JobPostingScoringService jobPostingScoringService;
+
+    @Autowired
+    private AnalysisService analysisService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JobPostingSearchService jobPostingSearchService;
+
+    @Autowired
+    private JobPostingFacetService jobPostingFacetService;
+
+    @Autowired
+    private CacheRegistry cacheRegistry;
+
+    // 近似总数的缓存时间，期间的新增、删除直接在缓存值上加减
+    @Value("${job-posting.list.count-cache-ms:60000}")
+    private long countCacheMs;
+
+    // 列表项的非TEXT字段：属性名 -> 列名，也是允许排序的字段
+    static final Map<String, String> SUMMARY_COLUMNS = new LinkedHashMap<>();
+
+    // 需通过 fields 参数显式请求的TEXT字段
+    static final Map<String, String> TEXT_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        SUMMARY_COLUMNS.put("jobId", "job_id");
+        SUMMARY_COLUMNS.put("title", "title");
+        SUMMARY_COLUMNS.put("location", "location");
+        SUMMARY_COLUMNS.put("department", "department");
+        SUMMARY_COLUMNS.put("salaryRange", "salary_range");
+        SUMMARY_COLUMNS.put("telecommuting", "telecommuting");
+        SUMMARY_COLUMNS.put("hasCompanyLogo", "has_company_logo");
+        SUMMARY_COLUMNS.put("hasQuestions", "has_questions");
+        SUMMARY_COLUMNS.put("employmentType", "employment_type");
+        SUMMARY_COLUMNS.put("requiredExperience", "required_experience");
+        SUMMARY_COLUMNS.put("requiredEducation", "required_education");
+        SUMMARY_COLUMNS.put("industry", "industry");
+        SUMMARY_COLUMNS.put("jobFunction", "function");
+        SUMMARY_COLUMNS.put("fraudulent", "fraudulent");
+
+        TEXT_COLUMNS.put("companyProfile", "company_profile");
+        TEXT_COLUMNS.put("description", "description");
+        TEXT_COLUMNS.put("requirements", "requirements");
+        TEXT_COLUMNS.put("benefits", "benefits");
+    }
+
+    private final Object countLock = new Object();
+    private long cachedCount = -1;
+    private long cachedCountAt;
+
+    // jobId -> 职位（不含打分，打分随时可能被后台任务更新，每次读取时单独附加）
+    private LocalCache<Integer, JobPosting> jobPostingCache;
+
+    @PostConstruct
+    public void init() {
+        jobPostingCache = cacheRegistry.region("job-postings", 10000, 60000L, JobPostingService::copyJobPosting);
+    }
+
+    private static JobPosting copyJobPosting(JobPosting jobPosting) {
+        JobPosting copy = new JobPosting();
+        BeanUtils.copyProperties(jobPosting, copy);
+        return copy;
+    }
+
+    /**
+     * 读取一页职位列表项，只查询非TEXT列及 textFields 指定的TEXT列。
+     * after不为空时按主键游标分页（要求按jobId排序，忽略页码），否则按页码分页；
+     * 多读一行判断是否还有下一页，不执行count
+     */
+    public Slice<JobPostingSummary> listJobPostings(Integer after, Pageable pageable, Set<String> textFields) {
+        Sort.Order order = pageable.getSort().isSorted() ? pageable.getSort().iterator().next() : Sort.Order.asc("jobId");
+        String sortColumn = SUMMARY_COLUMNS.get(order.getProperty());
+        if (sortColumn == null) {
+            throw new IllegalArgumentException("Unsupported sort field: " + order.getProperty());
+        }
+        String direction = order.isAscending() ? "ASC" : "DESC";
+        int size = pageable.getPageSize();
+
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (String column : SUMMARY_COLUMNS.values()) {
+            sql.append('`').append(column).append("`, ");
+        }
+        for (String field : textFields) {
+            sql.append('`').append(TEXT_COLUMNS.get(field)).append("`, ");
+        }
+        sql.setLength(sql.length() - 2);
+        sql.append(" FROM job_postings");
+
+        List<Object> args = new ArrayList<>();
+        if (after != null) {
+            if (!"jobId".equals(order.getProperty())) {
+                throw new IllegalArgumentException("Cursor pagination (after) requires sortBy=jobId");
+            }
+            sql.append(order.isAscending() ? " WHERE job_id > ?" : " WHERE job_id < ?");
+            args.add(after);
+            sql.append(" ORDER BY job_id ").append(direction).append(" LIMIT ?");
+            args.add(size + 1);
+        } else {
+            // 以主键作为次级排序，保证翻页顺序稳定
+            sql.append(" ORDER BY `").append(sortColumn).append("` ").append(direction);
+            if (!"job_id".equals(sortColumn)) {
+                sql.append(", job_id ").append(direction);
+            }
+            sql.append(" LIMIT ? OFFSET ?");
+            args.add(size + 1);
+            args.add(pageable.getOffset());
+        }
+
+        List<JobPostingSummary> rows = jdbcTemplate.query(sql.toString(),
+                (rs, rowNum) -> toSummary(rs, textFields), args.toArray());
+        boolean hasNext = rows.size() > size;
+        List<JobPostingSummary> content = hasNext ? new ArrayList<>(rows.subList(0, size)) : rows;
+
+        List<Integer> ids = new ArrayList<>(content.size());
+        for (JobPostingSummary summary : content) {
+            ids.add(summary.getJobId());
+        }
+        Map<Integer, JobPostingScore> scores = jobPostingScoringService.findScores(ids);
+        for (JobPostingSummary summary : content) {
+            summary.setScore(scores.get(summary.getJobId()));
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private static JobPostingSummary toSummary(ResultSet rs, Set<String> textFields) throws SQLException {
+        JobPostingSummary summary = new JobPostingSummary();
+        summary.setJobId(rs.getInt("job_id"));
+        summary.setTitle(rs.getString("title"));
+        summary.setLocation(rs.getString("location"));
+        summary.setDepartment(rs.getString("department"));
+        summary.setSalaryRange(rs.getString("salary_range"));
+        summary.setTelecommuting(rs.getObject("telecommuting", Integer.class));
+        summary.setHasCompanyLogo(rs.getObject("has_company_logo", Integer.class));
+        summary.setHasQuestions(rs.getObject("has_questions", Integer.class));
+        summary.setEmploymentType(rs.getString("employment_type"));
+        summary.setRequiredExperience(rs.getString("required_experience"));
+        summary.setRequiredEducation(rs.getString("required_education"));
+        summary.setIndustry(rs.getString("industry"));
+        summary.setJobFunction(rs.getString("function"));
+        summary.setFraudulent(rs.getObject("fraudulent", Integer.class));
+        if (textFields.contains("companyProfile")) {
+            summary.setCompanyProfile(rs.getString("company_profile"));
+        }
+        if (textFields.contains("description")) {
+            summary.setDescription(rs.getString("description"));
+        }
+        if (textFields.contains("requirements")) {
+            summary.setRequirements(rs.getString("requirements"));
+        }
+        if (textFields.contains("benefits")) {
+            summary.setBenefits(rs.getString("benefits"));
+        }
+        return summary;
+    }
+
+    /**
+     * 解析 fields 参数，返回需要额外查询的TEXT字段：
+     * 为空时不返回TEXT字段，all 表示全部；非TEXT字段总会返回，写上也不报错
+     */
+    public static Set<String> parseTextFields(String fields) {
+        Set<String> textFields = new LinkedHashSet<>();
+        if (fields == null || fields.isBlank()) {
+            return textFields;
+        }
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty() || SUMMARY_COLUMNS.containsKey(name)) {
+                continue;
+            }
+            if ("all".equals(name)) {
+                textFields.addAll(TEXT_COLUMNS.keySet());
+            } else if (TEXT_COLUMNS.containsKey(name)) {
+                textFields.add(name);
+            } else {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+        }
+        return textFields;
+    }
+
+    /**
+     * 职位总数；approximate为true时返回缓存值（过期后重新count，其间按新增、删除加减）
+     */
+    public long countJobPostings(boolean approximate) {
+        long now = System.currentTimeMillis();
+        if (approximate) {
+            synchronized (countLock) {
+                if (cachedCount >= 0 && now - cachedCountAt < countCacheMs) {
+                    return cachedCount;
+                }
+            }
+        }
+        long count = jobPostingRepository.count();
+        synchronized (countLock) {
+            cachedCount = count;
+            cachedCountAt = now;
+        }
+        return count;
+    }
+
+    /**
+     * 丢弃缓存的近似总数，下次按需重新count
+     */
+    public void resetCachedCount() {
+        synchronized (countLock) {
+            cachedCount = -1;
+        }
+    }
+
+    private void adjustCachedCount(long delta) {
+        synchronized (countLock) {
+            if (cachedCount >= 0) {
+                cachedCount = Math.max(0, cachedCount + delta);
+            }
+        }
+    }
+
+    /**
+     * 批量导入等绕过本服务的写入后调用，清空职位缓存
+     */
+    public void invalidateCache() {
+        jobPostingCache.invalidateAll();
     }
 
     public Optional<JobPosting> getJobPostingById(Integer id) {
-        return jobPostingRepository.findById(id);
+        Optional<JobPosting> jobPosting = Optional.ofNullable(
+                jobPostingCache.get(id, key -> jobPostingRepository.findById(key).orElse(null)));
+        jobPosting.ifPresent(j -> jobPostingScoringService.attachScores(List.of(j)));
+        return jobPosting;
     }
 
     public JobPosting createJobPosting(JobPosting jobPosting) {
-        return jobPostingRepository.save(jobPosting);
+        JobPosting saved = jobPostingRepository.save(jobPosting);
+        adjustCachedCount(1);
+        analysisService.recordChange(null, AnalysisAggregates.Contribution.of(saved));
+        jobPostingSearchService.index(saved);
+        jobPostingFacetService.index(saved);
+        jobPostingScoringService.scoreAfterCommit(saved.getJobId());
+        return saved;
     }
 
     public JobPosting updateJobPosting(Integer id, JobPosting jobPostingDetails) {
         return jobPostingRepository.findById(id).map(jobPosting -> {
+            AnalysisAggregates.Contribution before = AnalysisAggregates.Contribution.of(jobPosting);
             jobPosting.setTitle(jobPostingDetails.getTitle());
             jobPosting.setLocation(jobPostingDetails.getLocation());
             jobPosting.setDepartment(jobPostingDetails.getDepartment());
@@ -46,11 +296,25 @@ public class JobPostingService {
             jobPosting.setIndustry(jobPostingDetails.getIndustry());
             jobPosting.setJobFunction(jobPostingDetails.getJobFunction());
             jobPosting.setFraudulent(jobPostingDetails.getFraudulent());
-            return jobPostingRepository.save(jobPosting);
+            JobPosting saved = jobPostingRepository.save(jobPosting);
+            jobPostingCache.invalidate(id);
+            analysisService.recordChange(before, AnalysisAggregates.Contribution.of(saved));
+            jobPostingSearchService.index(saved);
+            jobPostingFacetService.index(saved);
+            jobPostingScoringService.scoreAfterCommit(saved.getJobId());
+            return saved;
         }).orElseThrow(() -> new RuntimeException("Job posting not found with id " + id));
     }
 
     public void deleteJobPosting(Integer id) {
-        jobPostingRepository.deleteById(id);
+        jobPostingRepository.findById(id).ifPresent(jobPosting -> {
+            jobPostingRepository.delete(jobPosting);
+            jobPostingCache.invalidate(id);
+            adjustCachedCount(-1);
+            analysisService.recordChange(AnalysisAggregates.Contribution.of(jobPosting), null);
+            jobPostingSearchService.remove(id);
+            jobPostingFacetService.remove(id);
+        });
+        jobPostingScoringService.deleteScore(id);
     }
 }
@@ -0,0 +1,429 @@
+package com.over.service;
+
+import com.over.dto.BatchPredictionResult;
+import com.over.dto.PredictionRequest;
+import com.over.dto.PredictionResponse;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 全表重新打分任务
+ * 切换默认模型或更新模型文件后，按主键分块（keyset分页）读取评分过期的职位，
+ * 由有界的并行流水线批量打分，再用JDBC批量upsert写回 job_posting_scores。
+ * 每完成一段连续的块就把进度写入 job_scoring_checkpoints，中断后从检查点继续；按每秒条数限流，避免挤占在线预测
+ */
+@Service
+public class JobRescoringService {
+
+    static final String JOB_NAME = "rescore";
+
+    private static final String SELECT_STALE_SQL =
+            "SELECT j.job_id, j.title, j.location, j.department, j.salary_range, j.company_profile, j.description, "
+                    + "j.requirements, j.benefits, j.telecommuting, j.has_company_logo, j.has_questions, j.employment_type, "
+                    + "j.required_experience, j.required_education, j.industry, j.`function` "
+                    + "FROM job_postings j LEFT JOIN job_posting_scores s ON s.job_id = j.job_id "
+                    + "WHERE j.job_id > ? AND (s.job_id IS NULL OR s.model_name <> ? OR s.model_version <> ?) "
+                    + "ORDER BY j.job_id LIMIT ?";
+
+    private static final String COUNT_REMAINING_SQL = "SELECT COUNT(*) FROM job_postings WHERE job_id > ?";
+
+    static final String UPSERT_SCORE_SQL =
+            "INSERT INTO job_posting_scores (job_id, probability, prediction, risk_score, risk_level, model_name, "
+                    + "model_version, content_hash, scored_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE probability = VALUES(probability), prediction = VALUES(prediction), "
+                    + "risk_score = VALUES(risk_score), risk_level = VALUES(risk_level), model_name = VALUES(model_name), "
+                    + "model_version = VALUES(model_version), content_hash = VALUES(content_hash), scored_at = VALUES(scored_at)";
+
+    private static final String SELECT_CHECKPOINT_SQL =
+            "SELECT model_name, model_version, last_job_id, processed, failed, status "
+                    + "FROM job_scoring_checkpoints WHERE job_name = ?";
+
+    private static final String UPSERT_CHECKPOINT_SQL =
+            "INSERT INTO job_scoring_checkpoints (job_name, model_name, model_version, last_job_id, processed, failed, "
+                    + "status, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE model_name = VALUES(model_name), model_version = VALUES(model_version), "
+                    + "last_job_id = VALUES(last_job_id), processed = VALUES(processed), failed = VALUES(failed), "
+                    + "status = VALUES(status), updated_at = VALUES(updated_at)";
+
+    static final String STATUS_RUNNING = "RUNNING";
+    static final String STATUS_COMPLETED = "COMPLETED";
+    static final String STATUS_CANCELLED = "CANCELLED";
+    static final String STATUS_FAILED = "FAILED";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ModelService modelService;
+
+    @Value("${model.rescore.chunk-size:500}")
+    private int chunkSize;
+
+    // 同时打分的块数；走Python进程池时应小于 model.worker.pool-size，给在线预测留出worker
+    @Value("${model.rescore.parallelism:1}")
+    private int parallelism;
+
+    // 每秒最多打分条数，0表示不限
+    @Value("${model.rescore.max-rows-per-second:200}")
+    private int maxRowsPerSecond;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile Run currentRun;
+
+    // 限流：下一批允许开始的时间
+    private long nextSlotNanos = 0;
+
+    // 多个打分线程完成块后都会写检查点，串行写入；写库期间持有，用 ReentrantLock 避免占住虚拟线程的载体线程
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+
+    /**
+     * 启动重新打分任务，modelName为空时使用当前模型；resume为true且检查点属于同一模型版本时从检查点继续。
+     * 已有任务在运行时返回false
+     */
+    public boolean start(String modelName, boolean resume) throws Exception {
+        String modelToUse = modelService.resolveModel(modelName);
+        String modelVersion = modelService.getModelVersion(modelToUse);
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+
+        Run run = new Run(modelToUse, modelVersion);
+        try {
+            Map<String, Object> checkpoint = loadCheckpoint();
+            if (resume && checkpoint != null && !STATUS_COMPLETED.equals(checkpoint.get("status"))
+                    && modelToUse.equals(checkpoint.get("model_name"))
+                    && modelVersion.equals(checkpoint.get("model_version"))) {
+                run.startJobId = ((Number) checkpoint.get("last_job_id")).intValue();
+                run.checkpointJobId = run.startJobId;
+                run.resumedProcessed = ((Number) checkpoint.get("processed")).longValue();
+                run.processed.set(run.resumedProcessed);
+                run.failed.set(((Number) checkpoint.get("failed")).longValue());
+                run.tracker = new CheckpointTracker(run.startJobId);
+                System.out.println(String.format("从检查点继续重新打分: job_id > %d", run.startJobId));
+            }
+            Long remaining = jdbcTemplate.queryForObject(COUNT_REMAINING_SQL, Long.class, run.startJobId);
+            run.estimatedTotal = run.processed.get() + (remaining == null ? 0 : remaining);
+        } catch (Exception e) {
+            running.set(false);
+            throw e;
+        }
+
+        currentRun = run;
+        Thread thread = new Thread(() -> {
+            try {
+                execute(run);
+            } finally {
+                running.set(false);
+            }
+        }, "job-rescoring-reader");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    /**
+     * 请求取消，正在打分的块完成后停止，检查点保留以便继续
+     */
+    public boolean cancel() {
+        Run run = currentRun;
+        if (run == null || !running.get()) {
+            return false;
+        }
+        run.cancelled = true;
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cancel();
+    }
+
+    /**
+     * 读取线程：按主键分块读取并放入有界队列，队列满时阻塞，由打分线程的速度决定读取速度
+     */
+    void execute(Run run) {
+        int workers = Math.max(1, parallelism);
+        BlockingQueue<Chunk> queue = new ArrayBlockingQueue<>(workers * 2);
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "job-rescoring-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        System.out.println(String.format("开始重新打分: 模型 %s, 版本 %s, 并行 %d, 限流 %d 条/秒",
+                run.modelName, run.modelVersion, workers, maxRowsPerSecond));
+        saveCheckpoint(run, STATUS_RUNNING);
+        for (int i = 0; i < workers; i++) {
+            executor.execute(() -> scoreLoop(run, queue));
+        }
+
+        try {
+            int afterId = run.startJobId;
+            long sequence = 0;
+            while (!run.cancelled && run.error == null) {
+                List<Object[]> rows = readChunk(run, afterId);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                Chunk chunk = new Chunk(sequence++, rows);
+                afterId = chunk.lastJobId;
+                while (!queue.offer(chunk, 1, TimeUnit.SECONDS)) {
+                    if (run.cancelled || run.error != null) {
+                        break;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            run.error = e.getMessage();
+        } finally {
+            // 每个打分线程一个结束标记
+            for (int i = 0; i < workers; i++) {
+                try {
+                    queue.put(Chunk.END);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            executor.shutdown();
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        run.finishedAt = LocalDateTime.now();
+        String status = run.error != null ? STATUS_FAILED : run.cancelled ? STATUS_CANCELLED : STATUS_COMPLETED;
+        saveCheckpoint(run, status);
+        System.out.println(String.format("重新打分结束(%s): 处理 %d 条, 失败 %d 条, %.1f 条/秒%s", status,
+                run.processed.get(), run.failed.get(), run.rowsPerSecond(),
+                run.error == null ? "" : ", 错误: " + run.error));
+    }
+
+    private List<Object[]> readChunk(Run run, int afterId) {
+        return jdbcTemplate.query(SELECT_STALE_SQL, (rs, rowNum) -> readRow(rs),
+                afterId, run.modelName, run.modelVersion, Math.max(1, chunkSize));
+    }
+
+    private static Object[] readRow(ResultSet rs) throws SQLException {
+        PredictionRequest request = new PredictionRequest();
+        request.setTitle(rs.getString("title"));
+        request.setLocation(rs.getString("location"));
+        request.setDepartment(rs.getString("department"));
+        request.setSalaryRange(rs.getString("salary_range"));
+        request.setCompanyProfile(rs.getString("company_profile"));
+        request.setDescription(rs.getString("description"));
+        request.setRequirements(rs.getString("requirements"));
+        request.setBenefits(rs.getString("benefits"));
+        request.setTelecommuting(rs.getObject("telecommuting", Integer.class));
+        request.setHasCompanyLogo(rs.getObject("has_company_logo", Integer.class));
+        request.setHasQuestions(rs.getObject("has_questions", Integer.class));
+        request.setEmploymentType(rs.getString("employment_type"));
+        request.setRequiredExperience(rs.getString("required_experience"));
+        request.setRequiredEducation(rs.getString("required_education"));
+        request.setIndustry(rs.getString("industry"));
+        request.setFunction(rs.getString("function"));
+        return new Object[]{rs.getInt("job_id"), request};
+    }
+
+    /**
+     * 打分线程：取块 -> 限流 -> 批量打分 -> JDBC批量写回 -> 推进检查点
+     */
+    private void scoreLoop(Run run, BlockingQueue<Chunk> queue) {
+        try {
+            Chunk chunk;
+            while ((chunk = queue.take()) != Chunk.END) {
+                if (run.cancelled || run.error != null) {
+                    continue;
+                }
+                try {
+                    throttle(chunk.requests.size());
+                    scoreChunk(run, chunk);
+                    Integer watermark = run.tracker.complete(chunk.sequence, chunk.lastJobId);
+                    if (watermark != null) {
+                        run.checkpointJobId = watermark;
+                        saveCheckpoint(run, STATUS_RUNNING);
+                    }
+                } catch (Exception e) {
+                    // 写库失败等整块错误：停止任务，检查点停在最后一段连续完成的块，可继续
+                    run.error = e.getMessage();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void scoreChunk(Run run, Chunk chunk) throws Exception {
+        List<Object[]> batchArgs = new ArrayList<>(chunk.requests.size());
+        Timestamp scoredAt = Timestamp.valueOf(LocalDateTime.now());
+        modelService.predictBatch(run.modelName, chunk.requests, (BatchPredictionResult result) -> {
+            if (!Boolean.TRUE.equals(result.getSuccess())) {
+                run.failed.incrementAndGet();
+                return;
+            }
+            int index = result.getIndex();
+            PredictionResponse response = result.getResult();
+            batchArgs.add(new Object[]{chunk.jobIds[index], response.getProbability(), response.getPrediction(),
+                    response.getRiskScore(), response.getRiskLevel(), run.modelName, run.modelVersion,
+                    PredictionCache.contentHash(chunk.requests.get(index)), scoredAt});
+        });
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SCORE_SQL, batchArgs);
+        }
+        run.processed.addAndGet(chunk.requests.size());
+    }
+
+    private void throttle(int rows) throws InterruptedException {
+        if (maxRowsPerSecond <= 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long start = Math.max(now, nextSlotNanos);
+            nextSlotNanos = start + rows * 1_000_000_000L / maxRowsPerSecond;
+            waitNanos = start - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private Map<String, Object> loadCheckpoint() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(SELECT_CHECKPOINT_SQL, JOB_NAME);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private void saveCheckpoint(Run run, String status) {
+        checkpointLock.lock();
+        try {
+            jdbcTemplate.update(UPSERT_CHECKPOINT_SQL, JOB_NAME, run.modelName, run.modelVersion,
+                    run.checkpointJobId, run.processed.get(), run.failed.get(), status,
+                    Timestamp.valueOf(LocalDateTime.now()));
+        } catch (Exception e) {
+            System.err.println("保存重新打分检查点失败: " + e.getMessage());
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        Run run = currentRun;
+        status.put("running", running.get());
+        if (run == null) {
+            return status;
+        }
+        status.put("modelName", run.modelName);
+        status.put("modelVersion", run.modelVersion);
+        status.put("processed", run.processed.get());
+        status.put("failed", run.failed.get());
+        status.put("estimatedTotal", run.estimatedTotal);
+        status.put("checkpointJobId", run.checkpointJobId);
+        status.put("rowsPerSecond", Math.round(run.rowsPerSecond() * 10) / 10.0);
+        status.put("cancelled", run.cancelled);
+        status.put("startedAt", run.startedAt.toString());
+        status.put("finishedAt", run.finishedAt == null ? null : run.finishedAt.toString());
+        status.put("error", run.error);
+        return status;
+    }
+
+    /**
+     * 各打分线程完成的块可能乱序，检查点只推进到“之前所有块都已完成”的位置，保证继续时不漏数据
+     */
+    static final class CheckpointTracker {
+        private final TreeMap<Long, Integer> completed = new TreeMap<>();
+        private long nextSequence = 0;
+        private int watermark;
+
+        CheckpointTracker(int startJobId) {
+            this.watermark = startJobId;
+        }
+
+        /**
+         * 记录一个块完成，检查点前进时返回新的检查点，否则返回null
+         */
+        synchronized Integer complete(long sequence, int lastJobId) {
+            completed.put(sequence, lastJobId);
+            boolean advanced = false;
+            Integer next;
+            while ((next = completed.remove(nextSequence)) != null) {
+                watermark = next;
+                nextSequence++;
+                advanced = true;
+            }
+            return advanced ? watermark : null;
+        }
+    }
+
+    private static final class Chunk {
+        static final Chunk END = new Chunk(-1, List.of());
+
+        private final long sequence;
+        private final int[] jobIds;
+        private final List<PredictionRequest> requests;
+        private final int lastJobId;
+
+        Chunk(long sequence, List<Object[]> rows) {
+            this.sequence = sequence;
+            this.jobIds = new int[rows.size()];
+            this.requests = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                jobIds[i] = (Integer) rows.get(i)[0];
+                requests.add((PredictionRequest) rows.get(i)[1]);
+            }
+            this.lastJobId = rows.isEmpty() ? 0 : jobIds[jobIds.length - 1];
+        }
+    }
+
+    static final class Run {
+        private final String modelName;
+        private final String modelVersion;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private int startJobId = 0;
+        private long resumedProcessed = 0;
+        private CheckpointTracker tracker = new CheckpointTracker(0);
+        private long estimatedTotal;
+        private volatile int checkpointJobId;
+        private volatile boolean cancelled;
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+
+        Run(String modelName, String modelVersion) {
+            this.modelName = modelName;
+            this.modelVersion = modelVersion;
+        }
+
+        double rowsPerSecond() {
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            return seconds <= 0 ? 0 : (processed.get() - resumedProcessed) / seconds;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.over.service;
+
+import com.over.dto.CacheStats;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 进程内缓存区域，按LRU淘汰并带过期时间，由 CacheRegistry 按配置创建。
+ * copier不为null时存入和取出都复制一份，调用方修改返回的实体不会影响缓存内容；
+ * 加载期间该区域发生过失效时，加载结果只返回给调用方而不写入缓存，避免把写入前读到的旧数据放回缓存
+ */
+public class LocalCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlMs;
+    private final UnaryOperator<V> copier;
+    private final LongSupplier clock;
+
+    // accessOrder=true，按访问顺序排列，最久未访问的在前
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // 每次失效加1，用于判断加载期间是否发生过失效；受this保护
+    private long invalidationCount;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    public LocalCache(String name, int maxSize, long ttlMs, UnaryOperator<V> copier) {
+        this(name, maxSize, ttlMs, copier, System::currentTimeMillis);
+    }
+
+    LocalCache(String name, int maxSize, long ttlMs, UnaryOperator<V> copier, LongSupplier clock) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+        this.copier = copier;
+        this.clock = clock;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0 && ttlMs > 0;
+    }
+
+    /**
+     * 查询缓存，未命中时调用loader加载并写入缓存；loader返回null时不缓存，直接返回null
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        if (!isEnabled()) {
+            return loader.apply(key);
+        }
+        long loadedAtInvalidation;
+        synchronized (this) {
+            V cached = lookup(key);
+            if (cached != null) {
+                hits++;
+                return copy(cached);
+            }
+            misses++;
+            loadedAtInvalidation = invalidationCount;
+        }
+        // 加载时不持锁，同一key并发未命中时可能重复加载
+        V value = loader.apply(key);
+        if (value == null) {
+            return null;
+        }
+        V stored = copy(value);
+        synchronized (this) {
+            if (invalidationCount == loadedAtInvalidation) {
+                store(key, stored);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 查询缓存，未命中或已过期返回null
+     */
+    public synchronized V getIfPresent(K key) {
+        if (!isEnabled()) {
+            return null;
+        }
+        V cached = lookup(key);
+        if (cached == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return copy(cached);
+    }
+
+    public void put(K key, V value) {
+        if (!isEnabled() || value == null) {
+            return;
+        }
+        V stored = copy(value);
+        synchronized (this) {
+            store(key, stored);
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        invalidationCount++;
+        if (entries.remove(key) != null) {
+            invalidations++;
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        invalidationCount++;
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(name, entries.size(), maxSize, hits, misses, evictions, expirations, invalidations);
+    }
+
+    private V lookup(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt <= clock.getAsLong()) {
+            entries.remove(key);
+            expirations++;
+            return null;
+        }
+        return entry == null ? null : entry.value;
+    }
+
+    private void store(K key, V value) {
+        entries.put(key, new Entry<>(value, clock.getAsLong() + ttlMs));
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    private V copy(V value) {
+        return copier == null ? value : copier.apply(value);
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
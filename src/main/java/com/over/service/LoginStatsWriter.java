@@ -0,0 +1,143 @@
+package com.over.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 登录信息（最后登录时间、登录次数）的合并写入
+ * 登录时只在内存中累计，后台按固定间隔把每个用户的累计结果合并成一条 UPDATE 批量写回，
+ * 登录请求不再同步写库、不再持有用户行锁；应用关闭时写回剩余部分
+ */
+@Component
+public class LoginStatsWriter {
+
+    static final String UPDATE_SQL =
+            "UPDATE login_user SET last_login_time = ?, login_count = COALESCE(login_count, 0) + ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // 写回间隔，0表示每次登录立即写入
+    @Value("${auth.login-stats.flush-interval-ms:5000}")
+    private long flushIntervalMs;
+
+    // 用户ID -> 尚未写回的登录信息
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    private final AtomicLong recordedCount = new AtomicLong();
+    private final AtomicLong writtenRows = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (flushIntervalMs <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "login-stats-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        flushQuietly();
+    }
+
+    /**
+     * 记录一次登录
+     */
+    public void record(Long userId, LocalDateTime loginTime) {
+        if (userId == null) {
+            return;
+        }
+        recordedCount.incrementAndGet();
+        pending.merge(userId, new Pending(loginTime, 1), Pending::plus);
+        if (flushIntervalMs <= 0) {
+            flushQuietly();
+        }
+    }
+
+    /**
+     * 写回目前累计的登录信息，返回写回的用户数；写库失败时放回内存，下次重试
+     */
+    public int flush() {
+        List<Long> userIds = new ArrayList<>(pending.keySet());
+        List<Object[]> batch = new ArrayList<>(userIds.size());
+        List<Long> taken = new ArrayList<>(userIds.size());
+        List<Pending> values = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            // remove 与 merge 原子，取走后新的登录会累计到新条目
+            Pending value = pending.remove(userId);
+            if (value != null) {
+                taken.add(userId);
+                values.add(value);
+                batch.add(new Object[]{Timestamp.valueOf(value.lastLoginTime), value.count, userId});
+            }
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+        } catch (RuntimeException e) {
+            for (int i = 0; i < taken.size(); i++) {
+                pending.merge(taken.get(i), values.get(i), Pending::plus);
+            }
+            throw e;
+        }
+        writtenRows.addAndGet(batch.size());
+        return batch.size();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            failedFlushes.incrementAndGet();
+            System.err.println("登录信息写回失败: " + e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of("pendingUsers", pending.size(), "recorded", recordedCount.get(),
+                "writtenRows", writtenRows.get(), "failedFlushes", failedFlushes.get());
+    }
+
+    private static final class Pending {
+        private final LocalDateTime lastLoginTime;
+        private final int count;
+
+        Pending(LocalDateTime lastLoginTime, int count) {
+            this.lastLoginTime = lastLoginTime;
+            this.count = count;
+        }
+
+        Pending plus(Pending other) {
+            LocalDateTime latest = lastLoginTime.isAfter(other.lastLoginTime) ? lastLoginTime : other.lastLoginTime;
+            return new Pending(latest, count + other.count);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.over.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.util.ModelFileUtil;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * 逻辑回归的JVM内推理引擎
+ * 计算过程与sklearn一致：先按StandardScaler标准化 (x - mean) / scale，再做点积加截距，最后取sigmoid。
+ */
+@Component
+public class LogisticRegressionEngine implements InferenceEngine {
+
+    public static final String MODEL_NAME = "Logistic_Regression";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    // 加载完成后整体替换，预测时只读，无需加锁
+    private volatile LinearModel model;
+
+    @PostConstruct
+    public void init() {
+        reload(MODEL_NAME);
+    }
+
+    @Override
+    public void reload(String modelName) {
+        if (!MODEL_NAME.equals(modelName)) {
+            return;
+        }
+        File exportFile = ModelFileUtil.exportFile(MODEL_NAME + ".json");
+        if (!exportFile.exists()) {
+            model = null;
+            System.out.println("未找到逻辑回归导出文件，JVM内推理不可用: " + exportFile.getPath());
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            load(exportFile);
+            metricsRegistry.timer("model_load_seconds", "模型加载耗时", "model", MODEL_NAME, "engine", getName())
+                    .recordSince(start);
+            System.out.println("逻辑回归JVM内推理引擎已加载: " + exportFile.getPath());
+        } catch (IOException e) {
+            // 导出文件已更新但无法读取，旧参数不再与模型版本对应
+            model = null;
+            System.err.println("加载逻辑回归导出文件失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 加载 export_models.py 导出的逻辑回归参数
+     */
+    public void load(File file) throws IOException {
+        JsonNode root = objectMapper.readTree(file);
+        double[] coef = toArray(root.get("coef"));
+        double[] mean = toArray(root.get("scaler_mean"));
+        double[] scale = toArray(root.get("scaler_scale"));
+        if (coef.length != FeatureExtractor.FEATURE_COUNT || mean.length != coef.length || scale.length != coef.length) {
+            throw new IOException(String.format("逻辑回归参数维度不匹配: coef=%d, mean=%d, scale=%d",
+                    coef.length, mean.length, scale.length));
+        }
+        model = new LinearModel(coef, root.get("intercept").asDouble(), mean, scale);
+    }
+
+    @Override
+    public String getName() {
+        return "native";
+    }
+
+    @Override
+    public boolean supports(String modelName) {
+        return MODEL_NAME.equals(modelName) && model != null;
+    }
+
+    @Override
+    public double predictProbability(String modelName, double[] features) {
+        LinearModel current = model;
+        if (current == null) {
+            throw new IllegalStateException("逻辑回归模型未加载");
+        }
+        return current.predictProbability(features);
+    }
+
+    private static double[] toArray(JsonNode node) throws IOException {
+        if (node == null || !node.isArray()) {
+            throw new IOException("缺少数组字段");
+        }
+        double[] values = new double[node.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = node.get(i).asDouble();
+        }
+        return values;
+    }
+
+    /**
+     * 标准化参数与系数，全部为基本类型数组
+     */
+    private static final class LinearModel {
+        private final double[] coef;
+        private final double intercept;
+        private final double[] mean;
+        private final double[] scale;
+
+        LinearModel(double[] coef, double intercept, double[] mean, double[] scale) {
+            this.coef = coef;
+            this.intercept = intercept;
+            this.mean = mean;
+            this.scale = scale;
+        }
+
+        double predictProbability(double[] features) {
+            // sklearn先算点积再加截距，这里保持相同的运算顺序
+            double dot = 0.0;
+            for (int i = 0; i < coef.length; i++) {
+                dot += ((features[i] - mean[i]) / scale[i]) * coef[i];
+            }
+            double decision = dot + intercept;
+            return 1.0 / (1.0 + Math.exp(-decision));
+        }
+    }
+}
@@ -1,75 +1,61 @@
 package com.over.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.over.dto.MenuDTO;
-import com.over.entity.Menu;
 import com.over.repository.MenuRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class MenuService {
-    
+
     @Autowired
     private MenuRepository menuRepository;
 
-    public List<MenuDTO> getMenuTree() {
-        List<Menu> menus = menuRepository.findAllActiveMenus();
-        return buildMenuTree(menus, 0L);
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheRegistry cacheRegistry;
+
+    private static final String TREE_KEY = "tree";
+
+    // 菜单树快照，菜单修改后通过 invalidateMenuTree 丢弃，下次请求时重建
+    private LocalCache<String, MenuTree> menuCache;
+
+    @PostConstruct
+    public void init() {
+        menuCache = cacheRegistry.region("menus", 1, 300000L, null);
     }
 
-    private String formatPathToName(String path) {
-        if (path == null || path.isEmpty()) return "";
-        String[] parts = path.split("/");
-        StringBuilder name = new StringBuilder();
-        for (String part : parts) {
-            if (!part.isEmpty()) {
-                // 首字母大写
-                name.append(part.substring(0, 1).toUpperCase());
-                if (part.length() > 1) {
-                    name.append(part.substring(1));
-                }
-            }
-        }
-        return name.toString();
+    /**
+     * 指定用户可见的菜单树，username为null时只包含无需权限的菜单
+     */
+    public List<MenuDTO> getMenuTree(String username) {
+        return snapshot().toDtos(authService.getRoles(username), authService.getPermissions(username));
     }
 
-    private List<MenuDTO> buildMenuTree(List<Menu> menus, Long parentId) {
-        return menus.stream()
-                .filter(menu -> parentId.equals(menu.getParentId()))
-                .map(menu -> {
-                    MenuDTO dto = new MenuDTO();
-                    dto.setPath(menu.getPath());
-                    // 生成name，使用Path去除开头的/并转驼峰，或者直接使用Menu + ID
-                    String name = menu.getPath() != null ? 
-                        formatPathToName(menu.getPath()) : 
-                        "Menu" + menu.getId();
-                    dto.setName(name);
-                    dto.setComponent(menu.getComponent() != null ? menu.getComponent() : "layout");
-                    
-                    MenuDTO.Meta meta = new MenuDTO.Meta();
-                    meta.setTitle(menu.getMenuName());
-                    meta.setIcon(menu.getIcon());
-                    meta.setRank(menu.getSortOrder());
-                    // 可以根据需要设置roles和auths
-                    dto.setMeta(meta);
-                    
-                    // 递归构建子菜单
-                    List<MenuDTO> children = buildMenuTree(menus, menu.getId());
-                    // 确保children不为null，如果为空则设置为空列表
-                    dto.setChildren(children != null && !children.isEmpty() ? children : new ArrayList<>());
-                    
-                    return dto;
-                })
-                .sorted((a, b) -> {
-                    int rankA = a.getMeta() != null && a.getMeta().getRank() != null ? a.getMeta().getRank() : 0;
-                    int rankB = b.getMeta() != null && b.getMeta().getRank() != null ? b.getMeta().getRank() : 0;
-                    return Integer.compare(rankA, rankB);
-                })
-                .collect(Collectors.toList());
+    /**
+     * 指定用户可见的菜单树，已按 ApiResponse 序列化为JSON；返回的数组是共享的，调用方不能修改
+     */
+    public byte[] getMenuTreeJson(String username) {
+        return snapshot().toJson(authService.getRoles(username), authService.getPermissions(username));
     }
-}
 
+    /**
+     * 菜单表被修改后调用，下次请求重新构建菜单树
+     */
+    public void invalidateMenuTree() {
+        menuCache.invalidateAll();
+    }
+
+    private MenuTree snapshot() {
+        return menuCache.get(TREE_KEY, key -> MenuTree.build(menuRepository.findAllActiveMenus(), objectMapper));
+    }
+}
@@ -0,0 +1,185 @@
+package com.over.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.dto.ApiResponse;
+import com.over.dto.MenuDTO;
+import com.over.entity.Menu;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 不可变的菜单树快照
+ * 按 parentId 分组后一次遍历建好整棵树，每组只排序一次，名称等派生字段在建树时算好；
+ * 按用户可见的权限组合过滤，过滤后的 /get-async-routes 响应序列化为字节数组缓存，同一权限组合之后直接返回。
+ * 菜单的 permission 为空时所有人可见，否则需要用户的权限或角色包含该标识，权限 *:*:* 可见全部；
+ * 父菜单不可见时其子菜单也不可见
+ */
+final class MenuTree {
+
+    static final String ALL_PERMISSIONS = "*:*:*";
+
+    private static final Comparator<Menu> BY_RANK =
+            Comparator.comparingInt(menu -> menu.getSortOrder() == null ? 0 : menu.getSortOrder());
+
+    private final List<Node> roots;
+
+    // 树中出现过的权限标识，用户的权限只有落在其中的部分影响过滤结果
+    private final Set<String> permissions;
+
+    private final int size;
+
+    private final ObjectMapper objectMapper;
+
+    // 可见权限组合 -> 序列化后的响应
+    private final Map<String, byte[]> serialized = new ConcurrentHashMap<>();
+
+    private MenuTree(List<Node> roots, Set<String> permissions, int size, ObjectMapper objectMapper) {
+        this.roots = roots;
+        this.permissions = permissions;
+        this.size = size;
+        this.objectMapper = objectMapper;
+    }
+
+    static MenuTree build(List<Menu> menus, ObjectMapper objectMapper) {
+        Map<Long, List<Menu>> byParent = new HashMap<>();
+        for (Menu menu : menus) {
+            Long parentId = menu.getParentId() == null ? 0L : menu.getParentId();
+            byParent.computeIfAbsent(parentId, key -> new ArrayList<>()).add(menu);
+        }
+        for (List<Menu> siblings : byParent.values()) {
+            siblings.sort(BY_RANK);
+        }
+        Set<String> permissions = new TreeSet<>();
+        int[] size = new int[1];
+        List<Node> roots = buildNodes(byParent, 0L, permissions, size);
+        return new MenuTree(roots, Collections.unmodifiableSet(permissions), size[0], objectMapper);
+    }
+
+    // 只从根向下访问，父节点不在树中（已停用或成环）的菜单不会被访问到
+    private static List<Node> buildNodes(Map<Long, List<Menu>> byParent, Long parentId,
+                                         Set<String> permissions, int[] size) {
+        List<Menu> siblings = byParent.get(parentId);
+        if (siblings == null) {
+            return List.of();
+        }
+        List<Node> nodes = new ArrayList<>(siblings.size());
+        for (Menu menu : siblings) {
+            String permission = menu.getPermission() == null || menu.getPermission().isBlank()
+                    ? null : menu.getPermission().trim();
+            if (permission != null) {
+                permissions.add(permission);
+            }
+            size[0]++;
+            List<Node> children = menu.getId() == null || menu.getId().equals(parentId)
+                    ? List.of() : buildNodes(byParent, menu.getId(), permissions, size);
+            nodes.add(new Node(menu, permission, children));
+        }
+        return List.copyOf(nodes);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 用户可见的菜单树（每次新建DTO，调用方可以修改）
+     */
+    List<MenuDTO> toDtos(Collection<String> roles, Collection<String> userPermissions) {
+        return toDtos(roots, granted(roles, userPermissions));
+    }
+
+    /**
+     * 用户可见的菜单树按 ApiResponse 序列化后的JSON，同一可见权限组合共用一份，调用方不能修改返回的数组
+     */
+    byte[] toJson(Collection<String> roles, Collection<String> userPermissions) {
+        Set<String> granted = granted(roles, userPermissions);
+        return serialized.computeIfAbsent(String.join("\n", granted), key -> {
+            try {
+                return objectMapper.writeValueAsBytes(ApiResponse.success(toDtos(roots, granted)));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("菜单序列化失败: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    private Set<String> granted(Collection<String> roles, Collection<String> userPermissions) {
+        boolean all = userPermissions.contains(ALL_PERMISSIONS);
+        Set<String> granted = new TreeSet<>();
+        for (String permission : permissions) {
+            if (all || userPermissions.contains(permission) || roles.contains(permission)) {
+                granted.add(permission);
+            }
+        }
+        return granted;
+    }
+
+    private static List<MenuDTO> toDtos(List<Node> nodes, Set<String> granted) {
+        List<MenuDTO> dtos = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            if (node.permission != null && !granted.contains(node.permission)) {
+                continue;
+            }
+            MenuDTO dto = new MenuDTO();
+            dto.setPath(node.path);
+            dto.setName(node.name);
+            dto.setComponent(node.component);
+            MenuDTO.Meta meta = new MenuDTO.Meta();
+            meta.setTitle(node.title);
+            meta.setIcon(node.icon);
+            meta.setRank(node.rank);
+            dto.setMeta(meta);
+            dto.setChildren(toDtos(node.children, granted));
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    private static String formatPathToName(String path) {
+        if (path == null || path.isEmpty()) return "";
+        String[] parts = path.split("/");
+        StringBuilder name = new StringBuilder();
+        for (String part : parts) {
+            if (!part.isEmpty()) {
+                // 首字母大写
+                name.append(part.substring(0, 1).toUpperCase());
+                if (part.length() > 1) {
+                    name.append(part.substring(1));
+                }
+            }
+        }
+        return name.toString();
+    }
+
+    private static final class Node {
+        private final String path;
+        private final String name;
+        private final String component;
+        private final String title;
+        private final String icon;
+        private final Integer rank;
+        private final String permission;
+        private final List<Node> children;
+
+        Node(Menu menu, String permission, List<Node> children) {
+            this.path = menu.getPath();
+            // 生成name，使用Path去除开头的/并转驼峰，或者直接使用Menu + ID
+            this.name = menu.getPath() != null ? formatPathToName(menu.getPath()) : "Menu" + menu.getId();
+            this.component = menu.getComponent() != null ? menu.getComponent() : "layout";
+            this.title = menu.getMenuName();
+            this.icon = menu.getIcon();
+            this.rank = menu.getSortOrder();
+            this.permission = permission;
+            this.children = children;
+        }
+    }
+}
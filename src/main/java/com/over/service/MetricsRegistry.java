@@ -0,0 +1,273 @@
+package com.over.service;
+
+import com.over.util.RequestContext;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 进程内指标，按 Prometheus 文本格式输出（/actuator/prometheus）
+ * 计时器为固定分桶的直方图，p99 等分位数由 Prometheus 的 histogram_quantile 计算；
+ * 请求带有 requestId 时，每个桶记录最近一次落入该桶的 requestId 作为 exemplar（OpenMetrics 格式输出），
+ * 可据此在日志中找到具体的慢请求。
+ * 同名同标签多次获取返回同一个计时器/计数器，调用方可以在每次使用时获取，也可以保存下来复用
+ */
+@Component
+public class MetricsRegistry {
+
+    // 延迟直方图的桶上限（秒），覆盖JVM内推理的毫秒级到Python单次进程的十秒级
+    static final double[] LATENCY_BUCKETS = {
+        0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30
+    };
+
+    private static final String TYPE_COUNTER = "counter";
+    private static final String TYPE_GAUGE = "gauge";
+    private static final String TYPE_HISTOGRAM = "histogram";
+
+    // 指标名 -> 指标族，按名称排序输出
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    /**
+     * 获取计时器，labels 为交替的标签名和取值，如 ("model", "Random_Forest", "source", "native")
+     */
+    public Timer timer(String name, String help, String... labels) {
+        return (Timer) family(name, help, TYPE_HISTOGRAM).meters.computeIfAbsent(List.of(labels), key -> new Timer());
+    }
+
+    /**
+     * 获取计数器，name 以 _total 结尾
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, TYPE_COUNTER).meters.computeIfAbsent(List.of(labels), key -> new Counter());
+    }
+
+    /**
+     * 注册抓取时才计算的瞬时值（连接池活跃数等），重复注册时后者覆盖前者
+     */
+    public void gauge(String name, String help, Supplier<List<Sample>> samples) {
+        family(name, help, TYPE_GAUGE).function = samples;
+    }
+
+    /**
+     * 注册抓取时才读取的累计值，用于已有统计（缓存命中次数等），name 以 _total 结尾
+     */
+    public void functionCounter(String name, String help, Supplier<List<Sample>> samples) {
+        family(name, help, TYPE_COUNTER).function = samples;
+    }
+
+    private Family family(String name, String help, String type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException(String.format("指标 %s 已注册为 %s", name, family.type));
+        }
+        return family;
+    }
+
+    /**
+     * 输出全部指标；openMetrics 为 true 时按 OpenMetrics 格式输出并带上 exemplar
+     */
+    public String scrape(boolean openMetrics) {
+        StringBuilder out = new StringBuilder(4096);
+        for (Map.Entry<String, Family> entry : families.entrySet()) {
+            String name = entry.getKey();
+            Family family = entry.getValue();
+            // OpenMetrics 中计数器的类型行不带 _total 后缀
+            String typeName = openMetrics && TYPE_COUNTER.equals(family.type) && name.endsWith("_total")
+                    ? name.substring(0, name.length() - "_total".length()) : name;
+            out.append("# HELP ").append(typeName).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(typeName).append(' ').append(family.type).append('\n');
+            if (family.function != null) {
+                for (Sample sample : family.function.get()) {
+                    writeSample(out, name, sample.labels, null, sample.value);
+                    out.append('\n');
+                }
+            }
+            for (Map.Entry<List<String>, Object> meter : family.meters.entrySet()) {
+                List<String> labels = meter.getKey();
+                if (meter.getValue() instanceof Counter counter) {
+                    writeSample(out, name, labels, null, counter.count());
+                    out.append('\n');
+                } else {
+                    ((Timer) meter.getValue()).write(out, name, labels, openMetrics);
+                }
+            }
+        }
+        if (openMetrics) {
+            out.append("# EOF\n");
+        }
+        return out.toString();
+    }
+
+    private static void writeSample(StringBuilder out, String name, List<String> labels, String le, double value) {
+        out.append(name);
+        if (!labels.isEmpty() || le != null) {
+            out.append('{');
+            for (int i = 0; i + 1 < labels.size(); i += 2) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                appendLabel(out, labels.get(i), labels.get(i + 1));
+            }
+            if (le != null) {
+                if (labels.size() > 1) {
+                    out.append(',');
+                }
+                appendLabel(out, "le", le);
+            }
+            out.append('}');
+        }
+        out.append(' ').append(formatValue(value));
+    }
+
+    private static void appendLabel(StringBuilder out, String name, String value) {
+        out.append(name).append("=\"");
+        String text = value == null ? "" : value;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' || c == '"') {
+                out.append('\\').append(c);
+            } else if (c == '\n') {
+                out.append("\\n");
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    private static String formatValue(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static final class Family {
+        private final String help;
+        private final String type;
+        private final Map<List<String>, Object> meters = new ConcurrentHashMap<>();
+        private volatile Supplier<List<Sample>> function;
+
+        Family(String help, String type) {
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    /**
+     * 抓取时计算的一个取值
+     */
+    public static final class Sample {
+        private final List<String> labels;
+        private final double value;
+
+        private Sample(List<String> labels, double value) {
+            this.labels = labels;
+            this.value = value;
+        }
+
+        public static Sample of(double value, String... labels) {
+            return new Sample(Arrays.asList(labels), value);
+        }
+    }
+
+    public static final class Counter {
+        private final LongAdder count = new LongAdder();
+
+        public void increment() {
+            count.increment();
+        }
+
+        public void increment(long amount) {
+            count.add(amount);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+    }
+
+    /**
+     * 固定分桶的延迟直方图；记录时只做几次原子加法，不加锁
+     */
+    public static final class Timer {
+        // 各桶（非累计）计数，最后一个为 +Inf
+        private final AtomicLongArray buckets = new AtomicLongArray(LATENCY_BUCKETS.length + 1);
+        private final AtomicReferenceArray<Exemplar> exemplars = new AtomicReferenceArray<>(LATENCY_BUCKETS.length + 1);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sumNanos = new LongAdder();
+
+        public void record(long nanos) {
+            double seconds = nanos / 1e9;
+            int index = 0;
+            while (index < LATENCY_BUCKETS.length && seconds > LATENCY_BUCKETS[index]) {
+                index++;
+            }
+            buckets.incrementAndGet(index);
+            count.increment();
+            sumNanos.add(nanos);
+            String requestId = RequestContext.getRequestId();
+            if (requestId != null) {
+                exemplars.set(index, new Exemplar(requestId, seconds, System.currentTimeMillis()));
+            }
+        }
+
+        /**
+         * 记录从 startNanos（System.nanoTime()）到现在的耗时，返回该耗时
+         */
+        public long recordSince(long startNanos) {
+            long elapsed = System.nanoTime() - startNanos;
+            record(elapsed);
+            return elapsed;
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        private void write(StringBuilder out, String name, List<String> labels, boolean openMetrics) {
+            // _count 取累计到 +Inf 桶的值，与各桶保持一致
+            long cumulative = 0;
+            List<String> bounds = new ArrayList<>(LATENCY_BUCKETS.length + 1);
+            for (double bound : LATENCY_BUCKETS) {
+                bounds.add(Double.toString(bound));
+            }
+            bounds.add("+Inf");
+            for (int i = 0; i < bounds.size(); i++) {
+                cumulative += buckets.get(i);
+                writeSample(out, name + "_bucket", labels, bounds.get(i), cumulative);
+                Exemplar exemplar = exemplars.get(i);
+                if (openMetrics && exemplar != null) {
+                    out.append(" # {request_id=\"").append(exemplar.requestId).append("\"} ")
+                            .append(exemplar.seconds).append(' ').append(exemplar.timestampMs / 1000.0);
+                }
+                out.append('\n');
+            }
+            writeSample(out, name + "_count", labels, null, cumulative);
+            out.append('\n');
+            writeSample(out, name + "_sum", labels, null, sumNanos.sum() / 1e9);
+            out.append('\n');
+        }
+    }
+
+    private static final class Exemplar {
+        private final String requestId;
+        private final double seconds;
+        private final long timestampMs;
+
+        Exemplar(String requestId, double seconds, long timestampMs) {
+            this.requestId = requestId;
+            this.seconds = seconds;
+            this.timestampMs = timestampMs;
+        }
+    }
+}
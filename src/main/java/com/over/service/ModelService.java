@@ -1,22 +1,52 @@
 package com.over.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.dto.BatchPredictionResult;
+import com.over.dto.CacheStats;
 import com.over.dto.ModelInfo;
 import com.over.dto.PredictionRequest;
 import com.over.dto.PredictionResponse;
+import com.over.util.ModelFileUtil;
+import com.over.util.SampledLogger;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 @Service
 public class ModelService {
@@ -24,6 +54,115 @@ public class ModelService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private PythonWorkerPool pythonWorkerPool;
+
+    @Autowired
+    private FeatureExtractor featureExtractor;
+
+    @Autowired
+    private List<InferenceEngine> inferenceEngines;
+
+    @Autowired
+    private PredictionCache predictionCache;
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    // 单条预测的采样日志：耗时达到 slow-ms 的总是输出，其余按 sample-rate 采样
+    @Value("${metrics.prediction-log.sample-rate:0.01}")
+    private double predictionLogSampleRate;
+
+    @Value("${metrics.prediction-log.slow-ms:1000}")
+    private long predictionLogSlowMs;
+
+    // 默认推理方式：python（进程池/单次进程）或 native（已导出的模型在JVM内推理）
+    @Value("${model.engine:python}")
+    private String engineMode;
+
+    // 通过 switchModel 为单个模型指定的推理方式，覆盖默认配置
+    private final Map<String, String> modelEngines = new ConcurrentHashMap<>();
+
+    private static final String ENGINE_PYTHON = "python";
+
+    // 同时运行的 predict.py 进程数上限，0表示CPU核数；进程池不可用时每次预测都会启动一个进程
+    @Value("${model.fork.max-concurrent:0}")
+    private int forkMaxConcurrent;
+
+    @Value("${model.fork.acquire-timeout-ms:3000}")
+    private long forkAcquireTimeoutMs;
+
+    // 启动 predict.py 的许可，init 中按配置重建
+    private volatile Semaphore forkPermits = new Semaphore(Runtime.getRuntime().availableProcessors());
+
+    // 单个 predict.py 进程的最长运行时间，超时强制结束，脚本卡住时不会一直占用线程和进程许可
+    @Value("${model.fork.timeout-ms:30000}")
+    private long forkTimeoutMs;
+
+    // 异步单条预测（/model/predict）的执行线程数与排队上限，排队已满时立即拒绝
+    @Value("${model.predict.threads:16}")
+    private int predictThreads;
+
+    @Value("${model.predict.queue-capacity:100}")
+    private int predictQueueCapacity;
+
+    // 请求未指定截止时间时的默认值，以及允许指定的上限
+    @Value("${model.predict.timeout-ms:15000}")
+    private long predictTimeoutMs;
+
+    @Value("${model.predict.max-timeout-ms:60000}")
+    private long predictMaxTimeoutMs;
+
+    private ThreadPoolExecutor predictExecutor;
+
+    // 进行中的异步预测，key 与预测缓存相同（模型名+内容哈希），相同请求共用一次计算
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    // 当前线程正在执行的异步预测，启动的 predict.py 进程登记到其中，取消时随之结束
+    private static final ThreadLocal<InFlight> CURRENT_FLIGHT = new ThreadLocal<>();
+
+    // 微批：并发的单条Python预测按模型合并，达到 max-size 条或最早的一条等待满 max-wait-ms 时发出
+    @Value("${model.micro-batch.enabled:true}")
+    private boolean microBatchEnabled;
+
+    @Value("${model.micro-batch.max-size:32}")
+    private int microBatchMaxSize;
+
+    @Value("${model.micro-batch.max-wait-ms:5}")
+    private long microBatchMaxWaitMs;
+
+    // 每个模型同时在途的批次数，0表示与Python worker数相同；在途批次已满时新请求继续积攒，批次随负载变大
+    @Value("${model.micro-batch.concurrency:0}")
+    private int microBatchConcurrency;
+
+    // 每个模型最多排队等待组批的请求数，超出立即拒绝
+    @Value("${model.micro-batch.max-queued:1000}")
+    private int microBatchMaxQueued;
+
+    private final Map<String, MicroBatcher> microBatchers = new ConcurrentHashMap<>();
+
+    // 执行已组好的批次，并发数由各模型的在途批次许可限制
+    private final ExecutorService microBatchExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "model-micro-batch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${model.batch.max-size:10000}")
+    private int batchMaxSize;
+
+    @Value("${model.batch.chunk-size:500}")
+    private int batchChunkSize;
+
+    // 检查模型文件是否被替换的间隔
+    @Value("${model.version-check-interval-ms:5000}")
+    private long versionCheckIntervalMs;
+
+    // 各模型当前的文件版本，由定时检查更新，预测路径上不再读取文件修改时间
+    private final Map<String, String> modelVersions = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService versionChecker;
+
     // 当前选中的模型名称
     private final AtomicReference<String> currentModelName = new AtomicReference<>("Random_Forest");
     
@@ -75,6 +214,25 @@ public class ModelService {
      */
     @PostConstruct
     public void init() {
+        forkPermits = new Semaphore(forkMaxConcurrent > 0 ? forkMaxConcurrent : Runtime.getRuntime().availableProcessors());
+        AtomicInteger threadIndex = new AtomicInteger();
+        predictExecutor = new ThreadPoolExecutor(Math.max(1, predictThreads), Math.max(1, predictThreads),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, predictQueueCapacity)), runnable -> {
+            Thread thread = new Thread(runnable, "model-predict-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 先记录启动时的版本，之后的变化才能被识别
+        checkModelFiles();
+        if (versionCheckIntervalMs > 0) {
+            versionChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "model-version-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            versionChecker.scheduleWithFixedDelay(this::checkModelFiles,
+                    versionCheckIntervalMs, versionCheckIntervalMs, TimeUnit.MILLISECONDS);
+        }
         System.out.println("============================================================");
         System.out.println("正在检查模型文件...");
         System.out.println("============================================================");
@@ -148,6 +306,20 @@ public class ModelService {
         }).start();
     }
 
+    @PreDestroy
+    public void shutdown() {
+        if (versionChecker != null) {
+            versionChecker.shutdownNow();
+        }
+        if (predictExecutor != null) {
+            predictExecutor.shutdownNow();
+        }
+        for (MicroBatcher batcher : microBatchers.values()) {
+            batcher.close();
+        }
+        microBatchExecutor.shutdownNow();
+    }
+
     /**
      * 获取所有可用的模型列表
      */
@@ -165,7 +337,9 @@ public class ModelService {
                 MODEL_DISPLAY_NAMES[i],
                 MODEL_DESCRIPTIONS[i],
                 available,
-                selected
+                selected,
+                findInferenceEngine(modelName) != null ? getEngine(modelName) : ENGINE_PYTHON,
+                hasNativeEngine(modelName)
             );
             models.add(modelInfo);
         }
@@ -205,6 +379,13 @@ public class ModelService {
      * 切换当前使用的模型
      */
     public boolean switchModel(String modelName) {
+        return switchModel(modelName, null);
+    }
+
+    /**
+     * 切换当前使用的模型，并可同时指定该模型的推理方式（python / native），engine为空时保持原有设置
+     */
+    public boolean switchModel(String modelName, String engine) {
         if (!isModelAvailable(modelName)) {
             return false;
         }
@@ -218,12 +399,22 @@ public class ModelService {
             }
         }
 
-        if (isValid) {
-            currentModelName.set(modelName);
-            return true;
+        if (!isValid) {
+            return false;
         }
 
-        return false;
+        if (engine != null && !engine.trim().isEmpty()) {
+            // native需要该模型已导出并被某个JVM内引擎加载
+            if (!ENGINE_PYTHON.equals(engine) && findInferenceEngine(engine, modelName) == null) {
+                return false;
+            }
+            modelEngines.put(modelName, engine);
+        }
+
+        // 推理方式可能改变，已缓存的结果不再可信
+        predictionCache.invalidate(modelName);
+        currentModelName.set(modelName);
+        return true;
     }
 
     /**
@@ -237,24 +428,163 @@ public class ModelService {
      * 使用当前模型进行预测
      */
     public PredictionResponse predict(PredictionRequest request) throws Exception {
-        // 确定使用的模型：优先使用请求中指定的，否则使用当前选中的
-        String modelToUse = request.getModelName();
-        if (modelToUse == null || modelToUse.trim().isEmpty()) {
-            modelToUse = currentModelName.get();
+        long start = System.nanoTime();
+        String modelToUse = resolveModel(request.getModelName());
+
+        // 同一职位内容在同一模型下的结果可以直接复用
+        PredictionResponse cached = predictionCache.get(modelToUse, request);
+        if (cached != null) {
+            recordPrediction(modelToUse, "cache", start);
+            return cached;
         }
+        return computeAndCache(modelToUse, request, start);
+    }
 
-        // 验证模型是否可用
-        if (!isModelAvailable(modelToUse)) {
-            throw new Exception("模型不可用: " + modelToUse);
+    /**
+     * 异步预测，不占用调用线程：在专用线程池中计算，排队已满时以 RejectedExecutionException 失败；
+     * 超过 timeoutMs 以 TimeoutException 失败。模型和内容相同的进行中请求共用一次计算，
+     * 所有等待者都超时或取消后才取消计算（结束已启动的 predict.py，或放弃等待空闲worker）
+     */
+    public CompletableFuture<PredictionResponse> predictAsync(PredictionRequest request, long timeoutMs) {
+        long start = System.nanoTime();
+        String modelToUse;
+        try {
+            modelToUse = resolveModel(request.getModelName());
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        PredictionResponse cached = predictionCache.get(modelToUse, request);
+        if (cached != null) {
+            recordPrediction(modelToUse, "cache", start);
+            return CompletableFuture.completedFuture(cached);
         }
 
-        // 准备输入数据
-        String jsonData = objectMapper.writeValueAsString(request);
+        String key = PredictionCache.key(modelToUse, request);
+        boolean[] created = new boolean[1];
+        InFlight flight = inFlight.compute(key, (k, existing) -> {
+            if (existing != null && existing.join()) {
+                return existing;
+            }
+            created[0] = true;
+            InFlight fresh = new InFlight(k);
+            fresh.join();
+            return fresh;
+        });
+        if (created[0]) {
+            try {
+                flight.task = predictExecutor.submit(() -> runFlight(flight, modelToUse, request, start));
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(key, flight);
+                metricsRegistry.counter("model_prediction_shed_total", "因排队已满被拒绝的预测请求",
+                        "model", modelToUse).increment();
+                // 已合并到这次计算上的请求一并拒绝
+                flight.result.completeExceptionally(new RejectedExecutionException("预测请求过多，请稍后重试"));
+            }
+        } else {
+            metricsRegistry.counter("model_prediction_coalesced_total", "与进行中的相同请求合并的预测请求",
+                    "model", modelToUse).increment();
+        }
+
+        // 每个等待者有自己的截止时间，结果为副本，互不影响
+        CompletableFuture<PredictionResponse> caller = new CompletableFuture<>();
+        flight.result.whenComplete((response, error) -> {
+            if (error != null) {
+                caller.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            } else {
+                caller.complete(PredictionCache.copy(response));
+            }
+        });
+        caller.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        caller.whenComplete((response, error) -> {
+            // 超时或被调用方取消时计算仍未完成，最后一个等待者离开则取消计算
+            if (!flight.result.isDone() && flight.leave()) {
+                inFlight.remove(flight.key, flight);
+                // 先计数再中断执行线程，观察到中断时计数已可见
+                metricsRegistry.counter("model_prediction_cancelled_total", "等待者全部超时或取消而中止的预测",
+                        "model", modelToUse).increment();
+                flight.cancel();
+            }
+        });
+        return caller;
+    }
+
+    /**
+     * 请求指定的截止时间（毫秒），为空或非正数时使用默认值，超过上限时取上限
+     */
+    public long resolvePredictTimeout(Long requestedMs) {
+        if (requestedMs == null || requestedMs <= 0) {
+            return predictTimeoutMs;
+        }
+        return Math.min(requestedMs, predictMaxTimeoutMs);
+    }
+
+    public int getPredictActiveCount() {
+        return predictExecutor == null ? 0 : predictExecutor.getActiveCount();
+    }
+
+    public int getPredictQueuedCount() {
+        return predictExecutor == null ? 0 : predictExecutor.getQueue().size();
+    }
+
+    private void runFlight(InFlight flight, String modelToUse, PredictionRequest request, long start) {
+        if (flight.isCancelled()) {
+            return;
+        }
+        CURRENT_FLIGHT.set(flight);
+        try {
+            flight.result.complete(computeAndCache(modelToUse, request, start));
+        } catch (Exception e) {
+            flight.result.completeExceptionally(flight.isCancelled() ? new CancellationException("预测已取消") : e);
+        } finally {
+            CURRENT_FLIGHT.remove();
+            inFlight.remove(flight.key, flight);
+        }
+    }
 
-        // 调用Python脚本进行预测
-        String result = executePythonPrediction(modelToUse, jsonData);
+    private PredictionResponse computeAndCache(String modelToUse, PredictionRequest request, long start) throws Exception {
+        PredictionResponse response;
+        try {
+            response = doPredict(modelToUse, request, start);
+        } catch (Exception e) {
+            metricsRegistry.counter("model_prediction_errors_total", "预测失败次数", "model", modelToUse).increment();
+            throw e;
+        }
+        predictionCache.put(modelToUse, request, response);
+        return response;
+    }
+
+    private PredictionResponse doPredict(String modelToUse, PredictionRequest request, long start) throws Exception {
+        // 配置为native且该模型已导出时，直接在JVM内推理
+        InferenceEngine engine = findInferenceEngine(modelToUse);
+        if (engine != null) {
+            double[] features = featureExtractor.extract(request);
+            PredictionResponse response = buildResponse(modelToUse, engine.predictProbability(modelToUse, features));
+            recordPrediction(modelToUse, engine.getName(), start);
+            return response;
+        }
+
+        // 并发的单条预测按模型合并成微批，一次调用打分
+        if (microBatchEnabled) {
+            PredictionResponse response = predictInMicroBatch(modelToUse, request);
+            recordPrediction(modelToUse, "python-batch", start);
+            return response;
+        }
+
+        // 优先交给常驻worker进程池，进程池不可用时退回单次启动Python脚本
+        String result;
+        String source;
+        if (pythonWorkerPool.isAvailable()) {
+            source = "python-worker";
+            result = pythonWorkerPool.predict(modelToUse, request);
+        } else {
+            source = "python-fork";
+            String jsonData = objectMapper.writeValueAsString(request);
+            result = executePythonPrediction(modelToUse, jsonData);
+        }
 
         // 解析结果
+        PredictionResponse response;
         try {
             var resultMap = objectMapper.readValue(result, java.util.Map.class);
             
@@ -262,27 +592,338 @@ public class ModelService {
                 throw new Exception((String) resultMap.get("error"));
             }
 
-            PredictionResponse response = new PredictionResponse();
-            response.setModelName((String) resultMap.get("model_name"));
-            response.setPrediction((Integer) resultMap.get("prediction"));
-            response.setPredictionLabel((String) resultMap.get("prediction_label"));
-            response.setProbability(((Number) resultMap.get("probability")).doubleValue());
-            response.setProbabilityPercent((String) resultMap.get("probability_percent"));
-            response.setRiskScore((Integer) resultMap.get("risk_score"));
-            response.setRiskLevel((String) resultMap.get("risk_level"));
-
-            return response;
+            response = toPredictionResponse(resultMap);
         } catch (Exception e) {
             throw new Exception("解析预测结果失败: " + e.getMessage() + ", 原始结果: " + result);
         }
+        recordPrediction(modelToUse, source, start);
+        return response;
+    }
+
+    /**
+     * 放入该模型的微批队列并等待结果；等待中被中断（异步预测已取消）或超时时，尚未发出的请求不再参与批次。
+     * 同步调用最多等待 model.predict.timeout-ms；异步预测由自身截止时间中断，这里只以 max-timeout-ms 兜底
+     */
+    private PredictionResponse predictInMicroBatch(String modelName, PredictionRequest request) throws Exception {
+        PendingPrediction pending = new PendingPrediction(request);
+        microBatchers.computeIfAbsent(modelName, MicroBatcher::new).submit(pending);
+        long waitMs = CURRENT_FLIGHT.get() != null ? predictMaxTimeoutMs : predictTimeoutMs;
+        BatchPredictionResult result;
+        try {
+            result = pending.result.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            pending.result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (TimeoutException e) {
+            pending.result.cancel(false);
+            throw new TimeoutException(String.format("等待批量预测结果超时（超过 %d ms）", waitMs));
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+        if (!Boolean.TRUE.equals(result.getSuccess())) {
+            throw new Exception(result.getError());
+        }
+        return result.getResult();
+    }
+
+    /**
+     * 发出一个微批：跳过等待期间已取消的请求，整批走与批量预测相同的Python调用，结果按下标分发给各调用方
+     */
+    private void flushMicroBatch(String modelName, List<PendingPrediction> batch, String reason) {
+        batch.removeIf(pending -> pending.result.isDone());
+        if (batch.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        MetricsRegistry.Timer waitTimer = metricsRegistry.timer("model_micro_batch_wait_seconds",
+                "单条预测在微批队列中的等待时间", "model", modelName);
+        List<PredictionRequest> requests = new ArrayList<>(batch.size());
+        for (PendingPrediction pending : batch) {
+            waitTimer.record(now - pending.enqueuedAt);
+            requests.add(pending.request);
+        }
+        metricsRegistry.counter("model_micro_batches_total", "发出的微批次数，reason 为 full（达到最大条数）或 wait（等待到期）",
+                "model", modelName, "reason", reason).increment();
+        metricsRegistry.counter("model_micro_batch_items_total", "微批中的预测条数",
+                "model", modelName).increment(batch.size());
+        try {
+            scoreChunkInPython(modelName, requests, 0, result -> batch.get(result.getIndex()).result.complete(result));
+        } catch (RuntimeException e) {
+            failAll(batch, e);
+        } finally {
+            // 兜底：没有拿到结果的调用方不能一直等待
+            failAll(batch, new IllegalStateException("批量预测未返回该条结果"));
+        }
+    }
+
+    private static void failAll(List<PendingPrediction> pendings, Throwable error) {
+        for (PendingPrediction pending : pendings) {
+            pending.result.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * 记录一次成功预测的耗时，source 为 cache、native、python-batch、python-worker 或 python-fork
+     */
+    private void recordPrediction(String modelName, String source, long start) {
+        long nanos = metricsRegistry.timer("model_prediction_seconds", "单条预测耗时",
+                "model", modelName, "source", source).recordSince(start);
+        SampledLogger.log("prediction", predictionLogSampleRate, predictionLogSlowMs, nanos,
+                "model", modelName, "source", source);
+    }
+
+    public CacheStats getPredictionCacheStats() {
+        return predictionCache.getStats();
+    }
+
+    public void clearPredictionCache() {
+        predictionCache.invalidateAll();
+    }
+
+    /**
+     * 模型版本标识，随模型文件更新而变化，与预测结果一起持久化；取定时检查记录的版本，不读取文件
+     */
+    public String getModelVersion(String modelName) {
+        return modelVersions.computeIfAbsent(modelName, ModelService::modelFileVersion);
+    }
+
+    /**
+     * 模型文件版本：.pkl 与导出文件的修改时间（十六进制，以 - 分隔），任一文件被替换后版本随之变化
+     */
+    static String modelFileVersion(String modelName) {
+        File modelFile = new File(getModelDir(), modelName + ".pkl");
+        File exportFile = ModelFileUtil.exportFile(modelName + ".json");
+        return Long.toHexString(modelFile.lastModified()) + "-" + Long.toHexString(exportFile.lastModified());
+    }
+
+    /**
+     * 定时检查各模型文件的版本，发现变化后先让推理方重新加载模型，再更新记录的版本并失效该模型的预测缓存，
+     * 使持久化的版本与实际打分的模型一致
+     */
+    void checkModelFiles() {
+        Map<String, String> changed = new LinkedHashMap<>();
+        for (String modelName : MODEL_NAMES) {
+            try {
+                String current = modelFileVersion(modelName);
+                String previous = modelVersions.get(modelName);
+                if (previous != null && !previous.equals(current)) {
+                    System.out.println(String.format("模型文件已更新: %s, 版本 %s -> %s", modelName, previous, current));
+                    changed.put(modelName, current);
+                } else {
+                    modelVersions.put(modelName, current);
+                    predictionCache.checkModelVersion(modelName, current);
+                }
+            } catch (RuntimeException e) {
+                System.err.println(String.format("检查模型 %s 的文件版本失败: %s", modelName, e.getMessage()));
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        // 每个worker加载全部模型，任一模型更新都替换整个进程池
+        pythonWorkerPool.recycle();
+        for (Map.Entry<String, String> entry : changed.entrySet()) {
+            for (InferenceEngine engine : inferenceEngines) {
+                try {
+                    engine.reload(entry.getKey());
+                } catch (RuntimeException e) {
+                    System.err.println(String.format("重新加载模型 %s 失败: %s", entry.getKey(), e.getMessage()));
+                }
+            }
+            modelVersions.put(entry.getKey(), entry.getValue());
+            predictionCache.checkModelVersion(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * 确定使用的模型：优先使用请求中指定的，否则使用当前选中的，并验证模型是否可用
+     */
+    public String resolveModel(String requestedModel) throws Exception {
+        String modelToUse = requestedModel;
+        if (modelToUse == null || modelToUse.trim().isEmpty()) {
+            modelToUse = currentModelName.get();
+        }
+
+        // 验证模型是否可用
+        if (!isModelAvailable(modelToUse)) {
+            throw new Exception("模型不可用: " + modelToUse);
+        }
+        return modelToUse;
+    }
+
+    /**
+     * 批量预测：按 model.batch.chunk-size 分块，每块构建一个特征矩阵整体打分（Python端一次predict_proba，
+     * JVM内引擎为一个紧凑循环），结果按请求顺序逐条交给consumer，单条失败只体现在该条结果中
+     */
+    public void predictBatch(String modelName, List<PredictionRequest> requests,
+                             Consumer<BatchPredictionResult> consumer) throws Exception {
+        String modelToUse = checkBatch(modelName, requests);
+        InferenceEngine engine = findInferenceEngine(modelToUse);
+
+        int chunkSize = Math.max(1, batchChunkSize);
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            List<PredictionRequest> chunk = requests.subList(from, Math.min(from + chunkSize, requests.size()));
+            long start = System.nanoTime();
+            if (engine != null) {
+                scoreChunkInJvm(engine, modelToUse, chunk, from, consumer);
+            } else {
+                scoreChunkInPython(modelToUse, chunk, from, consumer);
+            }
+            metricsRegistry.timer("model_batch_chunk_seconds", "批量预测每块耗时（含逐条回调输出）",
+                    "model", modelToUse, "source", engine != null ? engine.getName() : "python").recordSince(start);
+        }
+    }
+
+    /**
+     * 校验批量预测参数，返回实际使用的模型
+     */
+    public String checkBatch(String modelName, List<PredictionRequest> requests) throws Exception {
+        if (requests == null || requests.isEmpty()) {
+            throw new Exception("批量预测数据不能为空");
+        }
+        if (requests.size() > batchMaxSize) {
+            throw new Exception(String.format("单次批量预测最多 %d 条，实际 %d 条", batchMaxSize, requests.size()));
+        }
+        return resolveModel(modelName);
+    }
+
+    private void scoreChunkInJvm(InferenceEngine engine, String modelName, List<PredictionRequest> chunk,
+                                 int offset, Consumer<BatchPredictionResult> consumer) {
+        double[] features = new double[FeatureExtractor.FEATURE_COUNT];
+        for (int i = 0; i < chunk.size(); i++) {
+            PredictionRequest request = chunk.get(i);
+            if (request == null) {
+                consumer.accept(BatchPredictionResult.error(offset + i, "职位数据不能为空"));
+                continue;
+            }
+            try {
+                featureExtractor.extract(request, features);
+                consumer.accept(BatchPredictionResult.success(offset + i,
+                        buildResponse(modelName, engine.predictProbability(modelName, features))));
+            } catch (Exception e) {
+                consumer.accept(BatchPredictionResult.error(offset + i, e.getMessage()));
+            }
+        }
+    }
+
+    private void scoreChunkInPython(String modelName, List<PredictionRequest> chunk,
+                                    int offset, Consumer<BatchPredictionResult> consumer) {
+        JsonNode results;
+        try {
+            JsonNode response;
+            if (pythonWorkerPool.isAvailable()) {
+                response = pythonWorkerPool.predictBatch(modelName, chunk);
+            } else {
+                String output = executePythonPrediction(modelName, objectMapper.writeValueAsString(chunk), "--batch");
+                response = objectMapper.readTree(output);
+            }
+            // worker返回 {"success": true, "results": [...]}，单次脚本直接返回数组
+            results = response.isArray() ? response : response.get("results");
+            if (results == null || !results.isArray() || results.size() != chunk.size()) {
+                throw new Exception(response.path("error").asText("批量预测结果数量与请求不一致"));
+            }
+        } catch (Exception e) {
+            // 整块调用失败时，该块每一条都返回错误，其余块继续处理
+            for (int i = 0; i < chunk.size(); i++) {
+                consumer.accept(BatchPredictionResult.error(offset + i, "批量预测失败: " + e.getMessage()));
+            }
+            return;
+        }
+
+        for (int i = 0; i < chunk.size(); i++) {
+            JsonNode item = results.get(i);
+            if (!item.path("success").asBoolean(false)) {
+                consumer.accept(BatchPredictionResult.error(offset + i, item.path("error").asText("预测失败")));
+                continue;
+            }
+            consumer.accept(BatchPredictionResult.success(offset + i,
+                    toPredictionResponse(objectMapper.convertValue(item, java.util.Map.class))));
+        }
+    }
+
+    private PredictionResponse toPredictionResponse(java.util.Map<?, ?> resultMap) {
+        PredictionResponse response = new PredictionResponse();
+        response.setModelName((String) resultMap.get("model_name"));
+        response.setPrediction((Integer) resultMap.get("prediction"));
+        response.setPredictionLabel((String) resultMap.get("prediction_label"));
+        response.setProbability(((Number) resultMap.get("probability")).doubleValue());
+        response.setProbabilityPercent((String) resultMap.get("probability_percent"));
+        response.setRiskScore((Integer) resultMap.get("risk_score"));
+        response.setRiskLevel((String) resultMap.get("risk_level"));
+        return response;
+    }
+
+    /**
+     * 查找可处理该模型的JVM内推理引擎，未启用或未导出时返回null
+     */
+    private InferenceEngine findInferenceEngine(String modelName) {
+        return findInferenceEngine(getEngine(modelName), modelName);
+    }
+
+    private InferenceEngine findInferenceEngine(String engineName, String modelName) {
+        for (InferenceEngine engine : inferenceEngines) {
+            if (engine.getName().equals(engineName) && engine.supports(modelName)) {
+                return engine;
+            }
+        }
+        return null;
+    }
+
+    private String getEngine(String modelName) {
+        return modelEngines.getOrDefault(modelName, engineMode);
+    }
+
+    private boolean hasNativeEngine(String modelName) {
+        for (InferenceEngine engine : inferenceEngines) {
+            if (engine.supports(modelName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 根据虚假概率构建响应，规则与 predict.py 保持一致
+     */
+    static PredictionResponse buildResponse(String modelName, double probability) {
+        int prediction = probability > 0.5 ? 1 : 0;
+
+        String riskLevel;
+        if (probability < 0.3) {
+            riskLevel = "低风险";
+        } else if (probability < 0.7) {
+            riskLevel = "中风险";
+        } else {
+            riskLevel = "高风险";
+        }
+
+        // Python的round和格式化都按二进制精确值做银行家舍入，BigDecimal(double)可以得到相同结果
+        PredictionResponse response = new PredictionResponse();
+        response.setModelName(modelName);
+        response.setPrediction(prediction);
+        response.setPredictionLabel(prediction == 1 ? "虚假职位" : "真实职位");
+        response.setProbability(new BigDecimal(probability).setScale(4, RoundingMode.HALF_EVEN).doubleValue());
+        response.setProbabilityPercent(new BigDecimal(probability * 100).setScale(2, RoundingMode.HALF_EVEN).toPlainString() + "%");
+        response.setRiskScore((int) (probability * 7));
+        response.setRiskLevel(riskLevel);
+        return response;
     }
 
     /**
      * 执行Python预测脚本
      */
-    private String executePythonPrediction(String modelName, String jsonData) throws Exception {
+    private String executePythonPrediction(String modelName, String jsonData, String... extraArgs) throws Exception {
         StringBuilder output = new StringBuilder();
 
+        // 每个进程都要加载模型，并发过多时内存和CPU会被耗尽，超出上限的请求等待，超时拒绝
+        Semaphore permits = forkPermits;
+        if (!permits.tryAcquire(forkAcquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+            metricsRegistry.counter("python_rejections_total", "因并发已满被拒绝的Python预测", "path", "fork").increment();
+            throw new RejectedExecutionException("预测服务繁忙，同时运行的Python预测进程已达上限，请稍后重试");
+        }
+        long start = System.nanoTime();
+        CompletableFuture<Void> kill = null;
         try {
             // 查找Python脚本
             String predictScriptPath = getPredictScript();
@@ -295,16 +936,20 @@ public class ModelService {
                 scriptFile = absoluteFile;
             }
 
-            // 构建命令：python predict.py <model_name>
-            ProcessBuilder processBuilder = new ProcessBuilder(
-                "python",
-                scriptFile.getAbsolutePath(),
-                modelName
-            );
+            // 构建命令：python predict.py <model_name> [--batch]
+            List<String> command = new ArrayList<>(List.of("python", scriptFile.getAbsolutePath(), modelName));
+            command.addAll(List.of(extraArgs));
+            ProcessBuilder processBuilder = new ProcessBuilder(command);
             processBuilder.redirectErrorStream(true);
             processBuilder.environment().put("PYTHONIOENCODING", "utf-8");
 
             Process process = processBuilder.start();
+            InFlight flight = CURRENT_FLIGHT.get();
+            if (flight != null) {
+                flight.attach(process);
+            }
+            kill = CompletableFuture.runAsync(process::destroyForcibly,
+                    CompletableFuture.delayedExecutor(forkTimeoutMs, TimeUnit.MILLISECONDS));
 
             // 通过stdin写入JSON数据
             try (java.io.OutputStreamWriter writer = new java.io.OutputStreamWriter(
@@ -323,15 +968,193 @@ public class ModelService {
             }
 
             int exitCode = process.waitFor();
+            // 看门狗已执行说明进程是超时被结束的
+            if (!kill.cancel(false)) {
+                throw new Exception(String.format("Python脚本执行超时（超过 %d ms），进程已结束", forkTimeoutMs));
+            }
             if (exitCode != 0) {
                 throw new Exception("Python脚本执行失败，退出码: " + exitCode + ", 输出: " + output.toString());
             }
 
         } catch (IOException | InterruptedException e) {
             throw new Exception("执行Python脚本失败: " + e.getMessage());
+        } finally {
+            if (kill != null) {
+                kill.cancel(false);
+            }
+            permits.release();
+            // 包含进程启动、加载模型、推理和退出的完整耗时
+            metricsRegistry.timer("model_python_fork_seconds", "单次启动Python预测脚本的耗时",
+                    "model", modelName, "mode", extraArgs.length > 0 ? "batch" : "single").recordSince(start);
         }
 
         return output.toString();
     }
-}
 
+    /**
+     * 一次进行中的异步预测及其等待者
+     */
+    private static final class InFlight {
+        private final String key;
+        private final CompletableFuture<PredictionResponse> result = new CompletableFuture<>();
+        private volatile Future<?> task;
+        private int waiters;
+        private boolean cancelled;
+        private Process process;
+
+        InFlight(String key) {
+            this.key = key;
+        }
+
+        /**
+         * 加入等待，已取消的计算不能再加入
+         */
+        synchronized boolean join() {
+            if (cancelled) {
+                return false;
+            }
+            waiters++;
+            return true;
+        }
+
+        /**
+         * 离开等待，最后一个等待者离开时标记为已取消并返回true
+         */
+        synchronized boolean leave() {
+            if (--waiters > 0 || cancelled) {
+                return false;
+            }
+            cancelled = true;
+            return true;
+        }
+
+        synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        synchronized void attach(Process process) {
+            this.process = process;
+            if (cancelled) {
+                process.destroyForcibly();
+            }
+        }
+
+        /**
+         * 结束已启动的 predict.py 并中断执行线程；正在等待空闲worker的会立即放弃，
+         * 已发给worker的请求无法中途撤回，完成后worker照常归还，结果仍写入缓存
+         */
+        void cancel() {
+            Process running;
+            synchronized (this) {
+                running = process;
+            }
+            if (running != null) {
+                running.destroyForcibly();
+            }
+            Future<?> runningTask = task;
+            if (runningTask != null) {
+                runningTask.cancel(true);
+            }
+            result.completeExceptionally(new CancellationException("预测已取消"));
+        }
+    }
+
+    /**
+     * 等待组批的一条单条预测
+     */
+    private static final class PendingPrediction {
+        private final PredictionRequest request;
+        private final CompletableFuture<BatchPredictionResult> result = new CompletableFuture<>();
+        private final long enqueuedAt = System.nanoTime();
+
+        PendingPrediction(PredictionRequest request) {
+            this.request = request;
+        }
+    }
+
+    /**
+     * 单个模型的微批调度：专用线程从队列中取请求组批，在途批次达到上限时先等待，不再取新请求
+     */
+    private final class MicroBatcher implements Runnable {
+        private final String modelName;
+        private final BlockingQueue<PendingPrediction> queue;
+        private final Semaphore batchPermits;
+        private final Thread thread;
+        private volatile boolean closed;
+
+        MicroBatcher(String modelName) {
+            this.modelName = modelName;
+            this.queue = new LinkedBlockingQueue<>(Math.max(1, microBatchMaxQueued));
+            this.batchPermits = new Semaphore(Math.max(1, microBatchConcurrency > 0
+                    ? microBatchConcurrency : pythonWorkerPool.getPoolSize()));
+            this.thread = new Thread(this, "model-micro-batch-" + modelName);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        void submit(PendingPrediction pending) {
+            if (!queue.offer(pending)) {
+                metricsRegistry.counter("python_rejections_total", "因并发已满被拒绝的Python预测", "path", "micro-batch").increment();
+                throw new RejectedExecutionException("预测服务繁忙，等待组批的预测请求过多，请稍后重试");
+            }
+            // 关闭后才放入的请求不会再有调度线程处理
+            if (closed) {
+                failQueued();
+            }
+        }
+
+        void close() {
+            closed = true;
+            thread.interrupt();
+        }
+
+        @Override
+        public void run() {
+            int maxSize = Math.max(1, microBatchMaxSize);
+            long maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(microBatchMaxWaitMs);
+            try {
+                while (!closed) {
+                    batchPermits.acquire();
+                    List<PendingPrediction> batch = new ArrayList<>(maxSize);
+                    try {
+                        batch.add(queue.take());
+                        // 最早的一条等待满 max-wait 即发出；在途批次已满期间积压的请求不再额外等待
+                        long deadline = batch.get(0).enqueuedAt + maxWaitNanos;
+                        while (batch.size() < maxSize) {
+                            long remaining = deadline - System.nanoTime();
+                            PendingPrediction next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                            if (next == null) {
+                                break;
+                            }
+                            batch.add(next);
+                        }
+                        String reason = batch.size() >= maxSize ? "full" : "wait";
+                        microBatchExecutor.execute(() -> {
+                            try {
+                                flushMicroBatch(modelName, batch, reason);
+                            } finally {
+                                batchPermits.release();
+                            }
+                        });
+                    } catch (InterruptedException | RejectedExecutionException e) {
+                        // 已取出但未发出的请求必须结束，否则调用方会一直等待
+                        failAll(batch, new RejectedExecutionException("预测服务正在关闭，请稍后重试"));
+                        batchPermits.release();
+                        throw e;
+                    }
+                }
+            } catch (InterruptedException | RejectedExecutionException e) {
+                // 正在关闭
+            } finally {
+                closed = true;
+                failQueued();
+            }
+        }
+
+        private void failQueued() {
+            List<PendingPrediction> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            failAll(remaining, new RejectedExecutionException("预测服务正在关闭，请稍后重试"));
+        }
+    }
+}
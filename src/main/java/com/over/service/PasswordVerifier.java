@@ -0,0 +1,93 @@
+package com.over.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BCrypt密码校验
+ * 在专用的有界线程池中执行，不占用Tomcat请求线程；排队数达到上限时立即拒绝（RejectedExecutionException），
+ * 登录洪峰时快速返回"请稍后重试"，而不是让请求在队列里越积越多
+ */
+@Component
+public class PasswordVerifier {
+
+    @Autowired
+    private BCryptPasswordEncoder passwordEncoder;
+
+    // 校验线程数，0表示CPU核数
+    @Value("${auth.bcrypt.threads:0}")
+    private int threads;
+
+    @Value("${auth.bcrypt.queue-capacity:64}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    private final AtomicLong verifiedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+            Thread thread = new Thread(runnable, "bcrypt-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 异步校验密码；线程池队列已满时返回以 RejectedExecutionException 失败的future。
+     * 后续 thenApply 等回调在校验线程上执行
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                verifiedCount.incrementAndGet();
+                try {
+                    return passwordEncoder.matches(rawPassword, encodedPassword);
+                } catch (Exception e) {
+                    // 哈希格式异常等按校验失败处理
+                    return false;
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCount.incrementAndGet();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("登录请求过多，请稍后重试"));
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", executor.getCorePoolSize());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("verified", verifiedCount.get());
+        stats.put("rejected", rejectedCount.get());
+        return stats;
+    }
+}
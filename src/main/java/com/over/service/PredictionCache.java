@@ -0,0 +1,206 @@
+package com.over.service;
+
+import com.over.dto.CacheStats;
+import com.over.dto.PredictionRequest;
+import com.over.dto.PredictionResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 预测结果缓存
+ * key = 模型名 + 归一化后职位字段的SHA-256，按LRU淘汰并带过期时间；
+ * 切换模型或模型文件变化时按模型失效，同一职位反复检测（编辑、查看、重复导入）时不再重新调用模型
+ */
+@Component
+public class PredictionCache {
+
+    @Value("${model.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${model.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${model.cache.ttl-ms:600000}")
+    private long ttlMs;
+
+    // accessOrder=true，按访问顺序排列，最久未访问的在前
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // 每个模型上次看到的模型文件版本，版本变化时失效该模型的缓存
+    private final Map<String, String> modelVersions = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public boolean isEnabled() {
+        return enabled && maxSize > 0;
+    }
+
+    /**
+     * 查询缓存，未命中或已过期返回null
+     */
+    public PredictionResponse get(String modelName, PredictionRequest request) {
+        if (!isEnabled()) {
+            return null;
+        }
+        String key = key(modelName, request);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt < System.currentTimeMillis()) {
+                entries.remove(key);
+                expirations.incrementAndGet();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return copy(entry.response);
+        }
+    }
+
+    public void put(String modelName, PredictionRequest request, PredictionResponse response) {
+        if (!isEnabled()) {
+            return;
+        }
+        String key = key(modelName, request);
+        Entry entry = new Entry(modelName, copy(response), System.currentTimeMillis() + ttlMs);
+        synchronized (this) {
+            entries.put(key, entry);
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (entries.size() > maxSize && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 记录模型文件版本（如文件修改时间），与上次不同说明模型被重新加载，失效该模型的全部缓存
+     */
+    public synchronized void checkModelVersion(String modelName, String version) {
+        String previous = modelVersions.put(modelName, version);
+        if (previous != null && !previous.equals(version)) {
+            System.out.println(String.format("模型文件已更新，清除预测缓存: %s", modelName));
+            invalidate(modelName);
+        }
+    }
+
+    /**
+     * 失效指定模型的缓存
+     */
+    public synchronized void invalidate(String modelName) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().modelName.equals(modelName)) {
+                iterator.remove();
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        invalidations.addAndGet(entries.size());
+        entries.clear();
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats("prediction", entries.size(), maxSize, hits.get(), misses.get(),
+                evictions.get(), expirations.get(), invalidations.get());
+    }
+
+    static String key(String modelName, PredictionRequest request) {
+        return modelName + ':' + contentHash(request);
+    }
+
+    /**
+     * 对影响特征的字段做归一化后计算SHA-256（不含modelName）。
+     * 归一化规则与 predict.py 的 preprocess_features 一致：文本字段 null 与 "" 等价，
+     * 标志字段 null 与 0 等价，分类字段 null、"" 与 "Unknown" 等价；其余内容（包括空白）原样参与哈希
+     */
+    static String contentHash(PredictionRequest request) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        updateText(digest, request.getTitle());
+        updateText(digest, request.getLocation());
+        updateText(digest, request.getDepartment());
+        updateText(digest, request.getSalaryRange());
+        updateText(digest, request.getCompanyProfile());
+        updateText(digest, request.getDescription());
+        updateText(digest, request.getRequirements());
+        updateText(digest, request.getBenefits());
+        updateFlag(digest, request.getTelecommuting());
+        updateFlag(digest, request.getHasCompanyLogo());
+        updateFlag(digest, request.getHasQuestions());
+        updateCategory(digest, request.getEmploymentType());
+        updateCategory(digest, request.getRequiredExperience());
+        updateCategory(digest, request.getRequiredEducation());
+        updateCategory(digest, request.getIndustry());
+        updateCategory(digest, request.getFunction());
+
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static void updateText(MessageDigest digest, String value) {
+        // 长度前缀保证字段边界，避免 ("ab", "c") 与 ("a", "bc") 得到相同哈希
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        updateInt(digest, bytes.length);
+        digest.update(bytes);
+    }
+
+    private static void updateFlag(MessageDigest digest, Integer value) {
+        updateInt(digest, value == null ? 0 : value);
+    }
+
+    private static void updateCategory(MessageDigest digest, String value) {
+        updateText(digest, value == null || value.isEmpty() ? "Unknown" : value);
+    }
+
+    private static void updateInt(MessageDigest digest, int value) {
+        digest.update((byte) (value >>> 24));
+        digest.update((byte) (value >>> 16));
+        digest.update((byte) (value >>> 8));
+        digest.update((byte) value);
+    }
+
+    // 缓存中保存副本，调用方修改返回值不会影响缓存内容
+    static PredictionResponse copy(PredictionResponse response) {
+        return new PredictionResponse(response.getModelName(), response.getPrediction(), response.getPredictionLabel(),
+                response.getProbability(), response.getProbabilityPercent(), response.getRiskScore(),
+                response.getRiskLevel());
+    }
+
+    private static final class Entry {
+        private final String modelName;
+        private final PredictionResponse response;
+        private final long expiresAt;
+
+        Entry(String modelName, PredictionResponse response, long expiresAt) {
+            this.modelName = modelName;
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,469 @@
+package com.over.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 常驻Python预测进程池
+ * 每个worker进程启动时一次性加载全部模型，之后通过stdin/stdout上的长度前缀JSON帧处理请求，
+ * 避免每次预测都要重新启动解释器、导入sklearn并反序列化模型。
+ */
+@Component
+public class PythonWorkerPool {
+
+    // 单帧最大长度，防止异常输出导致分配超大数组
+    private static final int MAX_FRAME_BYTES = 16 * 1024 * 1024;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    @Value("${model.worker.enabled:true}")
+    private boolean enabled;
+
+    @Value("${model.worker.pool-size:2}")
+    private int poolSize;
+
+    @Value("${model.worker.acquire-timeout-ms:3000}")
+    private long acquireTimeoutMs;
+
+    // 所有worker都忙时最多允许多少个请求排队等待，超出的立即拒绝
+    @Value("${model.worker.max-queued:64}")
+    private int maxQueued;
+
+    @Value("${model.worker.request-timeout-ms:10000}")
+    private long requestTimeoutMs;
+
+    @Value("${model.worker.startup-timeout-ms:60000}")
+    private long startupTimeoutMs;
+
+    @Value("${model.worker.health-check-interval-ms:30000}")
+    private long healthCheckIntervalMs;
+
+    // worker启动失败后的重试间隔，从1秒开始每次翻倍，不超过该值
+    @Value("${model.worker.restart-backoff-max-ms:60000}")
+    private long restartBackoffMaxMs;
+
+    @Value("${model.python-command:python}")
+    private String pythonCommand;
+
+    // 空闲worker队列，借出时取走，归还时放回；队列为空即表示所有worker都在忙
+    private BlockingQueue<Worker> idleWorkers;
+
+    // 进入进程池的许可，数量为 worker数 + max-queued；请求线程为虚拟线程时并发可达上千，
+    // 不加限制会有大量请求同时等在空闲队列上直到超时
+    private Semaphore admission;
+
+    private final List<Worker> allWorkers = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger restartCount = new AtomicInteger();
+
+    private final AtomicInteger workerSeq = new AtomicInteger();
+
+    // worker代数，模型文件更新后加一；代数落后的worker不再接收请求，空闲时或归还时结束并由新进程替换
+    private final AtomicInteger generation = new AtomicInteger();
+
+    // 已安排但尚未完成的重启数，健康检查补足worker时扣除，避免重复启动
+    private final AtomicInteger pendingRestarts = new AtomicInteger();
+
+    // 负责worker启动、重启和健康检查
+    private ScheduledExecutorService scheduler;
+
+    // 负责请求超时看门狗，必须与scheduler分开，否则启动或健康检查阻塞时超时无法触发
+    private ScheduledExecutorService watchdog;
+
+    private volatile boolean available = false;
+
+    private volatile boolean shuttingDown = false;
+
+    private static String getWorkerScript() {
+        // 优先检查当前目录下的 model/predict_worker.py
+        File localScript = new File("model" + File.separator + "predict_worker.py");
+        if (localScript.exists()) {
+            return "model" + File.separator + "predict_worker.py";
+        }
+        // 其次检查 backend/model/predict_worker.py
+        return "backend" + File.separator + "model" + File.separator + "predict_worker.py";
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            System.out.println("Python预测进程池已禁用，将使用单次进程模式");
+            return;
+        }
+        idleWorkers = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+        admission = new Semaphore(Math.max(1, poolSize) + Math.max(0, maxQueued));
+        scheduler = Executors.newScheduledThreadPool(1, r -> {
+            Thread t = new Thread(r, "python-worker-pool");
+            t.setDaemon(true);
+            return t;
+        });
+        watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "python-worker-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+
+        // 异步启动worker，避免加载模型阻塞 Spring Boot 启动
+        scheduler.execute(() -> {
+            int started = 0;
+            for (int i = 0; i < Math.max(1, poolSize); i++) {
+                try {
+                    Worker worker = startWorker();
+                    idleWorkers.offer(worker);
+                    started++;
+                } catch (Exception e) {
+                    System.err.println("Python预测worker启动失败: " + e.getMessage());
+                    scheduleRestart(1000);
+                }
+            }
+            updateAvailability();
+            System.out.println(String.format("Python预测进程池启动完成: %d/%d 个worker就绪", started, poolSize));
+        });
+
+        scheduler.scheduleWithFixedDelay(this::healthCheck,
+                healthCheckIntervalMs, healthCheckIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        available = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            watchdog.shutdownNow();
+        }
+        for (Worker worker : allWorkers) {
+            worker.destroy();
+        }
+        allWorkers.clear();
+    }
+
+    /**
+     * 进程池是否可用（已启用且至少有一个worker启动成功）
+     */
+    public boolean isAvailable() {
+        return enabled && available;
+    }
+
+    /**
+     * 通过常驻worker执行预测，返回与 predict.py 相同格式的JSON字符串
+     */
+    public String predict(String modelName, Object requestData) throws Exception {
+        ObjectNode message = objectMapper.createObjectNode();
+        message.put("type", "predict");
+        message.put("model", modelName);
+        message.set("data", objectMapper.valueToTree(requestData));
+        return objectMapper.writeValueAsString(execute(message));
+    }
+
+    /**
+     * 通过常驻worker批量预测，worker端一次predict_proba处理整批；
+     * 返回 {"success": true, "results": [...]}，results顺序与items一致
+     */
+    public JsonNode predictBatch(String modelName, List<?> items) throws Exception {
+        ObjectNode message = objectMapper.createObjectNode();
+        message.put("type", "predict_batch");
+        message.put("model", modelName);
+        message.set("items", objectMapper.valueToTree(items));
+        return execute(message);
+    }
+
+    /**
+     * 借出一个worker执行请求；所有worker都忙且等待超时时快速失败（背压），以 RejectedExecutionException 表示
+     */
+    private JsonNode execute(JsonNode message) throws Exception {
+        if (!admission.tryAcquire()) {
+            metricsRegistry.counter("python_rejections_total", "因并发已满被拒绝的Python预测", "path", "worker").increment();
+            throw new RejectedExecutionException("预测服务繁忙，等待Python worker的请求过多，请稍后重试");
+        }
+        try {
+            return executeAdmitted(message);
+        } finally {
+            admission.release();
+        }
+    }
+
+    private JsonNode executeAdmitted(JsonNode message) throws Exception {
+        long start = System.nanoTime();
+        Worker worker = idleWorkers.poll(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        // 等待时间持续升高说明进程池已饱和
+        metricsRegistry.timer("python_worker_acquire_seconds", "等待空闲Python worker的时间").recordSince(start);
+        if (worker == null) {
+            throw new RejectedExecutionException("预测服务繁忙，所有Python worker均在处理中，请稍后重试");
+        }
+
+        boolean healthy = false;
+        try {
+            if (!worker.isAlive()) {
+                worker = replace(worker);
+            }
+            JsonNode response = worker.call(message, requestTimeoutMs);
+            healthy = true;
+            return response;
+        } catch (IOException e) {
+            throw new Exception("Python worker通信失败: " + e.getMessage(), e);
+        } finally {
+            release(worker, healthy);
+        }
+    }
+
+    private void release(Worker worker, boolean healthy) {
+        if (shuttingDown) {
+            worker.destroy();
+            return;
+        }
+        if (!healthy || worker.generation != generation.get()) {
+            // worker崩溃、超时被杀或加载的是旧模型，异步重启，避免阻塞当前请求线程
+            allWorkers.remove(worker);
+            worker.destroy();
+            updateAvailability();
+            scheduleRestart(0);
+            return;
+        }
+        idleWorkers.offer(worker);
+    }
+
+    /**
+     * 模型文件更新后替换全部worker：空闲的立即结束，处理中的在归还时结束，各自由重启补回，
+     * 新进程加载更新后的模型。替换完成前进程池可能暂时不可用，预测退回单次启动Python脚本
+     */
+    public void recycle() {
+        if (!enabled || idleWorkers == null || shuttingDown) {
+            return;
+        }
+        generation.incrementAndGet();
+        System.out.println("模型文件已更新，替换Python预测worker");
+        int idle = idleWorkers.size();
+        for (int i = 0; i < idle; i++) {
+            Worker worker = idleWorkers.poll();
+            if (worker == null) {
+                return;
+            }
+            release(worker, true);
+        }
+    }
+
+    /**
+     * 同步替换已退出的worker；启动失败时异常抛给调用方，由 release 按不健康处理并安排重启
+     */
+    private Worker replace(Worker dead) throws Exception {
+        allWorkers.remove(dead);
+        dead.destroy();
+        Worker worker = startWorker();
+        restartCount.incrementAndGet();
+        return worker;
+    }
+
+    /**
+     * 延迟 delayMs 后启动一个worker补回进程池；失败时间隔翻倍继续重试（上限 restart-backoff-max-ms），
+     * 避免一次启动失败（fork出错、模型文件正在替换）让进程池永久缩小
+     */
+    private void scheduleRestart(long delayMs) {
+        if (shuttingDown) {
+            return;
+        }
+        pendingRestarts.incrementAndGet();
+        try {
+            scheduler.schedule(() -> restart(delayMs), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 正在关闭
+            pendingRestarts.decrementAndGet();
+        }
+    }
+
+    private void restart(long previousDelayMs) {
+        pendingRestarts.decrementAndGet();
+        if (shuttingDown || allWorkers.size() >= Math.max(1, poolSize)) {
+            return;
+        }
+        try {
+            idleWorkers.offer(startWorker());
+            restartCount.incrementAndGet();
+            updateAvailability();
+        } catch (Exception e) {
+            long nextDelayMs = Math.min(Math.max(1000, previousDelayMs * 2), Math.max(1000, restartBackoffMaxMs));
+            System.err.println(String.format("Python预测worker重启失败，%d ms 后重试: %s", nextDelayMs, e.getMessage()));
+            scheduleRestart(nextDelayMs);
+        }
+    }
+
+    /**
+     * 没有存活的worker时标记为不可用，预测退回单次启动Python脚本，而不是全部等待超时
+     */
+    private void updateAvailability() {
+        available = !shuttingDown && !allWorkers.isEmpty();
+    }
+
+    /**
+     * 定期对空闲worker发送ping，发现已退出或无响应的worker立即重启，并把worker数补足到 pool-size
+     */
+    private void healthCheck() {
+        int idle = idleWorkers.size();
+        for (int i = 0; i < idle; i++) {
+            Worker worker = idleWorkers.poll();
+            if (worker == null) {
+                return;
+            }
+            boolean healthy;
+            try {
+                ObjectNode ping = objectMapper.createObjectNode();
+                ping.put("type", "ping");
+                JsonNode pong = worker.call(ping, requestTimeoutMs);
+                healthy = "pong".equals(pong.path("type").asText());
+            } catch (Exception e) {
+                healthy = false;
+            }
+            if (!healthy) {
+                System.err.println("Python预测worker健康检查失败，正在重启: " + worker.name);
+            }
+            release(worker, healthy);
+        }
+
+        // 补足数量：重启全部失败或被遗漏时，由健康检查重新安排
+        int missing = Math.max(1, poolSize) - allWorkers.size() - pendingRestarts.get();
+        for (int i = 0; i < missing; i++) {
+            scheduleRestart(0);
+        }
+    }
+
+    private Worker startWorker() throws Exception {
+        String scriptPath = getWorkerScript();
+        File scriptFile = new File(scriptPath);
+        if (!scriptFile.exists()) {
+            File absoluteFile = new File(System.getProperty("user.dir"), scriptPath);
+            if (!absoluteFile.exists()) {
+                throw new Exception("预测worker脚本不存在: " + scriptPath);
+            }
+            scriptFile = absoluteFile;
+        }
+
+        ProcessBuilder processBuilder = new ProcessBuilder(pythonCommand, scriptFile.getAbsolutePath());
+        processBuilder.directory(scriptFile.getAbsoluteFile().getParentFile());
+        // stderr直接输出到控制台，stdout专用于协议帧
+        processBuilder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        processBuilder.environment().put("PYTHONIOENCODING", "utf-8");
+
+        long start = System.nanoTime();
+        // 代数在启动前取得：启动期间模型文件再次更新时，该worker归还时即被替换
+        int workerGeneration = generation.get();
+        Worker worker = new Worker("python-worker-" + workerSeq.incrementAndGet(), workerGeneration,
+                processBuilder.start());
+        try {
+            // 等待worker加载完模型后发送ready帧
+            JsonNode ready = worker.read(startupTimeoutMs);
+            if (!"ready".equals(ready.path("type").asText())) {
+                throw new IOException("未收到ready帧: " + ready);
+            }
+            // worker启动时加载全部模型，启动耗时即模型加载耗时
+            metricsRegistry.timer("model_load_seconds", "模型加载耗时", "model", "all", "engine", "python-worker")
+                    .recordSince(start);
+            System.out.println(String.format("Python预测worker已就绪: %s, 已加载模型: %s", worker.name, ready.path("models")));
+        } catch (IOException e) {
+            worker.destroy();
+            throw new Exception("Python预测worker启动失败: " + e.getMessage(), e);
+        }
+        allWorkers.add(worker);
+        return worker;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * 存活的worker数（含正在处理请求的），低于 pool-size 说明有worker正在重启
+     */
+    public int getLiveCount() {
+        return allWorkers.size();
+    }
+
+    public int getIdleCount() {
+        return idleWorkers == null ? 0 : idleWorkers.size();
+    }
+
+    public int getRestartCount() {
+        return restartCount.get();
+    }
+
+    /**
+     * 单个常驻Python进程及其协议流
+     */
+    private class Worker {
+        private final String name;
+        private final int generation;
+        private final Process process;
+        private final DataOutputStream out;
+        private final DataInputStream in;
+
+        Worker(String name, int generation, Process process) {
+            this.name = name;
+            this.generation = generation;
+            this.process = process;
+            this.out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+            this.in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        }
+
+        boolean isAlive() {
+            return process.isAlive();
+        }
+
+        JsonNode call(JsonNode message, long timeoutMs) throws IOException {
+            byte[] payload = objectMapper.writeValueAsBytes(message);
+            out.writeInt(payload.length);
+            out.write(payload);
+            out.flush();
+            return read(timeoutMs);
+        }
+
+        /**
+         * 读取一帧；超时由看门狗强制结束进程，阻塞中的读取随之抛出IOException
+         */
+        JsonNode read(long timeoutMs) throws IOException {
+            ScheduledFuture<?> timeout = watchdog.schedule(this::destroy, timeoutMs, TimeUnit.MILLISECONDS);
+            try {
+                int length = in.readInt();
+                if (length < 0 || length > MAX_FRAME_BYTES) {
+                    throw new IOException("非法的帧长度: " + length);
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                return objectMapper.readTree(new String(payload, StandardCharsets.UTF_8));
+            } finally {
+                timeout.cancel(false);
+            }
+        }
+
+        void destroy() {
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.over.service;
+
+import com.over.dto.SearchHit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * 职位全文检索的倒排索引
+ * title、description、requirements 分字段建立 词 -> (jobId, 词频) 的倒排表，按jobId有序；
+ * 查询按BM25打分，各字段得分乘以字段权重后相加。本类不是线程安全的，由 JobPostingSearchService 加锁访问
+ */
+public class SearchIndex {
+
+    /**
+     * 检索字段及权重
+     */
+    public enum Field {
+        TITLE(3.0),
+        DESCRIPTION(1.0),
+        REQUIREMENTS(1.0);
+
+        final double boost;
+
+        Field(double boost) {
+            this.boost = boost;
+        }
+    }
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Field[] FIELDS = Field.values();
+
+    // 每个字段一张倒排表
+    private final List<Map<String, Postings>> postings = new ArrayList<>(FIELDS.length);
+
+    // 各字段的总词数，用于计算平均长度
+    private final long[] totalLengths = new long[FIELDS.length];
+
+    private final Map<Integer, Doc> docs = new HashMap<>();
+
+    public SearchIndex() {
+        for (int i = 0; i < FIELDS.length; i++) {
+            postings.add(new HashMap<>());
+        }
+    }
+
+    public int size() {
+        return docs.size();
+    }
+
+    /**
+     * 新增或替换一个职位，title、location、industry、fraudulent 同时保存用于返回结果和过滤
+     */
+    public void put(int jobId, String title, String location, String industry, Integer fraudulent,
+                    String description, String requirements) {
+        remove(jobId);
+        Doc doc = new Doc(jobId, title, location, industry, fraudulent);
+        String[] texts = {title, description, requirements};
+        for (int f = 0; f < FIELDS.length; f++) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            int length = 0;
+            for (String term : tokenize(texts[f])) {
+                frequencies.merge(term, 1, Integer::sum);
+                length++;
+            }
+            doc.lengths[f] = length;
+            doc.terms[f] = frequencies.keySet().toArray(new String[0]);
+            totalLengths[f] += length;
+            Map<String, Postings> fieldPostings = postings.get(f);
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                fieldPostings.computeIfAbsent(entry.getKey(), key -> new Postings()).add(jobId, entry.getValue());
+            }
+        }
+        docs.put(jobId, doc);
+    }
+
+    /**
+     * 删除一个职位，不存在时忽略
+     */
+    public void remove(int jobId) {
+        Doc doc = docs.remove(jobId);
+        if (doc == null) {
+            return;
+        }
+        for (int f = 0; f < FIELDS.length; f++) {
+            totalLengths[f] -= doc.lengths[f];
+            Map<String, Postings> fieldPostings = postings.get(f);
+            for (String term : doc.terms[f]) {
+                Postings termPostings = fieldPostings.get(term);
+                if (termPostings != null && termPostings.remove(jobId) && termPostings.size == 0) {
+                    fieldPostings.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * 检索：matchAll为true时要求命中全部查询词，否则命中任一即可；
+     * fraudulent、industry 为null时不过滤。返回按得分降序（同分按jobId升序）的第 offset 条起最多 limit 条
+     */
+    public Result search(String query, boolean matchAll, Integer fraudulent, String industry, int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        Map<Integer, Accumulator> accumulators = new HashMap<>();
+        int docCount = docs.size();
+        for (int t = 0; t < terms.size(); t++) {
+            String term = terms.get(t);
+            for (int f = 0; f < FIELDS.length; f++) {
+                Postings termPostings = postings.get(f).get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                double averageLength = docCount == 0 ? 0 : (double) totalLengths[f] / docCount;
+                double idf = Math.log(1 + (docCount - termPostings.size + 0.5) / (termPostings.size + 0.5));
+                for (int i = 0; i < termPostings.size; i++) {
+                    int jobId = termPostings.docs[i];
+                    Doc doc = docs.get(jobId);
+                    double tf = termPostings.frequencies[i];
+                    double norm = averageLength == 0 ? 1 : 1 - B + B * doc.lengths[f] / averageLength;
+                    double score = FIELDS[f].boost * idf * tf * (K1 + 1) / (tf + K1 * norm);
+                    Accumulator accumulator = accumulators.computeIfAbsent(jobId, id -> new Accumulator(doc));
+                    accumulator.score += score;
+                    if (accumulator.lastTerm != t) {
+                        accumulator.lastTerm = t;
+                        accumulator.matchedTerms++;
+                    }
+                }
+            }
+        }
+
+        Comparator<Accumulator> ranking = Comparator.<Accumulator>comparingDouble(a -> a.score).reversed()
+                .thenComparingInt(a -> a.doc.jobId);
+        // 保留前 keep 名：堆顶为当前最差的一条；初始容量不超过候选数，避免大 offset 预先分配大数组
+        int keep = (int) Math.min(Integer.MAX_VALUE, (long) Math.max(0, offset) + Math.max(0, limit));
+        PriorityQueue<Accumulator> top = new PriorityQueue<>(Math.max(1, Math.min(keep, accumulators.size())),
+                ranking.reversed());
+        int total = 0;
+        for (Accumulator accumulator : accumulators.values()) {
+            Doc doc = accumulator.doc;
+            if ((matchAll && accumulator.matchedTerms < terms.size())
+                    || (fraudulent != null && !fraudulent.equals(doc.fraudulent))
+                    || (industry != null && !industry.equals(doc.industry))) {
+                continue;
+            }
+            total++;
+            if (keep == 0) {
+                continue;
+            }
+            if (top.size() < keep) {
+                top.add(accumulator);
+            } else if (ranking.compare(accumulator, top.peek()) < 0) {
+                top.poll();
+                top.add(accumulator);
+            }
+        }
+
+        List<Accumulator> ranked = new ArrayList<>(top);
+        ranked.sort(ranking);
+        List<SearchHit> hits = new ArrayList<>();
+        for (int i = Math.max(0, offset); i < ranked.size(); i++) {
+            Accumulator accumulator = ranked.get(i);
+            Doc doc = accumulator.doc;
+            hits.add(new SearchHit(doc.jobId, Math.round(accumulator.score * 1000) / 1000.0,
+                    doc.title, doc.location, doc.industry, doc.fraudulent));
+        }
+        return new Result(terms, total, hits);
+    }
+
+    /**
+     * 分词：转小写后按字母数字连续段切分，汉字逐字成词
+     */
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i < lower.length(); ) {
+            int codePoint = lower.codePointAt(i);
+            int next = i + Character.charCount(codePoint);
+            if (Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.HAN) {
+                if (start >= 0) {
+                    terms.add(lower.substring(start, i));
+                    start = -1;
+                }
+                terms.add(lower.substring(i, next));
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                terms.add(lower.substring(start, i));
+                start = -1;
+            }
+            i = next;
+        }
+        if (start >= 0) {
+            terms.add(lower.substring(start));
+        }
+        return terms;
+    }
+
+    public static final class Result {
+        private final List<String> terms;
+        private final int total;
+        private final List<SearchHit> hits;
+
+        Result(List<String> terms, int total, List<SearchHit> hits) {
+            this.terms = terms;
+            this.total = total;
+            this.hits = hits;
+        }
+
+        public List<String> getTerms() {
+            return terms;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public List<SearchHit> getHits() {
+            return hits;
+        }
+    }
+
+    private static final class Doc {
+        private final int jobId;
+        private final String title;
+        private final String location;
+        private final String industry;
+        private final Integer fraudulent;
+        private final int[] lengths = new int[FIELDS.length];
+        private final String[][] terms = new String[FIELDS.length][];
+
+        Doc(int jobId, String title, String location, String industry, Integer fraudulent) {
+            this.jobId = jobId;
+            this.title = title;
+            this.location = location;
+            this.industry = industry;
+            this.fraudulent = fraudulent;
+        }
+    }
+
+    private static final class Accumulator {
+        private final Doc doc;
+        private double score;
+        private int matchedTerms;
+        private int lastTerm = -1;
+
+        Accumulator(Doc doc) {
+            this.doc = doc;
+        }
+    }
+
+    /**
+     * 一个词在一个字段上的倒排表：按jobId升序的并行数组，新职位ID递增时追加到末尾
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        void add(int jobId, int frequency) {
+            int index = size == 0 || docs[size - 1] < jobId ? size : Arrays.binarySearch(docs, 0, size, jobId);
+            if (index >= 0 && index < size) {
+                frequencies[index] = frequency;
+                return;
+            }
+            int insertAt = index >= 0 ? index : -index - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            System.arraycopy(docs, insertAt, docs, insertAt + 1, size - insertAt);
+            System.arraycopy(frequencies, insertAt, frequencies, insertAt + 1, size - insertAt);
+            docs[insertAt] = jobId;
+            frequencies[insertAt] = frequency;
+            size++;
+        }
+
+        boolean remove(int jobId) {
+            int index = Arrays.binarySearch(docs, 0, size, jobId);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(docs, index + 1, docs, index, size - index - 1);
+            System.arraycopy(frequencies, index + 1, frequencies, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
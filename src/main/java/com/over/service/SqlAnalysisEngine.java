@@ -0,0 +1,165 @@
+package com.over.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 分析统计的SQL下推实现
+ * 各项统计改写为 GROUP BY ... fraudulent 查询，文本长度在数据库端用 CHAR_LENGTH 计算，
+ * 多条查询通过连接池并行执行，只传回分组计数，再装配为 {@link AnalysisAggregates}。
+ * 分组键按二进制比较（CAST AS BINARY），与pandas按字符串精确分组一致，不受表的不区分大小写排序规则影响
+ */
+@Component
+public class SqlAnalysisEngine {
+
+    // 按 fraudulent 分组的行数和文本长度之和；空值按 len(str(None)) == 4 计
+    private static final String ROWS_SQL =
+            "SELECT fraudulent, COUNT(*) AS row_count, "
+                    + "SUM(COALESCE(CHAR_LENGTH(title), 4)) AS title_length, "
+                    + "SUM(COALESCE(CHAR_LENGTH(description), 4)) AS description_length, "
+                    + "SUM(COALESCE(CHAR_LENGTH(company_profile), 4)) AS profile_length "
+                    + "FROM job_postings GROUP BY fraudulent";
+
+    // 二值字段：数值列直接按取值计数，文本列按 是否为空或'Unknown' 计数
+    private static final String FLAGS_SQL =
+            "SELECT fraudulent, COUNT(*) AS row_count, "
+                    + "SUM(has_company_logo = 0) AS logo_0, SUM(has_company_logo = 1) AS logo_1, "
+                    + "SUM(has_questions = 0) AS questions_0, SUM(has_questions = 1) AS questions_1, "
+                    + "SUM(telecommuting = 0) AS telecommuting_0, SUM(telecommuting = 1) AS telecommuting_1, "
+                    + "SUM(salary_range IS NOT NULL AND CAST(salary_range AS BINARY) <> 'Unknown') AS salary_1, "
+                    + "SUM(requirements IS NOT NULL AND CAST(requirements AS BINARY) <> 'Unknown') AS requirements_1, "
+                    + "SUM(benefits IS NOT NULL AND CAST(benefits AS BINARY) <> 'Unknown') AS benefits_1 "
+                    + "FROM job_postings GROUP BY fraudulent";
+
+    private static final String LOCATION_SQL =
+            "SELECT ANY_VALUE(location) AS group_key, COUNT(*) AS row_count FROM job_postings "
+                    + "WHERE location IS NOT NULL GROUP BY CAST(location AS BINARY)";
+
+    private static final String CATEGORY_SQL =
+            "SELECT ANY_VALUE(%1$s) AS group_key, fraudulent, COUNT(*) AS row_count FROM job_postings "
+                    + "WHERE %1$s IS NOT NULL GROUP BY CAST(%1$s AS BINARY), fraudulent";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // 并行查询数，应小于数据库连接池大小（Hikari默认10）
+    @Value("${analysis.sql.parallelism:4}")
+    private int parallelism;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "analysis-sql-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 并行执行全部分组查询，装配为统计结果
+     */
+    public AnalysisAggregates aggregate() {
+        List<CompletableFuture<Consumer<AnalysisAggregates>>> queries = new ArrayList<>();
+        queries.add(query(ROWS_SQL, rs -> {
+            Integer fraudulent = rs.getObject("fraudulent", Integer.class);
+            long rows = rs.getLong("row_count");
+            long title = rs.getLong("title_length");
+            long description = rs.getLong("description_length");
+            long profile = rs.getLong("profile_length");
+            return aggregates -> aggregates.addRows(fraudulent, rows, title, description, profile);
+        }));
+        queries.add(query(FLAGS_SQL, rs -> {
+            Integer fraudulent = rs.getObject("fraudulent", Integer.class);
+            long rows = rs.getLong("row_count");
+            long[] counts = {
+                    rs.getLong("logo_0"), rs.getLong("logo_1"),
+                    rs.getLong("questions_0"), rs.getLong("questions_1"),
+                    rs.getLong("telecommuting_0"), rs.getLong("telecommuting_1"),
+                    rs.getLong("salary_1"), rs.getLong("requirements_1"), rs.getLong("benefits_1")
+            };
+            return aggregates -> {
+                aggregates.addFlag(AnalysisAggregates.Flag.COMPANY_LOGO, 0, fraudulent, counts[0]);
+                aggregates.addFlag(AnalysisAggregates.Flag.COMPANY_LOGO, 1, fraudulent, counts[1]);
+                aggregates.addFlag(AnalysisAggregates.Flag.QUESTIONS, 0, fraudulent, counts[2]);
+                aggregates.addFlag(AnalysisAggregates.Flag.QUESTIONS, 1, fraudulent, counts[3]);
+                aggregates.addFlag(AnalysisAggregates.Flag.TELECOMMUTING, 0, fraudulent, counts[4]);
+                aggregates.addFlag(AnalysisAggregates.Flag.TELECOMMUTING, 1, fraudulent, counts[5]);
+                aggregates.addFlag(AnalysisAggregates.Flag.SALARY, 0, fraudulent, rows - counts[6]);
+                aggregates.addFlag(AnalysisAggregates.Flag.SALARY, 1, fraudulent, counts[6]);
+                aggregates.addFlag(AnalysisAggregates.Flag.REQUIREMENTS, 0, fraudulent, rows - counts[7]);
+                aggregates.addFlag(AnalysisAggregates.Flag.REQUIREMENTS, 1, fraudulent, counts[7]);
+                aggregates.addFlag(AnalysisAggregates.Flag.BENEFITS, 0, fraudulent, rows - counts[8]);
+                aggregates.addFlag(AnalysisAggregates.Flag.BENEFITS, 1, fraudulent, counts[8]);
+            };
+        }));
+        queries.add(query(LOCATION_SQL, rs -> {
+            String location = rs.getString("group_key");
+            long rows = rs.getLong("row_count");
+            return aggregates -> aggregates.addLocation(location, rows);
+        }));
+        addCategoryQuery(queries, AnalysisAggregates.Category.INDUSTRY, "industry");
+        addCategoryQuery(queries, AnalysisAggregates.Category.EMPLOYMENT_TYPE, "employment_type");
+        addCategoryQuery(queries, AnalysisAggregates.Category.EXPERIENCE, "required_experience");
+        addCategoryQuery(queries, AnalysisAggregates.Category.EDUCATION, "required_education");
+
+        // 查询并行执行，装配在当前线程顺序进行
+        AnalysisAggregates aggregates = new AnalysisAggregates();
+        try {
+            for (CompletableFuture<Consumer<AnalysisAggregates>> query : queries) {
+                query.join().accept(aggregates);
+            }
+        } catch (CompletionException e) {
+            queries.forEach(query -> query.cancel(true));
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        return aggregates;
+    }
+
+    private void addCategoryQuery(List<CompletableFuture<Consumer<AnalysisAggregates>>> queries,
+                                  AnalysisAggregates.Category category, String column) {
+        queries.add(query(String.format(CATEGORY_SQL, column), rs -> {
+            String key = rs.getString("group_key");
+            Integer fraudulent = rs.getObject("fraudulent", Integer.class);
+            long rows = rs.getLong("row_count");
+            return aggregates -> aggregates.addCategory(category, key, fraudulent, rows);
+        }));
+    }
+
+    /**
+     * 在线程池中执行一条分组查询，每行映射为一个对统计的装配操作
+     */
+    private CompletableFuture<Consumer<AnalysisAggregates>> query(String sql, GroupMapper mapper) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<Consumer<AnalysisAggregates>> rows = jdbcTemplate.query(sql, (rs, rowNum) -> mapper.map(rs));
+            return aggregates -> rows.forEach(row -> row.accept(aggregates));
+        }, executor);
+    }
+
+    @FunctionalInterface
+    private interface GroupMapper {
+        Consumer<AnalysisAggregates> map(ResultSet rs) throws SQLException;
+    }
+}
@@ -0,0 +1,178 @@
+package com.over.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.util.ModelFileUtil;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 随机森林和梯度提升的JVM内推理引擎
+ * 所有树的节点拼接存放在两个基本类型数组中：每个节点占 int[3]（特征下标、左子节点、右子节点）和 double[2]（阈值、输出值），
+ * 预测时只做数组遍历，不分配对象，可在多线程下并发调用。
+ */
+@Component
+public class TreeEnsembleEngine implements InferenceEngine {
+
+    public static final String RANDOM_FOREST = "Random_Forest";
+    public static final String GRADIENT_BOOSTING = "Gradient_Boosting";
+
+    private static final String[] MODEL_NAMES = {RANDOM_FOREST, GRADIENT_BOOSTING};
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    private final Map<String, TreeEnsemble> ensembles = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (String modelName : MODEL_NAMES) {
+            reload(modelName);
+        }
+    }
+
+    @Override
+    public void reload(String modelName) {
+        if (!RANDOM_FOREST.equals(modelName) && !GRADIENT_BOOSTING.equals(modelName)) {
+            return;
+        }
+        File exportFile = ModelFileUtil.exportFile(modelName + ".json");
+        if (!exportFile.exists()) {
+            ensembles.remove(modelName);
+            System.out.println(String.format("未找到模型 %s 的导出文件，JVM内推理不可用: %s", modelName, exportFile.getPath()));
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            load(modelName, exportFile);
+            metricsRegistry.timer("model_load_seconds", "模型加载耗时", "model", modelName, "engine", getName())
+                    .recordSince(start);
+            System.out.println(String.format("树模型JVM内推理引擎已加载: %s (%d 棵树)",
+                    modelName, ensembles.get(modelName).treeRoots.length));
+        } catch (IOException | RuntimeException e) {
+            // 导出文件已更新但无法读取，旧的树不再与模型版本对应
+            ensembles.remove(modelName);
+            System.err.println(String.format("加载模型 %s 的导出文件失败: %s", modelName, e.getMessage()));
+        }
+    }
+
+    /**
+     * 加载 export_models.py 导出的树模型
+     */
+    public void load(String modelName, File file) throws IOException {
+        JsonNode root = objectMapper.readTree(file);
+        String type = root.path("type").asText();
+        if (!"random_forest".equals(type) && !"gradient_boosting".equals(type)) {
+            throw new IOException("不支持的树模型类型: " + type);
+        }
+
+        JsonNode feature = root.get("feature");
+        JsonNode threshold = root.get("threshold");
+        JsonNode left = root.get("left");
+        JsonNode right = root.get("right");
+        JsonNode value = root.get("value");
+        int nodeCount = feature.size();
+        if (threshold.size() != nodeCount || left.size() != nodeCount
+                || right.size() != nodeCount || value.size() != nodeCount) {
+            throw new IOException("树节点数组长度不一致");
+        }
+
+        int[] structure = new int[nodeCount * 3];
+        double[] payload = new double[nodeCount * 2];
+        for (int i = 0; i < nodeCount; i++) {
+            structure[i * 3] = feature.get(i).asInt();
+            structure[i * 3 + 1] = left.get(i).asInt();
+            structure[i * 3 + 2] = right.get(i).asInt();
+            payload[i * 2] = threshold.get(i).asDouble();
+            payload[i * 2 + 1] = value.get(i).asDouble();
+        }
+
+        JsonNode offsets = root.get("tree_offsets");
+        int[] treeRoots = new int[offsets.size()];
+        for (int i = 0; i < treeRoots.length; i++) {
+            treeRoots[i] = offsets.get(i).asInt();
+        }
+
+        boolean boosting = "gradient_boosting".equals(type);
+        ensembles.put(modelName, new TreeEnsemble(structure, payload, treeRoots, boosting,
+                boosting ? root.get("init_raw").asDouble() : 0.0,
+                boosting ? root.get("learning_rate").asDouble() : 0.0));
+    }
+
+    @Override
+    public String getName() {
+        return "native";
+    }
+
+    @Override
+    public boolean supports(String modelName) {
+        return ensembles.containsKey(modelName);
+    }
+
+    @Override
+    public double predictProbability(String modelName, double[] features) {
+        TreeEnsemble ensemble = ensembles.get(modelName);
+        if (ensemble == null) {
+            throw new IllegalStateException("树模型未加载: " + modelName);
+        }
+        return ensemble.predictProbability(features);
+    }
+
+    private static final class TreeEnsemble {
+        private final int[] structure;
+        private final double[] payload;
+        private final int[] treeRoots;
+        private final boolean boosting;
+        private final double initRaw;
+        private final double learningRate;
+
+        TreeEnsemble(int[] structure, double[] payload, int[] treeRoots,
+                     boolean boosting, double initRaw, double learningRate) {
+            this.structure = structure;
+            this.payload = payload;
+            this.treeRoots = treeRoots;
+            this.boosting = boosting;
+            this.initRaw = initRaw;
+            this.learningRate = learningRate;
+        }
+
+        /**
+         * 从根节点走到叶子，返回叶子节点的输出值
+         */
+        private double leafValue(int node, double[] features) {
+            int left;
+            while ((left = structure[node * 3 + 1]) != -1) {
+                // sklearn预测前会把输入转为float32，再与float64阈值比较
+                double x = (float) features[structure[node * 3]];
+                node = x <= payload[node * 2] ? left : structure[node * 3 + 2];
+            }
+            return payload[node * 2 + 1];
+        }
+
+        double predictProbability(double[] features) {
+            if (boosting) {
+                // 与sklearn predict_stages一致：逐棵累加 learning_rate * 叶子值，再取sigmoid
+                double raw = initRaw;
+                for (int root : treeRoots) {
+                    raw += learningRate * leafValue(root, features);
+                }
+                return 1.0 / (1.0 + Math.exp(-raw));
+            }
+            // 随机森林：各棵树叶子中类别1的占比取平均
+            double sum = 0.0;
+            for (int root : treeRoots) {
+                sum += leafValue(root, features);
+            }
+            return sum / treeRoots.length;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.over.util;
+
+/**
+ * 验签通过的令牌内容，不可变；由 JwtUtil.verify 返回，认证过滤器放入请求属性供后续处理复用
+ */
+public final class JwtClaims {
+
+    private final String username;
+    private final String type;
+    private final String keyId;
+    private final long issuedAt;
+    private final long expiresAt;
+
+    public JwtClaims(String username, String type, String keyId, long issuedAt, long expiresAt) {
+        this.username = username;
+        this.type = type;
+        this.keyId = keyId;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * access 或 refresh
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * 签名密钥的kid，旧版本签发的令牌没有kid时为默认密钥的kid
+     */
+    public String getKeyId() {
+        return keyId;
+    }
+
+    public long getIssuedAt() {
+        return issuedAt;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+}
@@ -1,71 +1,148 @@
 package com.over.util;
 
+import com.over.service.CacheRegistry;
+import com.over.service.LocalCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * JWT签发与验签
+ * 签名密钥启动时计算一次；配置了 jwt.keys-file 时按kid管理多把密钥，文件修改后自动重新加载（轮换无需重启）：
+ * 新令牌用当前密钥签发并在头部写入kid，验签时按kid选择密钥，仍在文件中的旧密钥签发的令牌继续有效。
+ * 验签结果按令牌摘要缓存，同一令牌重复请求时不再解析和验签
+ */
 @Component
 public class JwtUtil {
-    
+
     @Value("${jwt.secret}")
     private String secret;
-    
+
     @Value("${jwt.expiration}")
     private Long expiration;
-    
+
     @Value("${jwt.refresh-expiration}")
     private Long refreshExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    // jwt.secret 对应的kid，不带kid的旧令牌也用它验签
+    @Value("${jwt.key-id:default}")
+    private String defaultKeyId;
+
+    @Value("${jwt.keys-file:}")
+    private String keysFile;
+
+    // 检查密钥文件是否修改的间隔
+    @Value("${jwt.keys-check-interval-ms:10000}")
+    private long keysCheckIntervalMs;
+
+    @Autowired
+    private CacheRegistry cacheRegistry;
+
+    private volatile KeyRing keyRing;
+
+    // 保护密钥文件的检查与重新加载；用 ReentrantLock 而不是 synchronized，虚拟线程读文件时不会占住载体线程
+    private final ReentrantLock keysLock = new ReentrantLock();
+
+    private long keysFileModified = -1;
+    private volatile long nextKeysCheck;
+
+    // 令牌SHA-256摘要 -> 验签结果
+    private LocalCache<String, JwtClaims> verifiedTokens;
+
+    @PostConstruct
+    public void init() {
+        verifiedTokens = cacheRegistry.region("jwt-tokens", 10000, 300000L, null);
+        keyRing = loadKeyRing();
     }
 
     public String generateToken(String username, String type) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("username", username);
         claims.put("type", type);
-        
+
         long expTime = "refresh".equals(type) ? refreshExpiration : expiration;
-        
+        KeyRing ring = currentKeyRing();
+
         return Jwts.builder()
+                .header().keyId(ring.activeKeyId).and()
                 .claims(claims)
                 .subject(username)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expTime))
-                .signWith(getSigningKey())
+                .signWith(ring.keys.get(ring.activeKeyId))
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.getSubject();
+    /**
+     * 验签并解析令牌，已过期时抛出 ExpiredJwtException，签名无效、kid未知等抛出其他 JwtException
+     */
+    public JwtClaims verify(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("令牌为空");
+        }
+        KeyRing ring = currentKeyRing();
+        String digest = digest(token);
+        // 经缓存加载，加载期间密钥被重新加载（缓存被清空）时结果不会写入缓存
+        JwtClaims claims = verifiedTokens.get(digest, key -> parse(token, ring));
+        if (claims.isExpired(System.currentTimeMillis())) {
+            verifiedTokens.invalidate(digest);
+            // 重新解析，抛出 ExpiredJwtException
+            return parse(token, ring);
+        }
+        return claims;
     }
 
-    public Date getExpirationDateFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.getExpiration();
+    private static JwtClaims parse(String token, KeyRing ring) {
+        Jws<Claims> jws = Jwts.parser()
+                .keyLocator(ring)
+                .build()
+                .parseSignedClaims(token);
+        Claims claims = jws.getPayload();
+        String keyId = jws.getHeader().getKeyId();
+        return new JwtClaims(claims.getSubject(), claims.get("type", String.class),
+                keyId == null ? ring.defaultKeyId : keyId,
+                claims.getIssuedAt() == null ? 0 : claims.getIssuedAt().getTime(),
+                claims.getExpiration() == null ? Long.MAX_VALUE : claims.getExpiration().getTime());
     }
 
-    private Claims getClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public String getUsernameFromToken(String token) {
+        return verify(token).getUsername();
+    }
+
+    public Date getExpirationDateFromToken(String token) {
+        return new Date(verify(token).getExpiresAt());
     }
 
     public Boolean isTokenExpired(String token) {
         try {
-            Date expiration = getExpirationDateFromToken(token);
-            return expiration.before(new Date());
+            return verify(token).isExpired(System.currentTimeMillis());
         } catch (Exception e) {
             return true;
         }
@@ -79,5 +156,121 @@ public class JwtUtil {
             return false;
         }
     }
-}
 
+    /**
+     * 立即重新读取密钥文件，并清空验签缓存
+     */
+    public void reloadKeys() {
+        keysLock.lock();
+        try {
+            keyRing = loadKeyRing();
+            verifiedTokens.invalidateAll();
+        } finally {
+            keysLock.unlock();
+        }
+        System.out.println(String.format("JWT密钥已重新加载: 当前kid=%s, 共%d把", keyRing.activeKeyId, keyRing.keys.size()));
+    }
+
+    private KeyRing currentKeyRing() {
+        if (keysFile == null || keysFile.isEmpty() || System.currentTimeMillis() < nextKeysCheck) {
+            return keyRing;
+        }
+        // 其他线程正在检查时直接使用当前密钥，不排队等待
+        if (!keysLock.tryLock()) {
+            return keyRing;
+        }
+        try {
+            if (System.currentTimeMillis() >= nextKeysCheck) {
+                nextKeysCheck = System.currentTimeMillis() + keysCheckIntervalMs;
+                long modified = keysFileModified();
+                if (modified != keysFileModified) {
+                    try {
+                        reloadKeys();
+                    } catch (RuntimeException e) {
+                        // 文件内容有误时继续使用原来的密钥
+                        System.err.println("JWT密钥文件加载失败: " + e.getMessage());
+                    }
+                }
+            }
+        } finally {
+            keysLock.unlock();
+        }
+        return keyRing;
+    }
+
+    private long keysFileModified() {
+        try {
+            return Files.getLastModifiedTime(Paths.get(keysFile)).toMillis();
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException e) {
+            return keysFileModified;
+        }
+    }
+
+    /**
+     * jwt.secret 作为默认kid的密钥；密钥文件（properties格式）中每行 kid=密钥，active=签发新令牌使用的kid，
+     * 文件中的同名kid覆盖 jwt.secret
+     */
+    private KeyRing loadKeyRing() {
+        Map<String, SecretKey> keys = new HashMap<>();
+        keys.put(defaultKeyId, Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
+        String activeKeyId = defaultKeyId;
+        if (keysFile != null && !keysFile.isEmpty()) {
+            Path path = Paths.get(keysFile);
+            keysFileModified = keysFileModified();
+            if (Files.exists(path)) {
+                Properties properties = new Properties();
+                try (InputStream in = Files.newInputStream(path)) {
+                    properties.load(in);
+                } catch (IOException e) {
+                    throw new IllegalStateException("读取JWT密钥文件失败: " + e.getMessage(), e);
+                }
+                for (String name : properties.stringPropertyNames()) {
+                    if (!"active".equals(name)) {
+                        keys.put(name, Keys.hmacShaKeyFor(properties.getProperty(name).trim().getBytes(StandardCharsets.UTF_8)));
+                    }
+                }
+                activeKeyId = properties.getProperty("active", defaultKeyId).trim();
+                if (!keys.containsKey(activeKeyId)) {
+                    throw new IllegalStateException("JWT密钥文件中不存在 active 指定的kid: " + activeKeyId);
+                }
+            }
+        }
+        return new KeyRing(Collections.unmodifiableMap(keys), activeKeyId, defaultKeyId);
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 一组验签密钥，不可变，重新加载时整体替换
+     */
+    private static final class KeyRing extends LocatorAdapter<Key> {
+        private final Map<String, SecretKey> keys;
+        private final String activeKeyId;
+        private final String defaultKeyId;
+
+        KeyRing(Map<String, SecretKey> keys, String activeKeyId, String defaultKeyId) {
+            this.keys = keys;
+            this.activeKeyId = activeKeyId;
+            this.defaultKeyId = defaultKeyId;
+        }
+
+        @Override
+        protected Key locate(ProtectedHeader header) {
+            String keyId = header.getKeyId() == null ? defaultKeyId : header.getKeyId();
+            SecretKey key = keys.get(keyId);
+            if (key == null) {
+                throw new JwtException("未知的签名密钥: " + keyId);
+            }
+            return key;
+        }
+    }
+}
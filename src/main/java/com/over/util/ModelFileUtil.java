@@ -0,0 +1,36 @@
+package com.over.util;
+
+import java.io.File;
+
+/**
+ * 模型相关文件路径工具
+ * 与 ModelService 的目录探测规则一致：优先当前目录下的 model/...（Docker环境），其次 backend/model/...（本地环境）
+ */
+public final class ModelFileUtil {
+
+    private ModelFileUtil() {
+    }
+
+    /**
+     * 解析 model 目录下的相对路径，如 resolve("model", "export", "label_encoders.json")
+     */
+    public static File resolve(String... parts) {
+        String relative = String.join(File.separator, parts);
+        File localFile = new File("model" + File.separator + relative);
+        if (localFile.exists()) {
+            return localFile;
+        }
+        File backendFile = new File("backend" + File.separator + "model" + File.separator + relative);
+        if (backendFile.exists()) {
+            return backendFile;
+        }
+        return new File(System.getProperty("user.dir"), "model" + File.separator + relative);
+    }
+
+    /**
+     * 导出的中立格式模型文件（由 model/export_models.py 生成）
+     */
+    public static File exportFile(String fileName) {
+        return resolve("model", "export", fileName);
+    }
+}
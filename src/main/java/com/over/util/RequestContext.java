@@ -0,0 +1,28 @@
+package com.over.util;
+
+/**
+ * 当前请求的 requestId，由 RequestIdFilter 在请求线程上设置；
+ * 指标的 exemplar 与采样日志都带上它，便于从慢请求的指标找到对应日志
+ */
+public final class RequestContext {
+
+    private static final ThreadLocal<String> REQUEST_ID = new ThreadLocal<>();
+
+    private RequestContext() {
+    }
+
+    /**
+     * 当前线程上的 requestId，不在请求线程（后台任务、线程池）上时为null
+     */
+    public static String getRequestId() {
+        return REQUEST_ID.get();
+    }
+
+    public static void setRequestId(String requestId) {
+        REQUEST_ID.set(requestId);
+    }
+
+    public static void clear() {
+        REQUEST_ID.remove();
+    }
+}
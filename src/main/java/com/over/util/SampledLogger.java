@@ -0,0 +1,50 @@
+package com.over.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 采样的结构化日志，每行为 key=value 形式：event=... duration_ms=... 其他字段 request_id=...
+ * 耗时达到 slowMs 的调用总是输出，其余按 sampleRate 随机采样，取代逐条打印（如 show-sql）
+ */
+public final class SampledLogger {
+
+    private SampledLogger() {
+    }
+
+    /**
+     * sampleRate 为 0~1 的采样比例，slowMs 为0表示不按耗时强制输出；fields 为交替的字段名和取值。
+     * 返回是否输出了
+     */
+    public static boolean log(String event, double sampleRate, long slowMs, long durationNanos, Object... fields) {
+        double durationMs = durationNanos / 1e6;
+        boolean slow = slowMs > 0 && durationMs >= slowMs;
+        if (!slow && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return false;
+        }
+        StringBuilder line = new StringBuilder(128);
+        line.append("event=").append(event).append(String.format(" duration_ms=%.1f", durationMs));
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            line.append(' ').append(fields[i]).append('=');
+            appendValue(line, fields[i + 1]);
+        }
+        if (slow) {
+            line.append(" slow=true");
+        }
+        String requestId = RequestContext.getRequestId();
+        if (requestId != null) {
+            line.append(" request_id=").append(requestId);
+        }
+        System.out.println(line);
+        return true;
+    }
+
+    private static void appendValue(StringBuilder line, Object value) {
+        String text = String.valueOf(value);
+        if (text.isEmpty() || text.chars().anyMatch(c -> c == ' ' || c == '"' || c == '=' || c < 0x20)) {
+            line.append('"').append(text.replace("\\", "\\\\").replace("\"", "\\\"")
+                    .replace("\n", "\\n").replace("\r", "\\r")).append('"');
+        } else {
+            line.append(text);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.over.service;
+
+import com.over.entity.JobPosting;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AnalysisAggregatesTest {
+
+    private JobPosting job(Integer fraudulent, String title, String location, String industry, String salaryRange) {
+        JobPosting jobPosting = new JobPosting();
+        jobPosting.setFraudulent(fraudulent);
+        jobPosting.setTitle(title);
+        jobPosting.setLocation(location);
+        jobPosting.setIndustry(industry);
+        jobPosting.setSalaryRange(salaryRange);
+        jobPosting.setDescription("desc");
+        jobPosting.setRequirements("Unknown");
+        jobPosting.setBenefits("Health");
+        jobPosting.setCompanyProfile("");
+        jobPosting.setHasCompanyLogo(fraudulent != null && fraudulent == 1 ? 0 : 1);
+        jobPosting.setHasQuestions(0);
+        jobPosting.setTelecommuting(1);
+        jobPosting.setEmploymentType("Full-time");
+        jobPosting.setRequiredExperience("Unknown");
+        jobPosting.setRequiredEducation(null);
+        return jobPosting;
+    }
+
+    private AnalysisAggregates aggregate(List<JobPosting> jobs) {
+        AnalysisAggregates aggregates = new AnalysisAggregates();
+        for (JobPosting jobPosting : jobs) {
+            aggregates.add(AnalysisAggregates.Contribution.of(jobPosting));
+        }
+        return aggregates;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(Map<String, Object> result, String table, String field) {
+        return (T) ((Map<String, Object>) result.get(table)).get(field);
+    }
+
+    /**
+     * 期望值按 realtime_analysis.py 的pandas语义手工计算
+     */
+    @Test
+    public void matchesPandasSemantics() {
+        List<JobPosting> jobs = List.of(
+                job(0, "Engineer", "US, NY", "Software", "50-60"),
+                job(0, null, "US, NY", "Software", "Unknown"),
+                job(1, "😀Easy money", "GB", "Marketing", null),
+                job(1, "Agent", null, "Marketing", "1-2"),
+                job(null, "Unlabeled", "US, CA", null, "x"));
+        Map<String, Object> result = aggregate(jobs).toResult();
+
+        assertEquals(List.of(2L, 2L), get(result, "fraud_distribution", "values"));
+        // 次数降序，次数相同按名称；null不计入
+        assertEquals(List.of("US, NY", "GB", "US, CA"), get(result, "location_distribution", "labels"));
+        assertEquals(List.of(2L, 1L, 1L), get(result, "location_distribution", "values"));
+        // 'Unknown' 与 null 都算未标注薪资；fraudulent为空的行不参与
+        assertEquals(List.of(1L, 1L), get(result, "salary_anomaly", "real"));
+        assertEquals(List.of(1L, 1L), get(result, "salary_anomaly", "fake"));
+        // len(str(None)) == 4，emoji按一个码点计
+        assertEquals(List.of((8 + 4) / 2.0, (11 + 5) / 2.0), get(result, "title_length", "values"));
+        assertEquals(List.of(0.0, 0.0), get(result, "profile_credibility", "values"));
+        assertEquals(List.of(2L, 0L), get(result, "requirements_risk", "real"));
+        assertEquals(List.of(2L, 0L), get(result, "company_logo_risk", "fake"));
+        assertEquals(List.of("Marketing", "Software"), get(result, "industry_risk", "categories"));
+        assertEquals(List.of(0L, 2L), get(result, "industry_risk", "real"));
+        assertEquals(List.of(2L, 0L), get(result, "industry_risk", "fake"));
+        assertEquals(List.of("Full-time"), get(result, "employment_type_risk", "categories"));
+        assertEquals(List.of(), get(result, "education_risk", "categories"));
+    }
+
+    @Test
+    public void incrementalUpdatesMatchFullRecompute() {
+        Random random = new Random(42);
+        String[] industries = {"A", "B", "C", "D", "E", "F", "G", "H", "I", "J", "K", "L", null};
+        String[] salaries = {"Unknown", null, "10-20", ""};
+        List<JobPosting> live = new ArrayList<>();
+        AnalysisAggregates incremental = new AnalysisAggregates();
+
+        for (int step = 0; step < 2000; step++) {
+            int action = live.isEmpty() ? 0 : random.nextInt(3);
+            JobPosting next = job(random.nextInt(4) == 0 ? null : random.nextInt(2),
+                    random.nextBoolean() ? null : "t" + random.nextInt(100),
+                    "L" + random.nextInt(15), industries[random.nextInt(industries.length)],
+                    salaries[random.nextInt(salaries.length)]);
+            if (action == 0) {
+                live.add(next);
+                incremental.add(AnalysisAggregates.Contribution.of(next));
+            } else if (action == 1) {
+                int index = random.nextInt(live.size());
+                incremental.remove(AnalysisAggregates.Contribution.of(live.get(index)));
+                incremental.add(AnalysisAggregates.Contribution.of(next));
+                live.set(index, next);
+            } else {
+                incremental.remove(AnalysisAggregates.Contribution.of(live.remove(random.nextInt(live.size()))));
+            }
+        }
+
+        assertTrue(live.size() > 10);
+        assertEquals(live.size(), incremental.getRowCount());
+        assertEquals(aggregate(live).toResult(), incremental.toResult());
+    }
+
+    /**
+     * 模拟 SqlAnalysisEngine 的 GROUP BY 结果整体加载，应与逐行累加完全一致
+     */
+    @Test
+    public void groupedLoadMatchesRowByRow() {
+        Random random = new Random(7);
+        String[] keys = {"A", "a", "B", "Unknown", null};
+        List<JobPosting> jobs = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            JobPosting jobPosting = job(random.nextInt(5) == 0 ? null : random.nextInt(3) == 0 ? 1 : 0,
+                    random.nextBoolean() ? null : "title" + i, keys[random.nextInt(keys.length)],
+                    keys[random.nextInt(keys.length)], keys[random.nextInt(keys.length)]);
+            jobPosting.setHasCompanyLogo(random.nextBoolean() ? null : random.nextInt(2));
+            jobPosting.setRequirements(keys[random.nextInt(keys.length)]);
+            jobPosting.setEmploymentType(keys[random.nextInt(keys.length)]);
+            jobs.add(jobPosting);
+        }
+
+        AnalysisAggregates grouped = new AnalysisAggregates();
+        for (Integer fraud : new Integer[]{0, 1, null}) {
+            long rows = 0;
+            long title = 0;
+            long description = 0;
+            long profile = 0;
+            long[] logo = new long[2];
+            long salary = 0;
+            long requirements = 0;
+            long benefits = 0;
+            for (JobPosting jobPosting : jobs) {
+                if (!Objects.equals(fraud, jobPosting.getFraudulent())) {
+                    continue;
+                }
+                rows++;
+                title += AnalysisAggregates.Contribution.textLength(jobPosting.getTitle());
+                description += AnalysisAggregates.Contribution.textLength(jobPosting.getDescription());
+                profile += AnalysisAggregates.Contribution.textLength(jobPosting.getCompanyProfile());
+                if (jobPosting.getHasCompanyLogo() != null) {
+                    logo[jobPosting.getHasCompanyLogo()]++;
+                }
+                salary += AnalysisAggregates.Contribution.isPresent(jobPosting.getSalaryRange()) ? 1 : 0;
+                requirements += AnalysisAggregates.Contribution.isPresent(jobPosting.getRequirements()) ? 1 : 0;
+                benefits += AnalysisAggregates.Contribution.isPresent(jobPosting.getBenefits()) ? 1 : 0;
+                grouped.addLocation(jobPosting.getLocation(), 1);
+                grouped.addCategory(AnalysisAggregates.Category.INDUSTRY, jobPosting.getIndustry(), fraud, 1);
+                grouped.addCategory(AnalysisAggregates.Category.EMPLOYMENT_TYPE, jobPosting.getEmploymentType(), fraud, 1);
+                grouped.addCategory(AnalysisAggregates.Category.EXPERIENCE, jobPosting.getRequiredExperience(), fraud, 1);
+                grouped.addCategory(AnalysisAggregates.Category.EDUCATION, jobPosting.getRequiredEducation(), fraud, 1);
+            }
+            grouped.addRows(fraud, rows, title, description, profile);
+            grouped.addFlag(AnalysisAggregates.Flag.COMPANY_LOGO, 0, fraud, logo[0]);
+            grouped.addFlag(AnalysisAggregates.Flag.COMPANY_LOGO, 1, fraud, logo[1]);
+            grouped.addFlag(AnalysisAggregates.Flag.QUESTIONS, 0, fraud, rows);
+            grouped.addFlag(AnalysisAggregates.Flag.TELECOMMUTING, 1, fraud, rows);
+            grouped.addFlag(AnalysisAggregates.Flag.SALARY, 0, fraud, rows - salary);
+            grouped.addFlag(AnalysisAggregates.Flag.SALARY, 1, fraud, salary);
+            grouped.addFlag(AnalysisAggregates.Flag.REQUIREMENTS, 0, fraud, rows - requirements);
+            grouped.addFlag(AnalysisAggregates.Flag.REQUIREMENTS, 1, fraud, requirements);
+            grouped.addFlag(AnalysisAggregates.Flag.BENEFITS, 0, fraud, rows - benefits);
+            grouped.addFlag(AnalysisAggregates.Flag.BENEFITS, 1, fraud, benefits);
+        }
+
+        assertEquals(aggregate(jobs).toResult(), grouped.toResult());
+    }
+
+    @Test
+    public void comparesByCodePoint() {
+        // U+FF5E（BMP）在Python中小于U+1F600，按UTF-16比较则相反
+        assertTrue(AnalysisAggregates.comparePython("～", "😀") < 0);
+        assertTrue(AnalysisAggregates.comparePython("ab", "abc") < 0);
+        assertEquals(0, AnalysisAggregates.comparePython("x", "x"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.over.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.dto.AnalysisSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AnalysisSnapshotTest {
+
+    private AnalysisService analysisService;
+    private SqlAnalysisEngine sqlAnalysisEngine;
+
+    @BeforeEach
+    void setUp() {
+        sqlAnalysisEngine = mock(SqlAnalysisEngine.class);
+        analysisService = new AnalysisService();
+        ReflectionTestUtils.setField(analysisService, "sqlAnalysisEngine", sqlAnalysisEngine);
+        ReflectionTestUtils.setField(analysisService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(analysisService, "metricsRegistry", new MetricsRegistry());
+        ReflectionTestUtils.setField(analysisService, "engine", "sql");
+        ReflectionTestUtils.setField(analysisService, "snapshotMaxAgeMs", 60000L);
+        ReflectionTestUtils.setField(analysisService, "snapshotMaxWrites", 2L);
+    }
+
+    private static AnalysisAggregates rows(long real, long fake) {
+        AnalysisAggregates aggregates = new AnalysisAggregates();
+        aggregates.addRows(0, real, real * 10, real * 20, real * 30);
+        aggregates.addRows(1, fake, fake * 10, fake * 20, fake * 30);
+        return aggregates;
+    }
+
+    @Test
+    void concurrentCallersShareOneRefresh() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(sqlAnalysisEngine.aggregate()).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return rows(3, 1);
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<AnalysisSnapshot>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(pool.submit(() -> analysisService.getSnapshot(false)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            AnalysisSnapshot first = futures.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<AnalysisSnapshot> future : futures) {
+                assertSame(first, future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(sqlAnalysisEngine, times(1)).aggregate();
+    }
+
+    @Test
+    void writeDeltaTriggersRefreshAndGenerationFollowsContent() {
+        when(sqlAnalysisEngine.aggregate()).thenReturn(rows(3, 1), rows(3, 1), rows(4, 1));
+
+        AnalysisSnapshot first = analysisService.getSnapshot(false);
+        analysisService.recordChange(null, null);
+        // 写入次数未达到阈值，复用原快照
+        assertSame(first, analysisService.getSnapshot(false));
+
+        analysisService.recordChange(null, null);
+        AnalysisSnapshot second = analysisService.getSnapshot(false);
+        // 重新计算但结果不变，版本号和ETag不变
+        assertNotEquals(first.getChangeCount(), second.getChangeCount());
+        assertEquals(first.getGeneration(), second.getGeneration());
+        assertEquals(first.getEtag(), second.getEtag());
+
+        AnalysisSnapshot third = analysisService.getSnapshot(true);
+        assertEquals(first.getGeneration() + 1, third.getGeneration());
+        assertNotEquals(first.getEtag(), third.getEtag());
+        verify(sqlAnalysisEngine, times(3)).aggregate();
+    }
+
+    @Test
+    void errorResultIsNotReused() {
+        when(sqlAnalysisEngine.aggregate()).thenReturn(new AnalysisAggregates(), rows(1, 0));
+
+        assertEquals(true, analysisService.getSnapshot(false).isError());
+        assertEquals(false, analysisService.getSnapshot(false).isError());
+        verify(sqlAnalysisEngine, times(2)).aggregate();
+    }
+}
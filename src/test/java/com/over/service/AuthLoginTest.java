@@ -0,0 +1,188 @@
+package com.over.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.dto.LoginRequest;
+import com.over.dto.LoginResponse;
+import com.over.entity.User;
+import com.over.repository.UserRepository;
+import com.over.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AuthLoginTest {
+
+    private PasswordVerifier passwordVerifier;
+
+    @AfterEach
+    void tearDown() {
+        if (passwordVerifier != null) {
+            passwordVerifier.shutdown();
+        }
+    }
+
+    private static User user(long id, String username, String password) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setPassword(password);
+        user.setStatus(1);
+        user.setRoles("[\"admin\"]");
+        user.setPermissions("[\"*:*:*\"]");
+        return user;
+    }
+
+    private AuthService authService(UserRepository userRepository, BCryptPasswordEncoder encoder,
+                                    int threads, int queueCapacity, LoginStatsWriter loginStatsWriter) {
+        passwordVerifier = new PasswordVerifier();
+        ReflectionTestUtils.setField(passwordVerifier, "passwordEncoder", encoder);
+        ReflectionTestUtils.setField(passwordVerifier, "threads", threads);
+        ReflectionTestUtils.setField(passwordVerifier, "queueCapacity", queueCapacity);
+        passwordVerifier.init();
+
+        CacheRegistry registry = new CacheRegistry();
+        ReflectionTestUtils.setField(registry, "environment", new MockEnvironment());
+        ReflectionTestUtils.setField(registry, "enabled", true);
+
+        JwtUtil jwtUtil = mock(JwtUtil.class);
+        when(jwtUtil.generateToken(anyString(), anyString())).thenAnswer(invocation -> "token-" + invocation.getArgument(1));
+
+        AuthService authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(authService, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(authService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(authService, "passwordVerifier", passwordVerifier);
+        ReflectionTestUtils.setField(authService, "loginStatsWriter", loginStatsWriter);
+        ReflectionTestUtils.setField(authService, "cacheRegistry", registry);
+        authService.init();
+        return authService;
+    }
+
+    private static LoginRequest request(String username, String password) {
+        LoginRequest request = new LoginRequest();
+        request.setUsername(username);
+        request.setPassword(password);
+        return request;
+    }
+
+    @Test
+    void verifiesBcryptOffThreadAndCoalescesLoginStats() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user(1, "admin", encoder.encode("s3cret"))));
+        when(userRepository.findByUsername("common")).thenReturn(Optional.of(user(2, "common", encoder.encode("pa55"))));
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        LoginStatsWriter writer = new LoginStatsWriter();
+        ReflectionTestUtils.setField(writer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 60000L);
+        AuthService authService = authService(userRepository, encoder, 2, 8, writer);
+
+        LoginResponse response = authService.login(request("admin", "s3cret")).join();
+        assertEquals("token-access", response.getData().getAccessToken());
+        assertEquals(List.of("admin"), response.getData().getRoles());
+        authService.login(request("admin", "s3cret")).join();
+        authService.login(request("common", "pa55")).join();
+        CompletionException wrong = assertThrows(CompletionException.class,
+                () -> authService.login(request("common", "wrong")).join());
+        assertEquals("密码错误", wrong.getCause().getMessage());
+
+        // 登录每次读库校验密码和状态，但不再同步写库
+        verify(userRepository, times(2)).findByUsername("admin");
+        verify(userRepository, never()).save(any());
+
+        assertEquals(2, writer.flush());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(LoginStatsWriter.UPDATE_SQL), batch.capture());
+        int adminCount = 0;
+        for (Object[] row : batch.getValue()) {
+            if (Long.valueOf(1).equals(row[2])) {
+                adminCount = (Integer) row[1];
+            }
+        }
+        assertEquals(2, adminCount);
+        assertEquals(0, writer.flush());
+    }
+
+    @Test
+    void passwordChangeAndDisableTakeEffectImmediately() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsername("common")).thenReturn(Optional.of(user(2, "common", encoder.encode("old-pass"))));
+        LoginStatsWriter writer = new LoginStatsWriter();
+        ReflectionTestUtils.setField(writer, "jdbcTemplate", mock(JdbcTemplate.class));
+        AuthService authService = authService(userRepository, encoder, 1, 8, writer);
+        authService.login(request("common", "old-pass")).join();
+
+        // 库中修改密码后旧密码立即失效
+        when(userRepository.findByUsername("common")).thenReturn(Optional.of(user(2, "common", encoder.encode("new-pass"))));
+        CompletionException oldPassword = assertThrows(CompletionException.class,
+                () -> authService.login(request("common", "old-pass")).join());
+        assertEquals("密码错误", oldPassword.getCause().getMessage());
+
+        // 库中禁用后立即不能登录，菜单也不再按其角色过滤
+        User disabled = user(2, "common", encoder.encode("new-pass"));
+        disabled.setStatus(0);
+        when(userRepository.findByUsername("common")).thenReturn(Optional.of(disabled));
+        CompletionException blocked = assertThrows(CompletionException.class,
+                () -> authService.login(request("common", "new-pass")).join());
+        assertEquals("用户已被禁用", blocked.getCause().getMessage());
+        assertTrue(authService.getRoles("common").isEmpty());
+    }
+
+    @Test
+    void rejectsImmediatelyWhenVerifierQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        BCryptPasswordEncoder encoder = mock(BCryptPasswordEncoder.class);
+        when(encoder.matches(anyString(), anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return true;
+        });
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user(1, "admin", "$2a$10$hash")));
+        LoginStatsWriter writer = new LoginStatsWriter();
+        ReflectionTestUtils.setField(writer, "jdbcTemplate", mock(JdbcTemplate.class));
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 60000L);
+        AuthService authService = authService(userRepository, encoder, 1, 1, writer);
+
+        // 一个在执行、一个在排队，第三个立即被拒绝
+        CompletableFuture<LoginResponse> running = authService.login(request("admin", "x"));
+        started.await();
+        CompletableFuture<LoginResponse> queued = authService.login(request("admin", "x"));
+        CompletableFuture<LoginResponse> rejected = authService.login(request("admin", "x"));
+        assertTrue(rejected.isCompletedExceptionally());
+        CompletionException error = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+
+        release.countDown();
+        assertEquals("token-access", running.join().getData().getAccessToken());
+        assertEquals("token-access", queued.join().getData().getAccessToken());
+        assertEquals(1L, passwordVerifier.getStats().get("rejected"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.over.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FacetIndexTest {
+
+    private static String[] values(String industry, String employmentType, Integer telecommuting, Integer fraudulent) {
+        return new String[]{industry, employmentType, null, null,
+                telecommuting == null ? null : telecommuting.toString(), "1",
+                fraudulent == null ? null : fraudulent.toString()};
+    }
+
+    @Test
+    void bitmapSwitchesRepresentationWithoutLosingMembers() {
+        FacetBitmap bitmap = new FacetBitmap();
+        Set<Integer> expected = new TreeSet<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20000; i++) {
+            int id = random.nextInt(100000);
+            if (random.nextInt(4) == 0) {
+                bitmap.remove(id);
+                expected.remove(id);
+            } else {
+                bitmap.add(id);
+                expected.add(id);
+            }
+            if (i % 997 == 0) {
+                assertEquals(expected.size(), bitmap.cardinality());
+            }
+        }
+        long[] filter = new long[(100000 >>> 6) + 1];
+        bitmap.orInto(filter);
+        assertEquals(expected.size(), bitmap.intersectCount(filter));
+        for (int id : expected) {
+            assertTrue(bitmap.contains(id));
+        }
+
+        // 删除到阈值以下转回数组
+        for (int id : expected) {
+            bitmap.remove(id);
+        }
+        assertEquals(0, bitmap.cardinality());
+        assertFalse(bitmap.contains(expected.iterator().next()));
+    }
+
+    @Test
+    void countsEachFacetAgainstTheOtherFilters() {
+        FacetIndex index = new FacetIndex();
+        index.put(1, values("Marketing", "Full-time", 0, 0));
+        index.put(2, values("Marketing", "Part-time", 1, 1));
+        index.put(3, values("Staffing", "Full-time", 1, 1));
+        index.put(4, values("Staffing", "Full-time", 0, 0));
+        index.put(200, values(null, "Contract", 0, null));
+
+        Map<FacetIndex.Facet, Set<String>> selected = new EnumMap<>(FacetIndex.Facet.class);
+        selected.put(FacetIndex.Facet.INDUSTRY, Set.of("Marketing"));
+        selected.put(FacetIndex.Facet.FRAUDULENT, Set.of("1"));
+        FacetIndex.Result result = index.query(selected, 0, 10);
+
+        assertEquals(1, result.getTotal());
+        assertEquals(List.of(2), result.getIds());
+        // 行业计数只受 fraudulent=1 约束，fraudulent 计数只受 industry=Marketing 约束
+        assertEquals(Map.of("Marketing", 1, "Staffing", 1), result.getFacets().get("industry"));
+        assertEquals(Map.of("0", 1, "1", 1), result.getFacets().get("fraudulent"));
+        assertEquals(Map.of("Part-time", 1), result.getFacets().get("employmentType"));
+
+        // 同一字段多个取值取并集
+        selected.put(FacetIndex.Facet.INDUSTRY, Set.of("Marketing", "Staffing"));
+        assertEquals(List.of(2, 3), index.query(selected, 0, 10).getIds());
+    }
+
+    @Test
+    void pagesIdsAndReflectsUpdates() {
+        FacetIndex index = new FacetIndex();
+        for (int id = 1; id <= 130; id++) {
+            index.put(id, values(id % 2 == 0 ? "A" : "B", "Full-time", 0, 0));
+        }
+        Map<FacetIndex.Facet, Set<String>> selected = new EnumMap<>(FacetIndex.Facet.class);
+        selected.put(FacetIndex.Facet.INDUSTRY, Set.of("A"));
+
+        FacetIndex.Result first = index.query(selected, 0, 60);
+        assertEquals(65, first.getTotal());
+        assertEquals(120, first.getNextCursor());
+        FacetIndex.Result second = index.query(selected, first.getNextCursor(), 60);
+        assertEquals(List.of(122, 124, 126, 128, 130), second.getIds());
+        assertNull(second.getNextCursor());
+
+        index.put(3, values("A", "Full-time", 0, 0));
+        index.remove(130);
+        FacetIndex.Result updated = index.query(selected, 0, 1000);
+        assertEquals(65, updated.getTotal());
+        assertEquals(3, updated.getIds().get(1));
+        assertEquals(Map.of("A", 65, "B", 64), updated.getFacets().get("industry"));
+    }
+}
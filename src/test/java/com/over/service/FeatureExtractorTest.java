@@ -0,0 +1,61 @@
+package com.over.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.dto.PredictionRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 与 predict.py preprocess_features 的一致性测试
+ * golden.json 由 model/generate_feature_golden.py 生成，修改Python特征逻辑后需重新生成
+ */
+public class FeatureExtractorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void matchesPythonGoldenFile() throws Exception {
+        JsonNode golden = objectMapper.readTree(new File("src/test/resources/features/golden.json"));
+        FeatureExtractor extractor = new FeatureExtractor();
+        extractor.setEncoderClasses(objectMapper.convertValue(golden.get("encoders"),
+                new TypeReference<Map<String, List<String>>>() {}));
+
+        JsonNode cases = golden.get("cases");
+        assertTrue(cases.size() > 0);
+        double[] reused = new double[FeatureExtractor.FEATURE_COUNT];
+        for (int i = 0; i < cases.size(); i++) {
+            JsonNode c = cases.get(i);
+            PredictionRequest request = objectMapper.convertValue(c.get("input"), PredictionRequest.class);
+            double[] expected = objectMapper.convertValue(c.get("features"), double[].class);
+            assertEquals(FeatureExtractor.FEATURE_COUNT, expected.length);
+
+            String message = "用例 " + i + ": " + c.get("input");
+            assertArrayEquals(expected, extractor.extract(request), message);
+            // 复用数组时不能残留上一条用例的值
+            extractor.extract(request, reused);
+            assertArrayEquals(expected, reused, message);
+        }
+    }
+
+    @Test
+    public void keywordAutomatonFindsOverlappingMatches() {
+        FeatureExtractor.KeywordAutomaton automaton = new FeatureExtractor.KeywordAutomaton(
+                new String[]{"he", "she", "his", "hers"});
+        int state = 0;
+        int mask = 0;
+        for (char c : "uSHErs".toCharArray()) {
+            state = automaton.next(state, c);
+            mask |= automaton.output(state);
+        }
+        assertEquals(0b1011, mask);
+    }
+}
@@ -0,0 +1,65 @@
+package com.over.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JobPostingExportServiceTest {
+
+    @Test
+    void buildsFilteredQueryWithEscapedLocationPrefix() {
+        List<Object> args = new ArrayList<>();
+        String sql = JobPostingExportService.buildQuery(
+                new JobPostingExportService.Filter(1, "Oil & Energy", "US, 50%_off"), args);
+
+        assertTrue(sql.endsWith("WHERE fraudulent = ? AND industry = ? AND location LIKE ? ESCAPE '!' ORDER BY job_id"));
+        assertTrue(sql.contains("`description`"));
+        assertEquals(List.of(1, "Oil & Energy", "US, 50!%!_off%"), args);
+
+        args.clear();
+        sql = JobPostingExportService.buildQuery(new JobPostingExportService.Filter(null, null, ""), args);
+        assertFalse(sql.contains("WHERE"));
+        assertTrue(args.isEmpty());
+    }
+
+    @Test
+    void writesOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ObjectMapper objectMapper = new ObjectMapper();
+        JobPostingExportService.RowWriter writer = new JobPostingExportService.NdjsonRowWriter(
+                objectMapper.getFactory(), out, List.of("jobId", "title", "description"));
+        writer.write(new Object[]{1, "Engineer", "line1\nline2"});
+        writer.write(new Object[]{2, null, "x"});
+        writer.finish();
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1, first.get("jobId").asInt());
+        assertEquals("line1\nline2", first.get("description").asText());
+        assertTrue(objectMapper.readTree(lines[1]).get("title").isNull());
+    }
+
+    @Test
+    void quotesCsvValuesOnlyWhenNeeded() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JobPostingExportService.RowWriter writer = new JobPostingExportService.CsvRowWriter(
+                out, List.of("jobId", "title", "description"));
+        writer.write(new Object[]{1, "Sales, \"Senior\"", null});
+        writer.write(new Object[]{2, "Plain", "a\nb"});
+        writer.finish();
+
+        assertEquals("jobId,title,description\r\n"
+                + "1,\"Sales, \"\"Senior\"\"\",\r\n"
+                + "2,Plain,\"a\nb\"\r\n", out.toString(StandardCharsets.UTF_8));
+    }
+}
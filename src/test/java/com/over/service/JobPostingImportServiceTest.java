@@ -0,0 +1,239 @@
+package com.over.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.dto.PredictionRequest;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JobPostingImportServiceTest {
+
+    private static List<JobPostingImportService.Row> readAll(Iterator<JobPostingImportService.Row> rows) {
+        List<JobPostingImportService.Row> result = new ArrayList<>();
+        rows.forEachRemaining(result::add);
+        return result;
+    }
+
+    private static JobPostingImportService importService(JdbcTemplate jdbcTemplate, AnalysisService analysisService,
+                                                         ModelService modelService) {
+        JobPostingImportService service = new JobPostingImportService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "modelService", modelService);
+        ReflectionTestUtils.setField(service, "analysisService", analysisService);
+        ReflectionTestUtils.setField(service, "jobPostingService", mock(JobPostingService.class));
+        ReflectionTestUtils.setField(service, "jobPostingSearchService", mock(JobPostingSearchService.class));
+        ReflectionTestUtils.setField(service, "jobPostingFacetService", mock(JobPostingFacetService.class));
+        ReflectionTestUtils.setField(service, "batchSize", 100);
+        ReflectionTestUtils.setField(service, "writerThreads", 1);
+        ReflectionTestUtils.setField(service, "maxErrors", 10);
+        return service;
+    }
+
+    @Test
+    void parsesQuotedMultilineCsvWithAliasedHeader() throws Exception {
+        String csv = "\uFEFFjob_id,title,jobFunction,description,unknown\r\n"
+                + "1,\"Sales, \"\"Senior\"\"\",Sales,\"line1\nline2\",x\r\n"
+                + "\r\n"
+                + "2,Engineer,,plain,y\n";
+        List<JobPostingImportService.Row> rows = readAll(new JobPostingImportService.CsvRows(new StringReader(csv)));
+
+        assertEquals(2, rows.size());
+        assertEquals("1", rows.get(0).values.get("job_id"));
+        assertEquals("Sales, \"Senior\"", rows.get(0).values.get("title"));
+        assertEquals("Sales", rows.get(0).values.get("function"));
+        assertEquals("line1\nline2", rows.get(0).values.get("description"));
+        assertFalse(rows.get(0).values.containsKey("unknown"));
+        assertEquals(2, rows.get(0).line);
+        assertEquals(5, rows.get(1).line);
+        assertEquals("", rows.get(1).values.get("function"));
+    }
+
+    @Test
+    void reportsBadNdjsonLinesAndValidationErrors() {
+        String ndjson = "{\"jobId\": 3, \"title\": \"A\", \"fraudulent\": 1}\n"
+                + "not json\n"
+                + "{\"title\": \"B\", \"telecommuting\": null}\n";
+        List<JobPostingImportService.Row> rows = readAll(
+                new JobPostingImportService.NdjsonRows(new StringReader(ndjson), new ObjectMapper()));
+
+        assertEquals(3, rows.size());
+        assertEquals("3", rows.get(0).values.get("job_id"));
+        assertEquals("not a JSON object", rows.get(1).error);
+        assertNull(JobPostingImportService.toJobPosting(rows.get(2).values).getTelecommuting());
+
+        assertEquals(1, JobPostingImportService.toJobPosting(rows.get(0).values).getFraudulent());
+        assertThrows(IllegalArgumentException.class,
+                () -> JobPostingImportService.toJobPosting(Map.of("title", "A", "fraudulent", "2")));
+        assertThrows(IllegalArgumentException.class,
+                () -> JobPostingImportService.toJobPosting(Map.of("job_id", "abc", "title", "A")));
+        assertThrows(IllegalArgumentException.class,
+                () -> JobPostingImportService.toJobPosting(Map.of("description", "no title")));
+    }
+
+    @Test
+    void upsertAndInsertStatementsAreKeyedOnJobId() {
+        String upsert = JobPostingImportService.insertSql(true, JobPostingImportService.MODE_UPSERT);
+        assertTrue(upsert.startsWith("INSERT INTO job_postings (`job_id`, `title`"));
+        assertTrue(upsert.contains("ON DUPLICATE KEY UPDATE `title` = VALUES(`title`)"));
+        assertFalse(upsert.contains("`job_id` = VALUES"));
+
+        String insert = JobPostingImportService.insertSql(true, JobPostingImportService.MODE_INSERT);
+        assertTrue(insert.startsWith("INSERT IGNORE INTO"));
+        assertFalse(insert.contains("ON DUPLICATE KEY"));
+        assertFalse(JobPostingImportService.insertSql(false, JobPostingImportService.MODE_UPSERT).contains("`job_id`"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writesPartitionedBatchesAndReportsCounts() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        AnalysisService analysisService = mock(AnalysisService.class);
+        JobPostingImportService service = importService(jdbcTemplate, analysisService, mock(ModelService.class));
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "writerThreads", 2);
+
+        StringBuilder csv = new StringBuilder("job_id,title,fraudulent\n");
+        for (int i = 1; i <= 7; i++) {
+            csv.append(i).append(",Job ").append(i).append(",0\n");
+        }
+        csv.append(",No id,1\n");
+        csv.append("9,,0\n");
+
+        Map<String, Object> report = service.importJobPostings(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+                JobPostingImportService.FORMAT_CSV, JobPostingImportService.MODE_UPSERT, false);
+
+        assertEquals(9L, report.get("read"));
+        assertEquals(8L, report.get("written"));
+        assertEquals(1L, report.get("invalid"));
+        assertEquals(List.of("line 10: title is required"), report.get("errors"));
+
+        // 每个分区内的job_id同奇偶，批大小不超过2
+        ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(anyString(), batches.capture());
+        int rows = 0;
+        for (List<Object[]> batch : batches.getAllValues()) {
+            assertTrue(batch.size() <= 2);
+            rows += batch.size();
+            if (batch.get(0).length == 18) {
+                int parity = (Integer) batch.get(0)[0] % 2;
+                for (Object[] args : batch) {
+                    assertEquals(parity, (Integer) args[0] % 2);
+                }
+            }
+        }
+        assertEquals(8, rows);
+        verify(analysisService).recordBulkChange(eq(8L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void insertModeSkipsAndDoesNotRescoreExistingJobs() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        // job_id 1 已存在
+        when(jdbcTemplate.queryForList(anyString(), eq(Integer.class), any(Object[].class))).thenReturn(List.of(1));
+        ModelService modelService = mock(ModelService.class);
+        when(modelService.resolveModel(null)).thenReturn("Logistic_Regression");
+        List<String> scoredTitles = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<PredictionRequest> requests = invocation.getArgument(1);
+            requests.forEach(request -> scoredTitles.add(request.getTitle()));
+            return null;
+        }).when(modelService).predictBatch(eq("Logistic_Regression"), anyList(), any());
+        JobPostingImportService service = importService(jdbcTemplate, mock(AnalysisService.class), modelService);
+
+        String csv = "job_id,title\n1,Existing\n2,New\n2,Duplicate\n";
+        Map<String, Object> report = service.importJobPostings(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                JobPostingImportService.FORMAT_CSV, JobPostingImportService.MODE_INSERT, true);
+
+        assertEquals(1L, report.get("written"));
+        assertEquals(2L, report.get("skipped"));
+        assertEquals(List.of("New"), scoredTitles);
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT IGNORE"), batch.capture());
+        assertEquals(1, batch.getValue().size());
+        assertEquals(2, batch.getValue().get(0)[0]);
+    }
+
+    @Test
+    void refreshesDerivedStateWhenReadingFailsMidway() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        AnalysisService analysisService = mock(AnalysisService.class);
+        JobPostingImportService service = importService(jdbcTemplate, analysisService, mock(ModelService.class));
+        ReflectionTestUtils.setField(service, "batchSize", 1);
+        JobPostingSearchService searchService = mock(JobPostingSearchService.class);
+        ReflectionTestUtils.setField(service, "jobPostingSearchService", searchService);
+        // 第一步刷新失败不影响后续步骤
+        doThrow(new IllegalStateException("boom")).when(analysisService).recordBulkChange(anyLong());
+
+        byte[] head = "job_id,title\n1,A\n2,B\n".getBytes(StandardCharsets.UTF_8);
+        InputStream failing = new SequenceInputStream(new ByteArrayInputStream(head), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("connection reset");
+            }
+        });
+        assertThrows(UncheckedIOException.class, () -> service.importJobPostings(failing,
+                JobPostingImportService.FORMAT_CSV, JobPostingImportService.MODE_UPSERT, false));
+
+        verify(analysisService).recordBulkChange(eq(2L));
+        verify(searchService).rebuild();
+    }
+
+    @Test
+    void writerThatDiesDoesNotHangTheReader() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new OutOfMemoryError("Java heap space"));
+        JobPostingImportService service = importService(jdbcTemplate, mock(AnalysisService.class), mock(ModelService.class));
+        ReflectionTestUtils.setField(service, "batchSize", 1);
+
+        StringBuilder csv = new StringBuilder("job_id,title\n");
+        for (int i = 1; i <= 10; i++) {
+            csv.append(i).append(",Job ").append(i).append('\n');
+        }
+        // 写线程在第一批上退出，队列满后读取线程发现写线程已退出并中止，不会一直阻塞
+        Map<String, Object> report = assertTimeoutPreemptively(Duration.ofSeconds(20), () -> service.importJobPostings(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+                JobPostingImportService.FORMAT_CSV, JobPostingImportService.MODE_UPSERT, false));
+
+        assertEquals(true, report.get("aborted"));
+        assertEquals(0L, report.get("written"));
+        assertEquals(4L, report.get("failed"));
+        assertTrue(((List<?>) report.get("errors")).get(0).toString().contains("exited: java.lang.OutOfMemoryError"));
+    }
+}
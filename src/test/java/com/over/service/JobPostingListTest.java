@@ -0,0 +1,107 @@
+package com.over.service;
+
+import com.over.dto.JobPostingSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JobPostingListTest {
+
+    private JobPostingService jobPostingService;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        JobPostingScoringService scoringService = mock(JobPostingScoringService.class);
+        when(scoringService.findScores(anyList())).thenReturn(new HashMap<>());
+        jobPostingService = new JobPostingService();
+        ReflectionTestUtils.setField(jobPostingService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(jobPostingService, "jobPostingScoringService", scoringService);
+    }
+
+    private static List<JobPostingSummary> summaries(int from, int count) {
+        List<JobPostingSummary> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            JobPostingSummary summary = new JobPostingSummary();
+            summary.setJobId(from + i);
+            rows.add(summary);
+        }
+        return rows;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void cursorPageSeeksPastLastIdWithoutTextColumns() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(summaries(101, 4));
+
+        Slice<JobPostingSummary> slice = jobPostingService.listJobPostings(100,
+                PageRequest.of(0, 3, Sort.by("jobId").ascending()), Set.of());
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), args.capture());
+        assertTrue(sql.getValue().contains("WHERE job_id > ? ORDER BY job_id ASC LIMIT ?"));
+        assertFalse(sql.getValue().contains("OFFSET"));
+        assertFalse(sql.getValue().contains("description"));
+        assertArrayEquals(new Object[]{100, 4}, args.getValue());
+
+        // 多读的一行只用于判断是否还有下一页
+        assertEquals(3, slice.getContent().size());
+        assertTrue(slice.hasNext());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void offsetPageSelectsRequestedTextFields() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(summaries(1, 2));
+
+        Slice<JobPostingSummary> slice = jobPostingService.listJobPostings(null,
+                PageRequest.of(2, 5, Sort.by("title").descending()),
+                JobPostingService.parseTextFields("title, description"));
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), args.capture());
+        assertTrue(sql.getValue().contains("`description`"));
+        assertFalse(sql.getValue().contains("`benefits`"));
+        assertTrue(sql.getValue().contains("ORDER BY `title` DESC, job_id DESC LIMIT ? OFFSET ?"));
+        assertArrayEquals(new Object[]{6, 10L}, args.getValue());
+        assertFalse(slice.hasNext());
+    }
+
+    @Test
+    void rejectsUnknownFieldsAndCursorOnOtherSorts() {
+        assertEquals(4, JobPostingService.parseTextFields("all").size());
+        assertThrows(IllegalArgumentException.class, () -> JobPostingService.parseTextFields("password"));
+        assertThrows(IllegalArgumentException.class, () -> jobPostingService.listJobPostings(5,
+                PageRequest.of(0, 10, Sort.by("title")), Set.of()));
+        assertThrows(IllegalArgumentException.class, () -> jobPostingService.listJobPostings(null,
+                PageRequest.of(0, 10, Sort.by("description")), Set.of()));
+    }
+}
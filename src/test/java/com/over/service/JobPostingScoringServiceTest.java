@@ -0,0 +1,100 @@
+package com.over.service;
+
+import com.over.dto.PredictionRequest;
+import com.over.entity.JobPosting;
+import com.over.entity.JobPostingScore;
+import com.over.repository.JobPostingRepository;
+import com.over.repository.JobPostingScoreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JobPostingScoringServiceTest {
+
+    private JobPostingRepository jobPostingRepository;
+    private JobPostingScoreRepository jobPostingScoreRepository;
+    private ModelService modelService;
+    private JobPostingScoringService scoringService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        jobPostingRepository = mock(JobPostingRepository.class);
+        jobPostingScoreRepository = mock(JobPostingScoreRepository.class);
+        modelService = mock(ModelService.class);
+        when(modelService.resolveModel(null)).thenReturn("Logistic_Regression");
+        when(modelService.getModelVersion("Logistic_Regression")).thenReturn("v1");
+        when(modelService.predict(any(PredictionRequest.class)))
+                .thenReturn(ModelService.buildResponse("Logistic_Regression", 0.75));
+
+        scoringService = new JobPostingScoringService();
+        ReflectionTestUtils.setField(scoringService, "jobPostingRepository", jobPostingRepository);
+        ReflectionTestUtils.setField(scoringService, "jobPostingScoreRepository", jobPostingScoreRepository);
+        ReflectionTestUtils.setField(scoringService, "modelService", modelService);
+        ReflectionTestUtils.setField(scoringService, "enabled", true);
+    }
+
+    private JobPosting posting(int id, String title) {
+        JobPosting jobPosting = new JobPosting();
+        jobPosting.setJobId(id);
+        jobPosting.setTitle(title);
+        jobPosting.setJobFunction("Engineering");
+        return jobPosting;
+    }
+
+    @Test
+    public void scoresOnceUntilContentOrModelChanges() throws Exception {
+        JobPosting jobPosting = posting(7, "Engineer");
+        when(jobPostingRepository.findById(7)).thenReturn(Optional.of(jobPosting));
+        when(jobPostingScoreRepository.findById(7)).thenReturn(Optional.empty());
+
+        ReflectionTestUtils.invokeMethod(scoringService, "scoreJob", 7);
+        ArgumentCaptor<JobPostingScore> saved = ArgumentCaptor.forClass(JobPostingScore.class);
+        verify(jobPostingScoreRepository).save(saved.capture());
+        JobPostingScore score = saved.getValue();
+        assertEquals(7, score.getJobId());
+        assertEquals(0.75, score.getProbability());
+        assertEquals("高风险", score.getRiskLevel());
+        assertEquals("Logistic_Regression", score.getModelName());
+        assertEquals("v1", score.getModelVersion());
+
+        // 只改了人工标注，内容和模型都没变：不再打分
+        jobPosting.setFraudulent(1);
+        when(jobPostingScoreRepository.findById(7)).thenReturn(Optional.of(score));
+        ReflectionTestUtils.invokeMethod(scoringService, "scoreJob", 7);
+        verify(modelService, times(1)).predict(any(PredictionRequest.class));
+
+        // 模型文件更新后重新打分
+        when(modelService.getModelVersion("Logistic_Regression")).thenReturn("v2");
+        ReflectionTestUtils.invokeMethod(scoringService, "scoreJob", 7);
+        verify(modelService, times(2)).predict(any(PredictionRequest.class));
+    }
+
+    @Test
+    public void attachScoresUsesOneLookup() throws Exception {
+        JobPosting scored = posting(1, "a");
+        JobPosting unscored = posting(2, "b");
+        JobPostingScore score = new JobPostingScore();
+        score.setJobId(1);
+        when(jobPostingScoreRepository.findAllById(List.of(1, 2))).thenReturn(List.of(score));
+
+        scoringService.attachScores(List.of(scored, unscored));
+        assertEquals(score, scored.getScore());
+        assertNull(unscored.getScore());
+        verify(jobPostingScoreRepository, times(1)).findAllById(any());
+        verify(modelService, never()).predict(any(PredictionRequest.class));
+        assertEquals("Engineering", JobPostingScoringService.toPredictionRequest(scored).getFunction());
+    }
+}
@@ -0,0 +1,67 @@
+package com.over.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class JobPostingSearchServiceTest {
+
+    @Test
+    void rebuildRequestedDuringRebuildRunsAgain() throws Exception {
+        // 第 n 次读表时表中有 n 个职位；第一次读表阻塞到 release
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger scans = new AtomicInteger();
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            int scan = scans.incrementAndGet();
+            if (scan == 1) {
+                started.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int jobId = 1; jobId <= scan; jobId++) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getInt("job_id")).thenReturn(jobId);
+                when(rs.getString("title")).thenReturn("Java Developer " + jobId);
+                when(rs.getObject(eq("fraudulent"), eq(Integer.class))).thenReturn(0);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        JobPostingSearchService service = new JobPostingSearchService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "maxPageSize", 100);
+        ReflectionTestUtils.setField(service, "maxResultWindow", 10000);
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(service::rebuild);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // 导入在第一次读表之后写入：不报告成功，由进行中的重建再建一次
+        assertFalse(service.rebuild());
+        release.countDown();
+
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertEquals(2, scans.get());
+        assertEquals(2, service.search("java", true, null, null, 1, 10).getTotal());
+        assertEquals(false, service.getStatus().get("rebuilding"));
+    }
+}
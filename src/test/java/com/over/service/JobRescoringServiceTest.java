@@ -0,0 +1,111 @@
+package com.over.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.dto.PredictionRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JobRescoringServiceTest {
+
+    private static final int JOB_COUNT = 7;
+
+    private JdbcTemplate jdbcTemplate;
+    private JobRescoringService rescoringService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        LogisticRegressionEngine engine = new LogisticRegressionEngine();
+        ReflectionTestUtils.setField(engine, "objectMapper", objectMapper);
+        engine.load(new File("src/test/resources/export/Logistic_Regression.json"));
+
+        ModelService modelService = new ModelService();
+        ReflectionTestUtils.setField(modelService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(modelService, "featureExtractor", new FeatureExtractor());
+        ReflectionTestUtils.setField(modelService, "inferenceEngines", List.of(engine));
+        ReflectionTestUtils.setField(modelService, "engineMode", "native");
+        ReflectionTestUtils.setField(modelService, "metricsRegistry", new MetricsRegistry());
+        ReflectionTestUtils.setField(modelService, "batchMaxSize", 100);
+        ReflectionTestUtils.setField(modelService, "batchChunkSize", 100);
+
+        // 模拟 job_postings 中 job_id 为 1..7 的职位，按 job_id > ? LIMIT ? 返回
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(invocation -> {
+            int afterId = invocation.getArgument(2);
+            int limit = invocation.getArgument(5);
+            List<Object[]> rows = new ArrayList<>();
+            for (int id = afterId + 1; id <= JOB_COUNT && rows.size() < limit; id++) {
+                PredictionRequest request = new PredictionRequest();
+                request.setTitle("Job " + id);
+                request.setDescription(id % 2 == 0 ? "Easy work from home" : "Build services");
+                rows.add(new Object[]{id, request});
+            }
+            return rows;
+        });
+
+        rescoringService = new JobRescoringService();
+        ReflectionTestUtils.setField(rescoringService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(rescoringService, "modelService", modelService);
+        ReflectionTestUtils.setField(rescoringService, "chunkSize", 2);
+        ReflectionTestUtils.setField(rescoringService, "parallelism", 3);
+        ReflectionTestUtils.setField(rescoringService, "maxRowsPerSecond", 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void rescoresEveryRowAndCheckpointsToTheEnd() {
+        JobRescoringService.Run run = new JobRescoringService.Run("Logistic_Regression", "v1");
+        rescoringService.execute(run);
+
+        ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(anyString(), batches.capture());
+        List<Integer> scoredIds = new ArrayList<>();
+        for (List<Object[]> batch : batches.getAllValues()) {
+            for (Object[] args : batch) {
+                scoredIds.add((Integer) args[0]);
+                assertEquals("Logistic_Regression", args[5]);
+                assertEquals("v1", args[6]);
+            }
+        }
+        scoredIds.sort(null);
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), scoredIds);
+
+        // 最后一次写检查点：推进到最大job_id，状态为完成
+        ArgumentCaptor<Object[]> checkpoints = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, atLeastOnce()).update(anyString(), checkpoints.capture());
+        Object[] lastCheckpoint = checkpoints.getValue();
+        assertEquals(JobRescoringService.JOB_NAME, lastCheckpoint[0]);
+        assertEquals(7, lastCheckpoint[3]);
+        assertEquals(7L, lastCheckpoint[4]);
+        assertEquals(0L, lastCheckpoint[5]);
+        assertEquals(JobRescoringService.STATUS_COMPLETED, lastCheckpoint[6]);
+    }
+
+    @Test
+    public void checkpointOnlyAdvancesOverContiguousChunks() {
+        JobRescoringService.CheckpointTracker tracker = new JobRescoringService.CheckpointTracker(100);
+        assertNull(tracker.complete(1, 300));
+        assertNull(tracker.complete(2, 400));
+        // 块0完成后，0、1、2连续，检查点直接推进到块2
+        assertEquals(400, tracker.complete(0, 200));
+        assertNull(tracker.complete(4, 600));
+        assertEquals(600, tracker.complete(3, 500));
+    }
+}
@@ -0,0 +1,111 @@
+package com.over.service;
+
+import com.over.entity.JobPosting;
+import com.over.repository.JobPostingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LocalCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedAndExpiresByTtl() {
+        AtomicLong now = new AtomicLong(1000);
+        LocalCache<String, String> cache = new LocalCache<>("test", 2, 100, null, now::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a", key -> key + loads.incrementAndGet());
+        cache.get("b", key -> key + loads.incrementAndGet());
+        assertEquals("a1", cache.get("a", key -> key + loads.incrementAndGet()));
+        // a 刚被访问过，容量满时淘汰 b
+        cache.put("c", "c");
+        assertNull(cache.getIfPresent("b"));
+        assertEquals("a1", cache.getIfPresent("a"));
+
+        now.addAndGet(100);
+        assertEquals("a3", cache.get("a", key -> key + loads.incrementAndGet()));
+        // loader 返回 null 时不缓存
+        assertNull(cache.get("missing", key -> null));
+
+        assertEquals(1, cache.getStats().getEvictions());
+        assertEquals(1, cache.getStats().getExpirations());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void doesNotCacheValueLoadedAcrossAnInvalidation() {
+        LocalCache<Integer, String> cache = new LocalCache<>("test", 10, 60000, null);
+
+        // 加载期间发生了写入和失效，加载到的旧值只返回给本次调用
+        String loaded = cache.get(1, key -> {
+            cache.invalidate(key);
+            return "stale";
+        });
+        assertEquals("stale", loaded);
+        assertNull(cache.getIfPresent(1));
+
+        assertEquals("fresh", cache.get(1, key -> "fresh"));
+        assertEquals("fresh", cache.getIfPresent(1));
+    }
+
+    @Test
+    void jobPostingUpdatesAndDeletesAreNotServedFromCache() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("cache.regions.job-postings.max-size", "100");
+        CacheRegistry registry = new CacheRegistry();
+        ReflectionTestUtils.setField(registry, "environment", environment);
+        ReflectionTestUtils.setField(registry, "enabled", true);
+
+        JobPostingRepository repository = mock(JobPostingRepository.class);
+        JobPostingService service = new JobPostingService();
+        ReflectionTestUtils.setField(service, "jobPostingRepository", repository);
+        ReflectionTestUtils.setField(service, "jobPostingScoringService", mock(JobPostingScoringService.class));
+        ReflectionTestUtils.setField(service, "analysisService", mock(AnalysisService.class));
+        ReflectionTestUtils.setField(service, "jobPostingSearchService", mock(JobPostingSearchService.class));
+        ReflectionTestUtils.setField(service, "jobPostingFacetService", mock(JobPostingFacetService.class));
+        ReflectionTestUtils.setField(service, "cacheRegistry", registry);
+        service.init();
+
+        JobPosting stored = new JobPosting();
+        stored.setJobId(7);
+        stored.setTitle("Old title");
+        when(repository.findById(7)).thenAnswer(invocation -> {
+            JobPosting copy = new JobPosting();
+            copy.setJobId(stored.getJobId());
+            copy.setTitle(stored.getTitle());
+            return Optional.of(copy);
+        });
+        when(repository.save(any(JobPosting.class))).thenAnswer(invocation -> {
+            JobPosting saved = invocation.getArgument(0);
+            stored.setTitle(saved.getTitle());
+            return saved;
+        });
+
+        // 调用方修改返回的对象不影响缓存
+        service.getJobPostingById(7).get().setTitle("Modified by caller");
+        assertEquals("Old title", service.getJobPostingById(7).get().getTitle());
+        verify(repository, times(1)).findById(7);
+
+        JobPosting details = new JobPosting();
+        details.setTitle("New title");
+        service.updateJobPosting(7, details);
+        assertEquals("New title", service.getJobPostingById(7).get().getTitle());
+
+        service.deleteJobPosting(7);
+        when(repository.findById(7)).thenReturn(Optional.empty());
+        assertEquals(Optional.empty(), service.getJobPostingById(7));
+        assertEquals(0, registry.getRegion("job-postings").getStats().getSize());
+    }
+}
@@ -0,0 +1,141 @@
+package com.over.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.dto.LoginRequest;
+import com.over.entity.User;
+import com.over.repository.UserRepository;
+import com.over.util.JwtUtil;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 并发登录吞吐量对比（不是单元测试，surefire不会执行）：
+ * 同步模式在"请求线程"上直接做BCrypt校验，对应改造前的登录；池化模式经 PasswordVerifier 有界线程池校验。
+ * 运行：mvn test-compile 后以 test classpath 执行本类 main，参数依次为 并发数 持续秒数 BCrypt强度，默认 200 10 10
+ */
+public class LoginThroughputBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int strength = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        String hash = encoder.encode("s3cret");
+        System.out.println(String.format("并发 %d, 每轮 %d 秒, BCrypt强度 %d, CPU %d 核",
+                clients, seconds, strength, Runtime.getRuntime().availableProcessors()));
+
+        run("同步（请求线程校验）", clients, seconds, () -> {
+            if (!encoder.matches("s3cret", hash)) {
+                throw new IllegalStateException("密码错误");
+            }
+        });
+
+        AuthService authService = authService(encoder, hash);
+        LoginRequest request = new LoginRequest();
+        request.setUsername("admin");
+        request.setPassword("s3cret");
+        run("池化（有界BCrypt线程池）", clients, seconds, () -> authService.login(request).join());
+    }
+
+    private static AuthService authService(BCryptPasswordEncoder encoder, String hash) {
+        PasswordVerifier verifier = new PasswordVerifier();
+        ReflectionTestUtils.setField(verifier, "passwordEncoder", encoder);
+        ReflectionTestUtils.setField(verifier, "threads", 0);
+        ReflectionTestUtils.setField(verifier, "queueCapacity", 64);
+        verifier.init();
+
+        LoginStatsWriter writer = new LoginStatsWriter();
+        ReflectionTestUtils.setField(writer, "jdbcTemplate", mock(JdbcTemplate.class));
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 5000L);
+
+        CacheRegistry registry = new CacheRegistry();
+        ReflectionTestUtils.setField(registry, "environment", new MockEnvironment());
+        ReflectionTestUtils.setField(registry, "enabled", true);
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("admin");
+        user.setPassword(hash);
+        user.setStatus(1);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user));
+        JwtUtil jwtUtil = mock(JwtUtil.class);
+        when(jwtUtil.generateToken(anyString(), anyString())).thenReturn("token");
+
+        AuthService authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(authService, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(authService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(authService, "passwordVerifier", verifier);
+        ReflectionTestUtils.setField(authService, "loginStatsWriter", writer);
+        ReflectionTestUtils.setField(authService, "cacheRegistry", registry);
+        authService.init();
+        return authService;
+    }
+
+    private static void run(String name, int clients, int seconds, Runnable login) throws InterruptedException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            Thread thread = new Thread(() -> {
+                List<Long> local = new ArrayList<>();
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        login.run();
+                        succeeded.incrementAndGet();
+                        local.add(System.nanoTime() - start);
+                    } catch (CompletionException e) {
+                        if (e.getCause() instanceof RejectedExecutionException) {
+                            rejected.incrementAndGet();
+                            // 模拟客户端收到429后按 Retry-After 退避
+                            sleep(50);
+                        }
+                    }
+                }
+                latencies.addAll(local);
+                done.countDown();
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        System.out.println(String.format("%s: %.1f 次登录/秒, 拒绝 %d, p50 %.1f ms, p99 %.1f ms", name,
+                succeeded.get() / (double) seconds, rejected.get(),
+                percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6));
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        return sorted.isEmpty() ? 0 : sorted.get((int) Math.min(sorted.size() - 1, Math.floor(p * sorted.size())));
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
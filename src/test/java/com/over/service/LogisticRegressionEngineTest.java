@@ -0,0 +1,94 @@
+package com.over.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.dto.PredictionResponse;
+import com.over.util.ModelFileUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class LogisticRegressionEngineTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private LogisticRegressionEngine newEngine(File exportFile) throws Exception {
+        LogisticRegressionEngine engine = new LogisticRegressionEngine();
+        ReflectionTestUtils.setField(engine, "objectMapper", objectMapper);
+        engine.load(exportFile);
+        return engine;
+    }
+
+    private void assertParity(LogisticRegressionEngine engine, File parityFile) throws Exception {
+        JsonNode cases = objectMapper.readTree(parityFile).get("cases");
+        assertTrue(cases.size() > 0);
+        for (JsonNode c : cases) {
+            double[] features = new double[c.get("features").size()];
+            for (int i = 0; i < features.length; i++) {
+                features[i] = c.get("features").get(i).asDouble();
+            }
+            double probability = engine.predictProbability(LogisticRegressionEngine.MODEL_NAME, features);
+            // 点积求和顺序和exp实现可能相差最后一位，其余完全一致
+            assertEquals(c.get("probability").asDouble(), probability, 1e-12);
+            assertEquals(c.get("prediction").asInt(), probability > 0.5 ? 1 : 0);
+        }
+    }
+
+    /**
+     * 合成参数，期望值按sklearn StandardScaler + LogisticRegression 的计算公式生成
+     */
+    @Test
+    public void syntheticModelParity() throws Exception {
+        LogisticRegressionEngine engine = newEngine(new File("src/test/resources/export/Logistic_Regression.json"));
+        assertTrue(engine.supports(LogisticRegressionEngine.MODEL_NAME));
+        assertFalse(engine.supports("Random_Forest"));
+        assertParity(engine, new File("src/test/resources/export/parity/Logistic_Regression.json"));
+    }
+
+    /**
+     * 真实模型与sklearn输出对比，需要先运行 model/export_models.py
+     */
+    @Test
+    public void exportedModelParity() throws Exception {
+        File exportFile = ModelFileUtil.exportFile("Logistic_Regression.json");
+        File parityFile = ModelFileUtil.exportFile("parity" + File.separator + "Logistic_Regression.json");
+        assumeTrue(exportFile.exists() && parityFile.exists(), "未导出逻辑回归模型，跳过");
+        assertParity(newEngine(exportFile), parityFile);
+    }
+
+    /**
+     * 导出文件被移走后重新加载，不再用旧参数打分
+     */
+    @Test
+    public void reloadDropsParametersWhenExportIsGone() throws Exception {
+        assumeTrue(!ModelFileUtil.exportFile("Logistic_Regression.json").exists(), "存在真实导出文件，跳过");
+        LogisticRegressionEngine engine = newEngine(new File("src/test/resources/export/Logistic_Regression.json"));
+
+        engine.reload("Random_Forest");
+        assertTrue(engine.supports(LogisticRegressionEngine.MODEL_NAME));
+        engine.reload(LogisticRegressionEngine.MODEL_NAME);
+        assertFalse(engine.supports(LogisticRegressionEngine.MODEL_NAME));
+    }
+
+    @Test
+    public void responseMatchesPythonFormatting() {
+        PredictionResponse response = ModelService.buildResponse("Logistic_Regression", 0.71234567);
+        assertEquals(1, response.getPrediction());
+        assertEquals("虚假职位", response.getPredictionLabel());
+        assertEquals(0.7123, response.getProbability());
+        assertEquals("71.23%", response.getProbabilityPercent());
+        assertEquals(4, response.getRiskScore());
+        assertEquals("高风险", response.getRiskLevel());
+
+        PredictionResponse low = ModelService.buildResponse("Logistic_Regression", 0.125);
+        assertEquals(0, low.getPrediction());
+        assertEquals("12.50%", low.getProbabilityPercent());
+        assertEquals("低风险", low.getRiskLevel());
+    }
+}
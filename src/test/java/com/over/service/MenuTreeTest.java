@@ -0,0 +1,96 @@
+package com.over.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.dto.MenuDTO;
+import com.over.entity.Menu;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MenuTreeTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static Menu menu(long id, long parentId, String path, int sortOrder, String permission) {
+        Menu menu = new Menu();
+        menu.setId(id);
+        menu.setParentId(parentId);
+        menu.setMenuName("menu-" + id);
+        menu.setPath(path);
+        menu.setSortOrder(sortOrder);
+        menu.setPermission(permission);
+        return menu;
+    }
+
+    private static List<Menu> sample() {
+        List<Menu> menus = new ArrayList<>();
+        menus.add(menu(1, 0, "/dashboard", 2, null));
+        menus.add(menu(2, 0, "/system", 1, "system:view"));
+        menus.add(menu(3, 2, "/system/user", 2, null));
+        menus.add(menu(4, 2, "/system/role", 1, "admin"));
+        menus.add(menu(5, 1, "/dashboard/fraud-analysis", 1, ""));
+        // 父菜单已停用，不出现在树中
+        menus.add(menu(6, 99, "/orphan", 1, null));
+        return menus;
+    }
+
+    private static List<String> paths(List<MenuDTO> menus) {
+        List<String> paths = new ArrayList<>();
+        for (MenuDTO menu : menus) {
+            paths.add(menu.getPath());
+            paths.addAll(paths(menu.getChildren()));
+        }
+        return paths;
+    }
+
+    @Test
+    void buildsSortedTreeWithDerivedNames() {
+        MenuTree tree = MenuTree.build(sample(), objectMapper);
+        List<MenuDTO> menus = tree.toDtos(List.of(), List.of(MenuTree.ALL_PERMISSIONS));
+
+        assertEquals(5, tree.size());
+        assertEquals(List.of("/system", "/system/role", "/system/user", "/dashboard", "/dashboard/fraud-analysis"),
+                paths(menus));
+        assertEquals("SystemUser", menus.get(0).getChildren().get(1).getName());
+        assertEquals("layout", menus.get(1).getComponent());
+        assertEquals(1, menus.get(0).getMeta().getRank());
+        assertTrue(menus.get(1).getChildren().get(0).getChildren().isEmpty());
+    }
+
+    @Test
+    void filtersByPermissionsAndRoles() {
+        MenuTree tree = MenuTree.build(sample(), objectMapper);
+
+        // 无权限只看到公开菜单，父菜单不可见时子菜单一并隐藏
+        assertEquals(List.of("/dashboard", "/dashboard/fraud-analysis"), paths(tree.toDtos(List.of(), List.of())));
+        assertEquals(List.of("/system", "/system/user", "/dashboard", "/dashboard/fraud-analysis"),
+                paths(tree.toDtos(List.of("common"), List.of("system:view", "permission:btn:add"))));
+        // 菜单权限标识也可以是角色名
+        assertEquals(List.of("/system", "/system/role", "/system/user", "/dashboard", "/dashboard/fraud-analysis"),
+                paths(tree.toDtos(List.of("admin"), List.of("system:view"))));
+    }
+
+    @Test
+    void sharesSerializedJsonBetweenUsersWithTheSameVisibleMenus() throws Exception {
+        MenuTree tree = MenuTree.build(sample(), objectMapper);
+
+        byte[] admin = tree.toJson(List.of("admin"), List.of(MenuTree.ALL_PERMISSIONS));
+        // 与菜单无关的权限不影响结果，共用同一份序列化结果
+        assertSame(admin, tree.toJson(List.of("admin", "auditor"), List.of("system:view", "report:export")));
+        byte[] anonymous = tree.toJson(List.of(), List.of());
+        assertNotSame(admin, anonymous);
+
+        JsonNode body = objectMapper.readTree(anonymous);
+        assertTrue(body.get("success").asBoolean());
+        assertEquals(1, body.get("data").size());
+        assertEquals("/dashboard", body.get("data").get(0).get("path").asText());
+        assertEquals("menu-5", body.get("data").get(0).get("children").get(0).get("meta").get("title").asText());
+    }
+}
@@ -0,0 +1,76 @@
+package com.over.service;
+
+import com.over.util.RequestContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MetricsRegistryTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestContext.clear();
+    }
+
+    @Test
+    void timerWritesCumulativeBucketsWithExemplars() {
+        MetricsRegistry registry = new MetricsRegistry();
+        MetricsRegistry.Timer timer = registry.timer("model_prediction_seconds", "单条预测耗时",
+                "model", "Random_Forest", "source", "native");
+        assertSame(timer, registry.timer("model_prediction_seconds", "单条预测耗时",
+                "model", "Random_Forest", "source", "native"));
+
+        timer.record(500_000L);          // 0.5ms -> le=0.001
+        RequestContext.setRequestId("slow-1");
+        timer.record(3_000_000_000L);    // 3s -> le=5.0
+        RequestContext.clear();
+        timer.record(60_000_000_000L);   // 60s -> +Inf
+
+        String text = registry.scrape(false);
+        assertTrue(text.contains("# TYPE model_prediction_seconds histogram\n"));
+        assertTrue(text.contains("model_prediction_seconds_bucket{model=\"Random_Forest\",source=\"native\",le=\"0.001\"} 1\n"));
+        assertTrue(text.contains("model_prediction_seconds_bucket{model=\"Random_Forest\",source=\"native\",le=\"2.5\"} 1\n"));
+        assertTrue(text.contains("model_prediction_seconds_bucket{model=\"Random_Forest\",source=\"native\",le=\"5.0\"} 2\n"));
+        assertTrue(text.contains("model_prediction_seconds_bucket{model=\"Random_Forest\",source=\"native\",le=\"+Inf\"} 3\n"));
+        assertTrue(text.contains("model_prediction_seconds_count{model=\"Random_Forest\",source=\"native\"} 3\n"));
+        assertTrue(text.contains("model_prediction_seconds_sum{model=\"Random_Forest\",source=\"native\"} 63.0005\n"));
+        // Prometheus 文本格式不支持 exemplar
+        assertFalse(text.contains("request_id"));
+
+        String openMetrics = registry.scrape(true);
+        assertTrue(openMetrics.contains("le=\"5.0\"} 2 # {request_id=\"slow-1\"} 3.0 "));
+        assertTrue(openMetrics.endsWith("# EOF\n"));
+    }
+
+    @Test
+    void countersAndFunctionMetrics() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("analysis_rows_scanned_total", "扫描行数", "source", "sql").increment(42);
+        registry.functionCounter("cache_gets_total", "缓存查询次数", () -> List.of(
+                MetricsRegistry.Sample.of(7, "cache", "menus", "result", "hit"),
+                MetricsRegistry.Sample.of(1, "cache", "a\"b", "result", "miss")));
+        registry.gauge("hikari_connections_max", "最大连接数", () -> List.of(MetricsRegistry.Sample.of(10)));
+
+        String text = registry.scrape(false);
+        assertTrue(text.contains("# TYPE analysis_rows_scanned_total counter\nanalysis_rows_scanned_total{source=\"sql\"} 42\n"));
+        assertTrue(text.contains("cache_gets_total{cache=\"menus\",result=\"hit\"} 7\n"));
+        assertTrue(text.contains("cache_gets_total{cache=\"a\\\"b\",result=\"miss\"} 1\n"));
+        assertTrue(text.contains("# TYPE hikari_connections_max gauge\nhikari_connections_max 10\n"));
+
+        // OpenMetrics 中计数器的类型名不带 _total，样本名带
+        String openMetrics = registry.scrape(true);
+        assertTrue(openMetrics.contains("# TYPE cache_gets counter\n"));
+        assertTrue(openMetrics.contains("cache_gets_total{cache=\"menus\",result=\"hit\"} 7\n"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> registry.timer("analysis_rows_scanned_total", "类型不同"));
+        assertEquals(42, registry.counter("analysis_rows_scanned_total", "扫描行数", "source", "sql").count());
+    }
+}
@@ -0,0 +1,149 @@
+package com.over.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.dto.PredictionRequest;
+import com.over.dto.PredictionResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ModelServiceAsyncTest {
+
+    private static final String MODEL = "Logistic_Regression";
+
+    private ModelService modelService;
+    private MetricsRegistry metricsRegistry;
+    private BlockingEngine engine;
+
+    @BeforeEach
+    public void setUp() {
+        engine = new BlockingEngine();
+        metricsRegistry = new MetricsRegistry();
+        PredictionCache predictionCache = new PredictionCache();
+        ReflectionTestUtils.setField(predictionCache, "enabled", false);
+
+        modelService = new ModelService();
+        ReflectionTestUtils.setField(modelService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(modelService, "featureExtractor", new FeatureExtractor());
+        ReflectionTestUtils.setField(modelService, "inferenceEngines", List.<InferenceEngine>of(engine));
+        ReflectionTestUtils.setField(modelService, "predictionCache", predictionCache);
+        ReflectionTestUtils.setField(modelService, "metricsRegistry", metricsRegistry);
+        ReflectionTestUtils.setField(modelService, "engineMode", "native");
+        ReflectionTestUtils.setField(modelService, "predictThreads", 1);
+        ReflectionTestUtils.setField(modelService, "predictQueueCapacity", 1);
+        modelService.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        engine.release.countDown();
+        modelService.shutdown();
+    }
+
+    private PredictionRequest job(String title) {
+        PredictionRequest request = new PredictionRequest();
+        request.setModelName(MODEL);
+        request.setTitle(title);
+        request.setDescription("Work from home");
+        return request;
+    }
+
+    @Test
+    public void identicalInFlightRequestsShareOneComputation() throws Exception {
+        CompletableFuture<PredictionResponse> first = modelService.predictAsync(job("Clerk"), 5000);
+        assertTrue(engine.started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<PredictionResponse> second = modelService.predictAsync(job("Clerk"), 5000);
+
+        engine.release.countDown();
+        PredictionResponse a = first.get(5, TimeUnit.SECONDS);
+        PredictionResponse b = second.get(5, TimeUnit.SECONDS);
+        assertEquals(a, b);
+        // 每个等待者拿到各自的副本
+        assertNotSame(a, b);
+        assertEquals(1, engine.calls.get());
+        assertEquals(1, metricsRegistry.counter("model_prediction_coalesced_total", "",
+                "model", MODEL).count());
+    }
+
+    @Test
+    public void deadlineCancelsComputationWhenNobodyIsWaiting() throws Exception {
+        CompletableFuture<PredictionResponse> future = modelService.predictAsync(job("Clerk"), 100);
+        ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, error.getCause());
+
+        // 唯一的等待者超时，执行线程被中断，推理线程随即空出
+        assertTrue(engine.interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(1, metricsRegistry.counter("model_prediction_cancelled_total", "",
+                "model", MODEL).count());
+
+        engine.release.countDown();
+        assertEquals(MODEL, modelService.predictAsync(job("Clerk"), 5000).get(5, TimeUnit.SECONDS).getModelName());
+        assertEquals(2, engine.calls.get());
+    }
+
+    @Test
+    public void shedsLoadWhenQueueIsFull() throws Exception {
+        CompletableFuture<PredictionResponse> running = modelService.predictAsync(job("A"), 5000);
+        assertTrue(engine.started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<PredictionResponse> queued = modelService.predictAsync(job("B"), 5000);
+        CompletableFuture<PredictionResponse> shed = modelService.predictAsync(job("C"), 5000);
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> shed.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        assertEquals(1, metricsRegistry.counter("model_prediction_shed_total", "",
+                "model", MODEL).count());
+
+        engine.release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 在 release 之前阻塞推理，用于制造进行中的请求
+     */
+    private static final class BlockingEngine implements InferenceEngine {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public String getName() {
+            return "native";
+        }
+
+        @Override
+        public boolean supports(String modelName) {
+            return true;
+        }
+
+        @Override
+        public double predictProbability(String modelName, double[] features) {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new IllegalStateException("推理被中断");
+            }
+            return 0.25;
+        }
+    }
+}
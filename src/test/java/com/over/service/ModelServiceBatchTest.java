@@ -0,0 +1,87 @@
+package com.over.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.dto.BatchPredictionResult;
+import com.over.dto.PredictionRequest;
+import com.over.dto.PredictionResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ModelServiceBatchTest {
+
+    private ModelService modelService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        LogisticRegressionEngine engine = new LogisticRegressionEngine();
+        ReflectionTestUtils.setField(engine, "objectMapper", objectMapper);
+        engine.load(new File("src/test/resources/export/Logistic_Regression.json"));
+
+        modelService = new ModelService();
+        ReflectionTestUtils.setField(modelService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(modelService, "featureExtractor", new FeatureExtractor());
+        ReflectionTestUtils.setField(modelService, "inferenceEngines", List.of(engine));
+        ReflectionTestUtils.setField(modelService, "predictionCache", new PredictionCache());
+        ReflectionTestUtils.setField(modelService, "metricsRegistry", new MetricsRegistry());
+        ReflectionTestUtils.setField(modelService, "engineMode", "native");
+        ReflectionTestUtils.setField(modelService, "batchMaxSize", 5);
+        ReflectionTestUtils.setField(modelService, "batchChunkSize", 2);
+    }
+
+    private PredictionRequest job(String title, String description) {
+        PredictionRequest request = new PredictionRequest();
+        request.setTitle(title);
+        request.setDescription(description);
+        return request;
+    }
+
+    @Test
+    public void resultsKeepRequestOrderAcrossChunks() throws Exception {
+        List<PredictionRequest> items = Arrays.asList(
+                job("Engineer", "Build services"),
+                null,
+                job("FREE money", "Easy work from home, no experience"),
+                job("Analyst", "SQL reports"));
+
+        List<BatchPredictionResult> results = new ArrayList<>();
+        modelService.predictBatch("Logistic_Regression", items, results::add);
+
+        assertEquals(4, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        // 空数据只让该条失败
+        assertFalse(results.get(1).getSuccess());
+        assertTrue(results.get(0).getSuccess() && results.get(2).getSuccess() && results.get(3).getSuccess());
+
+        // 与单条预测结果一致
+        for (int i : new int[]{0, 2, 3}) {
+            PredictionRequest single = items.get(i);
+            single.setModelName("Logistic_Regression");
+            PredictionResponse expected = modelService.predict(single);
+            assertEquals(expected, results.get(i).getResult());
+        }
+    }
+
+    @Test
+    public void rejectsOversizedOrEmptyBatch() {
+        List<PredictionRequest> tooMany = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            tooMany.add(job("t" + i, "d"));
+        }
+        assertThrows(Exception.class, () -> modelService.checkBatch("Logistic_Regression", tooMany));
+        assertThrows(Exception.class, () -> modelService.checkBatch("Logistic_Regression", List.of()));
+    }
+}
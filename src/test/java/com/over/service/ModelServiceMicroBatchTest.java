@@ -0,0 +1,170 @@
+package com.over.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.over.dto.PredictionRequest;
+import com.over.dto.PredictionResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ModelServiceMicroBatchTest {
+
+    private static final String MODEL = "Logistic_Regression";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ModelService modelService;
+    private MetricsRegistry metricsRegistry;
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch firstBatchStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+    // 每个调用方一个线程，与并行度无关
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        // 模拟一个worker：第一批阻塞到 releaseFirstBatch，每条返回以标题长度区分的概率
+        PythonWorkerPool pythonWorkerPool = mock(PythonWorkerPool.class);
+        when(pythonWorkerPool.isAvailable()).thenReturn(true);
+        when(pythonWorkerPool.getPoolSize()).thenReturn(1);
+        when(pythonWorkerPool.predictBatch(eq(MODEL), anyList())).thenAnswer(invocation -> {
+            List<?> items = invocation.getArgument(1);
+            batchSizes.add(items.size());
+            if (batchSizes.size() == 1) {
+                firstBatchStarted.countDown();
+                releaseFirstBatch.await(5, TimeUnit.SECONDS);
+            }
+            return batchResponse(items);
+        });
+
+        metricsRegistry = new MetricsRegistry();
+        PredictionCache predictionCache = new PredictionCache();
+        ReflectionTestUtils.setField(predictionCache, "enabled", false);
+
+        modelService = new ModelService();
+        ReflectionTestUtils.setField(modelService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(modelService, "pythonWorkerPool", pythonWorkerPool);
+        ReflectionTestUtils.setField(modelService, "featureExtractor", new FeatureExtractor());
+        ReflectionTestUtils.setField(modelService, "inferenceEngines", List.<InferenceEngine>of());
+        ReflectionTestUtils.setField(modelService, "predictionCache", predictionCache);
+        ReflectionTestUtils.setField(modelService, "metricsRegistry", metricsRegistry);
+        ReflectionTestUtils.setField(modelService, "engineMode", "python");
+        ReflectionTestUtils.setField(modelService, "microBatchEnabled", true);
+        ReflectionTestUtils.setField(modelService, "microBatchMaxSize", 4);
+        ReflectionTestUtils.setField(modelService, "microBatchMaxWaitMs", 20L);
+        ReflectionTestUtils.setField(modelService, "microBatchMaxQueued", 100);
+        ReflectionTestUtils.setField(modelService, "predictTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(modelService, "predictMaxTimeoutMs", 5000L);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        releaseFirstBatch.countDown();
+        callers.shutdownNow();
+        modelService.shutdown();
+    }
+
+    private JsonNode batchResponse(List<?> items) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("success", true);
+        ArrayNode results = response.putArray("results");
+        for (Object item : items) {
+            double probability = ((PredictionRequest) item).getTitle().length() / 100.0;
+            ObjectNode result = results.addObject();
+            result.put("success", true);
+            result.put("model_name", MODEL);
+            result.put("prediction", 0);
+            result.put("prediction_label", "真实职位");
+            result.put("probability", probability);
+            result.put("probability_percent", String.format("%.2f%%", probability * 100));
+            result.put("risk_score", 0);
+            result.put("risk_level", "低风险");
+        }
+        return response;
+    }
+
+    private CompletableFuture<PredictionResponse> predictInBackground(String title) {
+        PredictionRequest request = new PredictionRequest();
+        request.setModelName(MODEL);
+        request.setTitle(title);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return modelService.predict(request);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }, callers);
+    }
+
+    @Test
+    public void concurrentPredictionsShareBatchesAndGetTheirOwnResults() throws Exception {
+        CompletableFuture<PredictionResponse> first = predictInBackground("a");
+        assertTrue(firstBatchStarted.await(5, TimeUnit.SECONDS));
+
+        // 唯一的在途批次未返回期间到达的请求积攒起来，按 max-size 拆成 4 + 2 两批
+        List<CompletableFuture<PredictionResponse>> waiting = new ArrayList<>();
+        for (int i = 2; i <= 7; i++) {
+            waiting.add(predictInBackground("x".repeat(i)));
+        }
+        Thread.sleep(100);
+        releaseFirstBatch.countDown();
+
+        assertEquals(0.01, first.get(5, TimeUnit.SECONDS).getProbability());
+        for (int i = 0; i < waiting.size(); i++) {
+            // 结果按下标交回各自的调用方
+            assertEquals((i + 2) / 100.0, waiting.get(i).get(5, TimeUnit.SECONDS).getProbability());
+        }
+        assertEquals(List.of(1, 4, 2), batchSizes);
+        assertEquals(7, metricsRegistry.counter("model_micro_batch_items_total", "", "model", MODEL).count());
+        assertEquals(1, metricsRegistry.counter("model_micro_batches_total", "",
+                "model", MODEL, "reason", "full").count());
+        assertEquals(7, metricsRegistry.timer("model_micro_batch_wait_seconds", "", "model", MODEL).count());
+    }
+
+    @Test
+    public void synchronousCallerGivesUpAtDeadline() throws Exception {
+        ReflectionTestUtils.setField(modelService, "predictTimeoutMs", 100L);
+        CompletableFuture<PredictionResponse> stuck = predictInBackground("a");
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> stuck.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, error.getCause().getCause());
+    }
+
+    @Test
+    public void shutdownFailsQueuedCallers() throws Exception {
+        CompletableFuture<PredictionResponse> running = predictInBackground("a");
+        assertTrue(firstBatchStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<PredictionResponse> queued = predictInBackground("bb");
+        Thread.sleep(100);
+
+        modelService.shutdown();
+        ExecutionException error = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, error.getCause().getCause());
+        // 在途批次随执行线程中断而失败，调用方同样不会一直等待
+        assertThrows(ExecutionException.class, () -> running.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,137 @@
+package com.over.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 对运行中的服务压测 POST /model/predict（不是单元测试，surefire不会执行），用于对比平台线程与虚拟线程：
+ * 先按默认方式启动服务跑一轮，再以 mvn -Pjava21 package 构建、VIRTUAL_THREADS=true 启动跑一轮，比较两次输出。
+ * 每个请求的标题带序号，避开预测缓存，真正走模型。
+ * 运行：mvn test-compile 后以 test classpath 执行本类 main，参数依次为 服务地址 并发数 持续秒数 用户名 密码，
+ * 默认 http://localhost:8080/api 1000 30 admin 123456
+ */
+public class PredictLoadBenchmark {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080/api";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        String username = args.length > 3 ? args[3] : "admin";
+        String password = args.length > 4 ? args[4] : "123456";
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        String token = login(client, baseUrl, username, password);
+        System.out.println(String.format("%s 并发 %d, 持续 %d 秒", baseUrl, clients, seconds));
+
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        AtomicLong sequence = new AtomicLong();
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong busy = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            Thread thread = new Thread(() -> {
+                List<Long> local = new ArrayList<>();
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = client.send(
+                                predictRequest(baseUrl, token, sequence.incrementAndGet()),
+                                HttpResponse.BodyHandlers.ofString());
+                        long elapsed = System.nanoTime() - start;
+                        JsonNode body = response.statusCode() == 200 ? objectMapper.readTree(response.body()) : null;
+                        if (body != null && body.path("success").asBoolean()) {
+                            succeeded.incrementAndGet();
+                            local.add(elapsed);
+                        } else if (response.statusCode() == 429
+                                || (body != null && body.path("message").asText().contains("繁忙"))) {
+                            // 服务端拒绝接纳（等待Python的请求过多），退避后重试
+                            busy.incrementAndGet();
+                            sleep(50);
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                    }
+                }
+                latencies.addAll(local);
+                done.countDown();
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        System.out.println(String.format("%.1f 次预测/秒, 成功 %d, 繁忙拒绝 %d, 失败 %d, p50 %.1f ms, p99 %.1f ms",
+                succeeded.get() / (double) seconds, succeeded.get(), busy.get(), failed.get(),
+                percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6));
+    }
+
+    private static String login(HttpClient client, String baseUrl, String username, String password) throws Exception {
+        Map<String, String> body = Map.of("username", username, "password", password);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+        JsonNode response = objectMapper.readTree(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+        String token = response.path("data").path("accessToken").asText(null);
+        if (token == null) {
+            throw new IllegalStateException("登录失败: " + response);
+        }
+        return token;
+    }
+
+    private static HttpRequest predictRequest(String baseUrl, String token, long seq) throws Exception {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("title", "Data Entry Clerk " + seq);
+        body.put("location", "US, NY, New York");
+        body.put("department", "Operations");
+        body.put("salaryRange", "30000-40000");
+        body.put("description", "Work from home, no experience required, weekly payment. Request " + seq);
+        body.put("requirements", "Computer and internet access");
+        body.put("telecommuting", 1);
+        body.put("hasCompanyLogo", 0);
+        body.put("hasQuestions", 0);
+        body.put("employmentType", "Part-time");
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/model/predict"))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        return sorted.isEmpty() ? 0 : sorted.get((int) Math.min(sorted.size() - 1, Math.floor(p * sorted.size())));
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
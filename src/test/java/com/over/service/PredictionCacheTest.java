@@ -0,0 +1,94 @@
+package com.over.service;
+
+import com.over.dto.CacheStats;
+import com.over.dto.PredictionRequest;
+import com.over.dto.PredictionResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class PredictionCacheTest {
+
+    private PredictionCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new PredictionCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", 2);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+    }
+
+    private PredictionRequest job(String title) {
+        PredictionRequest request = new PredictionRequest();
+        request.setTitle(title);
+        return request;
+    }
+
+    @Test
+    public void equivalentInputsShareKey() {
+        PredictionRequest a = job("Engineer");
+        PredictionRequest b = job("Engineer");
+        b.setModelName("Random_Forest");
+        b.setDescription("");
+        b.setTelecommuting(0);
+        b.setIndustry("Unknown");
+        assertEquals(PredictionCache.contentHash(a), PredictionCache.contentHash(b));
+
+        // 空白会影响长度特征，不能归一化掉
+        assertNotEquals(PredictionCache.contentHash(a), PredictionCache.contentHash(job("Engineer ")));
+        // 字段边界
+        PredictionRequest c = job("ab");
+        c.setLocation("c");
+        PredictionRequest d = job("a");
+        d.setLocation("bc");
+        assertNotEquals(PredictionCache.contentHash(c), PredictionCache.contentHash(d));
+    }
+
+    @Test
+    public void lruEvictionAndCounters() {
+        PredictionResponse response = ModelService.buildResponse("Random_Forest", 0.8);
+        cache.put("Random_Forest", job("a"), response);
+        cache.put("Random_Forest", job("b"), response);
+        assertNotNull(cache.get("Random_Forest", job("a")));
+        cache.put("Random_Forest", job("c"), response);
+
+        // b 最久未访问，被淘汰
+        assertNull(cache.get("Random_Forest", job("b")));
+        assertNotNull(cache.get("Random_Forest", job("a")));
+        assertNull(cache.get("Logistic_Regression", job("a")));
+
+        CacheStats stats = cache.getStats();
+        assertEquals(2, stats.getSize());
+        assertEquals(2L, stats.getHits());
+        assertEquals(2L, stats.getMisses());
+        assertEquals(1L, stats.getEvictions());
+    }
+
+    @Test
+    public void expiryAndInvalidation() {
+        PredictionResponse response = ModelService.buildResponse("Random_Forest", 0.2);
+        cache.put("Random_Forest", job("a"), response);
+        cache.put("Logistic_Regression", job("a"), response);
+
+        cache.checkModelVersion("Random_Forest", "1");
+        cache.checkModelVersion("Random_Forest", "1");
+        assertNotNull(cache.get("Random_Forest", job("a")));
+        cache.checkModelVersion("Random_Forest", "2");
+        assertNull(cache.get("Random_Forest", job("a")));
+        assertNotNull(cache.get("Logistic_Regression", job("a")));
+
+        ReflectionTestUtils.setField(cache, "ttlMs", -1L);
+        cache.put("Random_Forest", job("b"), response);
+        assertNull(cache.get("Random_Forest", job("b")));
+
+        CacheStats stats = cache.getStats();
+        assertEquals(1L, stats.getInvalidations());
+        assertEquals(1L, stats.getExpirations());
+    }
+}
@@ -0,0 +1,105 @@
+package com.over.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 用一个shell脚本冒充Python worker：存在 ready 标记文件时回一个ready帧并保持运行，否则立即退出（模拟启动失败）
+ */
+@EnabledOnOs({OS.LINUX, OS.MAC})
+public class PythonWorkerPoolTest {
+
+    @TempDir
+    Path dir;
+
+    private PythonWorkerPool pool;
+
+    @AfterEach
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private PythonWorkerPool pool(Path command) {
+        PythonWorkerPool pool = new PythonWorkerPool();
+        ReflectionTestUtils.setField(pool, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(pool, "metricsRegistry", new MetricsRegistry());
+        ReflectionTestUtils.setField(pool, "enabled", true);
+        ReflectionTestUtils.setField(pool, "poolSize", 1);
+        ReflectionTestUtils.setField(pool, "acquireTimeoutMs", 100L);
+        ReflectionTestUtils.setField(pool, "maxQueued", 4);
+        ReflectionTestUtils.setField(pool, "requestTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(pool, "startupTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(pool, "healthCheckIntervalMs", 60000L);
+        ReflectionTestUtils.setField(pool, "restartBackoffMaxMs", 1000L);
+        ReflectionTestUtils.setField(pool, "pythonCommand", command.toString());
+        return pool;
+    }
+
+    private Path fakeWorker(Path readyFlag) throws Exception {
+        // {"type":"ready"} 长度为16，帧头为4字节大端长度
+        Path script = dir.resolve("fake-python.sh");
+        Files.writeString(script, "#!/bin/sh\n"
+                + "[ -f '" + readyFlag + "' ] || exit 1\n"
+                + "printf '\\000\\000\\000\\020{\"type\":\"ready\"}'\n"
+                + "exec cat > /dev/null\n");
+        assertTrue(script.toFile().setExecutable(true));
+        return script;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    public void recoversAfterFailedStartups() throws Exception {
+        Path readyFlag = dir.resolve("ready");
+        pool = pool(fakeWorker(readyFlag));
+        pool.init();
+
+        // 启动失败：没有存活的worker，标记为不可用，预测改走单次进程
+        Thread.sleep(300);
+        assertFalse(pool.isAvailable());
+        assertEquals(0, pool.getLiveCount());
+
+        // 失败原因消失后，按退避间隔重试成功
+        Files.createFile(readyFlag);
+        await(pool::isAvailable);
+        assertTrue(pool.isAvailable());
+        assertEquals(1, pool.getLiveCount());
+    }
+
+    @Test
+    public void recycleReplacesWorkersLoadedWithOldModels() throws Exception {
+        Path readyFlag = dir.resolve("ready");
+        Files.createFile(readyFlag);
+        pool = pool(fakeWorker(readyFlag));
+        pool.init();
+        await(pool::isAvailable);
+        assertEquals(0, pool.getRestartCount());
+
+        // 模型文件更新：空闲worker被结束并由新进程替换
+        pool.recycle();
+        await(() -> pool.getRestartCount() == 1 && pool.isAvailable());
+        assertEquals(1, pool.getRestartCount());
+        assertEquals(1, pool.getLiveCount());
+        assertTrue(pool.isAvailable());
+    }
+}
@@ -0,0 +1,79 @@
+package com.over.service;
+
+import com.over.dto.SearchHit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SearchIndexTest {
+
+    private static SearchIndex sample() {
+        SearchIndex index = new SearchIndex();
+        index.put(1, "Senior Java Developer", "US, NY", "Information Technology", 0,
+                "Build Java services with Spring.", "5 years of Java");
+        index.put(2, "Data Entry Clerk", "US, TX", "Staffing", 1,
+                "Work from home, earn money fast. No experience, Java not required.", "None");
+        index.put(3, "Marketing Manager", "GB, LND", "Marketing", 0,
+                "Lead the marketing team.", "Experience with campaigns");
+        index.put(4, "Python 开发工程师", "CN, BJ", "Information Technology", 0,
+                "负责数据平台开发", "熟悉Python");
+        return index;
+    }
+
+    private static List<Integer> ids(SearchIndex.Result result) {
+        List<Integer> ids = new ArrayList<>();
+        for (SearchHit hit : result.getHits()) {
+            ids.add(hit.getJobId());
+        }
+        return ids;
+    }
+
+    @Test
+    void tokenizesLatinRunsAndSingleHanCharacters() {
+        assertEquals(List.of("c", "developer", "5", "年", "经", "验", "rest", "api"),
+                SearchIndex.tokenize("C++ Developer, 5年经验 (REST-API)"));
+    }
+
+    @Test
+    void ranksTitleMatchesFirstAndAppliesFilters() {
+        SearchIndex index = sample();
+
+        assertEquals(List.of(1, 2), ids(index.search("java", true, null, null, 0, 10)));
+        assertEquals(List.of(2), ids(index.search("java", true, 1, null, 0, 10)));
+        assertEquals(List.of(1), ids(index.search("java", true, null, "Information Technology", 0, 10)));
+
+        // all 要求命中全部关键词，any 命中任一即可
+        assertEquals(List.of(1), ids(index.search("java spring", true, null, null, 0, 10)));
+        assertEquals(3, index.search("java marketing", false, null, null, 0, 10).getTotal());
+        assertEquals(List.of(4), ids(index.search("开发", true, null, null, 0, 10)));
+
+        SearchIndex.Result page = index.search("java marketing", false, null, null, 1, 1);
+        assertEquals(3, page.getTotal());
+        assertEquals(1, page.getHits().size());
+    }
+
+    @Test
+    void updatesAndRemovalsAreReflected() {
+        SearchIndex index = sample();
+        index.put(3, "Java Marketing Engineer", "GB, LND", "Marketing", 0, "", "");
+        assertEquals(List.of(3), ids(index.search("java marketing", true, null, null, 0, 10)));
+        assertTrue(index.search("campaigns", true, null, null, 0, 10).getHits().isEmpty());
+
+        index.remove(1);
+        index.remove(42);
+        assertEquals(3, index.size());
+        assertEquals(List.of(3, 2), ids(index.search("java", true, null, null, 0, 10)));
+    }
+
+    @Test
+    void deepPagesDoNotPreallocateForTheOffset() {
+        // 堆按候选数分配，offset + limit 溢出也不影响总数
+        SearchIndex.Result result = sample().search("java", true, null, null, Integer.MAX_VALUE - 5, 100);
+        assertEquals(2, result.getTotal());
+        assertTrue(result.getHits().isEmpty());
+    }
+}
@@ -0,0 +1,123 @@
+package com.over.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.util.ModelFileUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class TreeEnsembleEngineTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TreeEnsembleEngine newEngine() {
+        TreeEnsembleEngine engine = new TreeEnsembleEngine();
+        ReflectionTestUtils.setField(engine, "objectMapper", objectMapper);
+        return engine;
+    }
+
+    private double[][] readFeatures(JsonNode cases) {
+        double[][] rows = new double[cases.size()][];
+        for (int r = 0; r < rows.length; r++) {
+            JsonNode features = cases.get(r).get("features");
+            rows[r] = new double[features.size()];
+            for (int i = 0; i < rows[r].length; i++) {
+                rows[r][i] = features.get(i).asDouble();
+            }
+        }
+        return rows;
+    }
+
+    private void assertParity(TreeEnsembleEngine engine, String modelName, File parityFile) throws Exception {
+        JsonNode cases = objectMapper.readTree(parityFile).get("cases");
+        double[][] rows = readFeatures(cases);
+        assertTrue(rows.length > 0);
+        for (int r = 0; r < rows.length; r++) {
+            double probability = engine.predictProbability(modelName, rows[r]);
+            double expected = cases.get(r).get("probability").asDouble();
+            // 树的遍历路径完全一致，差异只可能来自求和顺序和exp实现
+            assertEquals(expected, probability, 1e-12);
+            if (Math.abs(expected - 0.5) > 1e-9) {
+                assertEquals(cases.get(r).get("prediction").asInt(), probability > 0.5 ? 1 : 0);
+            }
+        }
+    }
+
+    /**
+     * 合成树模型，期望值按sklearn的遍历规则（输入先转float32再与阈值比较）生成；
+     * 最后一条用例的特征值0.1落在阈值0.1上，只有按float32比较才会走右子树
+     */
+    @Test
+    public void syntheticEnsembleParity() throws Exception {
+        TreeEnsembleEngine engine = newEngine();
+        engine.load(TreeEnsembleEngine.RANDOM_FOREST, new File("src/test/resources/export/Random_Forest.json"));
+        engine.load(TreeEnsembleEngine.GRADIENT_BOOSTING, new File("src/test/resources/export/Gradient_Boosting.json"));
+        assertTrue(engine.supports(TreeEnsembleEngine.RANDOM_FOREST));
+        assertTrue(engine.supports(TreeEnsembleEngine.GRADIENT_BOOSTING));
+        assertFalse(engine.supports(LogisticRegressionEngine.MODEL_NAME));
+
+        assertParity(engine, TreeEnsembleEngine.RANDOM_FOREST, new File("src/test/resources/export/parity/Random_Forest.json"));
+        assertParity(engine, TreeEnsembleEngine.GRADIENT_BOOSTING, new File("src/test/resources/export/parity/Gradient_Boosting.json"));
+    }
+
+    @Test
+    public void concurrentScoringIsConsistent() throws Exception {
+        TreeEnsembleEngine engine = newEngine();
+        engine.load(TreeEnsembleEngine.RANDOM_FOREST, new File("src/test/resources/export/Random_Forest.json"));
+        double[][] rows = readFeatures(objectMapper.readTree(
+                new File("src/test/resources/export/parity/Random_Forest.json")).get("cases"));
+
+        double[] expected = new double[rows.length];
+        for (int r = 0; r < rows.length; r++) {
+            expected[r] = engine.predictProbability(TreeEnsembleEngine.RANDOM_FOREST, rows[r]);
+        }
+        IntStream.range(0, 10_000).parallel().forEach(i -> {
+            int r = i % rows.length;
+            assertEquals(expected[r], engine.predictProbability(TreeEnsembleEngine.RANDOM_FOREST, rows[r]));
+        });
+    }
+
+    /**
+     * 导出文件被移走后重新加载，只影响对应模型，且不再用旧的树打分
+     */
+    @Test
+    public void reloadDropsTreesWhenExportIsGone() throws Exception {
+        assumeTrue(!ModelFileUtil.exportFile("Random_Forest.json").exists(), "存在真实导出文件，跳过");
+        TreeEnsembleEngine engine = newEngine();
+        engine.load(TreeEnsembleEngine.RANDOM_FOREST, new File("src/test/resources/export/Random_Forest.json"));
+        engine.load(TreeEnsembleEngine.GRADIENT_BOOSTING, new File("src/test/resources/export/Gradient_Boosting.json"));
+
+        engine.reload(LogisticRegressionEngine.MODEL_NAME);
+        assertTrue(engine.supports(TreeEnsembleEngine.RANDOM_FOREST));
+        engine.reload(TreeEnsembleEngine.RANDOM_FOREST);
+        assertFalse(engine.supports(TreeEnsembleEngine.RANDOM_FOREST));
+        assertTrue(engine.supports(TreeEnsembleEngine.GRADIENT_BOOSTING));
+    }
+
+    /**
+     * 真实模型与sklearn输出对比，需要先运行 model/export_models.py
+     */
+    @Test
+    public void exportedModelParity() throws Exception {
+        boolean tested = false;
+        TreeEnsembleEngine engine = newEngine();
+        for (String modelName : new String[]{TreeEnsembleEngine.RANDOM_FOREST, TreeEnsembleEngine.GRADIENT_BOOSTING}) {
+            File exportFile = ModelFileUtil.exportFile(modelName + ".json");
+            File parityFile = ModelFileUtil.exportFile("parity" + File.separator + modelName + ".json");
+            if (exportFile.exists() && parityFile.exists()) {
+                engine.load(modelName, exportFile);
+                assertParity(engine, modelName, parityFile);
+                tested = true;
+            }
+        }
+        assumeTrue(tested, "未导出树模型，跳过");
+    }
+}
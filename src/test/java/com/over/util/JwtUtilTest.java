@@ -0,0 +1,135 @@
+package com.over.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.over.config.JwtAuthenticationFilter;
+import com.over.service.CacheRegistry;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JwtUtilTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hmac-sha256";
+
+    @TempDir
+    Path tempDir;
+
+    private static JwtUtil jwtUtil(String keysFile, long expiration) {
+        CacheRegistry registry = new CacheRegistry();
+        ReflectionTestUtils.setField(registry, "environment", new MockEnvironment());
+        ReflectionTestUtils.setField(registry, "enabled", true);
+
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", expiration);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 60000L);
+        ReflectionTestUtils.setField(jwtUtil, "defaultKeyId", "default");
+        ReflectionTestUtils.setField(jwtUtil, "keysFile", keysFile);
+        ReflectionTestUtils.setField(jwtUtil, "keysCheckIntervalMs", 60000L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheRegistry", registry);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    @Test
+    void verifiesOnceAndServesRepeatsFromCache() {
+        JwtUtil jwtUtil = jwtUtil("", 60000L);
+        String token = jwtUtil.generateToken("admin", "access");
+
+        JwtClaims claims = jwtUtil.verify(token);
+        assertEquals("admin", claims.getUsername());
+        assertEquals("access", claims.getType());
+        assertEquals("default", claims.getKeyId());
+        assertSame(claims, jwtUtil.verify(token));
+        assertEquals("admin", jwtUtil.getUsernameFromToken(token));
+
+        // 篡改签名
+        int index = token.lastIndexOf('.') + 5;
+        String tampered = token.substring(0, index) + (token.charAt(index) == 'A' ? 'B' : 'A') + token.substring(index + 1);
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        JwtUtil jwtUtil = jwtUtil("", -1000L);
+        String token = jwtUtil.generateToken("admin", "access");
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.verify(token));
+        assertEquals(true, jwtUtil.isTokenExpired(token));
+    }
+
+    @Test
+    void rotatesKeysByKidWithoutRestart() throws Exception {
+        Path keys = tempDir.resolve("jwt-keys.properties");
+        Files.writeString(keys, "active=k1\nk1=first-rotation-secret-key-0123456789abcdef\n");
+        JwtUtil jwtUtil = jwtUtil(keys.toString(), 60000L);
+        String first = jwtUtil.generateToken("admin", "access");
+        assertEquals("k1", jwtUtil.verify(first).getKeyId());
+
+        // 切换到新密钥，旧密钥仍保留在文件中
+        Files.writeString(keys, "active=k2\nk1=first-rotation-secret-key-0123456789abcdef\n"
+                + "k2=second-rotation-secret-key-0123456789abcdef\n");
+        jwtUtil.reloadKeys();
+        String second = jwtUtil.generateToken("admin", "access");
+        assertEquals("k2", jwtUtil.verify(second).getKeyId());
+        assertEquals("k1", jwtUtil.verify(first).getKeyId());
+
+        // 移除旧密钥后，其签发的令牌即使验签过也不再有效
+        Files.writeString(keys, "active=k2\nk2=second-rotation-secret-key-0123456789abcdef\n");
+        jwtUtil.reloadKeys();
+        assertThrows(JwtException.class, () -> jwtUtil.verify(first));
+        assertEquals("admin", jwtUtil.verify(second).getUsername());
+    }
+
+    @Test
+    void filterRequiresAccessTokenOutsidePublicPaths() throws Exception {
+        JwtUtil jwtUtil = jwtUtil("", 60000L);
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "publicPaths", new String[]{"/login", "/get-async-routes"});
+
+        MockHttpServletRequest anonymous = new MockHttpServletRequest("GET", "/job-postings");
+        anonymous.setServletPath("/job-postings");
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(anonymous, rejected, new MockFilterChain());
+        assertEquals(401, rejected.getStatus());
+
+        MockHttpServletRequest refresh = new MockHttpServletRequest("GET", "/job-postings");
+        refresh.setServletPath("/job-postings");
+        refresh.addHeader("Authorization", "Bearer " + jwtUtil.generateToken("admin", "refresh"));
+        MockHttpServletResponse wrongType = new MockHttpServletResponse();
+        filter.doFilter(refresh, wrongType, new MockFilterChain());
+        assertEquals(401, wrongType.getStatus());
+
+        MockHttpServletRequest authorized = new MockHttpServletRequest("GET", "/job-postings");
+        authorized.setServletPath("/job-postings");
+        authorized.addHeader("Authorization", "Bearer " + jwtUtil.generateToken("admin", "access"));
+        MockHttpServletResponse accepted = new MockHttpServletResponse();
+        filter.doFilter(authorized, accepted, new MockFilterChain());
+        assertEquals(200, accepted.getStatus());
+        assertEquals("admin", ((JwtClaims) authorized.getAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE)).getUsername());
+
+        MockHttpServletRequest publicPath = new MockHttpServletRequest("GET", "/get-async-routes");
+        publicPath.setServletPath("/get-async-routes");
+        MockHttpServletResponse open = new MockHttpServletResponse();
+        filter.doFilter(publicPath, open, new MockFilterChain());
+        assertEquals(200, open.getStatus());
+        assertNull(publicPath.getAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE));
+    }
+}